@@ -2,6 +2,7 @@ package com.medilabo.gatewayservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Application : <strong>GatewayServiceApplication</strong>.
@@ -26,10 +27,12 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * entièrement gérées via la configuration YAML. Cela simplifie la
  * maintenance et évite l’utilisation des URI virtuels de type
  * {@code lb://} lorsqu’aucun service discovery (Eureka/Consul)
- * n’est disponible.
+ * n’est disponible. Chaque route peut lister plusieurs instances,
+ * réparties et surveillées par le Gateway (voir {@code UpstreamPools}).
  * </p>
  */
 @SpringBootApplication
+@EnableScheduling
 public class GatewayServiceApplication {
 
     /**
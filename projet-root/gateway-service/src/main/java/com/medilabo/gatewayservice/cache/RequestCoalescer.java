@@ -0,0 +1,159 @@
+package com.medilabo.gatewayservice.cache;
+
+import com.medilabo.gatewayservice.jwt.JwtValidator;
+import com.medilabo.gatewayservice.jwt.RequestPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Regroupement des GET identiques envoyés en même temps vers un backend (« single-flight »).
+ * <p>
+ * Le premier GET d’une clé part vers le backend ; les GET identiques qui arrivent pendant
+ * l’appel l’attendent et reçoivent la même réponse. Quand un service entier ouvre le même
+ * patient, le backend ne voit qu’une requête.
+ * </p>
+ * <p>
+ * La clé associe chemin, paramètres, en-têtes de négociation et utilisateur du JWT.
+ * Pour les routes de {@code gateway.coalescing.shareable-routes}, dont la réponse ne dépend
+ * que du rôle, l’utilisateur est remplacé par ses rôles : tous les praticiens partagent l’appel.
+ * Un GET qui attend plus de {@code gateway.coalescing.max-wait-ms} appelle lui-même le backend.
+ * La clé porte aussi la génération de la route dans {@link ResponseCache} : un GET arrivé
+ * après une écriture ne rejoint pas un appel parti avant.
+ * </p>
+ */
+@Component
+public class RequestCoalescer {
+
+    /**
+     * Clé d’un appel partageable.
+     *
+     * @param path        chemin complet de la requête
+     * @param query       paramètres ({@code null} si aucun)
+     * @param negotiation {@code Accept}, {@code Accept-Encoding} et {@code If-None-Match} envoyés au backend
+     * @param audience    utilisateur, ou rôles pour une route partageable
+     * @param generation  génération de la route ({@link ResponseCache#generation})
+     */
+    public record Key(String path, String query, String negotiation, String audience, long generation) {
+    }
+
+    private final boolean enabled;
+    private final Set<String> shareableRoutes;
+    private final long maxWaitMs;
+    private final JwtValidator jwt;
+    private final MeterRegistry registry;
+
+    private final Map<Key, CompletableFuture<ResponseEntity<byte[]>>> inFlight = new ConcurrentHashMap<>();
+
+    public RequestCoalescer(@Value("${gateway.coalescing.enabled:true}") boolean enabled,
+                            @Value("${gateway.coalescing.shareable-routes:}") List<String> shareableRoutes,
+                            @Value("${gateway.coalescing.max-wait-ms:10000}") long maxWaitMs,
+                            JwtValidator jwt, MeterRegistry registry) {
+        this.enabled = enabled;
+        this.shareableRoutes = Set.copyOf(shareableRoutes.stream().map(String::trim).filter(r -> !r.isEmpty()).toList());
+        this.maxWaitMs = maxWaitMs;
+        this.jwt = jwt;
+        this.registry = registry;
+        Gauge.builder("gateway.coalescing.in-flight", inFlight, Map::size).register(registry);
+    }
+
+    /**
+     * @param request  la requête entrante
+     * @param upstream   en-têtes envoyés au backend
+     * @param generation génération de la route relevée avant l’appel ({@link ResponseCache#generation})
+     * @return la clé de regroupement, ou {@code null} si l’appel ne se partage pas
+     * (désactivé, autre méthode que GET, pas de JWT valide)
+     */
+    public Key keyFor(HttpServletRequest request, HttpHeaders upstream, long generation) {
+        if (!enabled || !"GET".equals(request.getMethod())) return null;
+        // no-cache : ne pas rejoindre un appel parti avant une écriture
+        if (ResponseCache.requestsNoCache(request)) return null;
+        RequestPrincipal principal = jwt.principalOf(request);
+        if (principal == null) return null;
+        String route = ResponseCache.routeOf(request.getRequestURI());
+        String audience = route != null && shareableRoutes.contains(route)
+                ? "role:" + principal.roles()
+                : "user:" + principal.subject();
+        String negotiation = upstream.getAccept() + "|" + upstream.get(HttpHeaders.ACCEPT_ENCODING)
+                + "|" + upstream.getIfNoneMatch();
+        return new Key(request.getRequestURI(), request.getQueryString(), negotiation, audience, generation);
+    }
+
+    /**
+     * Exécute l’appel, ou rejoint l’appel identique déjà en cours.
+     * <p>
+     * Une exception du backend ({@code HttpStatusCodeException}, {@code ResourceAccessException}…)
+     * est relancée chez chaque requête en attente, qui la traite comme si elle avait fait l’appel.
+     * </p>
+     *
+     * @param key  clé de regroupement ({@code null} : appel direct)
+     * @param call appel au backend
+     * @return la réponse du backend, partagée en lecture seule entre les requêtes regroupées
+     */
+    public ResponseEntity<byte[]> execute(Key key, Supplier<ResponseEntity<byte[]>> call) {
+        if (key == null) return call.get();
+
+        CompletableFuture<ResponseEntity<byte[]>> mine = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<byte[]>> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            return await(leader, call);
+        }
+        count("leader");
+        try {
+            ResponseEntity<byte[]> response = call.get();
+            mine.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private ResponseEntity<byte[]> await(CompletableFuture<ResponseEntity<byte[]>> leader,
+                                         Supplier<ResponseEntity<byte[]>> call) {
+        try {
+            ResponseEntity<byte[]> response = leader.get(maxWaitMs, TimeUnit.MILLISECONDS);
+            count("joined");
+            return response;
+        } catch (TimeoutException e) {
+            count("timeout");
+            return call.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Attente d'un appel regroupé interrompue", e);
+        } catch (ExecutionException e) {
+            count("joined");
+            if (e.getCause() instanceof RuntimeException r) throw r;
+            if (e.getCause() instanceof Error err) throw err;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void count(String result) {
+        Counter.builder("gateway.coalescing.requests").tag("result", result).register(registry).increment();
+    }
+
+    /**
+     * @return le nombre d’appels en cours (pour les tests)
+     */
+    int inFlight() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,394 @@
+package com.medilabo.gatewayservice.cache;
+
+import com.medilabo.gatewayservice.jwt.JwtValidator;
+import com.medilabo.gatewayservice.jwt.RequestPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cache mémoire des réponses GET des APIs, par utilisateur.
+ * <p>
+ * Désactivé par défaut ({@code gateway.cache.enabled}). Seules les routes listées dans {@code gateway.cache.routes} (premier segment après
+ * {@code /api}, ex. {@code patients}) sont mises en cache, hors flux de changements
+ * ({@code …/changes}), toujours lus au backend. La clé associe route, chemin,
+ * paramètres et utilisateur du JWT : un utilisateur ne reçoit jamais la réponse d’un autre.
+ * Une requête {@code Cache-Control: no-cache} (ou {@code Pragma: no-cache}) n’est pas servie
+ * depuis le cache : elle interroge le backend, dont la réponse remplace l’entrée.
+ * </p>
+ * <p>
+ * La réponse du backend décide de sa mise en cache :
+ * <ul>
+ *   <li>{@code Cache-Control: no-store} : jamais stockée ;</li>
+ *   <li>{@code max-age=N} : fraîche N secondes (plafonné par {@code gateway.cache.max-ttl-seconds}) ;</li>
+ *   <li>{@code no-cache} : stockée mais revalidée à chaque lecture (nécessite un {@code ETag}) ;</li>
+ *   <li>sinon : fraîche {@code gateway.cache.ttl-seconds}.</li>
+ * </ul>
+ * Une entrée expirée qui porte un {@code ETag} est revalidée par {@code If-None-Match} :
+ * un 304 du backend la prolonge sans retransférer le corps.
+ * </p>
+ * <p>
+ * Le cache est borné en octets ({@code gateway.cache.max-bytes}) et évince l’entrée la moins
+ * récemment lue. Une écriture (POST, PUT, PATCH, DELETE) réussie sur un chemin invalide,
+ * pour tous les utilisateurs, ce chemin, ses sous-chemins et la collection parente
+ * (ex. {@code PUT /api/patients/7} : {@code /api/patients/7} et {@code /api/patients?page=…}).
+ * Sur les routes de {@code gateway.cache.invalidate-whole-routes}, dont les vues dérivent
+ * d’une ressource sans la nommer (ex. {@code PUT /api/notes/{id}} et
+ * {@code /api/notes/patient/{pid}}, {@code /api/notes/summary}), toute la route est invalidée.
+ * Les vues d’une autre route (ex. le risque après une note) ne sont pas invalidées : ces
+ * routes-là ne doivent pas figurer dans {@code gateway.cache.routes}.
+ * </p>
+ * <p>
+ * Chaque écriture incrémente aussi la génération de sa route ({@link #generation}). Un GET
+ * relève la génération avant d’appeler le backend ; si une écriture a eu lieu entre-temps,
+ * sa réponse, peut-être antérieure à l’écriture, est servie mais pas stockée.
+ * </p>
+ */
+@Component
+public class ResponseCache {
+
+    /** En-tête de diagnostic ajouté aux réponses d’une route en cache : HIT, MISS ou REVALIDATED */
+    public static final String STATUS_HEADER = "X-Cache";
+
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    /** Suffixe des flux de changements, jamais mis en cache */
+    private static final String CHANGES = "/changes";
+
+    /**
+     * Clé d’une réponse.
+     *
+     * @param route     route (premier segment après {@code /api})
+     * @param path      chemin complet de la requête
+     * @param query     paramètres ({@code null} si aucun)
+     * @param principal utilisateur du JWT
+     */
+    public record Key(String route, String path, String query, String principal) {
+    }
+
+    /**
+     * Réponse en cache.
+     *
+     * @param headers   en-têtes renvoyés au navigateur
+     * @param body      corps
+     * @param etag      {@code ETag} du backend ({@code null} si aucun)
+     * @param storedAt  date de stockage ou de dernière revalidation (ms)
+     * @param expiresAt fin de fraîcheur (ms)
+     */
+    public record Entry(HttpHeaders headers, byte[] body, String etag, long storedAt, long expiresAt) {
+
+        boolean isFresh(long now) {
+            return now < expiresAt;
+        }
+
+        long size() {
+            return body.length + 64L * headers.size() + 256;
+        }
+    }
+
+    private final boolean enabled;
+    private final Set<String> routes;
+    private final Set<String> wholeRouteInvalidation;
+    private final long ttlMs;
+    private final long maxTtlMs;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final JwtValidator jwt;
+    private final Clock clock;
+    private final MeterRegistry registry;
+
+    /** ordre d'accès : la première entrée est la moins récemment lue */
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    /** route → nombre d’écritures vues */
+    private final Map<String, Long> generations = new HashMap<>();
+    private long bytes;
+
+    @Autowired
+    public ResponseCache(@Value("${gateway.cache.enabled:false}") boolean enabled,
+                         @Value("${gateway.cache.routes:}") List<String> routes,
+                         @Value("${gateway.cache.invalidate-whole-routes:notes}") List<String> wholeRouteInvalidation,
+                         @Value("${gateway.cache.ttl-seconds:5}") long ttlSeconds,
+                         @Value("${gateway.cache.max-ttl-seconds:60}") long maxTtlSeconds,
+                         @Value("${gateway.cache.max-bytes:16777216}") long maxBytes,
+                         @Value("${gateway.cache.max-entry-bytes:1048576}") long maxEntryBytes,
+                         JwtValidator jwt, MeterRegistry registry) {
+        this(enabled, routes, wholeRouteInvalidation, ttlSeconds, maxTtlSeconds, maxBytes, maxEntryBytes,
+                jwt, registry, Clock.systemUTC());
+    }
+
+    ResponseCache(boolean enabled, List<String> routes, List<String> wholeRouteInvalidation, long ttlSeconds,
+                  long maxTtlSeconds, long maxBytes, long maxEntryBytes, JwtValidator jwt, MeterRegistry registry,
+                  Clock clock) {
+        this.enabled = enabled;
+        this.routes = trimmed(routes);
+        this.wholeRouteInvalidation = trimmed(wholeRouteInvalidation);
+        this.ttlMs = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.maxTtlMs = TimeUnit.SECONDS.toMillis(maxTtlSeconds);
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+        this.jwt = jwt;
+        this.registry = registry;
+        this.clock = clock;
+        Gauge.builder("gateway.cache.bytes", this, ResponseCache::bytes).register(registry);
+        Gauge.builder("gateway.cache.entries", this, ResponseCache::size).register(registry);
+    }
+
+    /**
+     * @param request la requête entrante
+     * @return la clé de la requête, ou {@code null} si elle ne passe pas par le cache
+     * (cache désactivé, autre méthode que GET, route non configurée, flux de changements,
+     * {@code Range}, {@code no-store}, pas de JWT valide)
+     */
+    public Key keyFor(HttpServletRequest request) {
+        if (!enabled || !"GET".equals(request.getMethod()) || request.getHeader(HttpHeaders.RANGE) != null) return null;
+        String route = routeOf(request.getRequestURI());
+        if (route == null || !routes.contains(route)) return null;
+        if (request.getRequestURI().endsWith(CHANGES) || request.getRequestURI().endsWith(CHANGES + "/")) return null;
+        String cacheControl = request.getHeader(HttpHeaders.CACHE_CONTROL);
+        if (cacheControl != null && cacheControl.toLowerCase(Locale.ROOT).contains("no-store")) return null;
+        RequestPrincipal principal = jwt.principalOf(request);
+        if (principal == null) return null;
+        return new Key(route, request.getRequestURI(), request.getQueryString(), principal.subject());
+    }
+
+    /**
+     * @param request la requête entrante
+     * @return {@code true} si elle exige une réponse du backend
+     *         ({@code Cache-Control: no-cache} ou {@code Pragma: no-cache})
+     */
+    public static boolean requestsNoCache(HttpServletRequest request) {
+        String cacheControl = request.getHeader(HttpHeaders.CACHE_CONTROL);
+        String pragma = request.getHeader(HttpHeaders.PRAGMA);
+        return (cacheControl != null && cacheControl.toLowerCase(Locale.ROOT).contains("no-cache"))
+                || (pragma != null && pragma.toLowerCase(Locale.ROOT).contains("no-cache"));
+    }
+
+    /**
+     * À relever avant l’appel au backend, puis à passer à {@link #store} ou {@link #revalidated}.
+     *
+     * @param path chemin de la requête
+     * @return la génération de sa route : le nombre d’écritures invalidantes vues sur cette route
+     */
+    public synchronized long generation(String path) {
+        String route = routeOf(path);
+        return route == null ? 0 : generations.getOrDefault(route, 0L);
+    }
+
+    /**
+     * @param key clé de la requête
+     * @return l’entrée en cache (fraîche ou à revalider), ou {@code null}
+     */
+    public synchronized Entry lookup(Key key) {
+        return entries.get(key);
+    }
+
+    /**
+     * @param entry une entrée
+     * @return {@code true} si elle peut être servie sans interroger le backend
+     */
+    public boolean isFresh(Entry entry) {
+        return entry.isFresh(clock.millis());
+    }
+
+    /**
+     * Stocke la réponse du backend si elle peut l’être (200, pas de {@code no-store},
+     * pas de cookie ni d’encodage, taille ≤ {@code gateway.cache.max-entry-bytes}) et
+     * qu’aucune écriture n’a eu lieu sur la route depuis l’envoi de la requête.
+     *
+     * @param key        clé de la requête
+     * @param generation génération relevée avant l’appel au backend ({@link #generation})
+     * @param response   réponse du backend, en-têtes déjà filtrés pour le navigateur
+     * @return l’entrée stockée, ou {@code null}
+     */
+    public Entry store(Key key, long generation, ResponseEntity<byte[]> response) {
+        HttpHeaders headers = response.getHeaders();
+        byte[] body = response.getBody() == null ? new byte[0] : response.getBody();
+        if (response.getStatusCode() != HttpStatus.OK
+                || headers.containsKey(HttpHeaders.SET_COOKIE)
+                || headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+                || headers.getVary().stream().anyMatch(v -> !v.equalsIgnoreCase(HttpHeaders.ACCEPT_ENCODING))) {
+            return null;
+        }
+        Long ttl = ttlOf(headers.getCacheControl());
+        String etag = headers.getETag();
+        if (ttl == null || (ttl == 0 && etag == null)) return null;
+
+        long now = clock.millis();
+        HttpHeaders kept = new HttpHeaders();
+        kept.putAll(headers);
+        Entry entry = new Entry(HttpHeaders.readOnlyHttpHeaders(kept), body, etag, now, now + ttl);
+        if (entry.size() > maxEntryBytes) return null;
+        return put(key, generation, entry) ? entry : null;
+    }
+
+    /**
+     * Prolonge une entrée après un 304 du backend (sans la remettre en cache si une écriture
+     * a eu lieu sur la route depuis l’envoi de la requête).
+     *
+     * @param key         clé de la requête
+     * @param generation  génération relevée avant l’appel au backend ({@link #generation})
+     * @param stale       entrée revalidée
+     * @param notModified en-têtes du 304
+     * @return l’entrée prolongée, à servir pour cette requête
+     */
+    public Entry revalidated(Key key, long generation, Entry stale, HttpHeaders notModified) {
+        Long ttl = ttlOf(notModified.getCacheControl() != null ? notModified.getCacheControl()
+                : stale.headers().getCacheControl());
+        long now = clock.millis();
+        Entry fresh = new Entry(stale.headers(), stale.body(), stale.etag(), now, now + (ttl == null ? 0 : ttl));
+        put(key, generation, fresh);
+        return fresh;
+    }
+
+    /**
+     * Invalide, pour tous les utilisateurs, les réponses touchées par une écriture sur un chemin.
+     *
+     * @param path chemin de l’écriture (ex. {@code /api/patients/7})
+     */
+    public synchronized void invalidate(String path) {
+        String route = routeOf(path);
+        if (route == null) return;
+        // les GET partis avant cette écriture ne stockeront pas leur réponse
+        generations.merge(route, 1L, Long::sum);
+        if (!routes.contains(route)) return;
+        boolean wholeRoute = wholeRouteInvalidation.contains(route);
+        String normalized = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+        String parent = normalized.substring(0, normalized.lastIndexOf('/'));
+        int removed = 0;
+        for (Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Key, Entry> e = it.next();
+            String p = e.getKey().path();
+            if (wholeRoute ? e.getKey().route().equals(route)
+                    : p.equals(normalized) || p.startsWith(normalized + "/") || p.equals(parent)) {
+                bytes -= e.getValue().size();
+                it.remove();
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            Counter.builder("gateway.cache.evictions").tag("cause", "write").register(registry).increment(removed);
+        }
+    }
+
+    /**
+     * Réponse au navigateur depuis le cache : 304 si son {@code If-None-Match} correspond,
+     * sinon 200 avec le corps en cache.
+     *
+     * @param entry   entrée servie
+     * @param request requête du navigateur
+     * @param status  {@code HIT} ou {@code REVALIDATED}
+     * @return la réponse
+     */
+    public ResponseEntity<byte[]> serve(Entry entry, HttpServletRequest request, String status) {
+        count(status);
+        HttpHeaders out = new HttpHeaders();
+        out.putAll(entry.headers());
+        out.set(STATUS_HEADER, status);
+        out.set(HttpHeaders.AGE, String.valueOf(Math.max(0, (clock.millis() - entry.storedAt()) / 1000)));
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (entry.etag() != null && ifNoneMatch != null && ifNoneMatch.contains(entry.etag())) {
+            out.remove(HttpHeaders.CONTENT_LENGTH);
+            return new ResponseEntity<>(out, HttpStatus.NOT_MODIFIED);
+        }
+        return new ResponseEntity<>(entry.body(), out, HttpStatus.OK);
+    }
+
+    /**
+     * Marque une réponse servie par le backend pour une route en cache.
+     *
+     * @param response réponse du backend
+     * @return la même réponse, avec {@code X-Cache: MISS}
+     */
+    public ResponseEntity<byte[]> miss(ResponseEntity<byte[]> response) {
+        count("MISS");
+        HttpHeaders out = new HttpHeaders();
+        out.putAll(response.getHeaders());
+        out.set(STATUS_HEADER, "MISS");
+        return new ResponseEntity<>(response.getBody(), out, response.getStatusCode());
+    }
+
+    synchronized long bytes() {
+        return bytes;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return {@code false} si une écriture a eu lieu sur la route depuis {@code generation} (rien n’est stocké)
+     */
+    private synchronized boolean put(Key key, long generation, Entry entry) {
+        if (generations.getOrDefault(key.route(), 0L) != generation) {
+            Counter.builder("gateway.cache.stores").tag("result", "superseded").register(registry).increment();
+            return false;
+        }
+        Entry previous = entries.put(key, entry);
+        if (previous != null) bytes -= previous.size();
+        bytes += entry.size();
+        int evicted = 0;
+        for (Iterator<Entry> it = entries.values().iterator(); bytes > maxBytes && it.hasNext(); ) {
+            Entry eldest = it.next();
+            if (eldest == entry) continue;
+            bytes -= eldest.size();
+            it.remove();
+            evicted++;
+        }
+        if (evicted > 0) {
+            Counter.builder("gateway.cache.evictions").tag("cause", "size").register(registry).increment(evicted);
+        }
+        return true;
+    }
+
+    /**
+     * @return la durée de fraîcheur en ms (0 : à revalider), ou {@code null} si la réponse ne doit pas être stockée
+     */
+    private Long ttlOf(String cacheControl) {
+        if (cacheControl == null || cacheControl.isBlank()) return ttlMs;
+        String cc = cacheControl.toLowerCase(Locale.ROOT);
+        if (cc.contains("no-store")) return null;
+        if (cc.contains("no-cache")) return 0L;
+        Matcher m = MAX_AGE.matcher(cc);
+        if (m.find()) return Math.min(TimeUnit.SECONDS.toMillis(Long.parseLong(m.group(1))), maxTtlMs);
+        return ttlMs;
+    }
+
+    private static Set<String> trimmed(List<String> values) {
+        return Set.copyOf(values.stream().map(String::trim).filter(r -> !r.isEmpty()).toList());
+    }
+
+    private void count(String status) {
+        Counter.builder("gateway.cache.requests").tag("result", status).register(registry).increment();
+    }
+
+    /**
+     * @param path chemin de la requête
+     * @return le premier segment après {@code /api}, ou {@code null}
+     */
+    static String routeOf(String path) {
+        if (path == null || !path.startsWith("/api/")) return null;
+        String rest = path.substring("/api/".length());
+        int slash = rest.indexOf('/');
+        String route = slash < 0 ? rest : rest.substring(0, slash);
+        return route.isEmpty() ? null : route;
+    }
+}
@@ -1,11 +1,12 @@
 package com.medilabo.gatewayservice.config;
 
-import java.nio.charset.StandardCharsets;
 import java.util.List;
-import javax.crypto.SecretKey;
-import javax.crypto.spec.SecretKeySpec;
 
-import org.springframework.beans.factory.annotation.Value;
+import com.medilabo.gatewayservice.jwt.JwtKeySet;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -55,11 +56,20 @@ public class SecurityConfig {
         return http.build();
     }
 
-    /** Bean utilisé uniquement si tu veux décoder un JWT manuellement (non utilisé par Spring Security ici) */
+    /**
+     * Bean utilisé uniquement si tu veux décoder un JWT manuellement (non utilisé par Spring Security ici).
+     * La clé est choisie par le header kid dans le {@link JwtKeySet}.
+     */
     @Bean
-    public JwtDecoder jwtDecoder(@Value("${security.jwt.secret}") String secret) {
-        SecretKey key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-        return NimbusJwtDecoder.withSecretKey(key).build();
+    public JwtDecoder jwtDecoder(JwtKeySet keySet) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector((header, context) ->
+                JWSAlgorithm.Family.HMAC_SHA.contains(header.getAlgorithm())
+                        ? keySet.verificationKeys(header.getKeyID())
+                        : List.of());
+        // expiration vérifiée par les validateurs Spring du décodeur
+        processor.setJWTClaimsSetVerifier((claims, context) -> { });
+        return new NimbusJwtDecoder(processor);
     }
 
     /** CORS permissif pour dev */
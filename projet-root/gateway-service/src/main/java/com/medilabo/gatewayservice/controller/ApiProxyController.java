@@ -1,10 +1,15 @@
 package com.medilabo.gatewayservice.controller;
 
+import com.medilabo.gatewayservice.cache.RequestCoalescer;
+import com.medilabo.gatewayservice.cache.ResponseCache;
+import com.medilabo.gatewayservice.upstream.UpstreamPool;
+import com.medilabo.gatewayservice.upstream.UpstreamPools;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.client.HttpStatusCodeException;
@@ -21,30 +26,36 @@ public class ApiProxyController {
 
     private static final Logger log = LoggerFactory.getLogger(ApiProxyController.class);
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
+
+    private final ResponseCache cache;
+    private final RequestCoalescer coalescer;
 
     /**
-     * Base URL du patient-service vue par le Gateway :
-     * - docker : http://patient-service:8080/api
-     * - local  : http://localhost:8082/api (par exemple)
+     * Instances des backends, par route :
+     * - /api/patients/** → patients.backend.base-url (ex. http://patient-service:8081/api)
+     * - /api/notes/**    → notes.backend.base-url
+     * - /api/risk/**     → risk.backend.base-url
      *
-     * IMPORTANT :
-     * Ton PatientController est annoté avec @RequestMapping("/api/patients"),
-     * donc le backend expose /api/patients.
-     * On inclut donc déjà "/api" dans la base-url pour que :
+     * Les base-url incluent déjà "/api" :
      *
-     *   /api/patients (gateway) → http://patient-service:8080/api/patients
+     *   /api/patients (gateway) → http://patient-service:8081/api/patients
      */
-    @Value("${patients.backend.base-url:http://patient-service:8080/api}")
-    private String patientBackendBaseUrl;
+    private final UpstreamPools upstreams;
+
+    public ApiProxyController(ResponseCache cache, RequestCoalescer coalescer, UpstreamPools upstreams,
+                              @Value("${gateway.upstreams.connect-timeout-ms:2000}") int connectTimeoutMs) {
+        this.cache = cache;
+        this.coalescer = coalescer;
+        this.upstreams = upstreams;
+        // une instance éteinte est détectée vite, et l'appel idempotent retenté ailleurs
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(connectTimeoutMs);
+        this.restTemplate = new RestTemplate(factory);
+    }
 
     @RequestMapping("/api/**")
     public ResponseEntity<byte[]> proxyApi(HttpServletRequest request) throws IOException {
-        // Normalise la base (sans slash final)
-        String base = patientBackendBaseUrl.endsWith("/") ?
-                patientBackendBaseUrl.substring(0, patientBackendBaseUrl.length() - 1) :
-                patientBackendBaseUrl;
-
         // Exemple :
         // - incomingPath = /api/patients
         // - pathAfterApi = /patients
@@ -52,11 +63,13 @@ public class ApiProxyController {
         String query = request.getQueryString();
         String pathAfterApi = incomingPath.substring("/api".length());
         String normalized = pathAfterApi.isEmpty() ? "/" : pathAfterApi;
+        String pathAndQuery = normalized + (query != null ? "?" + query : "");
 
-        // Avec base = http://patient-service:8080/api
+        // Avec une instance http://patient-service:8081/api
         // et normalized = /patients
-        // => target = http://patient-service:8080/api/patients
-        String target = base + normalized + (query != null ? "?" + query : "");
+        // => http://patient-service:8081/api/patients
+        UpstreamPool pool = upstreams.forPath(incomingPath);
+        String target = pool.name() + ":" + pathAndQuery;
 
         // Méthode HTTP
         HttpMethod method;
@@ -72,6 +85,8 @@ public class ApiProxyController {
         copyHeaderIfPresent(request, headers, HttpHeaders.COOKIE);
         copyHeaderIfPresent(request, headers, HttpHeaders.ACCEPT);
         copyHeaderIfPresent(request, headers, HttpHeaders.ACCEPT_LANGUAGE);
+        // un backend qui compresse lui-même renvoie un corps transmis tel quel
+        copyHeaderIfPresent(request, headers, HttpHeaders.ACCEPT_ENCODING);
         copyHeaderIfPresent(request, headers, HttpHeaders.USER_AGENT);
         copyHeaderIfPresent(request, headers, HttpHeaders.CONTENT_TYPE);
 
@@ -81,25 +96,56 @@ public class ApiProxyController {
             body = request.getInputStream().readAllBytes();
         }
 
+        // GET d'une route en cache : réponse fraîche servie sans appel, sinon revalidation par ETag ;
+        // avec Cache-Control: no-cache, le backend répond et l'entrée est remplacée.
+        // La génération, relevée avant l'appel, écarte une réponse croisée avec une écriture
+        long generation = cache.generation(incomingPath);
+        ResponseCache.Key cacheKey = cache.keyFor(request);
+        ResponseCache.Entry cached = cacheKey != null && !ResponseCache.requestsNoCache(request)
+                ? cache.lookup(cacheKey) : null;
+        if (cached != null && cache.isFresh(cached)) {
+            return cache.serve(cached, request, "HIT");
+        }
+        if (cached != null && cached.etag() != null) {
+            headers.setIfNoneMatch(cached.etag());
+        }
+
         HttpEntity<byte[]> entity = new HttpEntity<>(body, headers);
+        // GET identiques simultanés : un seul appel au backend, réponse partagée
+        RequestCoalescer.Key flightKey = coalescer.keyFor(request, headers, generation);
+        HttpMethod upstreamMethod = method;
 
         try {
             log.debug("[ApiProxy] {} -> {}", method, target);
-            ResponseEntity<byte[]> resp = restTemplate.exchange(
-                    URI.create(target),
-                    method,
-                    entity,
-                    byte[].class
-            );
-
-            HttpHeaders out = new HttpHeaders();
-            out.putAll(resp.getHeaders());
+            boolean idempotent = upstreamMethod == HttpMethod.GET || upstreamMethod == HttpMethod.HEAD;
+            ResponseEntity<byte[]> resp = coalescer.execute(flightKey, () -> pool.execute(idempotent,
+                    base -> restTemplate.exchange(
+                            URI.create(base + pathAndQuery),
+                            upstreamMethod,
+                            entity,
+                            byte[].class
+                    )));
+
+            if (cached != null && resp.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                return cache.serve(cache.revalidated(cacheKey, generation, cached, resp.getHeaders()), request, "REVALIDATED");
+            }
+
+            HttpHeaders out = ProxyHeaders.forClient(resp.getHeaders());
             out.setAccessControlExposeHeaders(Collections.singletonList("Location"));
+            ResponseEntity<byte[]> response = new ResponseEntity<>(resp.getBody(), out, resp.getStatusCode());
 
-            return new ResponseEntity<>(resp.getBody(), out, resp.getStatusCode());
+            if (cacheKey != null) {
+                cache.store(cacheKey, generation, response);
+                return cache.miss(response);
+            }
+            if (method != HttpMethod.GET && method != HttpMethod.HEAD && method != HttpMethod.OPTIONS
+                    && resp.getStatusCode().is2xxSuccessful()) {
+                cache.invalidate(incomingPath);
+            }
+            return response;
         } catch (HttpStatusCodeException e) {
             log.warn("[ApiProxy] target={} -> {} {}", target, e.getStatusCode(), safe(e.getResponseBodyAsString()));
-            HttpHeaders out = e.getResponseHeaders() != null ? e.getResponseHeaders() : new HttpHeaders();
+            HttpHeaders out = ProxyHeaders.forClient(e.getResponseHeaders());
             return ResponseEntity.status(e.getStatusCode())
                     .headers(out)
                     .body(e.getResponseBodyAsByteArray());
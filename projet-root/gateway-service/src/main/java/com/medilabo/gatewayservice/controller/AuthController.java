@@ -1,9 +1,16 @@
 package com.medilabo.gatewayservice.controller;
 
 import com.medilabo.gatewayservice.jwt.JwtIssuer;
+import com.medilabo.gatewayservice.jwt.JwtValidator;
 import com.medilabo.gatewayservice.model.AppUser;
 import com.medilabo.gatewayservice.model.UserRole;
+import com.medilabo.gatewayservice.revocation.TokenRevocationList;
+import com.medilabo.gatewayservice.service.LoginBusyException;
 import com.medilabo.gatewayservice.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -24,6 +31,8 @@ public class AuthController {
     private final UserService userService;
     private final JwtIssuer jwtIssuer;
     private final PasswordEncoder passwordEncoder;
+    private final JwtValidator jwtValidator;
+    private final TokenRevocationList revocations;
 
     private final String cookieName;
     private final int ttlSeconds;
@@ -35,6 +44,8 @@ public class AuthController {
             UserService userService,
             JwtIssuer jwtIssuer,
             PasswordEncoder passwordEncoder,
+            JwtValidator jwtValidator,
+            TokenRevocationList revocations,
             @Value("${security.jwt.cookie.name:JWT_TOKEN}") String cookieName,
             @Value("${security.jwt.ttl-seconds:43200}") int ttlSeconds,
             @Value("${security.jwt.cookie.samesite:None}") String sameSite,
@@ -43,6 +54,8 @@ public class AuthController {
         this.userService = userService;
         this.jwtIssuer = jwtIssuer;
         this.passwordEncoder = passwordEncoder;
+        this.jwtValidator = jwtValidator;
+        this.revocations = revocations;
         this.cookieName = cookieName;
         this.ttlSeconds = ttlSeconds;
         this.sameSite = sameSite;
@@ -63,12 +76,18 @@ public class AuthController {
                         @RequestParam(required = false) String redirect,
                         HttpServletResponse response) {
 
-        if (!userService.validateCredentials(username, password)) {
+        Optional<AppUser> authenticated;
+        try {
+            authenticated = userService.authenticate(username, password);
+        } catch (LoginBusyException e) {
+            // vérifications BCrypt saturées : refus immédiat, le navigateur peut retenter
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return "redirect:/auth/login?busy";
+        }
+        if (authenticated.isEmpty()) {
             return "redirect:/auth/login?error";
         }
-
-        AppUser user = userService.findByUsername(username)
-                .orElseThrow(() -> new IllegalStateException("Utilisateur introuvable après validation"));
+        AppUser user = authenticated.get();
 
         String token = jwtIssuer.issue(user.getUsername(), user.getRole().name());
         addJwtCookie(response, token);
@@ -115,8 +134,10 @@ public class AuthController {
     /* ========== LOGOUT ========== */
 
     @PostMapping("/logout")
-    public String logout(HttpServletResponse response) {
+    public String logout(HttpServletRequest request, HttpServletResponse response) {
+        // cookie effacé d’abord : la déconnexion du navigateur ne dépend pas de la base
         expireJwtCookie(response);
+        revokeJwtCookie(request);
         return "redirect:/auth/login?logout";
     }
 
@@ -133,6 +154,20 @@ public class AuthController {
         response.addHeader(HttpHeaders.SET_COOKIE, rc.toString());
     }
 
+    /** Le jeton de la session ne sera plus accepté, même s’il a été copié ailleurs */
+    private void revokeJwtCookie(HttpServletRequest request) {
+        if (request.getCookies() == null) return;
+        for (Cookie cookie : request.getCookies()) {
+            if (!cookieName.equals(cookie.getName()) || cookie.getValue().isBlank()) continue;
+            try {
+                Claims claims = jwtValidator.validate(cookie.getValue());
+                revocations.revoke(claims.getId(), claims.getExpiration().toInstant());
+            } catch (JwtException | IllegalArgumentException e) {
+                // jeton déjà expiré ou invalide : rien à révoquer
+            }
+        }
+    }
+
     private void expireJwtCookie(HttpServletResponse response) {
         ResponseCookie rc = ResponseCookie.from(cookieName, "")
                 .httpOnly(true)
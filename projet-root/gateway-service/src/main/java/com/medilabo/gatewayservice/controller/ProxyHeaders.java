@@ -0,0 +1,36 @@
+package com.medilabo.gatewayservice.controller;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+
+/**
+ * En-têtes de réponse des backends renvoyés au navigateur par les proxies.
+ *
+ * Les en-têtes "hop-by-hop" (RFC 9110 §7.6.1) ne concernent que la connexion
+ * backend → Gateway : les recopier (ex. Transfer-Encoding: chunked sur un corps
+ * renvoyé d'un bloc) corrompt la réponse. Content-Encoding est conservé : un corps
+ * déjà compressé par le backend repart tel quel (voir CompressionFilter).
+ */
+final class ProxyHeaders {
+
+    private static final List<String> HOP_BY_HOP = List.of(
+            HttpHeaders.CONNECTION, "Keep-Alive", HttpHeaders.PROXY_AUTHENTICATE,
+            HttpHeaders.PROXY_AUTHORIZATION, HttpHeaders.TE, HttpHeaders.TRAILER,
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.UPGRADE);
+
+    private ProxyHeaders() {}
+
+    /**
+     * @param upstream en-têtes de la réponse du backend ({@code null} accepté)
+     * @return les en-têtes à renvoyer au navigateur
+     */
+    static HttpHeaders forClient(HttpHeaders upstream) {
+        HttpHeaders out = new HttpHeaders();
+        if (upstream != null) {
+            out.putAll(upstream);
+            HOP_BY_HOP.forEach(out::remove);
+        }
+        return out;
+    }
+}
@@ -5,14 +5,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.Enumeration;
 
@@ -27,18 +34,13 @@ public class UiProxyController {
     @Value("${ui.base-url:http://patient-ui-service:8080}")
     private String uiBaseUrl;
 
+    /** Silence maximal d’un flux SSE de l’UI (elle envoie un heartbeat toutes les 20 s) */
+    @Value("${ui.live.read-timeout-ms:60000}")
+    private int liveReadTimeoutMs;
+
     @RequestMapping("/ui/**")
     public ResponseEntity<byte[]> proxyUi(HttpServletRequest request) throws IOException {
-        // Normalise la base (sans slash final)
-        String base = uiBaseUrl.endsWith("/") ? uiBaseUrl.substring(0, uiBaseUrl.length() - 1) : uiBaseUrl;
-
-        // Construit le chemin cible
-        String incomingPath = request.getRequestURI();                // ex: /ui/patients
-        String query        = request.getQueryString();               // ex: page=1
-        String pathAfterUi  = incomingPath.substring("/ui".length()); // ex: /patients ou "" si /ui
-        String normalized   = pathAfterUi.isEmpty() ? "/" : pathAfterUi;
-
-        String target = base + normalized + (query != null ? "?" + query : "");
+        String target = target(request);
 
         // Méthode HTTP (fallback GET)
         HttpMethod method;
@@ -54,6 +56,8 @@ public class UiProxyController {
         copyHeaderIfPresent(request, headers, HttpHeaders.COOKIE);
         copyHeaderIfPresent(request, headers, HttpHeaders.ACCEPT);
         copyHeaderIfPresent(request, headers, HttpHeaders.ACCEPT_LANGUAGE);
+        // un backend qui compresse lui-même renvoie un corps transmis tel quel
+        copyHeaderIfPresent(request, headers, HttpHeaders.ACCEPT_ENCODING);
         copyHeaderIfPresent(request, headers, HttpHeaders.USER_AGENT);
         copyHeaderIfPresent(request, headers, HttpHeaders.CONTENT_TYPE);
 
@@ -70,15 +74,14 @@ public class UiProxyController {
             ResponseEntity<byte[]> resp = restTemplate.exchange(URI.create(target), method, entity, byte[].class);
 
             // Renvoie tel quel (status + headers + body) + expose Location au navigateur
-            HttpHeaders out = new HttpHeaders();
-            out.putAll(resp.getHeaders());
+            HttpHeaders out = ProxyHeaders.forClient(resp.getHeaders());
             out.setAccessControlExposeHeaders(Collections.singletonList("Location"));
 
             return new ResponseEntity<>(resp.getBody(), out, resp.getStatusCode());
         } catch (HttpStatusCodeException e) {
             // L’UI a répondu avec un statut d’erreur : on propage tel quel (très utile pour diagnostiquer)
             log.warn("[UiProxy] target={} -> {} {}", target, e.getStatusCode(), safe(e.getResponseBodyAsString()));
-            HttpHeaders out = e.getResponseHeaders() != null ? e.getResponseHeaders() : new HttpHeaders();
+            HttpHeaders out = ProxyHeaders.forClient(e.getResponseHeaders());
             return ResponseEntity.status(e.getStatusCode())
                     .headers(out)
                     .body(e.getResponseBodyAsByteArray());
@@ -95,6 +98,67 @@ public class UiProxyController {
         }
     }
 
+    /**
+     * Flux Server-Sent Events de l’UI (/ui/live/**) : relayés octet par octet, sans bufferiser.
+     * Chaque flux occupe un thread bloqué en lecture le temps de la connexion : avec
+     * spring.threads.virtual.enabled, ce sont des threads virtuels, et un flux inactif ne coûte presque rien.
+     */
+    @GetMapping("/ui/live/**")
+    public ResponseEntity<StreamingResponseBody> proxyUiStream(HttpServletRequest request) {
+        String target = target(request);
+
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(2000);
+        factory.setReadTimeout(liveReadTimeoutMs);
+        try {
+            log.debug("[UiProxy] stream -> {}", target);
+            ClientHttpRequest upstream = factory.createRequest(URI.create(target), HttpMethod.GET);
+            copyHeaderIfPresent(request, upstream.getHeaders(), HttpHeaders.AUTHORIZATION);
+            copyHeaderIfPresent(request, upstream.getHeaders(), HttpHeaders.COOKIE);
+            copyHeaderIfPresent(request, upstream.getHeaders(), HttpHeaders.USER_AGENT);
+            copyHeaderIfPresent(request, upstream.getHeaders(), "Last-Event-ID");
+            upstream.getHeaders().setAccept(Collections.singletonList(MediaType.TEXT_EVENT_STREAM));
+            ClientHttpResponse resp = upstream.execute();
+
+            // le conteneur gère lui-même le découpage de la réponse
+            HttpHeaders out = ProxyHeaders.forClient(resp.getHeaders());
+            out.remove(HttpHeaders.CONTENT_LENGTH);
+
+            StreamingResponseBody body = os -> {
+                try (resp; InputStream in = resp.getBody()) {
+                    byte[] buf = new byte[1024];
+                    int n;
+                    while ((n = in.read(buf)) != -1) {
+                        os.write(buf, 0, n);
+                        os.flush();
+                    }
+                } catch (IOException e) {
+                    // navigateur parti ou UI silencieuse : fermer les deux côtés
+                    log.debug("[UiProxy] stream {} closed: {}", target, e.getMessage());
+                }
+            };
+            return ResponseEntity.status(resp.getStatusCode()).headers(out).body(body);
+        } catch (IOException e) {
+            log.error("[UiProxy] target={} connection error: {}", target, e.getMessage());
+            byte[] msg = ("Bad Gateway: cannot reach " + target).getBytes(StandardCharsets.UTF_8);
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(os -> os.write(msg));
+        }
+    }
+
+    /** Construit l’URL cible dans l’UI : /ui/xxx?q -> {ui.base-url}/xxx?q */
+    private String target(HttpServletRequest request) {
+        // Normalise la base (sans slash final)
+        String base = uiBaseUrl.endsWith("/") ? uiBaseUrl.substring(0, uiBaseUrl.length() - 1) : uiBaseUrl;
+
+        // Construit le chemin cible
+        String incomingPath = request.getRequestURI();                // ex: /ui/patients
+        String query        = request.getQueryString();               // ex: page=1
+        String pathAfterUi  = incomingPath.substring("/ui".length()); // ex: /patients ou "" si /ui
+        String normalized   = pathAfterUi.isEmpty() ? "/" : pathAfterUi;
+
+        return base + normalized + (query != null ? "?" + query : "");
+    }
+
     /** Copie un en-tête HTTP du HttpServletRequest vers les HttpHeaders envoyés au backend. */
     private static void copyHeaderIfPresent(HttpServletRequest req, HttpHeaders dst, String name) {
         Enumeration<String> values = req.getHeaders(name);
@@ -0,0 +1,382 @@
+package com.medilabo.gatewayservice.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compression gzip des réponses du Gateway (listes JSON, pages HTML…), négociée sur
+ * {@code Accept-Encoding}.
+ * <p>
+ * La réponse est mise en tampon jusqu’à {@code gateway.compression.min-size} octets :
+ * en dessous elle part telle quelle, au-delà elle est compressée au fil de l’écriture
+ * (sans recopier le corps complet). Une réponse déjà encodée par le backend
+ * ({@code Content-Encoding} gzip, br…) est transmise sans y toucher, de même que les
+ * types non compressibles et les flux SSE ({@code /ui/live/**}).
+ * </p>
+ * <p>
+ * Toute réponse d’un type compressible porte {@code Vary: Accept-Encoding}, qu’elle parte
+ * compressée ou non : un cache partagé ne doit pas servir la version gzip à un client qui
+ * ne l’accepte pas, ni l’inverse.
+ * </p>
+ * <p>
+ * Métriques : {@code gateway.compression.responses} (tag {@code outcome}),
+ * {@code gateway.compression.ratio} (taille compressée / taille d’origine) et
+ * {@code gateway.compression.time} (temps passé à compresser).
+ * </p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class CompressionFilter extends OncePerRequestFilter {
+
+    static final String GZIP = "gzip";
+
+    private final boolean enabled;
+    private final int minSize;
+    private final int level;
+    private final List<MediaType> mimeTypes;
+    private final MeterRegistry registry;
+    private final DistributionSummary ratio;
+    private final Timer time;
+
+    public CompressionFilter(@Value("${gateway.compression.enabled:true}") boolean enabled,
+                             @Value("${gateway.compression.min-size:1024}") int minSize,
+                             @Value("${gateway.compression.level:6}") int level,
+                             @Value("${gateway.compression.mime-types:application/json,text/html,text/css,text/plain,application/javascript,text/javascript,application/xml,text/xml}") List<String> mimeTypes,
+                             MeterRegistry registry) {
+        this.enabled = enabled;
+        this.minSize = minSize;
+        this.level = level;
+        this.mimeTypes = mimeTypes.stream().map(MediaType::parseMediaType).toList();
+        this.registry = registry;
+        this.ratio = DistributionSummary.builder("gateway.compression.ratio")
+                .description("Taille compressée / taille d'origine des réponses compressées")
+                .register(registry);
+        this.time = Timer.builder("gateway.compression.time")
+                .description("Temps passé à compresser les réponses")
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || request.getRequestURI().startsWith("/ui/live/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if ("HEAD".equals(request.getMethod())) {
+            count("not_accepted");
+            chain.doFilter(request, response);
+            return;
+        }
+        boolean acceptsGzip = acceptsGzip(request);
+        if (!acceptsGzip) count("not_accepted");
+        // enveloppée même sans gzip accepté, pour poser Vary selon le type de la réponse
+        GzipResponse wrapped = new GzipResponse(response, acceptsGzip);
+        chain.doFilter(request, wrapped);
+        // en cas d'exception, le tampon non envoyé est abandonné au profit de la page d'erreur
+        wrapped.finish();
+    }
+
+    /**
+     * @param request la requête du navigateur
+     * @return {@code true} si {@code Accept-Encoding} accepte gzip (q &gt; 0)
+     */
+    static boolean acceptsGzip(HttpServletRequest request) {
+        Enumeration<String> values = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        while (values != null && values.hasMoreElements()) {
+            for (String part : values.nextElement().split(",")) {
+                String[] tokens = part.trim().split(";");
+                String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+                if (!coding.equals(GZIP) && !coding.equals("*")) continue;
+                double q = 1.0;
+                for (int i = 1; i < tokens.length; i++) {
+                    String p = tokens[i].trim();
+                    if (p.startsWith("q=")) {
+                        try {
+                            q = Double.parseDouble(p.substring(2));
+                        } catch (NumberFormatException e) {
+                            q = 0;
+                        }
+                    }
+                }
+                if (q > 0) return true;
+            }
+        }
+        return false;
+    }
+
+    private void count(String outcome) {
+        Counter.builder("gateway.compression.responses").tag("outcome", outcome).register(registry).increment();
+    }
+
+    private boolean compressible(String contentType) {
+        if (contentType == null) return false;
+        try {
+            MediaType type = MediaType.parseMediaType(contentType);
+            return mimeTypes.stream().anyMatch(m -> m.includes(type));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Flux gzip au niveau de compression configuré, qui expose le nombre d’octets produits.
+     */
+    private static final class LeveledGzip extends GZIPOutputStream {
+
+        LeveledGzip(OutputStream out, int level) throws IOException {
+            super(out, 8192, true);
+            def.setLevel(level);
+        }
+
+        long compressedBytes() {
+            return def.getBytesWritten();
+        }
+    }
+
+    /**
+     * Réponse qui met en tampon les premiers octets puis choisit entre
+     * envoi direct et compression gzip.
+     */
+    private final class GzipResponse extends HttpServletResponseWrapper {
+
+        private final boolean acceptsGzip;
+        private final ByteArrayOutputStream head = new ByteArrayOutputStream();
+        private ServletOutputStream target;
+        private LeveledGzip gzip;
+        private long declaredLength = -1;
+        private long rawBytes;
+        private long compressNanos;
+        private ServletOutputStream stream;
+        private PrintWriter writer;
+
+        GzipResponse(HttpServletResponse response, boolean acceptsGzip) {
+            super(response);
+            this.acceptsGzip = acceptsGzip;
+        }
+
+        // --- la longueur d'origine n'est transmise que si la réponse part non compressée ---
+
+        @Override
+        public void setContentLength(int len) {
+            setContentLengthLong(len);
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            if (target == null) declaredLength = len;
+            else if (gzip == null) super.setContentLengthLong(len);
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value == null ? -1 : Long.parseLong(value));
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setHeader(name, value);
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (writer != null) throw new IllegalStateException("getWriter() déjà appelé");
+            if (stream == null) stream = new Stream();
+            return stream;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                if (stream != null) throw new IllegalStateException("getOutputStream() déjà appelé");
+                Charset charset = getCharacterEncoding() == null
+                        ? StandardCharsets.ISO_8859_1 : Charset.forName(getCharacterEncoding());
+                stream = new Stream();
+                writer = new PrintWriter(new OutputStreamWriter(stream, charset));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) writer.flush();
+            // tant que la décision n'est pas prise, le tampon est gardé
+            if (target != null) {
+                flushTarget();
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            if (target == null) head.reset();
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            if (target == null) {
+                head.reset();
+                declaredLength = -1;
+            }
+        }
+
+        private void write(byte[] b, int off, int len) throws IOException {
+            if (len == 0) return;
+            rawBytes += len;
+            if (target == null) {
+                head.write(b, off, len);
+                if (head.size() >= minSize) decide();
+                return;
+            }
+            writeTarget(b, off, len);
+        }
+
+        private void writeTarget(byte[] b, int off, int len) throws IOException {
+            if (gzip == null) {
+                target.write(b, off, len);
+                return;
+            }
+            long start = System.nanoTime();
+            gzip.write(b, off, len);
+            compressNanos += System.nanoTime() - start;
+        }
+
+        private void flushTarget() throws IOException {
+            if (gzip != null) gzip.flush();
+            else target.flush();
+        }
+
+        /**
+         * Choisit l’encodage une fois {@code min-size} octets reçus (ou en fin de réponse).
+         */
+        private void decide() throws IOException {
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            ServletOutputStream out = response.getOutputStream();
+            String outcome;
+            if (response.getHeader(HttpHeaders.CONTENT_ENCODING) != null) {
+                outcome = "passthrough";
+            } else if (!compressible(response.getContentType())) {
+                outcome = "identity_type";
+            } else {
+                varyOnAcceptEncoding(response);
+                outcome = !acceptsGzip ? "not_accepted" : head.size() < minSize ? "identity_small" : GZIP;
+            }
+            if (acceptsGzip) count(outcome); // not_accepted : déjà compté à l'entrée du filtre
+
+            if (GZIP.equals(outcome)) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+                target = out;
+                gzip = new LeveledGzip(out, level);
+            } else {
+                if (declaredLength >= 0) response.setContentLengthLong(declaredLength);
+                target = out;
+            }
+            byte[] buffered = head.toByteArray();
+            head.reset();
+            writeTarget(buffered, 0, buffered.length);
+        }
+
+        private void varyOnAcceptEncoding(HttpServletResponse response) {
+            for (String vary : response.getHeaders(HttpHeaders.VARY)) {
+                for (String field : vary.split(",")) {
+                    String f = field.trim();
+                    if (f.equals("*") || f.equalsIgnoreCase(HttpHeaders.ACCEPT_ENCODING)) return;
+                }
+            }
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        /**
+         * Termine la réponse : envoie le tampon restant, clôt le flux gzip et publie les métriques.
+         */
+        void finish() throws IOException {
+            if (writer != null) writer.flush();
+            if (target == null) {
+                if (rawBytes == 0 && declaredLength < 0) return; // pas de corps (204, 304, redirection…)
+                decide();
+            }
+            if (gzip != null) {
+                long start = System.nanoTime();
+                gzip.finish();
+                compressNanos += System.nanoTime() - start;
+                time.record(compressNanos, TimeUnit.NANOSECONDS);
+                if (rawBytes > 0) ratio.record((double) gzip.compressedBytes() / rawBytes);
+            }
+        }
+
+        private final class Stream extends ServletOutputStream {
+
+            @Override
+            public void write(int b) throws IOException {
+                GzipResponse.this.write(new byte[] { (byte) b }, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                GzipResponse.this.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                if (target != null) flushTarget();
+            }
+
+            @Override
+            public boolean isReady() {
+                return target == null || target.isReady();
+            }
+
+            /**
+             * Délègue au flux du conteneur ; possible seulement une fois l’encodage choisi,
+             * les premiers octets étant jusque-là gardés en tampon.
+             */
+            @Override
+            public void setWriteListener(WriteListener listener) {
+                if (target == null) {
+                    throw new IllegalStateException("Encodage pas encore choisi : écriture non bloquante impossible");
+                }
+                target.setWriteListener(listener);
+            }
+        }
+    }
+}
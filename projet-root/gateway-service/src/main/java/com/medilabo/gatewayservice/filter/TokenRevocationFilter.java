@@ -0,0 +1,57 @@
+package com.medilabo.gatewayservice.filter;
+
+import com.medilabo.gatewayservice.jwt.JwtValidator;
+import com.medilabo.gatewayservice.jwt.RequestPrincipal;
+import com.medilabo.gatewayservice.revocation.TokenRevocationList;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Refuse les requêtes /ui/** et /api/** portant un JWT révoqué (voir {@link TokenRevocationList}).
+ * <p>
+ * Placé après {@link CookieToAuthHeaderFilter}, qui pose le header Authorization depuis le cookie.
+ * Une page de l’UI renvoie vers la connexion ; un appel d’API reçoit un 401.
+ * </p>
+ */
+@Component
+@Order(-90)
+public class TokenRevocationFilter extends OncePerRequestFilter {
+
+    private final JwtValidator jwtValidator;
+    private final TokenRevocationList revocations;
+
+    public TokenRevocationFilter(JwtValidator jwtValidator, TokenRevocationList revocations) {
+        this.jwtValidator = jwtValidator;
+        this.revocations = revocations;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !(path.startsWith("/ui") || path.startsWith("/api"))
+                || request.getHeader(HttpHeaders.AUTHORIZATION) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestPrincipal principal = jwtValidator.principalOf(request);
+        if (principal != null && revocations.isRevoked(principal.tokenId())) {
+            if (request.getRequestURI().startsWith("/ui")) {
+                response.sendRedirect("/auth/login");
+            } else {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Jeton révoqué");
+            }
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -1,16 +1,15 @@
 package com.medilabo.gatewayservice.jwt;
 
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -20,20 +19,25 @@ import java.util.stream.Collectors;
 @Component
 public class JwtIssuer {
 
-    private final SecretKey key;
+    private final JwtKeySet keySet;
     private final long ttlSeconds;
 
     /**
-     * Constructeur utilisé à la fois par Spring et par les tests.
-     * (Spring injecte automatiquement les valeurs via @Value.)
+     * Constructeur utilisé par Spring : signe avec la clé courante du {@link JwtKeySet}.
      */
-    public JwtIssuer(
-            @Value("${security.jwt.secret:0123456789abcdefghijklmnopqrstuvwxyz012345}") String secret,
-            @Value("${security.jwt.ttl-seconds:43200}") long ttlSeconds) {
-        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    @Autowired
+    public JwtIssuer(JwtKeySet keySet, @Value("${security.jwt.ttl-seconds:43200}") long ttlSeconds) {
+        this.keySet = keySet;
         this.ttlSeconds = ttlSeconds;
     }
 
+    /**
+     * Constructeur des tests : une seule clé, de kid {@code default}.
+     */
+    public JwtIssuer(String secret, long ttlSeconds) {
+        this(JwtKeySet.single(secret, "default"), ttlSeconds);
+    }
+
     /**
      * Émet un token avec un seul rôle (utilisé dans le contrôleur).
      */
@@ -50,12 +54,15 @@ public class JwtIssuer {
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.joining(","));
 
+        JwtKeySet.Key signing = keySet.signingKey();
         return Jwts.builder()
+                .header().keyId(signing.kid()).and()
+                .id(UUID.randomUUID().toString()) // révocable individuellement (TokenRevocationList)
                 .subject(username)
                 .claim("roles", roles)
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(now.plusSeconds(ttlSeconds)))
-                .signWith(key)
+                .signWith(signing.key())
                 .compact();
     }
 }
@@ -0,0 +1,188 @@
+package com.medilabo.gatewayservice.jwt;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clés HS256 de signature des JWT, indexées par {@code kid}.
+ * <p>
+ * Sans {@code security.jwt.keyset-file}, une seule clé : {@code security.jwt.secret},
+ * identifiée par {@code security.jwt.kid}. Avec un fichier, les clés y sont lues et relues
+ * à chaud toutes les {@code security.jwt.keyset-reload-ms} si le fichier a changé :
+ * </p>
+ * <pre>
+ * {"keys": [
+ *   {"kid": "2026-01", "secret": "…", "notBefore": "2026-01-01T00:00:00Z", "notAfter": "2026-04-01T12:00:00Z"},
+ *   {"kid": "2026-04", "secret": "…", "notBefore": "2026-04-01T00:00:00Z"}
+ * ]}
+ * </pre>
+ * <p>
+ * Le Gateway signe avec la clé valide la plus récente ({@link #signingKey()}) ; tous les
+ * services acceptent toute clé dans sa fenêtre de validité. Rotation sans interruption :
+ * publier la nouvelle clé avec un {@code notBefore} postérieur au délai de rechargement, et
+ * garder l’ancienne jusqu’à {@code notBefore + security.jwt.ttl-seconds}. Un jeton sans
+ * {@code kid} (émis avant la rotation) est vérifié avec toutes les clés valides, celle de
+ * {@code security.jwt.kid} en premier. Les clés sont construites au chargement, jamais par requête.
+ * </p>
+ */
+@Component
+public class JwtKeySet {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeySet.class);
+
+    /**
+     * Clé de signature.
+     *
+     * @param kid       identifiant, porté par le header {@code kid} des JWT
+     * @param key       clé HMAC
+     * @param notBefore début de validité
+     * @param notAfter  fin de validité
+     */
+    public record Key(String kid, SecretKey key, Instant notBefore, Instant notAfter) {
+
+        boolean isValidAt(Instant now) {
+            return !now.isBefore(notBefore) && now.isBefore(notAfter);
+        }
+    }
+
+    private final Path file;
+    private final String legacyKid;
+    private final Clock clock;
+    private volatile Map<String, Key> keys;
+    private volatile FileTime loadedAt;
+
+    @Autowired
+    public JwtKeySet(@Value("${security.jwt.secret:0123456789abcdefghijklmnopqrstuvwxyz012345}") String secret,
+                     @Value("${security.jwt.kid:default}") String kid,
+                     @Value("${security.jwt.keyset-file:}") String keysetFile) {
+        this(secret, kid, keysetFile, Clock.systemUTC());
+    }
+
+    JwtKeySet(String secret, String kid, String keysetFile, Clock clock) {
+        this.clock = clock;
+        this.legacyKid = kid;
+        this.file = keysetFile == null || keysetFile.isBlank() ? null : Path.of(keysetFile);
+        if (file == null) {
+            this.keys = Map.of(kid, new Key(kid, hmac(secret), Instant.MIN, Instant.MAX));
+        } else {
+            try {
+                load();
+            } catch (IOException | RuntimeException e) {
+                throw new IllegalStateException("Jeu de clés JWT illisible : " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Jeu d’une seule clé, sans rechargement (tests, outils).
+     *
+     * @param secret secret HS256
+     * @param kid    identifiant de la clé
+     * @return le jeu de clés
+     */
+    public static JwtKeySet single(String secret, String kid) {
+        return new JwtKeySet(secret, kid, null, Clock.systemUTC());
+    }
+
+    /**
+     * @return la clé valide la plus récente, avec laquelle les JWT sont signés
+     * @throws IllegalStateException si aucune clé n’est valide maintenant
+     */
+    public Key signingKey() {
+        Key key = newestValid();
+        if (key == null) throw new IllegalStateException("Aucune clé JWT valide");
+        return key;
+    }
+
+    /**
+     * @param kid header {@code kid} d’un JWT ({@code null} pour un jeton antérieur aux kid)
+     * @return la clé de ce kid si elle est dans sa fenêtre de validité ; sans kid, toutes les
+     *         clés valides, celle de {@code security.jwt.kid} en premier
+     */
+    public List<SecretKey> verificationKeys(String kid) {
+        Instant now = clock.instant();
+        if (kid == null) {
+            return keys.values().stream()
+                    .filter(k -> k.isValidAt(now))
+                    .sorted(Comparator.comparing((Key k) -> !k.kid().equals(legacyKid))
+                            .thenComparing(Key::notBefore, Comparator.reverseOrder()))
+                    .map(Key::key)
+                    .toList();
+        }
+        Key key = keys.get(kid);
+        return key != null && key.isValidAt(now) ? List.of(key.key()) : List.of();
+    }
+
+    /**
+     * Relit le fichier de clés s’il a changé ; en cas d’erreur, les clés en place sont gardées.
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.keyset-reload-ms:30000}")
+    public void reload() {
+        if (file == null) return;
+        try {
+            if (!Files.getLastModifiedTime(file).equals(loadedAt)) {
+                load();
+                log.info("[JwtKeySet] clés rechargées : {}", keys.keySet());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("[JwtKeySet] rechargement de {} impossible, clés conservées : {}", file, e.getMessage());
+        }
+    }
+
+    private Key newestValid() {
+        Instant now = clock.instant();
+        return keys.values().stream()
+                .filter(k -> k.isValidAt(now))
+                .max(Comparator.comparing(Key::notBefore))
+                .orElse(null);
+    }
+
+    private void load() throws IOException {
+        FileTime modified = Files.getLastModifiedTime(file);
+        JsonNode root = new ObjectMapper().readTree(Files.readString(file));
+        Map<String, Key> loaded = new LinkedHashMap<>();
+        for (JsonNode node : root.path("keys")) {
+            String kid = node.path("kid").asText(null);
+            String secret = node.path("secret").asText(null);
+            if (kid == null || secret == null) {
+                throw new IllegalArgumentException("Clé sans kid ou secret");
+            }
+            Instant notBefore = node.hasNonNull("notBefore") ? Instant.parse(node.get("notBefore").asText()) : Instant.MIN;
+            Instant notAfter = node.hasNonNull("notAfter") ? Instant.parse(node.get("notAfter").asText()) : Instant.MAX;
+            loaded.put(kid, new Key(kid, hmac(secret), notBefore, notAfter));
+        }
+        if (loaded.isEmpty()) {
+            throw new IllegalArgumentException("Aucune clé dans " + file);
+        }
+        this.keys = Map.copyOf(loaded);
+        this.loadedAt = modified;
+    }
+
+    private static SecretKey hmac(String secret) {
+        byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < 32) {
+            throw new IllegalArgumentException("Secret JWT trop court (256 bits minimum)");
+        }
+        return new SecretKeySpec(bytes, "HmacSHA256");
+    }
+}
@@ -1,25 +1,113 @@
 package com.medilabo.gatewayservice.jwt;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.security.InvalidKeyException;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.security.Key;
+import java.util.Base64;
+import java.util.List;
 import javax.crypto.SecretKey;
 
 @Component
 public class JwtValidator {
 
-    @Value("${security.jwt.secret}")
-    private String secret;
+    private static final String PRINCIPAL_ATTRIBUTE = RequestPrincipal.class.getName();
+    private static final String NONE = "";
+    private static final ObjectMapper JSON = new ObjectMapper();
 
+    /** construit une fois : la clé est choisie par le header kid dans le {@link JwtKeySet} */
+    private final JwtParser parser;
+    private final JwtKeySet keySet;
+
+    public JwtValidator(JwtKeySet keySet) {
+        this.keySet = keySet;
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(ProtectedHeader header) {
+                        // sans kid : d'abord la clé de security.jwt.kid, les autres dans validate()
+                        List<SecretKey> keys = keySet.verificationKeys(header.getKeyId());
+                        if (keys.isEmpty()) {
+                            throw new InvalidKeyException("Clé JWT inconnue ou expirée : " + header.getKeyId());
+                        }
+                        return keys.get(0);
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * @param token un JWT
+     * @return ses claims si la signature et l’expiration sont valides
+     * @throws JwtException si le jeton est invalide ou expiré
+     */
     public Claims validate(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes());
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        try {
+            return parser.parseSignedClaims(token).getPayload();
+        } catch (SignatureException e) {
+            if (hasKeyId(token)) throw e;
+            // jeton sans kid (émis avant la rotation) : essayer les autres clés valides
+            List<SecretKey> keys = keySet.verificationKeys(null);
+            for (SecretKey key : keys.subList(Math.min(1, keys.size()), keys.size())) {
+                try {
+                    return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+                } catch (SignatureException ignored) {
+                    // clé suivante
+                }
+            }
+            throw e;
+        }
+    }
+
+    private static boolean hasKeyId(String token) {
+        try {
+            JsonNode header = JSON.readTree(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+            return header.hasNonNull("kid");
+        } catch (IOException | RuntimeException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Utilisateur authentifié d’une requête, d’après le JWT du header Authorization
+     * (posé depuis le cookie par CookieToAuthHeaderFilter).
+     * Le résultat est mémorisé dans les attributs de la requête.
+     *
+     * @param request la requête entrante
+     * @return l’utilisateur, ou {@code null} sans JWT valide
+     */
+    public RequestPrincipal principalOf(HttpServletRequest request) {
+        Object cached = request.getAttribute(PRINCIPAL_ATTRIBUTE);
+        if (cached != null) {
+            return cached instanceof RequestPrincipal p ? p : null;
+        }
+        RequestPrincipal principal = null;
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith("Bearer ")) {
+            try {
+                Claims claims = validate(header.substring("Bearer ".length()).trim());
+                if (claims.getSubject() != null) {
+                    principal = new RequestPrincipal(claims.getSubject(), claims.get("roles", String.class),
+                            claims.getId(),
+                            claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                // JWT absent, expiré ou invalide : le backend répondra 401
+            }
+        }
+        request.setAttribute(PRINCIPAL_ATTRIBUTE, principal != null ? principal : NONE);
+        return principal;
     }
 }
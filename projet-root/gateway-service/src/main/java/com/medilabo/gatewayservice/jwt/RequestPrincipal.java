@@ -0,0 +1,14 @@
+package com.medilabo.gatewayservice.jwt;
+
+import java.time.Instant;
+
+/**
+ * Utilisateur authentifié d’une requête, lu dans son JWT.
+ *
+ * @param subject   identifiant de l’utilisateur (claim {@code sub})
+ * @param roles     rôles, séparés par des virgules (claim {@code roles}, ex. {@code ROLE_PRATICIEN})
+ * @param tokenId   identifiant du JWT (claim {@code jti}, {@code null} pour un ancien jeton)
+ * @param expiresAt expiration du JWT (claim {@code exp})
+ */
+public record RequestPrincipal(String subject, String roles, String tokenId, Instant expiresAt) {
+}
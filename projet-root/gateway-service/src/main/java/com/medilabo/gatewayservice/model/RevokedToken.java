@@ -0,0 +1,61 @@
+package com.medilabo.gatewayservice.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * JWT révoqué avant son expiration (déconnexion).
+ * {@code revokedAt} borne la fenêtre relue à chaque synchronisation entre instances du Gateway.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expiresAt"),
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revokedAt")
+})
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Claim {@code jti} du jeton révoqué */
+    @Column(unique = true, nullable = false, length = 64)
+    private String tokenId;
+
+    /** Expiration du jeton : au-delà, la révocation peut être oubliée */
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @Column(nullable = false)
+    private Instant revokedAt;
+
+    /** Constructeur vide requis par JPA */
+    public RevokedToken() {}
+
+    public RevokedToken(String tokenId, Instant expiresAt, Instant revokedAt) {
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+        this.revokedAt = revokedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Instant getRevokedAt() {
+        return revokedAt;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+}
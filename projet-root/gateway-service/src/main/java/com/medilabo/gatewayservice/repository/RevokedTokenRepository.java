@@ -0,0 +1,36 @@
+package com.medilabo.gatewayservice.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.stereotype.Repository;
+
+import com.medilabo.gatewayservice.model.RevokedToken;
+
+/**
+ * Repository des JWT révoqués.
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    /**
+     * Révocations enregistrées depuis un instant.
+     *
+     * @param since début de la fenêtre relue
+     * @return les révocations de la fenêtre
+     */
+    List<RevokedToken> findByRevokedAtAfter(Instant since);
+
+    boolean existsByTokenId(String tokenId);
+
+    /**
+     * Oublie les révocations de jetons expirés.
+     *
+     * @param now instant courant
+     * @return le nombre de lignes supprimées
+     */
+    @Transactional
+    long deleteByExpiresAtBefore(Instant now);
+}
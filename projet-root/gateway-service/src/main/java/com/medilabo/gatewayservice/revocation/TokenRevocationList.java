@@ -0,0 +1,166 @@
+package com.medilabo.gatewayservice.revocation;
+
+import com.medilabo.gatewayservice.model.RevokedToken;
+import com.medilabo.gatewayservice.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JWT révoqués avant leur expiration.
+ * <p>
+ * Chaque requête authentifiée est confrontée à cette liste : un filtre de Bloom
+ * ({@link BloomFilter}) répond « non révoqué » sans autre lecture dans la quasi-totalité
+ * des cas ; seuls les jetons qu’il signale sont vérifiés dans l’ensemble exact.
+ * </p>
+ * <p>
+ * Les révocations sont enregistrées en base ({@link RevokedToken}). Chaque instance du Gateway
+ * relit toutes les {@code gateway.revocation.sync-interval-ms} les lignes dont {@code revokedAt}
+ * suit son dernier passage, moins une marge de {@code gateway.revocation.sync-margin-ms} :
+ * un identifiant croissant ne suffirait pas, deux instances pouvant valider leurs insertions
+ * dans le désordre, ni une horloge seule, décalée d’une instance à l’autre. Relire une ligne
+ * déjà connue est sans effet. Une déconnexion sur une instance vaut pour toutes après au plus
+ * un intervalle. Les révocations de jetons expirés sont oubliées et le filtre reconstruit.
+ * </p>
+ * <p>
+ * Base indisponible : une révocation reste appliquée sur l’instance qui la reçoit, et son
+ * enregistrement est retenté à chaque synchronisation jusqu’à ce que la base réponde.
+ * </p>
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private final RevokedTokenRepository repository;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final long syncMarginMs;
+    private final Clock clock;
+
+    /** jti → expiration (ms) */
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    /** révocations pas encore enregistrées en base : jti → expiration */
+    private final Map<String, Instant> unsaved = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    /** début du dernier passage réussi ({@code null} : tout relire) */
+    private Instant lastSync;
+
+    @Autowired
+    public TokenRevocationList(RevokedTokenRepository repository,
+                               @Value("${gateway.revocation.expected-insertions:100000}") long expectedInsertions,
+                               @Value("${gateway.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+                               @Value("${gateway.revocation.sync-margin-ms:60000}") long syncMarginMs,
+                               MeterRegistry registry) {
+        this(repository, expectedInsertions, falsePositiveRate, syncMarginMs, registry, Clock.systemUTC());
+    }
+
+    TokenRevocationList(RevokedTokenRepository repository, long expectedInsertions, double falsePositiveRate,
+                        long syncMarginMs, MeterRegistry registry, Clock clock) {
+        this.repository = repository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.syncMarginMs = syncMarginMs;
+        this.clock = clock;
+        this.filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+        Gauge.builder("gateway.revocation.size", revoked, Map::size).register(registry);
+    }
+
+    /**
+     * @param tokenId claim {@code jti} d’un JWT valide ({@code null} pour un ancien jeton)
+     * @return {@code true} si le jeton a été révoqué
+     */
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && filter.mightContain(tokenId) && revoked.containsKey(tokenId);
+    }
+
+    /**
+     * Révoque un jeton, sur cette instance immédiatement et sur les autres à leur prochaine synchronisation.
+     * Ne lève pas d’exception si la base est indisponible : l’enregistrement sera retenté.
+     *
+     * @param tokenId   claim {@code jti}
+     * @param expiresAt expiration du jeton
+     */
+    public void revoke(String tokenId, Instant expiresAt) {
+        if (tokenId == null || expiresAt == null || !expiresAt.isAfter(clock.instant())) return;
+        add(tokenId, expiresAt.toEpochMilli());
+        try {
+            persist(tokenId, expiresAt);
+        } catch (DataAccessException e) {
+            // base indisponible : la révocation locale reste appliquée, enregistrement au prochain passage
+            unsaved.put(tokenId, expiresAt);
+            log.warn("[Revocation] enregistrement de {} reporté: {}", tokenId, e.getMessage());
+        }
+    }
+
+    /**
+     * Synchronisation avec la base sur une fenêtre glissante, puis oubli des révocations expirées.
+     */
+    @Scheduled(fixedDelayString = "${gateway.revocation.sync-interval-ms:5000}")
+    public synchronized void sync() {
+        Instant started = clock.instant();
+        Instant since = lastSync == null ? Instant.EPOCH : lastSync.minusMillis(syncMarginMs);
+        try {
+            for (Map.Entry<String, Instant> pending : unsaved.entrySet()) {
+                persist(pending.getKey(), pending.getValue());
+                unsaved.remove(pending.getKey());
+            }
+            for (RevokedToken t : repository.findByRevokedAtAfter(since)) {
+                add(t.getTokenId(), t.getExpiresAt().toEpochMilli());
+            }
+            lastSync = started;
+            purge();
+        } catch (DataAccessException e) {
+            // base indisponible : les révocations locales restent appliquées
+            log.warn("[Revocation] synchronisation impossible: {}", e.getMessage());
+        }
+    }
+
+    private void persist(String tokenId, Instant expiresAt) {
+        if (repository.existsByTokenId(tokenId)) return;
+        try {
+            repository.save(new RevokedToken(tokenId, expiresAt, clock.instant()));
+        } catch (DataIntegrityViolationException e) {
+            // révoqué en même temps par une autre requête
+        }
+    }
+
+    private void add(String tokenId, long expiresAtMs) {
+        revoked.put(tokenId, expiresAtMs);
+        filter.put(tokenId);
+    }
+
+    /**
+     * Retire les jetons expirés ; le filtre de Bloom ne sait pas retirer un élément,
+     * il est donc reconstruit à partir de l’ensemble exact.
+     */
+    private void purge() {
+        long now = clock.millis();
+        if (!revoked.values().removeIf(expiresAt -> expiresAt <= now)) return;
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedInsertions, revoked.size()), falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+        // une révocation ajoutée pendant la reconstruction est reportée dans le nouveau filtre
+        revoked.keySet().forEach(rebuilt::put);
+        repository.deleteByExpiresAtBefore(Instant.ofEpochMilli(now));
+    }
+
+    /**
+     * @return le nombre de révocations en mémoire (pour les tests)
+     */
+    int size() {
+        return revoked.size();
+    }
+}
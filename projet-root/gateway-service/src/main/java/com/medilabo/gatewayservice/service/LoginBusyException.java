@@ -0,0 +1,12 @@
+package com.medilabo.gatewayservice.service;
+
+/**
+ * Vérification du mot de passe refusée faute de capacité ({@link PasswordVerifier} saturé
+ * ou trop lent) : la connexion peut être retentée.
+ */
+public class LoginBusyException extends RuntimeException {
+
+    public LoginBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,93 @@
+package com.medilabo.gatewayservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Vérification des mots de passe BCrypt sur un pool dédié et borné.
+ * <p>
+ * Une vérification BCrypt coûte des dizaines de millisecondes de CPU : une rafale de
+ * connexions ne doit pas prendre le CPU et les threads du trafic proxifié. Les vérifications
+ * passent donc par {@code gateway.auth.bcrypt.threads} threads et une file de
+ * {@code gateway.auth.bcrypt.queue-capacity} places ; au-delà, la connexion est refusée
+ * tout de suite (à retenter) plutôt que mise en attente.
+ * </p>
+ */
+@Component
+public class PasswordVerifier {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final Counter rejected;
+
+    public PasswordVerifier(PasswordEncoder passwordEncoder,
+                            @Value("${gateway.auth.bcrypt.threads:2}") int threads,
+                            @Value("${gateway.auth.bcrypt.queue-capacity:64}") int queueCapacity,
+                            @Value("${gateway.auth.bcrypt.timeout-ms:5000}") long timeoutMs,
+                            MeterRegistry registry) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger n = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "bcrypt-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.rejected = Counter.builder("gateway.auth.bcrypt.rejected")
+                .description("Vérifications refusées, file pleine ou délai dépassé")
+                .register(registry);
+        Gauge.builder("gateway.auth.bcrypt.queued", executor, e -> e.getQueue().size()).register(registry);
+    }
+
+    /**
+     * @param rawPassword     mot de passe saisi
+     * @param encodedPassword empreinte stockée
+     * @return {@code true} si le mot de passe correspond
+     * @throws LoginBusyException si le pool est saturé ou la vérification trop lente
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new LoginBusyException("Trop de connexions simultanées", e);
+        }
+        try {
+            return result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            rejected.increment();
+            throw new LoginBusyException("Vérification du mot de passe trop lente", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Vérification du mot de passe interrompue", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException r) throw r;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
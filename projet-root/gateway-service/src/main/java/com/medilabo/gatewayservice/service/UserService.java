@@ -1,39 +1,103 @@
 package com.medilabo.gatewayservice.service;
 
+import java.time.Clock;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.medilabo.gatewayservice.model.AppUser;
 import com.medilabo.gatewayservice.repository.UserRepository;
 
+/**
+ * Utilisateurs du Gateway.
+ * <p>
+ * Les utilisateurs lus en base sont gardés {@code gateway.auth.user-cache.ttl-seconds}
+ * (au plus {@code gateway.auth.user-cache.max-size} entrées) : une rafale de connexions
+ * ne relit pas la base à chaque tentative. Une inscription invalide l’entrée du nom concerné.
+ * </p>
+ */
 @Service
 public class UserService {
 
+    private record Cached(AppUser user, long expiresAt) {
+    }
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PasswordVerifier passwordVerifier;
+    private final long ttlMs;
+    private final int maxSize;
+    private final Clock clock;
+
+    private final Map<String, Cached> cache = new ConcurrentHashMap<>();
 
     @Autowired
     public UserService(UserRepository userRepository,
-                       PasswordEncoder passwordEncoder) {
+                       PasswordEncoder passwordEncoder,
+                       PasswordVerifier passwordVerifier,
+                       @Value("${gateway.auth.user-cache.ttl-seconds:60}") long ttlSeconds,
+                       @Value("${gateway.auth.user-cache.max-size:10000}") int maxSize) {
+        this(userRepository, passwordEncoder, passwordVerifier, ttlSeconds, maxSize, Clock.systemUTC());
+    }
+
+    UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, PasswordVerifier passwordVerifier,
+                long ttlSeconds, int maxSize, Clock clock) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.passwordVerifier = passwordVerifier;
+        this.ttlMs = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.maxSize = maxSize;
+        this.clock = clock;
     }
 
     public Optional<AppUser> findByUsername(String username) {
-        return userRepository.findByUsername(username);
+        long now = clock.millis();
+        Cached cached = cache.get(username);
+        if (cached != null && now < cached.expiresAt()) {
+            return Optional.of(cached.user());
+        }
+        Optional<AppUser> user = userRepository.findByUsername(username);
+        if (user.isPresent()) {
+            if (cache.size() >= maxSize) {
+                cache.values().removeIf(c -> c.expiresAt() <= now);
+            }
+            if (cache.size() < maxSize) {
+                cache.put(username, new Cached(user.get(), now + ttlMs));
+            }
+        } else if (cached != null) {
+            cache.remove(username, cached);
+        }
+        return user;
     }
 
     public AppUser register(AppUser user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        AppUser saved = userRepository.save(user);
+        cache.remove(saved.getUsername());
+        return saved;
+    }
+
+    /**
+     * Vérifie des identifiants : une lecture (éventuellement en cache) et une vérification
+     * BCrypt sur le pool dédié ({@link PasswordVerifier}).
+     *
+     * @param username    nom d’utilisateur
+     * @param rawPassword mot de passe saisi
+     * @return l’utilisateur si les identifiants sont valides
+     * @throws LoginBusyException si trop de connexions sont en cours de vérification
+     */
+    public Optional<AppUser> authenticate(String username, String rawPassword) {
+        return findByUsername(username)
+                .filter(u -> passwordVerifier.matches(rawPassword, u.getPassword()));
     }
 
     public boolean validateCredentials(String username, String rawPassword) {
-        return userRepository.findByUsername(username)
-                .map(u -> passwordEncoder.matches(rawPassword, u.getPassword()))
-                .orElse(false);
+        return authenticate(username, rawPassword).isPresent();
     }
 }
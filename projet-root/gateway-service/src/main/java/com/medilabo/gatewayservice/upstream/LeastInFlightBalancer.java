@@ -0,0 +1,18 @@
+package com.medilabo.gatewayservice.upstream;
+
+import java.util.List;
+
+/**
+ * Instance qui a le moins d’appels en cours (la première en cas d’égalité).
+ */
+class LeastInFlightBalancer implements LoadBalancer {
+
+    @Override
+    public UpstreamInstance choose(List<UpstreamInstance> candidates) {
+        UpstreamInstance best = candidates.get(0);
+        for (UpstreamInstance candidate : candidates) {
+            if (candidate.inFlight() < best.inFlight()) best = candidate;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,30 @@
+package com.medilabo.gatewayservice.upstream;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Choix d’une instance parmi les instances disponibles d’un {@link UpstreamPool}.
+ */
+public interface LoadBalancer {
+
+    /**
+     * @param candidates instances disponibles (jamais vide)
+     * @return l’instance qui reçoit l’appel
+     */
+    UpstreamInstance choose(List<UpstreamInstance> candidates);
+
+    /**
+     * @param name {@code round-robin}, {@code least-in-flight} ou {@code power-of-two-choices}
+     * @return l’algorithme correspondant
+     * @throws IllegalArgumentException si le nom est inconnu
+     */
+    static LoadBalancer of(String name) {
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "round-robin" -> new RoundRobinBalancer();
+            case "least-in-flight" -> new LeastInFlightBalancer();
+            case "power-of-two-choices" -> new PowerOfTwoChoicesBalancer();
+            default -> throw new IllegalArgumentException("Répartition inconnue : " + name);
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package com.medilabo.gatewayservice.upstream;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Deux instances tirées au hasard, la moins chargée des deux l’emporte :
+ * presque aussi équilibré que {@link LeastInFlightBalancer}, sans que toutes les
+ * requêtes simultanées se ruent sur la même instance.
+ */
+class PowerOfTwoChoicesBalancer implements LoadBalancer {
+
+    @Override
+    public UpstreamInstance choose(List<UpstreamInstance> candidates) {
+        int n = candidates.size();
+        if (n == 1) return candidates.get(0);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int a = random.nextInt(n);
+        int b = random.nextInt(n - 1);
+        if (b >= a) b++;
+        UpstreamInstance first = candidates.get(a);
+        UpstreamInstance second = candidates.get(b);
+        return second.inFlight() < first.inFlight() ? second : first;
+    }
+}
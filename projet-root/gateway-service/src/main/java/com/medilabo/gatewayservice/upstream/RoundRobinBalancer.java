@@ -0,0 +1,17 @@
+package com.medilabo.gatewayservice.upstream;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tourniquet : chaque instance disponible reçoit un appel à son tour.
+ */
+class RoundRobinBalancer implements LoadBalancer {
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Override
+    public UpstreamInstance choose(List<UpstreamInstance> candidates) {
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+}
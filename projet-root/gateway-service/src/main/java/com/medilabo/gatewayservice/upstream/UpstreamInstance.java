@@ -0,0 +1,89 @@
+package com.medilabo.gatewayservice.upstream;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Instance d’un backend dans un {@link UpstreamPool}.
+ * <p>
+ * Elle est exclue du choix quand le health check actif échoue, ou pendant
+ * {@code gateway.upstreams.passive.ejection-ms} après trop d’échecs consécutifs
+ * sur le trafic réel (check passif).
+ * </p>
+ */
+public final class UpstreamInstance {
+
+    private final String baseUrl;
+    private final URI healthUri;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long ejectedUntil;
+    private volatile boolean healthy = true;
+
+    /**
+     * @param baseUrl    base de l’instance (ex. {@code http://patient-service-2:8081/api})
+     * @param healthPath chemin du health check, résolu depuis l’origine de l’instance
+     */
+    UpstreamInstance(String baseUrl, String healthPath) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.healthUri = URI.create(this.baseUrl).resolve(healthPath);
+    }
+
+    /**
+     * @return la base de l’instance, sans slash final
+     */
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * @return le nombre d’appels en cours vers l’instance
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    URI healthUri() {
+        return healthUri;
+    }
+
+    boolean isAvailable(long now) {
+        return healthy && now >= ejectedUntil;
+    }
+
+    boolean isHealthy() {
+        return healthy;
+    }
+
+    void setHealthy(boolean healthy) {
+        this.healthy = healthy;
+    }
+
+    void acquire() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Fin d’un appel : met à jour le compteur d’échecs consécutifs.
+     *
+     * @return le nombre d’échecs consécutifs
+     */
+    int release(boolean success) {
+        inFlight.decrementAndGet();
+        if (success) {
+            consecutiveFailures.set(0);
+            return 0;
+        }
+        return consecutiveFailures.incrementAndGet();
+    }
+
+    void eject(long until) {
+        ejectedUntil = until;
+        consecutiveFailures.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return baseUrl;
+    }
+}
@@ -0,0 +1,188 @@
+package com.medilabo.gatewayservice.upstream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Instances d’un backend (patients, notes, risk) derrière une route du Gateway.
+ * <p>
+ * Chaque appel est confié à une instance disponible, choisie par le {@link LoadBalancer}
+ * de la route. Les instances sont écartées :
+ * <ul>
+ *   <li>en passif, après {@code max-failures} échecs consécutifs (connexion impossible,
+ *       502, 503, 504) pendant {@code ejection-ms}, puis réintégrées ;</li>
+ *   <li>en actif, tant que leur health check ({@link #probe}) échoue.</li>
+ * </ul>
+ * Si plus aucune instance n’est disponible, toutes sont tentées plutôt que de refuser le trafic.
+ * Un appel idempotent qui ne joint pas son instance est retenté sur une autre ({@code retries}).
+ * </p>
+ */
+public class UpstreamPool {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamPool.class);
+
+    private final String name;
+    private final List<UpstreamInstance> instances;
+    private final LoadBalancer balancer;
+    private final int maxFailures;
+    private final long ejectionMs;
+    private final int retries;
+    private final Clock clock;
+    private final Counter ejections;
+
+    /**
+     * @param name        nom de la route (ex. {@code patients})
+     * @param baseUrls    bases des instances
+     * @param balancer    répartition entre instances disponibles
+     * @param healthPath  chemin du health check actif
+     * @param maxFailures échecs consécutifs avant éjection passive
+     * @param ejectionMs  durée d’une éjection passive
+     * @param retries     nouvelles tentatives d’un appel idempotent sur une autre instance
+     * @param registry    métriques
+     * @param clock       horloge
+     * @throws IllegalArgumentException si aucune instance n’est configurée
+     */
+    public UpstreamPool(String name, List<String> baseUrls, LoadBalancer balancer, String healthPath,
+                        int maxFailures, long ejectionMs, int retries, MeterRegistry registry, Clock clock) {
+        List<UpstreamInstance> list = baseUrls.stream()
+                .map(String::trim)
+                .filter(u -> !u.isEmpty())
+                .map(u -> new UpstreamInstance(u, healthPath))
+                .toList();
+        if (list.isEmpty()) {
+            throw new IllegalArgumentException("Aucune instance pour la route " + name);
+        }
+        this.name = name;
+        this.instances = list;
+        this.balancer = balancer;
+        this.maxFailures = maxFailures;
+        this.ejectionMs = ejectionMs;
+        this.retries = retries;
+        this.clock = clock;
+        this.ejections = Counter.builder("gateway.upstream.ejections").tag("route", name).register(registry);
+        Gauge.builder("gateway.upstream.available", this, p -> p.available().size())
+                .tag("route", name).register(registry);
+    }
+
+    /**
+     * @return le nom de la route
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return toutes les instances, disponibles ou non
+     */
+    public List<UpstreamInstance> instances() {
+        return instances;
+    }
+
+    /**
+     * @return les instances qui reçoivent du trafic
+     */
+    public List<UpstreamInstance> available() {
+        long now = clock.millis();
+        return instances.stream().filter(i -> i.isAvailable(now)).toList();
+    }
+
+    /**
+     * Appelle une instance du pool.
+     * <p>
+     * Les exceptions de l’appel sont relancées telles quelles ; seules les erreurs
+     * de connexion d’un appel idempotent donnent lieu à une nouvelle tentative.
+     * </p>
+     *
+     * @param idempotent {@code true} si l’appel peut être rejoué (GET, HEAD…)
+     * @param call       appel à partir de la base de l’instance choisie
+     * @return le résultat de l’appel
+     */
+    public <T> T execute(boolean idempotent, Function<String, T> call) {
+        Set<UpstreamInstance> tried = new HashSet<>();
+        int attempts = idempotent ? 1 + retries : 1;
+        ResourceAccessException last = null;
+        for (int attempt = 0; attempt < attempts; attempt++) {
+            UpstreamInstance instance = choose(tried);
+            if (instance == null) break;
+            tried.add(instance);
+            instance.acquire();
+            boolean success = false;
+            try {
+                T result = call.apply(instance.baseUrl());
+                success = true;
+                return result;
+            } catch (HttpStatusCodeException e) {
+                success = !isUnavailable(e.getStatusCode());
+                throw e;
+            } catch (ResourceAccessException e) {
+                log.warn("[Upstream] {} instance {} injoignable: {}", name, instance, e.getMessage());
+                last = e;
+            } catch (RuntimeException e) {
+                success = true; // erreur de l'appelant, pas de l'instance
+                throw e;
+            } finally {
+                release(instance, success);
+            }
+        }
+        throw last != null ? last : new ResourceAccessException("Aucune instance disponible pour " + name);
+    }
+
+    /**
+     * Health check actif : une instance est saine si son health check répond 2xx.
+     * Un 404 (actuator absent, mauvais chemin) ou un 503 (health {@code DOWN}) l’écarte.
+     *
+     * @param client client HTTP aux timeouts courts
+     */
+    public void probe(RestTemplate client) {
+        for (UpstreamInstance instance : instances) {
+            boolean healthy;
+            try {
+                healthy = client.getForEntity(instance.healthUri(), Void.class).getStatusCode().is2xxSuccessful();
+            } catch (RuntimeException e) {
+                healthy = false;
+            }
+            if (healthy != instance.isHealthy()) {
+                log.info("[Upstream] {} instance {} {}", name, instance, healthy ? "réintégrée" : "écartée (health check)");
+                if (!healthy) ejections.increment();
+            }
+            instance.setHealthy(healthy);
+        }
+    }
+
+    private UpstreamInstance choose(Set<UpstreamInstance> tried) {
+        List<UpstreamInstance> candidates = new ArrayList<>(available());
+        if (candidates.isEmpty()) {
+            candidates.addAll(instances); // toutes écartées : on tente quand même
+        }
+        candidates.removeAll(tried);
+        return candidates.isEmpty() ? null : balancer.choose(candidates);
+    }
+
+    private void release(UpstreamInstance instance, boolean success) {
+        int failures = instance.release(success);
+        if (failures >= maxFailures) {
+            instance.eject(clock.millis() + ejectionMs);
+            ejections.increment();
+            log.warn("[Upstream] {} instance {} écartée {} ms après {} échecs", name, instance, ejectionMs, failures);
+        }
+    }
+
+    private static boolean isUnavailable(HttpStatusCode status) {
+        int code = status.value();
+        return code == 502 || code == 503 || code == 504;
+    }
+}
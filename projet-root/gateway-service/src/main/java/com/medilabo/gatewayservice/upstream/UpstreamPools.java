@@ -0,0 +1,76 @@
+package com.medilabo.gatewayservice.upstream;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pools d’instances des routes {@code /api/**} du Gateway.
+ * <p>
+ * Le premier segment après {@code /api} désigne la route : {@code /api/notes/…} va au
+ * note-service, {@code /api/risk/…} au risk-assessment-service, le reste au patient-service.
+ * Chaque {@code <route>.backend.base-url} accepte plusieurs instances séparées par des virgules,
+ * réparties selon {@code <route>.backend.balancer}.
+ * </p>
+ */
+@Component
+public class UpstreamPools {
+
+    private final Map<String, UpstreamPool> pools;
+    private final UpstreamPool fallback;
+    private final RestTemplate healthClient;
+
+    public UpstreamPools(@Value("${patients.backend.base-url:http://patient-service:8080/api}") List<String> patients,
+                         @Value("${patients.backend.balancer:round-robin}") String patientsBalancer,
+                         @Value("${notes.backend.base-url:http://note-service:8080/api}") List<String> notes,
+                         @Value("${notes.backend.balancer:round-robin}") String notesBalancer,
+                         @Value("${risk.backend.base-url:http://risk-assessment-service:8080/api}") List<String> risk,
+                         @Value("${risk.backend.balancer:round-robin}") String riskBalancer,
+                         @Value("${gateway.upstreams.health.path:/actuator/health}") String healthPath,
+                         @Value("${gateway.upstreams.health.timeout-ms:2000}") int healthTimeoutMs,
+                         @Value("${gateway.upstreams.passive.max-failures:3}") int maxFailures,
+                         @Value("${gateway.upstreams.passive.ejection-ms:30000}") long ejectionMs,
+                         @Value("${gateway.upstreams.retries:1}") int retries,
+                         MeterRegistry registry) {
+        Clock clock = Clock.systemUTC();
+        this.fallback = new UpstreamPool("patients", patients, LoadBalancer.of(patientsBalancer), healthPath,
+                maxFailures, ejectionMs, retries, registry, clock);
+        this.pools = Map.of(
+                "patients", fallback,
+                "notes", new UpstreamPool("notes", notes, LoadBalancer.of(notesBalancer), healthPath,
+                        maxFailures, ejectionMs, retries, registry, clock),
+                "risk", new UpstreamPool("risk", risk, LoadBalancer.of(riskBalancer), healthPath,
+                        maxFailures, ejectionMs, retries, registry, clock));
+
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(healthTimeoutMs);
+        factory.setReadTimeout(healthTimeoutMs);
+        this.healthClient = new RestTemplate(factory);
+    }
+
+    /**
+     * @param path chemin de la requête (ex. {@code /api/notes/patient/1})
+     * @return le pool de la route, le patient-service par défaut
+     */
+    public UpstreamPool forPath(String path) {
+        String rest = path.startsWith("/api/") ? path.substring("/api/".length()) : "";
+        int slash = rest.indexOf('/');
+        String route = slash < 0 ? rest : rest.substring(0, slash);
+        return pools.getOrDefault(route, fallback);
+    }
+
+    /**
+     * Health check actif de toutes les instances.
+     */
+    @Scheduled(fixedDelayString = "${gateway.upstreams.health.interval-ms:10000}")
+    public void probe() {
+        pools.values().forEach(pool -> pool.probe(healthClient));
+    }
+}
@@ -1,16 +1,28 @@
 package com.medilabo.gatewayservice;
 
+import com.medilabo.gatewayservice.jwt.JwtIssuer;
+import com.medilabo.gatewayservice.jwt.JwtValidator;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
- * Test smoke sans démarrer Spring.
- * Si tu veux un test d’intégration de démarrage plus tard,
- * on en fera un dédié quand la stack sera stabilisée.
+ * Démarrage complet du contexte (base H2 du profil test) : vérifie que tous les beans
+ * se construisent, clés JWT comprises.
  */
+@SpringBootTest
+@ActiveProfiles("test")
 class GatewayServiceApplicationTests {
 
+    @Autowired JwtIssuer jwtIssuer;
+    @Autowired JwtValidator jwtValidator;
+
     @Test
     void contextLoads() {
-        // volontairement vide
+        String token = jwtIssuer.issue("alice", "PRATICIEN");
+        assertEquals("alice", jwtValidator.validate(token).getSubject());
     }
 }
@@ -0,0 +1,114 @@
+package com.medilabo.gatewayservice.cache;
+
+import com.medilabo.gatewayservice.jwt.JwtValidator;
+import com.medilabo.gatewayservice.jwt.RequestPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RequestCoalescerTest {
+
+    private final JwtValidator jwt = mock(JwtValidator.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private RequestCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        when(jwt.principalOf(any())).thenAnswer(inv -> {
+            String user = ((HttpServletRequest) inv.getArgument(0)).getHeader("X-Test-User");
+            return user == null ? null : new RequestPrincipal(user, "ROLE_PRATICIEN", null, null);
+        });
+        coalescer = new RequestCoalescer(true, List.of("risk"), 5_000, jwt, registry);
+    }
+
+    private static MockHttpServletRequest get(String uri, String user) {
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", uri);
+        req.addHeader("X-Test-User", user);
+        return req;
+    }
+
+    @Test
+    void keyFor_isPerUser_butPerRoleOnShareableRoutes() {
+        HttpHeaders upstream = new HttpHeaders();
+
+        assertNotEquals(coalescer.keyFor(get("/api/patients/1", "alice"), upstream, 0),
+                coalescer.keyFor(get("/api/patients/1", "bob"), upstream, 0));
+        assertEquals(coalescer.keyFor(get("/api/risk/1", "alice"), upstream, 0),
+                coalescer.keyFor(get("/api/risk/1", "bob"), upstream, 0));
+        assertNull(coalescer.keyFor(new MockHttpServletRequest("POST", "/api/patients"), upstream, 0));
+        // un GET arrivé après une écriture ne rejoint pas l'appel parti avant
+        assertNotEquals(coalescer.keyFor(get("/api/patients/1", "alice"), upstream, 0),
+                coalescer.keyFor(get("/api/patients/1", "alice"), upstream, 1));
+    }
+
+    @Test
+    void concurrentIdenticalGets_shareOneUpstreamCall() throws Exception {
+        RequestCoalescer.Key key = coalescer.keyFor(get("/api/patients/1", "alice"), new HttpHeaders(), 0);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int n = 8;
+
+        ExecutorService pool = Executors.newFixedThreadPool(n);
+        try {
+            List<Future<ResponseEntity<byte[]>>> results = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                results.add(pool.submit(() -> coalescer.execute(key, () -> {
+                    calls.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return new ResponseEntity<>("{\"id\":1}".getBytes(), HttpStatus.OK);
+                })));
+            }
+            // laisse les requêtes rejoindre l'appel en cours
+            while (registry.find("gateway.coalescing.requests").tag("result", "leader").counter() == null) {
+                Thread.sleep(5);
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<ResponseEntity<byte[]>> f : results) {
+                assertEquals("{\"id\":1}", new String(f.get(5, TimeUnit.SECONDS).getBody()));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+        assertEquals(n - 1, registry.get("gateway.coalescing.requests").tag("result", "joined").counter().count());
+        assertEquals(0, coalescer.inFlight());
+    }
+
+    @Test
+    void upstreamFailure_isRethrown_andNextCallGoesUpstream() {
+        RequestCoalescer.Key key = coalescer.keyFor(get("/api/patients/1", "alice"), new HttpHeaders(), 0);
+
+        assertThrows(ResourceAccessException.class,
+                () -> coalescer.execute(key, () -> { throw new ResourceAccessException("down"); }));
+
+        ResponseEntity<byte[]> ok = coalescer.execute(key, () -> new ResponseEntity<>(new byte[0], HttpStatus.OK));
+        assertEquals(HttpStatus.OK, ok.getStatusCode());
+        assertEquals(0, coalescer.inFlight());
+    }
+}
@@ -0,0 +1,235 @@
+package com.medilabo.gatewayservice.cache;
+
+import com.medilabo.gatewayservice.jwt.JwtValidator;
+import com.medilabo.gatewayservice.jwt.RequestPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ResponseCacheTest {
+
+    /** Horloge avancée à la main */
+    private static final class TestClock extends Clock {
+        long millis = 1_000_000;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+
+    private final JwtValidator jwt = mock(JwtValidator.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final TestClock clock = new TestClock();
+    private ResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        when(jwt.principalOf(any())).thenAnswer(inv -> {
+            String user = ((HttpServletRequest) inv.getArgument(0)).getHeader("X-Test-User");
+            return user == null ? null : new RequestPrincipal(user, "ROLE_PRATICIEN", null, null);
+        });
+        cache = new ResponseCache(true, List.of("patients", "notes"), List.of("notes"), 5, 60, 10_000, 4_000,
+                jwt, registry, clock);
+    }
+
+    private static MockHttpServletRequest get(String uri, String user) {
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", uri);
+        if (user != null) req.addHeader("X-Test-User", user);
+        return req;
+    }
+
+    private static ResponseEntity<byte[]> ok(String body, String cacheControl, String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        if (cacheControl != null) headers.setCacheControl(cacheControl);
+        if (etag != null) headers.setETag(etag);
+        return new ResponseEntity<>(body.getBytes(), headers, HttpStatus.OK);
+    }
+
+    /** stocke comme une réponse reçue sans écriture concurrente */
+    private ResponseCache.Entry store(ResponseCache.Key key, ResponseEntity<byte[]> response) {
+        return cache.store(key, cache.generation(key.path()), response);
+    }
+
+    @Test
+    void keyFor_requiresGetOnConfiguredRouteAndPrincipal() {
+        assertNotNull(cache.keyFor(get("/api/patients/1", "alice")));
+        assertNull(cache.keyFor(get("/api/patients/1", null)));
+        assertNull(cache.keyFor(get("/api/risk/1", "alice")));
+        assertNull(cache.keyFor(new MockHttpServletRequest("POST", "/api/patients")));
+
+        ResponseCache disabled = new ResponseCache(false, List.of("patients"), List.of(), 5, 60, 10_000, 4_000,
+                jwt, new SimpleMeterRegistry(), clock);
+        assertNull(disabled.keyFor(get("/api/patients/1", "alice")));
+    }
+
+    @Test
+    void changeFeeds_areNeverCached_andNoCacheRequestsBypassLookup() {
+        assertNull(cache.keyFor(get("/api/patients/changes", "alice")));
+        assertNull(cache.keyFor(get("/api/notes/changes", "alice")));
+
+        MockHttpServletRequest req = get("/api/notes/patient/7", "alice");
+        assertFalse(ResponseCache.requestsNoCache(req));
+        req.addHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        assertTrue(ResponseCache.requestsNoCache(req));
+        // la réponse du backend peut tout de même remplacer l'entrée
+        assertNotNull(cache.keyFor(req));
+    }
+
+    @Test
+    void entries_areIsolatedPerPrincipal() {
+        ResponseCache.Key alice = cache.keyFor(get("/api/patients/1", "alice"));
+        store(alice, ok("{\"id\":1}", null, null));
+
+        assertNotNull(cache.lookup(alice));
+        assertNull(cache.lookup(cache.keyFor(get("/api/patients/1", "bob"))));
+    }
+
+    @Test
+    void freshness_followsMaxAgeCappedByMaxTtl() {
+        ResponseCache.Key key = cache.keyFor(get("/api/patients/1", "alice"));
+        ResponseCache.Entry entry = store(key, ok("{}", "max-age=3600", null));
+
+        clock.millis += 59_000;
+        assertTrue(cache.isFresh(entry));
+        clock.millis += 2_000;
+        assertFalse(cache.isFresh(entry));
+    }
+
+    @Test
+    void store_skipsNoStoreCookiesErrorsAndOversizedBodies() {
+        ResponseCache.Key key = cache.keyFor(get("/api/patients/1", "alice"));
+        HttpHeaders withCookie = new HttpHeaders();
+        withCookie.add(HttpHeaders.SET_COOKIE, "a=b");
+
+        assertNull(store(key, ok("{}", "no-store", null)));
+        assertNull(store(key, new ResponseEntity<>("{}".getBytes(), withCookie, HttpStatus.OK)));
+        assertNull(store(key, new ResponseEntity<>("{}".getBytes(), HttpStatus.NOT_FOUND)));
+        assertNull(store(key, ok("x".repeat(5_000), null, null)));
+        assertNull(store(key, ok("{}", "no-cache", null)));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void noCache_withEtag_isRevalidatedThenServedAsNotModified() {
+        MockHttpServletRequest req = get("/api/patients/1", "alice");
+        ResponseCache.Key key = cache.keyFor(req);
+        ResponseCache.Entry stale = store(key, ok("{\"id\":1}", "no-cache", "\"v1\""));
+        assertFalse(cache.isFresh(stale));
+
+        HttpHeaders notModified = new HttpHeaders();
+        notModified.setCacheControl("max-age=10");
+        ResponseCache.Entry fresh = cache.revalidated(key, cache.generation(key.path()), stale, notModified);
+        assertTrue(cache.isFresh(fresh));
+
+        ResponseEntity<byte[]> full = cache.serve(fresh, req, "REVALIDATED");
+        assertEquals(HttpStatus.OK, full.getStatusCode());
+        assertEquals("REVALIDATED", full.getHeaders().getFirst(ResponseCache.STATUS_HEADER));
+        assertEquals("{\"id\":1}", new String(full.getBody()));
+
+        req.addHeader(HttpHeaders.IF_NONE_MATCH, "\"v1\"");
+        assertEquals(HttpStatus.NOT_MODIFIED, cache.serve(fresh, req, "HIT").getStatusCode());
+    }
+
+    @Test
+    void write_invalidatesResourceChildrenAndParentCollection_forAllPrincipals() {
+        ResponseCache.Key item = cache.keyFor(get("/api/patients/7", "alice"));
+        ResponseCache.Key itemBob = cache.keyFor(get("/api/patients/7", "bob"));
+        MockHttpServletRequest page = get("/api/patients", "alice");
+        page.setQueryString("page=0");
+        ResponseCache.Key list = cache.keyFor(page);
+        ResponseCache.Key other = cache.keyFor(get("/api/patients/8", "alice"));
+        for (ResponseCache.Key k : List.of(item, itemBob, list, other)) store(k, ok("{}", null, null));
+
+        cache.invalidate("/api/patients/7");
+
+        assertNull(cache.lookup(item));
+        assertNull(cache.lookup(itemBob));
+        assertNull(cache.lookup(list));
+        assertNotNull(cache.lookup(other));
+        assertEquals(3.0, registry.get("gateway.cache.evictions").tag("cause", "write").counter().count());
+    }
+
+    @Test
+    void getInFlightDuringWrite_doesNotStoreItsPreWriteBody() {
+        ResponseCache.Key key = cache.keyFor(get("/api/patients/7", "alice"));
+        ResponseCache.Key other = cache.keyFor(get("/api/patients/8", "alice"));
+        long before = cache.generation("/api/patients/7");
+        ResponseCache.Entry stale = store(key, ok("{\"v\":1}", "no-cache", "\"v1\""));
+
+        // le GET part (génération relevée), le PUT aboutit et invalide, puis le GET répond
+        long inFlight = cache.generation("/api/patients/7");
+        cache.invalidate("/api/patients/7");
+
+        assertNull(cache.store(key, inFlight, ok("{\"v\":1}", null, null)));
+        assertNull(cache.store(other, inFlight, ok("{}", null, null)));
+        HttpHeaders notModified = new HttpHeaders();
+        notModified.setCacheControl("max-age=60");
+        assertNotNull(cache.revalidated(key, inFlight, stale, notModified));
+        assertNull(cache.lookup(key));
+        assertNull(cache.lookup(other));
+        assertEquals(before + 1, cache.generation("/api/patients/7"));
+        assertEquals(3.0, registry.get("gateway.cache.stores").tag("result", "superseded").counter().count());
+
+        // un GET parti après l'écriture est stocké normalement
+        assertNotNull(cache.store(key, cache.generation("/api/patients/7"), ok("{\"v\":2}", null, null)));
+        assertNotNull(cache.lookup(key));
+    }
+
+    @Test
+    void noteWrite_invalidatesWholeNotesRoute() {
+        ResponseCache.Key list = cache.keyFor(get("/api/notes/patient/7", "alice"));
+        ResponseCache.Key summary = cache.keyFor(get("/api/notes/summary", "bob"));
+        ResponseCache.Key patient = cache.keyFor(get("/api/patients/7", "alice"));
+        for (ResponseCache.Key k : List.of(list, summary, patient)) store(k, ok("{}", null, null));
+
+        cache.invalidate("/api/notes/abc123");
+
+        assertNull(cache.lookup(list));
+        assertNull(cache.lookup(summary));
+        assertNotNull(cache.lookup(patient));
+    }
+
+    @Test
+    void maxBytes_evictsLeastRecentlyUsed() {
+        ResponseCache.Key a = cache.keyFor(get("/api/notes/1", "alice"));
+        ResponseCache.Key b = cache.keyFor(get("/api/notes/2", "alice"));
+        ResponseCache.Key c = cache.keyFor(get("/api/notes/3", "alice"));
+        String body = "x".repeat(3_500);
+        store(a, ok(body, null, null));
+        store(b, ok(body, null, null));
+        cache.lookup(a); // a devient la plus récente
+        store(c, ok(body, null, null));
+
+        assertNotNull(cache.lookup(a));
+        assertNull(cache.lookup(b));
+        assertNotNull(cache.lookup(c));
+        assertTrue(cache.bytes() <= 10_000);
+    }
+}
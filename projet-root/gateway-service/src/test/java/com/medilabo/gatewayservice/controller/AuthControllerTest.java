@@ -1,9 +1,16 @@
 package com.medilabo.gatewayservice.controller;
 
 import com.medilabo.gatewayservice.jwt.JwtIssuer;
+import com.medilabo.gatewayservice.jwt.JwtValidator;
 import com.medilabo.gatewayservice.model.AppUser;
 import com.medilabo.gatewayservice.model.UserRole;
+import com.medilabo.gatewayservice.revocation.TokenRevocationList;
+import com.medilabo.gatewayservice.service.LoginBusyException;
 import com.medilabo.gatewayservice.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -12,10 +19,14 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.hamcrest.Matchers.matchesPattern;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -25,8 +36,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 /**
  * Test unitaire du AuthController sans démarrer Spring.
  * - MockMvc en mode standalone (pas d'ApplicationContext)
- * - UserService, JwtIssuer & PasswordEncoder mockés
- * - Compatible avec le constructeur à 7 paramètres du contrôleur
+ * - UserService, JwtIssuer, PasswordEncoder, JwtValidator & TokenRevocationList mockés
+ * - Compatible avec le constructeur à 9 paramètres du contrôleur
  */
 class AuthControllerTest {
 
@@ -35,6 +46,8 @@ class AuthControllerTest {
     private UserService userService;
     private JwtIssuer jwtIssuer;
     private PasswordEncoder passwordEncoder;
+    private JwtValidator jwtValidator;
+    private TokenRevocationList revocations;
 
     private AppUser user;
 
@@ -43,12 +56,16 @@ class AuthControllerTest {
         userService = Mockito.mock(UserService.class);
         jwtIssuer = Mockito.mock(JwtIssuer.class);
         passwordEncoder = Mockito.mock(PasswordEncoder.class);
+        jwtValidator = Mockito.mock(JwtValidator.class);
+        revocations = Mockito.mock(TokenRevocationList.class);
 
-        // ✅ Constructeur à 7 paramètres (nouvelle version)
+        // ✅ Constructeur à 9 paramètres
         AuthController controller = new AuthController(
                 userService,
                 jwtIssuer,
                 passwordEncoder,
+                jwtValidator,
+                revocations,
                 "JWT_TOKEN",   // cookieName
                 43200,         // ttlSeconds
                 "Lax",         // sameSite
@@ -67,8 +84,7 @@ class AuthControllerTest {
 
     @Test
     void login_success_redirects_and_sets_cookie() throws Exception {
-        when(userService.validateCredentials("med", "pwd")).thenReturn(true);
-        when(userService.findByUsername("med")).thenReturn(Optional.of(user));
+        when(userService.authenticate("med", "pwd")).thenReturn(Optional.of(user));
         when(jwtIssuer.issue(eq("med"), anyString())).thenReturn("jwt-token");
 
         var result = mvc.perform(post("/auth/login")
@@ -83,14 +99,14 @@ class AuthControllerTest {
         assertThat(setCookie).isNotNull();
         assertThat(setCookie).contains("JWT_TOKEN=jwt-token");
 
-        verify(userService).validateCredentials("med", "pwd");
-        verify(userService).findByUsername("med");
+        verify(userService).authenticate("med", "pwd");
+        verify(userService, never()).findByUsername(anyString());
         verify(jwtIssuer).issue(eq("med"), anyString());
     }
 
     @Test
     void login_failure_redirects_to_error() throws Exception {
-        when(userService.validateCredentials("med", "bad")).thenReturn(false);
+        when(userService.authenticate("med", "bad")).thenReturn(Optional.empty());
 
         mvc.perform(post("/auth/login")
                         .param("username", "med")
@@ -98,11 +114,36 @@ class AuthControllerTest {
                 .andExpect(status().is3xxRedirection())
                 .andExpect(header().string("Location", containsString("/auth/login?error")));
 
-        verify(userService).validateCredentials("med", "bad");
+        verify(userService).authenticate("med", "bad");
         verify(userService, never()).findByUsername(anyString());
         verify(jwtIssuer, never()).issue(anyString(), anyString());
     }
 
+    @Test
+    void login_when_verifier_saturated_redirects_to_busy() throws Exception {
+        when(userService.authenticate("med", "pwd")).thenThrow(new LoginBusyException("Trop de connexions simultanées", null));
+
+        mvc.perform(post("/auth/login")
+                        .param("username", "med")
+                        .param("password", "pwd"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(header().string("Location", containsString("/auth/login?busy")))
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(header().doesNotExist(HttpHeaders.SET_COOKIE));
+
+        verify(jwtIssuer, never()).issue(anyString(), anyString());
+    }
+
+    @Test
+    void login_when_authentication_fails_otherwise_is_not_reported_as_busy() {
+        when(userService.authenticate("med", "pwd")).thenThrow(new IllegalStateException("Base indisponible"));
+
+        assertThrows(ServletException.class, () -> mvc.perform(post("/auth/login")
+                .param("username", "med")
+                .param("password", "pwd")));
+        verify(jwtIssuer, never()).issue(anyString(), anyString());
+    }
+
     @Test
     void logout_clears_cookie_and_redirects() throws Exception {
         var result = mvc.perform(post("/auth/logout"))
@@ -114,5 +155,19 @@ class AuthControllerTest {
         String setCookie = result.getResponse().getHeader(HttpHeaders.SET_COOKIE);
         assertThat(setCookie).isNotNull();
         assertThat(setCookie).contains("JWT_TOKEN=");
+        verifyNoInteractions(revocations);
+    }
+
+    @Test
+    void logout_revokes_current_token() throws Exception {
+        // une expiration JWT est en secondes
+        Instant exp = Instant.now().plusSeconds(3600).truncatedTo(ChronoUnit.SECONDS);
+        Claims claims = Jwts.claims().id("jti-1").subject("med").expiration(Date.from(exp)).build();
+        when(jwtValidator.validate("jwt-token")).thenReturn(claims);
+
+        mvc.perform(post("/auth/logout").cookie(new Cookie("JWT_TOKEN", "jwt-token")))
+                .andExpect(status().is3xxRedirection());
+
+        verify(revocations).revoke(eq("jti-1"), eq(exp));
     }
 }
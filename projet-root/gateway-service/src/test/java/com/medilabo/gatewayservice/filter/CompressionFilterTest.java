@@ -0,0 +1,175 @@
+package com.medilabo.gatewayservice.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class CompressionFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CompressionFilter filter = new CompressionFilter(true, 1024, 6,
+            List.of("application/json", "text/html"), registry);
+
+    private static final byte[] LARGE_JSON = ("[" + "{\"id\":1,\"lastName\":\"TestNone\"},".repeat(200) + "{}]")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private static MockHttpServletRequest request(String acceptEncoding) {
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/patients");
+        if (acceptEncoding != null) req.addHeader("Accept-Encoding", acceptEncoding);
+        return req;
+    }
+
+    /** Backend simulé : en-têtes puis corps, comme ResponseEntity<byte[]> des proxies */
+    private static FilterChain backend(String contentType, String contentEncoding, byte[] body) {
+        return (req, res) -> {
+            HttpServletResponse http = (HttpServletResponse) res;
+            http.setContentType(contentType);
+            if (contentEncoding != null) http.setHeader("Content-Encoding", contentEncoding);
+            http.setContentLength(body.length);
+            http.getOutputStream().write(body);
+        };
+    }
+
+    private double count(String outcome) {
+        return registry.get("gateway.compression.responses").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void largeJson_isGzipped_whenAccepted() throws Exception {
+        MockHttpServletResponse res = new MockHttpServletResponse();
+
+        filter.doFilter(request("br, gzip;q=0.8"), res, backend("application/json", null, LARGE_JSON));
+
+        assertEquals("gzip", res.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", res.getHeader("Vary"));
+        assertNull(res.getHeader("Content-Length"));
+        byte[] unzipped = new GZIPInputStream(new ByteArrayInputStream(res.getContentAsByteArray())).readAllBytes();
+        assertArrayEquals(LARGE_JSON, unzipped);
+        assertTrue(res.getContentAsByteArray().length < LARGE_JSON.length / 5);
+        assertEquals(1.0, count("gzip"));
+        assertEquals(1, registry.get("gateway.compression.ratio").summary().count());
+    }
+
+    @Test
+    void smallOrUnsupportedBodies_areSentAsIs_withTheirLength() throws Exception {
+        byte[] small = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+        MockHttpServletResponse smallRes = new MockHttpServletResponse();
+        filter.doFilter(request("gzip"), smallRes, backend("application/json", null, small));
+
+        MockHttpServletResponse imageRes = new MockHttpServletResponse();
+        filter.doFilter(request("gzip"), imageRes, backend("image/png", null, LARGE_JSON));
+
+        assertNull(smallRes.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", smallRes.getHeader("Vary"));
+        assertEquals(small.length, smallRes.getContentLength());
+        assertArrayEquals(small, smallRes.getContentAsByteArray());
+        assertNull(imageRes.getHeader("Content-Encoding"));
+        assertNull(imageRes.getHeader("Vary"));
+        assertArrayEquals(LARGE_JSON, imageRes.getContentAsByteArray());
+        assertEquals(1.0, count("identity_small"));
+        assertEquals(1.0, count("identity_type"));
+    }
+
+    @Test
+    void alreadyEncodedUpstreamBody_passesThroughUntouched() throws Exception {
+        byte[] brotli = new byte[4096];
+        MockHttpServletResponse res = new MockHttpServletResponse();
+
+        filter.doFilter(request("br, gzip"), res, backend("application/json", "br", brotli));
+
+        assertEquals("br", res.getHeader("Content-Encoding"));
+        assertArrayEquals(brotli, res.getContentAsByteArray());
+        assertEquals(1.0, count("passthrough"));
+    }
+
+    @Test
+    void clientsWithoutGzip_andLiveStreams_areNotWrapped() throws Exception {
+        MockHttpServletResponse refused = new MockHttpServletResponse();
+        filter.doFilter(request("gzip;q=0, identity"), refused, (req, res) -> res.getOutputStream().write(LARGE_JSON));
+
+        MockHttpServletRequest live = new MockHttpServletRequest("GET", "/ui/live/patients/1");
+        live.addHeader("Accept-Encoding", "gzip");
+        MockHttpServletResponse stream = new MockHttpServletResponse();
+        filter.doFilter(live, stream, (req, res) -> assertSame(stream, res));
+
+        assertNull(refused.getHeader("Content-Encoding"));
+        assertArrayEquals(LARGE_JSON, refused.getContentAsByteArray());
+        assertEquals(1.0, count("not_accepted"));
+    }
+
+    @Test
+    void compressibleBodies_varyOnAcceptEncoding_evenWhenSentAsIs() throws Exception {
+        MockHttpServletResponse refused = new MockHttpServletResponse();
+        filter.doFilter(request(null), refused, backend("application/json", null, LARGE_JSON));
+
+        MockHttpServletResponse alreadyVaried = new MockHttpServletResponse();
+        filter.doFilter(request("gzip"), alreadyVaried, (req, res) -> {
+            ((HttpServletResponse) res).addHeader("Vary", "Origin, accept-encoding");
+            backend("application/json", null, LARGE_JSON).doFilter(req, res);
+        });
+
+        assertNull(refused.getHeader("Content-Encoding"));
+        assertEquals(LARGE_JSON.length, refused.getContentLength());
+        assertEquals(List.of("Accept-Encoding"), refused.getHeaders("Vary"));
+        assertEquals("gzip", alreadyVaried.getHeader("Content-Encoding"));
+        assertEquals(List.of("Origin, accept-encoding"), alreadyVaried.getHeaders("Vary"));
+        assertEquals(1.0, count("not_accepted"));
+    }
+
+    @Test
+    void writeListener_isDelegatedToTheContainerStream_onceTheEncodingIsChosen() throws Exception {
+        AtomicReference<WriteListener> registered = new AtomicReference<>();
+        MockHttpServletResponse sink = new MockHttpServletResponse();
+        ServletOutputStream container = new ServletOutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                sink.getOutputStream().write(b);
+            }
+
+            @Override
+            public boolean isReady() {
+                return false;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+                registered.set(listener);
+            }
+        };
+        HttpServletResponse res = new HttpServletResponseWrapper(sink) {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return container;
+            }
+        };
+        WriteListener listener = mock(WriteListener.class);
+
+        filter.doFilter(request("gzip"), res, (req, r) -> {
+            r.setContentType("application/json");
+            ServletOutputStream out = r.getOutputStream();
+            assertThrows(IllegalStateException.class, () -> out.setWriteListener(listener));
+            assertTrue(out.isReady());
+            out.write(LARGE_JSON);
+            out.setWriteListener(listener);
+            assertFalse(out.isReady());
+        });
+
+        assertSame(listener, registered.get());
+    }
+}
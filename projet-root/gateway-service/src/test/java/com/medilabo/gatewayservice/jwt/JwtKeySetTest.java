@@ -0,0 +1,151 @@
+package com.medilabo.gatewayservice.jwt;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeySetTest {
+
+    private static final String OLD = "old-secret-0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final String NEW = "new-secret-0123456789abcdefghijklmnopqrstuvwxyz";
+
+    @TempDir
+    Path dir;
+
+    /** Horloge avancée à la main */
+    private static final class TestClock extends Clock {
+        Instant now = Instant.now();
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private Path keyset(String json) throws IOException {
+        Path file = dir.resolve("jwt-keys.json");
+        Files.writeString(file, json);
+        return file;
+    }
+
+    private static String kidOf(String token) throws IOException {
+        byte[] header = Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.')));
+        return new ObjectMapper().readTree(header).get("kid").asText();
+    }
+
+    @Test
+    void singleSecret_stampsDefaultKid_andValidates() throws IOException {
+        JwtKeySet keys = JwtKeySet.single("0123456789abcdefghijklmnopqrstuvwxyz012345", "default");
+        String token = new JwtIssuer(keys, 60).issue("alice", "PRATICIEN");
+
+        assertEquals("default", kidOf(token));
+        assertEquals("alice", new JwtValidator(keys).validate(token).getSubject());
+    }
+
+    @Test
+    void rotation_signsWithNewKey_andAcceptsOldTokensUntilTheirWindowCloses() throws IOException {
+        TestClock clock = new TestClock();
+        Instant t = clock.now;
+        Path file = keyset("""
+                {"keys": [
+                  {"kid": "k1", "secret": "%s", "notAfter": "%s"},
+                  {"kid": "k2", "secret": "%s", "notBefore": "%s"}
+                ]}
+                """.formatted(OLD, t.plusSeconds(7200), NEW, t.plusSeconds(600)));
+        JwtKeySet keys = new JwtKeySet(null, "default", file.toString(), clock);
+        JwtIssuer issuer = new JwtIssuer(keys, 3600);
+        JwtValidator validator = new JwtValidator(keys);
+
+        String before = issuer.issue("alice", "PRATICIEN");
+        assertEquals("k1", kidOf(before));
+
+        clock.now = t.plusSeconds(601);
+        String after = issuer.issue("alice", "PRATICIEN");
+        assertEquals("k2", kidOf(after));
+        assertEquals("alice", validator.validate(before).getSubject());
+        assertEquals("alice", validator.validate(after).getSubject());
+
+        clock.now = t.plusSeconds(7201);
+        assertThrows(JwtException.class, () -> validator.validate(before));
+        assertEquals("alice", validator.validate(after).getSubject());
+    }
+
+    @Test
+    void reload_picksUpChangedFile_andKeepsKeysWhenFileIsBroken() throws IOException {
+        Path file = keyset("{\"keys\": [{\"kid\": \"k1\", \"secret\": \"%s\"}]}".formatted(OLD));
+        JwtKeySet keys = new JwtKeySet(null, "default", file.toString(), Clock.systemUTC());
+        assertTrue(keys.verificationKeys("k2").isEmpty());
+
+        Files.writeString(file, "{\"keys\": [{\"kid\": \"k1\", \"secret\": \"%s\"}, {\"kid\": \"k2\", \"secret\": \"%s\"}]}"
+                .formatted(OLD, NEW));
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(5)));
+        keys.reload();
+        assertEquals(1, keys.verificationKeys("k2").size());
+
+        Files.writeString(file, "{ pas du json");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(10)));
+        keys.reload();
+        assertEquals(1, keys.verificationKeys("k1").size());
+        assertEquals(1, keys.verificationKeys("k2").size());
+    }
+
+    @Test
+    void tokenWithoutKid_isAcceptedWhileAnyOverlappingKeyIsValid() throws IOException {
+        TestClock clock = new TestClock();
+        Instant t = clock.now;
+        Path file = keyset("""
+                {"keys": [
+                  {"kid": "default", "secret": "%s", "notAfter": "%s"},
+                  {"kid": "k2", "secret": "%s", "notBefore": "%s"}
+                ]}
+                """.formatted(OLD, t.plusSeconds(7200), NEW, t.minusSeconds(60)));
+        JwtValidator validator = new JwtValidator(new JwtKeySet(null, "default", file.toString(), clock));
+        // jetons émis avant l'introduction des kid, avec chacune des deux clés
+        String legacy = Jwts.builder().subject("alice").expiration(Date.from(t.plusSeconds(3600)))
+                .signWith(new SecretKeySpec(OLD.getBytes(StandardCharsets.UTF_8), "HmacSHA256")).compact();
+        String other = Jwts.builder().subject("bob").expiration(Date.from(t.plusSeconds(3600)))
+                .signWith(new SecretKeySpec(NEW.getBytes(StandardCharsets.UTF_8), "HmacSHA256")).compact();
+
+        assertEquals("alice", validator.validate(legacy).getSubject());
+        assertEquals("bob", validator.validate(other).getSubject());
+
+        clock.now = t.plusSeconds(7201);
+        assertThrows(JwtException.class, () -> validator.validate(legacy));
+    }
+
+    @Test
+    void unknownKid_isRejected() {
+        JwtKeySet signer = JwtKeySet.single(NEW, "other");
+        JwtKeySet verifier = JwtKeySet.single(NEW, "default");
+        String token = new JwtIssuer(signer, 60).issue("alice", "PRATICIEN");
+
+        assertThrows(JwtException.class, () -> new JwtValidator(verifier).validate(token));
+    }
+}
@@ -0,0 +1,40 @@
+package com.medilabo.gatewayservice.revocation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void addedValues_areAlwaysFound() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        String[] ids = new String[1_000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID().toString();
+            filter.put(ids[i]);
+        }
+
+        for (String id : ids) assertTrue(filter.mightContain(id));
+    }
+
+    @Test
+    void falsePositiveRate_staysNearTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) filter.put(UUID.randomUUID().toString());
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) falsePositives++;
+        }
+        assertTrue(falsePositives < 2_000, "faux positifs : " + falsePositives);
+    }
+
+    @Test
+    void invalidSizing_isRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1.0));
+    }
+}
@@ -0,0 +1,146 @@
+package com.medilabo.gatewayservice.revocation;
+
+import com.medilabo.gatewayservice.model.RevokedToken;
+import com.medilabo.gatewayservice.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationListTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    private final RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+    private final MutableClock clock = new MutableClock();
+    private final TokenRevocationList list = new TokenRevocationList(repository, 1_000, 0.01, 60_000,
+            new SimpleMeterRegistry(), clock);
+
+    /** Horloge avancée à la main */
+    private static final class MutableClock extends Clock {
+        Instant now = NOW;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private static RevokedToken row(long id, String jti, Instant expiresAt) {
+        RevokedToken t = new RevokedToken(jti, expiresAt, NOW);
+        t.setId(id);
+        return t;
+    }
+
+    @Test
+    void revoke_appliesLocally_andPersists() {
+        list.revoke("jti-1", NOW.plusSeconds(60));
+
+        assertTrue(list.isRevoked("jti-1"));
+        assertFalse(list.isRevoked("jti-2"));
+        assertFalse(list.isRevoked(null));
+        verify(repository).save(any(RevokedToken.class));
+    }
+
+    @Test
+    void revoke_keepsTheLocalRevocation_andPersistsItLater_whenDatabaseIsDown() {
+        when(repository.existsByTokenId("jti-1"))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(false);
+
+        assertDoesNotThrow(() -> list.revoke("jti-1", NOW.plusSeconds(60)));
+        assertTrue(list.isRevoked("jti-1"));
+        verify(repository, never()).save(any());
+
+        list.sync();
+
+        verify(repository).save(argThat(t -> t.getTokenId().equals("jti-1")));
+        list.sync();
+        verify(repository, times(1)).save(any());
+    }
+
+    @Test
+    void revoke_ignoresExpiredTokens() {
+        list.revoke("jti-1", NOW.minusSeconds(1));
+
+        assertFalse(list.isRevoked("jti-1"));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void sync_readsAllRowsFirst_thenATrailingWindow() {
+        when(repository.findByRevokedAtAfter(Instant.EPOCH))
+                .thenReturn(List.of(row(1, "a", NOW.plusSeconds(600)), row(2, "b", NOW.plusSeconds(600))));
+
+        list.sync();
+        assertTrue(list.isRevoked("a"));
+        assertTrue(list.isRevoked("b"));
+        assertFalse(list.isRevoked("c"));
+
+        clock.now = NOW.plusSeconds(5);
+        when(repository.findByRevokedAtAfter(NOW.minusSeconds(60)))
+                .thenReturn(List.of(row(3, "c", NOW.plusSeconds(600))));
+        list.sync();
+        assertTrue(list.isRevoked("c"));
+        verify(repository, times(1)).findByRevokedAtAfter(Instant.EPOCH);
+    }
+
+    @Test
+    void sync_picksUpRowsCommittedOutOfOrder() {
+        // une autre instance a validé l'id 11 avant l'id 10
+        when(repository.findByRevokedAtAfter(any()))
+                .thenReturn(List.of(row(11, "late-b", NOW.plusSeconds(600))))
+                .thenReturn(List.of(row(10, "late-a", NOW.plusSeconds(600)), row(11, "late-b", NOW.plusSeconds(600))));
+
+        list.sync();
+        assertFalse(list.isRevoked("late-a"));
+
+        clock.now = NOW.plusSeconds(5);
+        list.sync();
+        assertTrue(list.isRevoked("late-a"));
+        assertTrue(list.isRevoked("late-b"));
+    }
+
+    @Test
+    void sync_forgetsExpiredRevocations() {
+        when(repository.findByRevokedAtAfter(any()))
+                .thenReturn(List.of(row(1, "old", NOW.minusSeconds(1)), row(2, "live", NOW.plusSeconds(60))));
+
+        list.sync();
+
+        assertFalse(list.isRevoked("old"));
+        assertTrue(list.isRevoked("live"));
+        assertEquals(1, list.size());
+        verify(repository).deleteByExpiresAtBefore(NOW);
+    }
+
+    @Test
+    void sync_keepsLocalRevocations_whenDatabaseIsDown() {
+        list.revoke("jti-1", NOW.plusSeconds(60));
+        when(repository.findByRevokedAtAfter(any()))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        list.sync();
+
+        assertTrue(list.isRevoked("jti-1"));
+    }
+}
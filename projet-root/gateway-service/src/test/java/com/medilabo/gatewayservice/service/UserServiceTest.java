@@ -3,16 +3,32 @@ package com.medilabo.gatewayservice.service;
 import com.medilabo.gatewayservice.model.AppUser;
 import com.medilabo.gatewayservice.model.UserRole;
 import com.medilabo.gatewayservice.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class UserServiceTest {
 
+    private static UserService service(UserRepository repo, PasswordEncoder encoder) {
+        PasswordVerifier verifier = new PasswordVerifier(encoder, 1, 4, 5_000, new SimpleMeterRegistry());
+        return new UserService(repo, encoder, verifier, 60, 100);
+    }
+
+    private static AppUser alice() {
+        AppUser u = new AppUser();
+        u.setUsername("alice");
+        u.setPassword("{bcrypt}hash");
+        u.setRole(UserRole.PRATICIEN);
+        return u;
+    }
+
     @Test
     void register_encodes_password_and_saves() {
         UserRepository repo = mock(UserRepository.class);
@@ -20,7 +36,7 @@ class UserServiceTest {
         when(encoder.encode("clear")).thenReturn("{bcrypt}hash");
         when(repo.save(any(AppUser.class))).thenAnswer(inv -> inv.getArgument(0));
 
-        UserService service = new UserService(repo, encoder);
+        UserService service = service(repo, encoder);
 
         AppUser u = new AppUser();
         u.setUsername("bob");
@@ -47,9 +63,67 @@ class UserServiceTest {
         when(repo.findByUsername("alice")).thenReturn(Optional.of(u));
         when(encoder.matches("pwd", "{bcrypt}hash")).thenReturn(true);
 
-        UserService service = new UserService(repo, encoder);
+        UserService service = service(repo, encoder);
 
         assertTrue(service.validateCredentials("alice","pwd"));
         verify(encoder).matches("pwd", "{bcrypt}hash");
     }
+
+    @Test
+    void authenticate_reads_user_once_then_serves_from_cache() {
+        UserRepository repo = mock(UserRepository.class);
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(repo.findByUsername("alice")).thenReturn(Optional.of(alice()));
+        when(encoder.matches("pwd", "{bcrypt}hash")).thenReturn(true);
+        UserService service = service(repo, encoder);
+
+        assertEquals("alice", service.authenticate("alice", "pwd").orElseThrow().getUsername());
+        assertTrue(service.authenticate("alice", "bad").isEmpty());
+        assertTrue(service.findByUsername("alice").isPresent());
+
+        verify(repo, times(1)).findByUsername("alice");
+    }
+
+    @Test
+    void register_invalidates_cached_user() {
+        UserRepository repo = mock(UserRepository.class);
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(repo.findByUsername("alice")).thenReturn(Optional.of(alice()));
+        when(repo.save(any(AppUser.class))).thenAnswer(inv -> inv.getArgument(0));
+        UserService service = service(repo, encoder);
+
+        service.findByUsername("alice");
+        service.register(alice());
+        service.findByUsername("alice");
+
+        verify(repo, times(2)).findByUsername("alice");
+    }
+
+    @Test
+    void verifier_rejects_when_queue_is_full() throws Exception {
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(encoder.matches(anyString(), anyString())).thenAnswer(inv -> {
+            running.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+        PasswordVerifier verifier = new PasswordVerifier(encoder, 1, 1, 5_000, new SimpleMeterRegistry());
+
+        Thread first = new Thread(() -> verifier.matches("a", "h"));
+        Thread second = new Thread(() -> verifier.matches("b", "h"));
+        first.start();
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        second.start(); // occupe l'unique place de la file
+        while (second.getState() != Thread.State.WAITING && second.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(5);
+        }
+
+        assertThrows(LoginBusyException.class, () -> verifier.matches("c", "h"));
+
+        release.countDown();
+        first.join(5_000);
+        second.join(5_000);
+    }
 }
@@ -0,0 +1,208 @@
+package com.medilabo.gatewayservice.upstream;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pools contre de vrais serveurs HTTP locaux (bouchons).
+ */
+class UpstreamPoolTest {
+
+    /** Bouchon : répond son nom sur /api/**, et healthStatus sur /actuator/health */
+    private static final class Stub {
+        final String name;
+        final HttpServer server;
+        final AtomicInteger hits = new AtomicInteger();
+        volatile int apiStatus = 200;
+        volatile int healthStatus = 200;
+
+        Stub(String name) throws IOException {
+            this.name = name;
+            this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/api", ex -> {
+                hits.incrementAndGet();
+                byte[] body = name.getBytes(StandardCharsets.UTF_8);
+                ex.sendResponseHeaders(apiStatus, body.length);
+                try (OutputStream out = ex.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.createContext("/actuator/health", ex -> {
+                ex.sendResponseHeaders(healthStatus, -1);
+                ex.close();
+            });
+            server.start();
+        }
+
+        String baseUrl() {
+            return "http://127.0.0.1:" + server.getAddress().getPort() + "/api";
+        }
+    }
+
+    private final List<Stub> stubs = new ArrayList<>();
+    private final RestTemplate client = new RestTemplate(new SimpleClientHttpRequestFactory());
+    private long now = 1_000_000;
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(now);
+        }
+    };
+
+    private Stub stub(String name) throws IOException {
+        Stub s = new Stub(name);
+        stubs.add(s);
+        return s;
+    }
+
+    private UpstreamPool pool(String balancer, String... baseUrls) {
+        return new UpstreamPool("patients", List.of(baseUrls), LoadBalancer.of(balancer), "/actuator/health",
+                3, 30_000, 1, new SimpleMeterRegistry(), clock);
+    }
+
+    private String get(UpstreamPool pool) {
+        return pool.execute(true, base -> client.getForObject(base + "/patients", String.class));
+    }
+
+    /** Adresse où rien n'écoute : connexion refusée */
+    private static String deadBaseUrl() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return "http://127.0.0.1:" + socket.getLocalPort() + "/api";
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubs.forEach(s -> s.server.stop(0));
+    }
+
+    @Test
+    void roundRobin_spreadsCallsEvenly() throws IOException {
+        Stub a = stub("a");
+        Stub b = stub("b");
+        UpstreamPool pool = pool("round-robin", a.baseUrl(), b.baseUrl());
+
+        Map<String, Integer> seen = new HashMap<>();
+        for (int i = 0; i < 10; i++) seen.merge(get(pool), 1, Integer::sum);
+
+        assertEquals(Map.of("a", 5, "b", 5), seen);
+    }
+
+    @Test
+    void deadInstance_isRetriedElsewhere_thenEjected_thenReinstatedAfterEjection() throws IOException {
+        Stub a = stub("a");
+        UpstreamPool pool = pool("round-robin", deadBaseUrl(), a.baseUrl());
+
+        for (int i = 0; i < 10; i++) assertEquals("a", get(pool));
+
+        assertEquals(1, pool.available().size());
+        now += 30_000;
+        assertEquals(2, pool.available().size());
+    }
+
+    @Test
+    void nonIdempotentCall_isNotRetried() throws IOException {
+        Stub a = stub("a");
+        UpstreamPool pool = pool("round-robin", deadBaseUrl(), a.baseUrl());
+
+        assertThrows(ResourceAccessException.class,
+                () -> pool.execute(false, base -> client.postForObject(base + "/patients", "{}", String.class)));
+        assertEquals(0, a.hits.get());
+    }
+
+    @Test
+    void serviceUnavailable_countsAsFailure_andEjects() throws IOException {
+        Stub a = stub("a");
+        Stub b = stub("b");
+        a.apiStatus = 503;
+        UpstreamPool pool = pool("round-robin", a.baseUrl(), b.baseUrl());
+
+        for (int i = 0; i < 6; i++) {
+            try {
+                get(pool);
+            } catch (HttpServerErrorException e) {
+                assertEquals(503, e.getStatusCode().value());
+            }
+        }
+
+        assertEquals(List.of(b.baseUrl()), pool.available().stream().map(UpstreamInstance::baseUrl).toList());
+        for (int i = 0; i < 4; i++) assertEquals("b", get(pool));
+    }
+
+    @Test
+    void activeHealthCheck_ejectsAndReinstates() throws IOException {
+        Stub a = stub("a");
+        Stub b = stub("b");
+        UpstreamPool pool = pool("least-in-flight", a.baseUrl(), b.baseUrl());
+
+        a.healthStatus = 503;
+        pool.probe(client);
+        assertEquals(1, pool.available().size());
+        for (int i = 0; i < 4; i++) assertEquals("b", get(pool));
+
+        a.healthStatus = 200;
+        pool.probe(client);
+        assertEquals(2, pool.available().size());
+
+        a.healthStatus = 404; // pas d'actuator : rien ne dit que l'instance est prête
+        pool.probe(client);
+        assertEquals(List.of(b.baseUrl()), pool.available().stream().map(UpstreamInstance::baseUrl).toList());
+    }
+
+    @Test
+    void allInstancesDown_stillTriesThem() throws IOException {
+        Stub a = stub("a");
+        UpstreamPool pool = pool("power-of-two-choices", a.baseUrl());
+        a.healthStatus = 500;
+        pool.probe(client);
+
+        assertTrue(pool.available().isEmpty());
+        assertEquals("a", get(pool));
+    }
+
+    @Test
+    void leastInFlightAndPowerOfTwo_preferTheIdleInstance() {
+        UpstreamInstance busy = new UpstreamInstance("http://busy/api", "/actuator/health");
+        UpstreamInstance idle = new UpstreamInstance("http://idle/api", "/actuator/health");
+        busy.acquire();
+        busy.acquire();
+
+        assertSame(idle, LoadBalancer.of("least-in-flight").choose(List.of(busy, idle)));
+        for (int i = 0; i < 20; i++) {
+            assertSame(idle, LoadBalancer.of("power-of-two-choices").choose(List.of(busy, idle)));
+        }
+        assertThrows(IllegalArgumentException.class, () -> LoadBalancer.of("random"));
+    }
+}
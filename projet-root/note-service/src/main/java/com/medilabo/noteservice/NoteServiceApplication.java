@@ -2,6 +2,7 @@ package com.medilabo.noteservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Point d’entrée principal du microservice <strong>NoteService</strong>.
@@ -11,6 +12,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * </p>
  */
 @SpringBootApplication
+@EnableScheduling
 public class NoteServiceApplication {
 
     /**
@@ -0,0 +1,144 @@
+package com.medilabo.noteservice.archive;
+
+import com.medilabo.noteservice.model.Note;
+import com.medilabo.noteservice.storage.NoteBodyCodec;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Tier froid des notes : collection {@value #COLLECTION}.
+ * <p>
+ * Les notes anciennes y sont déplacées par le {@link NoteArchiver}. Les documents
+ * gardent la forme de la collection {@code notes} (contenu compressé compris), mais la
+ * collection ne porte que l’index {@code (patientId, createdAt)} : ni index texte, ni
+ * départage par {@code _id}, ces notes n’étant lues qu’en historique complet.
+ * </p>
+ */
+@Component
+public class NoteArchive {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteArchive.class);
+
+    /**
+     * Nom de la collection d’archive.
+     */
+    public static final String COLLECTION = "notes_archive";
+
+    private final MongoOperations mongo;
+
+    public NoteArchive(MongoOperations mongo) {
+        this.mongo = mongo;
+    }
+
+    /**
+     * Crée au démarrage l’unique index de la collection d’archive.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        mongo.indexOps(COLLECTION).createIndex(new Index()
+                .on("patientId", Sort.Direction.ASC)
+                .on("createdAt", Sort.Direction.DESC)
+                .named("patient_created_idx"));
+    }
+
+    /**
+     * @param patientId l’identifiant du patient
+     * @return les notes archivées du patient, de la plus ancienne à la plus récente
+     */
+    public List<Note> findByPatientId(Long patientId) {
+        Query query = new Query(where("patientId").is(patientId)).with(Sort.by(Sort.Direction.ASC, "createdAt"));
+        return mongo.find(query, Note.class, COLLECTION);
+    }
+
+    /**
+     * @param id l’identifiant de la note
+     * @return la note archivée, si elle existe
+     */
+    public Optional<Note> findById(Long id) {
+        return Optional.ofNullable(mongo.findById(id, Note.class, COLLECTION));
+    }
+
+    /**
+     * Supprime une note archivée (sans effet si elle n’est pas archivée).
+     *
+     * @param id l’identifiant de la note
+     */
+    public void deleteById(Long id) {
+        // sans classe d’entité, aucun mappage id → _id : le filtre vise directement _id
+        mongo.remove(new Query(where("_id").is(id)), COLLECTION);
+    }
+
+    /**
+     * Lit en flux l’identifiant et le contenu des notes archivées d’un patient, contenu
+     * décompressé si besoin. Le flux doit être fermé par l’appelant.
+     *
+     * @param patientId l’identifiant du patient
+     * @return le flux des notes, réduites à {@code id} et {@code content}
+     */
+    public Stream<Note> streamContentByPatientId(Long patientId) {
+        Query query = new Query(where("patientId").is(patientId));
+        query.fields().include("content").include(NoteBodyCodec.COMPRESSED_FIELD);
+        return mongo.stream(query, Note.class, COLLECTION);
+    }
+
+    /**
+     * Déplace un lot de notes créées avant {@code cutoff} du tier chaud vers l’archive.
+     * <p>
+     * Les documents sont copiés tels quels (remplacement idempotent par {@code _id}) puis
+     * supprimés du tier chaud à condition que leur {@code updatedAt} n’ait pas changé
+     * entre-temps : une note modifiée pendant le déplacement reste dans le tier chaud et
+     * sa copie obsolète est écrasée au passage suivant. Une interruption entre les deux
+     * écritures laisse au pire un doublon, que la lecture en historique complet ignore.
+     * </p>
+     *
+     * @param cutoff    date de création en deçà de laquelle une note est archivée
+     * @param batchSize nombre maximal de notes déplacées
+     * @return le nombre de notes lues pour ce lot
+     */
+    public int moveOlderThan(Instant cutoff, int batchSize) {
+        String hot = mongo.getCollectionName(Note.class);
+        Query query = new Query(where("createdAt").lt(cutoff))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"))
+                .limit(batchSize);
+        List<Document> batch = mongo.find(query, Document.class, hot);
+        if (batch.isEmpty()) return 0;
+
+        List<WriteModel<Document>> copies = new ArrayList<>(batch.size());
+        List<WriteModel<Document>> removals = new ArrayList<>(batch.size());
+        for (Document doc : batch) {
+            Bson byId = new Document("_id", doc.get("_id"));
+            copies.add(new ReplaceOneModel<>(byId, doc, new ReplaceOptions().upsert(true)));
+            Date updatedAt = doc.getDate("updatedAt");
+            removals.add(new DeleteOneModel<>(new Document("_id", doc.get("_id")).append("updatedAt", updatedAt)));
+        }
+        mongo.getCollection(COLLECTION).bulkWrite(copies);
+        long removed = mongo.getCollection(hot).bulkWrite(removals).getDeletedCount();
+        if (removed < batch.size()) {
+            log.info("[NoteArchive] {} note(s) modifiée(s) pendant l’archivage, laissée(s) dans le tier chaud",
+                    batch.size() - removed);
+        }
+        return batch.size();
+    }
+}
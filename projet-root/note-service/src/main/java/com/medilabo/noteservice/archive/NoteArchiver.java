@@ -0,0 +1,61 @@
+package com.medilabo.noteservice.archive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Tâche de fond déplaçant vers {@link NoteArchive} les notes plus anciennes que
+ * {@code notes.archive.age}, par lots de {@code notes.archive.batch-size}.
+ * <p>
+ * Le tier chaud {@code notes} et ses index restent ainsi bornés aux notes récentes,
+ * qui concentrent l’essentiel des lectures. Désactivée par défaut.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "notes.archive.enabled", havingValue = "true")
+public class NoteArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteArchiver.class);
+
+    private final NoteArchive archive;
+    private final Duration age;
+    private final int batchSize;
+    private final int maxBatches;
+
+    public NoteArchiver(NoteArchive archive,
+                        @Value("${notes.archive.age:730d}") Duration age,
+                        @Value("${notes.archive.batch-size:500}") int batchSize,
+                        @Value("${notes.archive.max-batches:100}") int maxBatches) {
+        this.archive = archive;
+        this.age = age;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    /**
+     * Archive les notes échues, au plus {@code notes.archive.max-batches} lots par passage.
+     *
+     * @return le nombre de notes traitées
+     */
+    @Scheduled(cron = "${notes.archive.cron:0 30 3 * * *}")
+    public int archive() {
+        Instant cutoff = Instant.now().minus(age);
+        int total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            int moved = archive.moveOlderThan(cutoff, batchSize);
+            total += moved;
+            if (moved < batchSize) break;
+        }
+        if (total > 0) {
+            log.info("[NoteArchiver] {} note(s) créée(s) avant {} archivée(s)", total, cutoff);
+        }
+        return total;
+    }
+}
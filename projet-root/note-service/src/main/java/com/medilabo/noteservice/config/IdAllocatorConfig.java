@@ -0,0 +1,28 @@
+package com.medilabo.noteservice.config;
+
+import com.medilabo.noteservice.id.IdBlockAllocator;
+import com.medilabo.noteservice.model.Note;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Configuration des allocateurs d’identifiants {@code Long} des documents MongoDB.
+ */
+@Configuration
+public class IdAllocatorConfig {
+
+    /**
+     * Allocateur des identifiants de notes ({@code notes.id.block-size} identifiants par réservation).
+     *
+     * @param mongo     accès MongoDB
+     * @param blockSize taille des blocs réservés
+     * @return l’allocateur des identifiants de notes
+     */
+    @Bean
+    public IdBlockAllocator noteIdAllocator(MongoTemplate mongo,
+                                            @Value("${notes.id.block-size:100}") int blockSize) {
+        return new IdBlockAllocator(mongo, "notes", mongo.getCollectionName(Note.class), blockSize);
+    }
+}
@@ -1,6 +1,8 @@
 package com.medilabo.noteservice.config;
 
-import org.springframework.beans.factory.annotation.Value;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -10,9 +12,7 @@ import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
 
-import javax.crypto.SecretKey;
-import javax.crypto.spec.SecretKeySpec;
-import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 @Configuration
 @EnableWebSecurity
@@ -32,9 +32,19 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Décodage des JWT HS256 du Gateway : la clé est choisie par le header kid
+     * dans le {@link JwtKeySet} (rotation sans redémarrage).
+     */
     @Bean
-    public JwtDecoder jwtDecoder(@Value("${security.jwt.secret}") String secret) {
-        SecretKey key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-        return NimbusJwtDecoder.withSecretKey(key).build();
+    public JwtDecoder jwtDecoder(JwtKeySet keySet) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector((header, context) ->
+                JWSAlgorithm.Family.HMAC_SHA.contains(header.getAlgorithm())
+                        ? keySet.verificationKeys(header.getKeyID())
+                        : List.of());
+        // expiration vérifiée par les validateurs Spring du décodeur
+        processor.setJWTClaimsSetVerifier((claims, context) -> { });
+        return new NimbusJwtDecoder(processor);
     }
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.medilabo.noteservice.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.medilabo.noteservice.dto.BulkItemResult;
+import com.medilabo.noteservice.model.Note;
+import com.medilabo.noteservice.service.NoteBulkService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * Contrôleur REST d’ingestion en masse des notes.
+ * <p>
+ * {@code POST /api/notes/bulk} accepte soit un tableau JSON, soit un flux NDJSON
+ * ({@code application/x-ndjson}, une note par ligne). Le corps est lu au fil de l’eau
+ * et les résultats sont renvoyés en NDJSON, une ligne par note, au fur et à mesure
+ * de l’écriture des lots : ni la requête ni la réponse ne sont construites en mémoire.
+ * </p>
+ */
+@RestController
+@RequestMapping("/api/notes")
+public class NoteBulkController {
+
+    /**
+     * Type de contenu NDJSON (un document JSON par ligne).
+     */
+    static final String NDJSON = "application/x-ndjson";
+
+    /**
+     * Service d’ingestion en masse.
+     */
+    private final NoteBulkService bulk;
+
+    /**
+     * Sérialiseur JSON de l’application.
+     */
+    private final ObjectMapper mapper;
+
+    /**
+     * Écrivain des lignes de résultat (sans vidage après chaque ligne).
+     */
+    private final ObjectWriter lineWriter;
+
+    /**
+     * Constructeur du contrôleur d’ingestion.
+     *
+     * @param bulk   le service d’ingestion en masse
+     * @param mapper l’{@link ObjectMapper} de l’application
+     */
+    public NoteBulkController(NoteBulkService bulk, ObjectMapper mapper) {
+        this.bulk = bulk;
+        this.mapper = mapper;
+        this.lineWriter = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Ingère un lot de notes (tableau JSON ou NDJSON) et renvoie un résultat NDJSON par note.
+     * <p>
+     * Si le flux reçu devient illisible, les notes déjà lues sont conservées et une
+     * dernière ligne {@code {"error": ...}} signale l’interruption.
+     * </p>
+     *
+     * @param request  la requête HTTP (corps lu en flux)
+     * @param response la réponse HTTP (écrite en flux)
+     * @throws IOException en cas d’erreur d’entrée/sortie
+     */
+    @PostMapping(path = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON}, produces = NDJSON)
+    public void ingest(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(NDJSON);
+
+        try (MappingIterator<Note> notes = mapper.readerFor(Note.class).readValues(request.getInputStream());
+             JsonGenerator out = mapper.createGenerator(response.getOutputStream())) {
+            out.setRootValueSeparator(null);
+            try {
+                bulk.ingest(notes, result -> writeLine(out, result));
+            } catch (RuntimeException e) {
+                // MappingIterator signale les erreurs de lecture par des exceptions non vérifiées
+                if (!(e instanceof RuntimeJsonMappingException) && !(e.getCause() instanceof IOException)) {
+                    throw e;
+                }
+                writeLine(out, Map.of("error", "Flux de notes illisible: " + e.getMessage()));
+            }
+        }
+    }
+
+    private void writeLine(JsonGenerator out, Object value) {
+        try {
+            lineWriter.writeValue(out, value);
+            out.writeRaw('\n');
+            if (value instanceof BulkItemResult r && r.index() % 1000 == 999) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
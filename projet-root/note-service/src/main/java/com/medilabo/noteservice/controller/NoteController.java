@@ -1,8 +1,16 @@
 package com.medilabo.noteservice.controller;
 
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,13 +18,24 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.medilabo.noteservice.dto.NotePage;
+import com.medilabo.noteservice.dto.NoteSummary;
+import com.medilabo.noteservice.feed.NoteChangeLog;
 import com.medilabo.noteservice.model.Note;
+import com.medilabo.noteservice.model.NoteChange;
 import com.medilabo.noteservice.service.NoteService;
 import org.springframework.security.access.prepost.PreAuthorize;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 /**
  * Contrôleur REST du microservice NoteService.
  * <p>
@@ -34,25 +53,151 @@ public class NoteController {
      */
     private final NoteService service;
 
+    /**
+     * Journal des changements de notes, exposé en lecture.
+     */
+    private final NoteChangeLog changes;
+
+    /**
+     * Sérialiseur JSON de l’application.
+     */
+    private final ObjectMapper mapper;
+
+    /**
+     * Écrivain des notes streamées (sans vidage après chaque note).
+     */
+    private final ObjectWriter noteWriter;
+
     /**
      * Constructeur du contrôleur de notes.
      *
      * @param service le service métier utilisé pour gérer les notes
+     * @param changes le journal des changements de notes
+     * @param mapper  l’{@link ObjectMapper} de l’application
      */
-    public NoteController(NoteService service) {
+    public NoteController(NoteService service, NoteChangeLog changes, ObjectMapper mapper) {
         this.service = service;
+        this.changes = changes;
+        this.mapper = mapper;
+        this.noteWriter = mapper.writerFor(Note.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     /**
-     * Récupère toutes les notes associées à un patient donné.
+     * En-tête portant le curseur de la page suivante.
+     */
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * Récupère les notes associées à un patient donné.
+     * <p>
+     * Sans paramètre, toutes les notes du tier chaud sont renvoyées, ainsi que les notes
+     * archivées si {@code history=true}. Dès qu’un paramètre de pagination
+     * ou de fenêtre est fourni, les notes sont triées par {@code createdAt} et paginées
+     * par curseur, sur le seul tier chaud : le curseur de la page suivante est renvoyé
+     * dans l’en-tête {@value #NEXT_CURSOR_HEADER} (absent sur la dernière page).
+     * </p>
      *
      * @param patientId l’identifiant du patient
+     * @param since     date ISO-8601 incluse à partir de laquelle lister (optionnel)
+     * @param until     date ISO-8601 exclue jusqu’à laquelle lister (optionnel)
+     * @param cursor    curseur renvoyé par la page précédente (optionnel)
+     * @param limit     taille de page (optionnel, {@code 50} par défaut en mode paginé)
+     * @param order     {@code asc} (par défaut) ou {@code desc}
+     * @param history   vrai pour inclure les notes archivées (liste complète uniquement)
      * @return la liste des notes liées à ce patient
      */
     @PreAuthorize("hasRole('PRATICIEN')")
     @GetMapping("/patient/{patientId}")
-    public List<Note> findByPatient(@PathVariable Long patientId) {
-        return service.findByPatientId(patientId);
+    public ResponseEntity<List<Note>> findByPatient(
+            @PathVariable Long patientId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant until,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String order,
+            @RequestParam(defaultValue = "false") boolean history) {
+        if (since == null && until == null && cursor == null && limit == null && order == null) {
+            return ResponseEntity.ok(service.findByPatientId(patientId, history));
+        }
+        NotePage page = service.findPageByPatientId(patientId, since, until, cursor,
+                "desc".equalsIgnoreCase(order), limit != null ? limit : 50);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.notes());
+    }
+
+    /**
+     * Récupère les notes de plusieurs patients en une seule requête.
+     * <p>
+     * Le corps de la réponse est un objet JSON dont les clés sont les identifiants de
+     * patients et les valeurs leurs notes, de la plus récente à la plus ancienne
+     * (ex. {@code {"1": [...], "4": [...]}}). Les patients sans note n’y figurent pas.
+     * Les notes sont écrites au fil de la lecture du curseur MongoDB : la réponse n’est
+     * jamais construite en mémoire.
+     * </p>
+     *
+     * @param patientIds les identifiants des patients (tableau JSON)
+     * @param response   la réponse HTTP (écrite en flux)
+     * @throws IOException en cas d’erreur d’entrée/sortie
+     */
+    @PreAuthorize("hasRole('PRATICIEN')")
+    @PostMapping(path = "/patients", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void findByPatients(@RequestBody List<Long> patientIds, HttpServletResponse response) throws IOException {
+        try (Stream<Note> notes = service.streamByPatientIds(patientIds)) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            try (JsonGenerator out = mapper.createGenerator(response.getOutputStream())) {
+                writeGrouped(notes.iterator(), out);
+            }
+        }
+    }
+
+    private void writeGrouped(Iterator<Note> notes, JsonGenerator out) throws IOException {
+        out.writeStartObject();
+        Long current = null;
+        while (notes.hasNext()) {
+            Note n = notes.next();
+            if (current == null || !Objects.equals(current, n.getPatientId())) {
+                if (current != null) out.writeEndArray();
+                current = n.getPatientId();
+                out.writeFieldName(String.valueOf(current));
+                out.writeStartArray();
+            }
+            noteWriter.writeValue(out, n);
+        }
+        if (current != null) out.writeEndArray();
+        out.writeEndObject();
+    }
+
+    /**
+     * Renvoie, pour chaque patient demandé, le nombre de notes et les dates de la
+     * dernière note créée et modifiée, sans transférer le contenu des notes.
+     *
+     * @param patientIds les identifiants des patients (ex. {@code ?patientIds=1,2,3})
+     * @return une synthèse par patient, dans l’ordre de la demande
+     */
+    @PreAuthorize("hasRole('PRATICIEN')")
+    @GetMapping("/summary")
+    public List<NoteSummary> summary(@RequestParam List<Long> patientIds) {
+        return service.summarizeByPatientIds(patientIds);
+    }
+
+    /**
+     * Lit le flux de changements de notes à partir d’un offset.
+     * <p>
+     * Le consommateur relance la lecture avec l’offset de la dernière entrée reçue.
+     * </p>
+     *
+     * @param after dernier offset consommé (par défaut {@code 0})
+     * @param limit nombre maximal d’entrées (par défaut {@code 100})
+     * @return les changements suivants (note, patient, opération), par offset croissant
+     */
+    @GetMapping("/changes")
+    public List<NoteChange> changes(@RequestParam(value = "after", defaultValue = "0") long after,
+                                    @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return changes.readAfter(after, limit);
     }
 
     /**
@@ -0,0 +1,64 @@
+package com.medilabo.noteservice.controller;
+
+import com.medilabo.noteservice.dto.NoteSearchResult;
+import com.medilabo.noteservice.search.NoteSearchService;
+import com.mongodb.MongoExecutionTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Contrôleur REST de recherche plein texte dans les notes médicales.
+ */
+@RestController
+@RequestMapping("/api/notes")
+public class NoteSearchController {
+
+    /**
+     * Service de recherche plein texte.
+     */
+    private final NoteSearchService search;
+
+    /**
+     * Constructeur du contrôleur de recherche.
+     *
+     * @param search le service de recherche plein texte
+     */
+    public NoteSearchController(NoteSearchService search) {
+        this.search = search;
+    }
+
+    /**
+     * Recherche les notes mentionnant un ou plusieurs termes.
+     * <p>
+     * Les notes sont classées par pertinence et paginées ; chaque note porte les
+     * positions des termes trouvés. Les patients concernés sont renvoyés avec leur
+     * nombre de notes trouvées.
+     * </p>
+     *
+     * @param q    la requête (syntaxe MongoDB {@code $text})
+     * @param page numéro de page (par défaut {@code 0})
+     * @param size taille de page (par défaut {@code 20})
+     * @return les notes et patients trouvés
+     * @throws ResponseStatusException 400 si la requête ou la pagination sont invalides,
+     *                                 503 si la recherche dépasse le temps imparti
+     */
+    @PreAuthorize("hasRole('PRATICIEN')")
+    @GetMapping("/search")
+    public NoteSearchResult search(@RequestParam String q,
+                                   @RequestParam(defaultValue = "0") int page,
+                                   @RequestParam(defaultValue = "20") int size) {
+        try {
+            return search.search(q, page, size);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (MongoExecutionTimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Recherche trop coûteuse, précisez les termes", e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.medilabo.noteservice.controller;
+
+import com.medilabo.noteservice.dto.TriggerCounts;
+import com.medilabo.noteservice.trigger.TriggerCountService;
+import com.medilabo.noteservice.trigger.TriggerDictionary;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Contrôleur REST exposant le décompte des termes déclencheurs d’un patient,
+ * utilisé par risk-assessment-service.
+ */
+@RestController
+@RequestMapping("/api/notes")
+public class NoteTriggerController {
+
+    /**
+     * Service de décompte des déclencheurs.
+     */
+    private final TriggerCountService triggers;
+
+    /**
+     * Constructeur du contrôleur de déclencheurs.
+     *
+     * @param triggers le service de décompte des déclencheurs
+     */
+    public NoteTriggerController(TriggerCountService triggers) {
+        this.triggers = triggers;
+    }
+
+    /**
+     * Compte les termes déclencheurs présents dans les notes d’un patient.
+     *
+     * @param patientId l’identifiant du patient
+     * @param version   la version du dictionnaire de déclencheurs (par défaut {@value TriggerDictionary#V1})
+     * @return les décomptes par terme et le total
+     */
+    @PreAuthorize("hasRole('PRATICIEN')")
+    @GetMapping("/patient/{patientId}/triggers")
+    public TriggerCounts countTriggers(@PathVariable Long patientId,
+                                       @RequestParam(defaultValue = TriggerDictionary.V1) String version) {
+        return triggers.count(patientId, version);
+    }
+}
@@ -0,0 +1,24 @@
+package com.medilabo.noteservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Résultat de l’ingestion d’une note dans un import en masse (une ligne NDJSON par note).
+ *
+ * @param index     position de la note dans le flux reçu (à partir de 0)
+ * @param id        identifiant attribué ({@code null} en cas d’échec)
+ * @param patientId identifiant du patient de la note
+ * @param status    {@code CREATED} ou {@code FAILED}
+ * @param error     cause de l’échec ({@code null} en cas de succès)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkItemResult(int index, Long id, Long patientId, String status, String error) {
+
+    public static BulkItemResult created(int index, Long id, Long patientId) {
+        return new BulkItemResult(index, id, patientId, "CREATED", null);
+    }
+
+    public static BulkItemResult failed(int index, Long patientId, String error) {
+        return new BulkItemResult(index, null, patientId, "FAILED", error);
+    }
+}
@@ -0,0 +1,60 @@
+package com.medilabo.noteservice.dto;
+
+import com.medilabo.noteservice.model.Note;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Curseur de pagination des notes d’un patient : position {@code (createdAt, id)}
+ * de la dernière note renvoyée.
+ * <p>
+ * Il est transmis au client sous forme opaque (Base64 URL de {@code "<epochMillis>_<id>"}) ;
+ * la page suivante reprend strictement après cette position, sans {@code skip}.
+ * </p>
+ *
+ * @param createdAt date de création de la dernière note renvoyée
+ * @param id        identifiant de la dernière note renvoyée
+ */
+public record NoteCursor(Instant createdAt, Long id) {
+
+    /**
+     * Construit le curseur positionné sur une note.
+     *
+     * @param note la dernière note d’une page
+     * @return le curseur correspondant
+     */
+    public static NoteCursor after(Note note) {
+        return new NoteCursor(note.getCreatedAt(), note.getId());
+    }
+
+    /**
+     * Encode le curseur sous forme opaque.
+     *
+     * @return la représentation transmise au client
+     */
+    public String encode() {
+        String raw = createdAt.toEpochMilli() + "_" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Décode un curseur reçu du client.
+     *
+     * @param token la représentation opaque
+     * @return le curseur décodé
+     * @throws IllegalArgumentException si le curseur est invalide
+     */
+    public static NoteCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('_');
+            return new NoteCursor(
+                    Instant.ofEpochMilli(Long.parseLong(raw.substring(0, sep))),
+                    Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Curseur invalide: " + token, e);
+        }
+    }
+}
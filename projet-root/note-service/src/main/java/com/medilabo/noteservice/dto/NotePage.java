@@ -0,0 +1,14 @@
+package com.medilabo.noteservice.dto;
+
+import com.medilabo.noteservice.model.Note;
+
+import java.util.List;
+
+/**
+ * Page de notes d’un patient, ordonnée par date de création.
+ *
+ * @param notes      les notes de la page
+ * @param nextCursor curseur opaque de la page suivante, {@code null} s’il n’y en a pas
+ */
+public record NotePage(List<Note> notes, String nextCursor) {
+}
@@ -0,0 +1,50 @@
+package com.medilabo.noteservice.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Résultat d’une recherche plein texte dans les notes.
+ *
+ * @param query    la requête recherchée
+ * @param page     numéro de la page de notes (à partir de 0)
+ * @param size     taille de la page de notes
+ * @param notes    les notes trouvées, par pertinence décroissante
+ * @param patients les patients concernés, par pertinence décroissante (toutes pages confondues)
+ */
+public record NoteSearchResult(String query, int page, int size,
+                               List<NoteHit> notes, List<PatientHit> patients) {
+
+    /**
+     * Note correspondant à la recherche.
+     *
+     * @param noteId     identifiant de la note
+     * @param patientId  identifiant du patient
+     * @param createdAt  date de création de la note
+     * @param score      score de pertinence MongoDB ({@code textScore})
+     * @param content    contenu de la note
+     * @param highlights positions des termes trouvés dans {@code content}
+     */
+    public record NoteHit(Long noteId, Long patientId, Instant createdAt, double score,
+                          String content, List<Highlight> highlights) {
+    }
+
+    /**
+     * Patient dont au moins une note correspond à la recherche.
+     *
+     * @param patientId identifiant du patient
+     * @param hits      nombre de notes trouvées
+     * @param score     meilleur score de ses notes
+     */
+    public record PatientHit(Long patientId, long hits, double score) {
+    }
+
+    /**
+     * Position d’un terme trouvé dans le contenu d’une note.
+     *
+     * @param start indice du premier caractère (inclus)
+     * @param end   indice du dernier caractère (exclu)
+     */
+    public record Highlight(int start, int end) {
+    }
+}
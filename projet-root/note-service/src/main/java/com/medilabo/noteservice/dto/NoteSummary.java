@@ -0,0 +1,41 @@
+package com.medilabo.noteservice.dto;
+
+import java.time.Instant;
+
+/**
+ * Synthèse des notes d’un patient, sans leur contenu.
+ *
+ * @param patientId     identifiant du patient
+ * @param count         nombre de notes
+ * @param lastCreatedAt date de création la plus récente ({@code null} sans note)
+ * @param lastUpdatedAt date de mise à jour la plus récente ({@code null} sans note)
+ */
+public record NoteSummary(Long patientId, long count, Instant lastCreatedAt, Instant lastUpdatedAt) {
+
+    /**
+     * Synthèse d’un patient sans note.
+     *
+     * @param patientId identifiant du patient
+     * @return une synthèse vide
+     */
+    public static NoteSummary empty(Long patientId) {
+        return new NoteSummary(patientId, 0, null, null);
+    }
+
+    /**
+     * Combine deux synthèses d’un même patient (tiers chaud et archive).
+     *
+     * @param other l’autre synthèse
+     * @return la somme des décomptes et les dates les plus récentes
+     */
+    public NoteSummary merge(NoteSummary other) {
+        return new NoteSummary(patientId, count + other.count,
+                latest(lastCreatedAt, other.lastCreatedAt), latest(lastUpdatedAt, other.lastUpdatedAt));
+    }
+
+    private static Instant latest(Instant a, Instant b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,18 @@
+package com.medilabo.noteservice.dto;
+
+import java.util.Map;
+
+/**
+ * Décompte des termes déclencheurs dans les notes d’un patient.
+ * <p>
+ * Un terme compte une fois par note qui le contient.
+ * </p>
+ *
+ * @param patientId identifiant du patient
+ * @param version   version du dictionnaire appliqué
+ * @param notes     nombre de notes analysées
+ * @param total     nombre total de déclencheurs trouvés
+ * @param terms     nombre de notes contenant chaque terme (termes absents omis)
+ */
+public record TriggerCounts(Long patientId, String version, int notes, int total, Map<String, Integer> terms) {
+}
@@ -0,0 +1,159 @@
+package com.medilabo.noteservice.feed;
+
+import com.medilabo.noteservice.id.IdBlockAllocator;
+import com.medilabo.noteservice.model.ChangeType;
+import com.medilabo.noteservice.model.Note;
+import com.medilabo.noteservice.model.NoteChange;
+import com.medilabo.noteservice.repository.NoteChangeRepository;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Journal des changements de notes, exposé comme flux reprenable.
+ * <p>
+ * Les change streams MongoDB exigent un replica set, ce que l’instance Mongo
+ * autonome du docker-compose ne fournit pas : le flux s’appuie donc sur la
+ * collection {@code note_changes}, alimentée par {@code NoteService} à chaque
+ * écriture. Chaque entrée reçoit un offset issu d’une séquence de la collection
+ * {@code counters}, est publiée en mémoire sous forme d’événement Spring
+ * ({@code @EventListener(NoteChange.class)}) et expire après {@code notes.changes.retention}.
+ * </p>
+ * <p>
+ * Deux écritures concurrentes peuvent réserver leurs offsets dans un ordre et les
+ * insérer dans l’autre : la lecture ignore donc les entrées plus récentes que
+ * {@code notes.changes.settle-ms}, pour qu’un consommateur ne saute pas un offset
+ * encore en cours d’insertion.
+ * </p>
+ */
+@Component
+public class NoteChangeLog {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteChangeLog.class);
+
+    /**
+     * Nom de la séquence utilisée pour les offsets du journal.
+     */
+    static final String SEQUENCE = "note_changes";
+
+    private final NoteChangeRepository changes;
+    private final MongoOperations mongo;
+    private final ApplicationEventPublisher events;
+    private final Duration retention;
+    private final Duration settle;
+    private final int maxLimit;
+
+    public NoteChangeLog(NoteChangeRepository changes,
+                         MongoOperations mongo,
+                         ApplicationEventPublisher events,
+                         @Value("${notes.changes.retention:7d}") Duration retention,
+                         @Value("${notes.changes.settle-ms:500}") long settleMs,
+                         @Value("${notes.changes.max-limit:1000}") int maxLimit) {
+        this.changes = changes;
+        this.mongo = mongo;
+        this.events = events;
+        this.retention = retention;
+        this.settle = Duration.ofMillis(settleMs);
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Crée au démarrage l’index TTL qui borne la taille du journal.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        mongo.indexOps(NoteChange.class)
+                .createIndex(new Index().on("occurredAt", Sort.Direction.ASC).expire(retention));
+    }
+
+    /**
+     * Ajoute une entrée au journal pour une note donnée.
+     *
+     * @param note la note concernée (doit porter son identifiant et celui du patient)
+     * @param type le type d’opération
+     * @return l’entrée enregistrée
+     */
+    public NoteChange record(Note note, ChangeType type) {
+        NoteChange change = new NoteChange(reserveOffsets(1), note.getId(), note.getPatientId(), type, Instant.now());
+        changes.insert(change);
+        events.publishEvent(change);
+        log.debug("[NoteChangeLog] offset={} {} note={} patient={}",
+                change.getId(), type, note.getId(), note.getPatientId());
+        return change;
+    }
+
+    /**
+     * Ajoute au journal une entrée par note d’un lot, avec une seule réservation d’offsets
+     * et une seule insertion (ingestion en masse).
+     *
+     * @param notes les notes concernées (identifiants attribués)
+     * @param type  le type d’opération
+     * @return les entrées enregistrées, dans l’ordre des notes
+     */
+    public List<NoteChange> recordAll(List<Note> notes, ChangeType type) {
+        if (notes.isEmpty()) return List.of();
+
+        long first = reserveOffsets(notes.size()) - notes.size() + 1;
+        Instant now = Instant.now();
+        List<NoteChange> batch = new ArrayList<>(notes.size());
+        for (int i = 0; i < notes.size(); i++) {
+            Note n = notes.get(i);
+            batch.add(new NoteChange(first + i, n.getId(), n.getPatientId(), type, now));
+        }
+        changes.insert(batch);
+        batch.forEach(events::publishEvent);
+        log.debug("[NoteChangeLog] offsets {}..{} {} ({} notes)", first, first + notes.size() - 1, type, notes.size());
+        return batch;
+    }
+
+    /**
+     * Lit les entrées postérieures à un offset.
+     *
+     * @param after dernier offset consommé ({@code 0} pour lire depuis le début de la rétention)
+     * @param limit nombre maximal d’entrées souhaité (borné par {@code notes.changes.max-limit})
+     * @return les entrées suivantes, par offset croissant
+     * @throws IllegalArgumentException si l’offset ou la limite sont négatifs
+     */
+    public List<NoteChange> readAfter(long after, int limit) {
+        if (after < 0 || limit <= 0) {
+            throw new IllegalArgumentException("Offset ou limite invalide: after=" + after + ", limit=" + limit);
+        }
+        return changes.findByIdGreaterThanAndOccurredAtBeforeOrderByIdAsc(
+                after, Instant.now().minus(settle), PageRequest.of(0, Math.min(limit, maxLimit)));
+    }
+
+    /**
+     * Réserve des offsets consécutifs dans la collection {@code counters}.
+     *
+     * @param count nombre d’offsets à réserver
+     * @return le dernier offset réservé
+     */
+    private long reserveOffsets(int count) {
+        Document counter = mongo.findAndModify(
+                Query.query(where("_id").is(SEQUENCE)),
+                new Update().inc("seq", (long) count),
+                FindAndModifyOptions.options().returnNew(true).upsert(true),
+                Document.class,
+                IdBlockAllocator.COUNTERS);
+        return ((Number) counter.get("seq")).longValue();
+    }
+}
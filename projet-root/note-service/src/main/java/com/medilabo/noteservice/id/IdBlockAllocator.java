@@ -0,0 +1,106 @@
+package com.medilabo.noteservice.id;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Allocateur d’identifiants {@code Long} par blocs (schéma hi/lo) adossé à la collection
+ * {@code counters}.
+ * <p>
+ * Chaque instance réserve atomiquement un bloc de {@code blockSize} identifiants
+ * ({@code $inc} via {@code findAndModify}) puis les distribue localement, sans aller-retour
+ * MongoDB pour chaque insertion. Plusieurs instances du service obtiennent des blocs
+ * disjoints : les identifiants sont uniques mais pas contigus, et ne reflètent pas
+ * l’ordre d’insertion entre instances. Les identifiants restants d’un bloc sont
+ * perdus à l’arrêt.
+ * </p>
+ * <p>
+ * Avant la première réservation, le compteur est relevé ({@code $max}) au plus grand
+ * {@code _id} déjà présent dans la collection cible, pour ne jamais réattribuer un
+ * identifiant existant.
+ * </p>
+ */
+public class IdBlockAllocator {
+
+    /**
+     * Collection des compteurs de séquences.
+     */
+    public static final String COUNTERS = "counters";
+
+    private final MongoOperations mongo;
+    private final String sequence;
+    private final String targetCollection;
+    private final int blockSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private boolean seeded;
+    private long next = 1;
+    private long max = 0;
+
+    /**
+     * @param mongo            accès MongoDB
+     * @param sequence         nom de la séquence (identifiant du document dans {@code counters})
+     * @param targetCollection collection dont les {@code _id} sont alloués
+     * @param blockSize        nombre d’identifiants réservés par aller-retour
+     */
+    public IdBlockAllocator(MongoOperations mongo, String sequence, String targetCollection, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Taille de bloc invalide: " + blockSize);
+        }
+        this.mongo = mongo;
+        this.sequence = sequence;
+        this.targetCollection = targetCollection;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Retourne le prochain identifiant, en réservant un nouveau bloc si le bloc local est épuisé.
+     *
+     * @return un identifiant unique
+     */
+    public long nextId() {
+        lock.lock();
+        try {
+            if (next > max) {
+                reserveBlock();
+            }
+            return next++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void reserveBlock() {
+        if (!seeded) {
+            seedFromExistingIds();
+            seeded = true;
+        }
+        Document counter = mongo.findAndModify(
+                Query.query(where("_id").is(sequence)),
+                new Update().inc("seq", (long) blockSize),
+                FindAndModifyOptions.options().returnNew(true).upsert(true),
+                Document.class,
+                COUNTERS);
+        long hi = ((Number) counter.get("seq")).longValue();
+        next = hi - blockSize + 1;
+        max = hi;
+    }
+
+    private void seedFromExistingIds() {
+        Document last = mongo.findOne(
+                new Query().with(Sort.by(Sort.Direction.DESC, "_id")).limit(1),
+                Document.class,
+                targetCollection);
+        if (last != null && last.get("_id") instanceof Number highest) {
+            mongo.upsert(Query.query(where("_id").is(sequence)), new Update().max("seq", highest.longValue()), COUNTERS);
+        }
+    }
+}
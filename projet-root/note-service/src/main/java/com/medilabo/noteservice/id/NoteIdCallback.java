@@ -0,0 +1,28 @@
+package com.medilabo.noteservice.id;
+
+import com.medilabo.noteservice.model.Note;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+/**
+ * Attribue un identifiant aux notes qui n’en ont pas, juste avant leur conversion
+ * en document MongoDB (insertions unitaires comme opérations groupées).
+ */
+@Component
+public class NoteIdCallback implements BeforeConvertCallback<Note> {
+
+    private final IdBlockAllocator allocator;
+
+    public NoteIdCallback(@Qualifier("noteIdAllocator") IdBlockAllocator allocator) {
+        this.allocator = allocator;
+    }
+
+    @Override
+    public Note onBeforeConvert(Note note, String collection) {
+        if (note.getId() == null) {
+            note.setId(allocator.nextId());
+        }
+        return note;
+    }
+}
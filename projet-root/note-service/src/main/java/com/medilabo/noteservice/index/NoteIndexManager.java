@@ -0,0 +1,202 @@
+package com.medilabo.noteservice.index;
+
+import com.medilabo.noteservice.model.Note;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Gestion des index de la collection {@code notes} et vérification des plans d’exécution.
+ * <p>
+ * Au démarrage, les index déclarés sur {@link Note} ({@code @CompoundIndex}) sont créés
+ * s’ils n’existent pas, les index renommés depuis ({@link #RETIRED_INDEXES}) supprimés, puis
+ * chaque requête « chaude » est soumise à {@code explain}.
+ * Si l’une d’elles retombe sur un {@code COLLSCAN}, l’anomalie est journalisée, remontée
+ * par {@link QueryPlanHealthIndicator} et, si {@code notes.indexes.fail-on-collscan}
+ * vaut {@code true}, le démarrage est interrompu.
+ * </p>
+ */
+@Component
+public class NoteIndexManager {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteIndexManager.class);
+
+    /**
+     * Forme d’une requête chaude : filtre et tri éventuel. La valeur des filtres est
+     * indifférente pour {@code explain}, seul le plan retenu compte.
+     *
+     * @param name   nom de la requête (méthode du repository)
+     * @param filter filtre MongoDB
+     * @param sort   tri MongoDB ({@code null} si aucun)
+     */
+    record HotQuery(String name, Document filter, Document sort) {}
+
+    /**
+     * Requêtes chaudes sur {@code notes}, telles qu’émises par {@code NoteRepository}.
+     */
+    static final List<HotQuery> HOT_QUERIES = List.of(
+            new HotQuery("findByPatientId", new Document("patientId", 0L), null),
+            new HotQuery("findPageByPatientId",
+                    new Document("patientId", 0L).append("createdAt", new Document("$gte", new Date(0))),
+                    new Document("createdAt", -1).append("_id", -1)),
+            new HotQuery("streamByPatientIds",
+                    new Document("patientId", new Document("$in", List.of(0L, 1L))),
+                    new Document("patientId", 1).append("createdAt", -1).append("_id", -1))
+    );
+
+    /**
+     * Anciens noms d’index de {@code notes}, remplacés depuis : supprimés au démarrage pour ne pas
+     * maintenir deux index équivalents à chaque écriture.
+     */
+    static final List<String> RETIRED_INDEXES = List.of("patient_created_idx");
+
+    private final MongoTemplate mongo;
+    private final boolean failOnCollscan;
+
+    /**
+     * Requêtes chaudes exécutées en {@code COLLSCAN} lors de la dernière vérification.
+     */
+    private volatile List<String> collscans = List.of();
+
+    /**
+     * Vrai une fois la première vérification terminée.
+     */
+    private volatile boolean verified;
+
+    public NoteIndexManager(MongoTemplate mongo,
+                            @Value("${notes.indexes.fail-on-collscan:false}") boolean failOnCollscan) {
+        this.mongo = mongo;
+        this.failOnCollscan = failOnCollscan;
+    }
+
+    /**
+     * Crée les index puis vérifie les plans au démarrage de l’application.
+     *
+     * @throws IllegalStateException si une requête chaude fait un {@code COLLSCAN}
+     *                               et que {@code notes.indexes.fail-on-collscan} est actif
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        ensureIndexes();
+        List<String> scans = verifyQueryPlans();
+        if (!scans.isEmpty() && failOnCollscan) {
+            throw new IllegalStateException("Requêtes en COLLSCAN sur notes: " + scans);
+        }
+    }
+
+    /**
+     * Crée les index déclarés par annotations sur {@link Note}, puis supprime les index retirés.
+     */
+    public void ensureIndexes() {
+        IndexOperations ops = mongo.indexOps(Note.class);
+        new MongoPersistentEntityIndexResolver(mongo.getConverter().getMappingContext())
+                .resolveIndexFor(Note.class)
+                .forEach(ops::createIndex);
+        // après la création : les requêtes restent indexées pendant le remplacement
+        dropRetiredIndexes(ops);
+        log.info("[NoteIndexManager] index de la collection notes vérifiés");
+    }
+
+    /**
+     * Supprime de la collection les index de {@link #RETIRED_INDEXES} encore présents
+     * (déploiements antérieurs au renommage).
+     *
+     * @param ops opérations d’index de la collection {@code notes}
+     * @return les noms des index supprimés
+     */
+    static List<String> dropRetiredIndexes(IndexOperations ops) {
+        List<String> dropped = ops.getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .filter(RETIRED_INDEXES::contains)
+                .toList();
+        for (String name : dropped) {
+            ops.dropIndex(name);
+            log.info("[NoteIndexManager] ancien index {} supprimé", name);
+        }
+        return dropped;
+    }
+
+    /**
+     * Exécute {@code explain} sur chaque requête chaude et relève celles qui font un {@code COLLSCAN}.
+     *
+     * @return les noms des requêtes en {@code COLLSCAN} (vide si tout est indexé)
+     */
+    public List<String> verifyQueryPlans() {
+        collscans = HOT_QUERIES.stream()
+                .filter(q -> usesCollscan(winningPlan(explain(q.filter(), q.sort()))))
+                .map(HotQuery::name)
+                .toList();
+        verified = true;
+        if (collscans.isEmpty()) {
+            log.info("[NoteIndexManager] plans vérifiés, aucune requête chaude en COLLSCAN");
+        } else {
+            log.error("[NoteIndexManager] requêtes chaudes en COLLSCAN: {}", collscans);
+        }
+        return collscans;
+    }
+
+    /**
+     * @return les requêtes chaudes en {@code COLLSCAN} lors de la dernière vérification
+     */
+    public List<String> getCollscans() {
+        return collscans;
+    }
+
+    /**
+     * @return vrai si au moins une vérification a eu lieu
+     */
+    public boolean isVerified() {
+        return verified;
+    }
+
+    private Document explain(Document filter, Document sort) {
+        Document find = new Document("find", mongo.getCollectionName(Note.class)).append("filter", filter);
+        if (sort != null) {
+            find.append("sort", sort);
+        }
+        return mongo.getDb().runCommand(new Document("explain", find).append("verbosity", "queryPlanner"));
+    }
+
+    /**
+     * Extrait le plan retenu d’un résultat {@code explain} (les plans rejetés sont ignorés).
+     *
+     * @param explain résultat de la commande {@code explain}
+     * @return le nœud {@code queryPlanner.winningPlan}, ou {@code null} s’il est absent
+     */
+    static Object winningPlan(Document explain) {
+        Object planner = explain.get("queryPlanner");
+        return planner instanceof Document doc ? doc.get("winningPlan") : null;
+    }
+
+    /**
+     * Recherche récursivement une étape {@code COLLSCAN} dans un plan d’exécution
+     * (formats classique et moteur SBE).
+     *
+     * @param node nœud du plan (document, liste ou valeur)
+     * @return vrai si une étape {@code COLLSCAN} est présente
+     */
+    static boolean usesCollscan(Object node) {
+        if (node instanceof Document doc) {
+            if ("COLLSCAN".equals(doc.get("stage"))) return true;
+            for (Object child : doc.values()) {
+                if (usesCollscan(child)) return true;
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object child : list) {
+                if (usesCollscan(child)) return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,34 @@
+package com.medilabo.noteservice.index;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Indicateur de santé {@code queryPlan} : passe à {@code DOWN} si une requête chaude
+ * sur {@code notes} est exécutée en {@code COLLSCAN} (index manquant ou ignoré).
+ * <p>
+ * L’état reflète la dernière vérification effectuée par {@link NoteIndexManager}
+ * (au démarrage), afin que l’appel à {@code /actuator/health} reste gratuit.
+ * </p>
+ */
+@Component("queryPlan")
+public class QueryPlanHealthIndicator implements HealthIndicator {
+
+    private final NoteIndexManager indexes;
+
+    public QueryPlanHealthIndicator(NoteIndexManager indexes) {
+        this.indexes = indexes;
+    }
+
+    @Override
+    public Health health() {
+        if (!indexes.isVerified()) {
+            return Health.unknown().withDetail("reason", "vérification en attente").build();
+        }
+        if (!indexes.getCollscans().isEmpty()) {
+            return Health.down().withDetail("collscan", indexes.getCollscans()).build();
+        }
+        return Health.up().withDetail("hotQueries", NoteIndexManager.HOT_QUERIES.size()).build();
+    }
+}
@@ -0,0 +1,10 @@
+package com.medilabo.noteservice.model;
+
+/**
+ * Type d’opération enregistrée dans le journal des changements de notes.
+ */
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -1,7 +1,11 @@
 package com.medilabo.noteservice.model;
 
+import com.medilabo.noteservice.storage.NoteBodyCodec;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.time.Instant;
 
@@ -11,12 +15,38 @@ import java.time.Instant;
  * Chaque note est associée à un patient via {@code patientId} et contient
  * un contenu textuel ainsi que des métadonnées temporelles.
  * </p>
+ * <p>
+ * L’index composé {@code (patientId, createdAt, _id)} sert la recherche par patient,
+ * requête la plus sollicitée du système, ainsi que la pagination chronologique
+ * par curseur ({@code _id} départage les notes créées à la même milliseconde).
+ * </p>
+ * <p>
+ * Le contenu porte un index texte en français (racinisation, mots vides) utilisé par
+ * la recherche plein texte {@code GET /api/notes/search}.
+ * </p>
+ * <p>
+ * Lorsque la compression est activée ({@code notes.storage.compression}), les contenus
+ * volumineux sont stockés compressés dans {@code contentZ} et décompressés au premier
+ * appel de {@link #getContent()} seulement ; ils ne figurent alors plus dans l’index texte.
+ * </p>
  */
-@Document(collection = "notes")
+@Document(collection = Note.COLLECTION, language = "french")
+@CompoundIndex(name = Note.PATIENT_CREATED_INDEX, def = "{'patientId': 1, 'createdAt': -1, '_id': -1}")
 public class Note {
 
+    /**
+     * Nom de l’index composé {@code (patientId, createdAt, _id)}.
+     */
+    public static final String PATIENT_CREATED_INDEX = "patient_created_id_idx";
+
+    /**
+     * Nom de la collection des notes (tier chaud).
+     */
+    public static final String COLLECTION = "notes";
+
     /**
      * Identifiant unique de la note.
+     * Attribué à l’insertion par l’allocateur par blocs ({@code NoteIdCallback}) s’il est {@code null}.
      */
     @Id
     private Long id;
@@ -29,8 +59,16 @@ public class Note {
     /**
      * Contenu textuel de la note médicale.
      */
+    @TextIndexed
     private String content;
 
+    /**
+     * Contenu compressé, présent à la place de {@code content} pour les notes volumineuses
+     * (jamais sérialisé en JSON).
+     */
+    @Field(NoteBodyCodec.COMPRESSED_FIELD)
+    private byte[] compressedContent;
+
     /**
      * Date et heure de création de la note.
      */
@@ -83,11 +121,15 @@ public class Note {
     }
 
     /**
-     * Retourne le contenu textuel de la note.
+     * Retourne le contenu textuel de la note, décompressé au premier appel si besoin.
      *
      * @return le contenu de la note
      */
     public String getContent() {
+        if (content == null && compressedContent != null) {
+            content = NoteBodyCodec.decompress(compressedContent);
+            compressedContent = null;
+        }
         return content;
     }
 
@@ -98,6 +140,7 @@ public class Note {
      */
     public void setContent(String content) {
         this.content = content;
+        this.compressedContent = null;
     }
 
     /**
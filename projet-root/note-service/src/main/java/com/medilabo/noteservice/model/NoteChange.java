@@ -0,0 +1,107 @@
+package com.medilabo.noteservice.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Entrée du journal des changements de notes (collection {@code note_changes}).
+ * <p>
+ * Ce journal joue le rôle d’un oplog applicatif : chaque écriture sur une note y
+ * ajoute une entrée dont l’identifiant, strictement croissant, sert d’offset de
+ * reprise pour les consommateurs du flux de changements. Seuls les identifiants
+ * (note, patient) et le type d’opération sont conservés, jamais le contenu.
+ * </p>
+ */
+@Document(collection = "note_changes")
+public class NoteChange {
+
+    /**
+     * Offset de l’entrée (séquence croissante).
+     */
+    @Id
+    private Long id;
+
+    /**
+     * Identifiant de la note modifiée.
+     */
+    private Long noteId;
+
+    /**
+     * Identifiant du patient propriétaire de la note.
+     */
+    private Long patientId;
+
+    /**
+     * Type d’opération.
+     */
+    private ChangeType type;
+
+    /**
+     * Date de l’opération (sert aussi à l’expiration TTL du journal).
+     */
+    private Instant occurredAt;
+
+    /**
+     * Constructeur par défaut requis par Spring Data.
+     */
+    public NoteChange() {}
+
+    /**
+     * Constructeur complet.
+     *
+     * @param id         offset de l’entrée
+     * @param noteId     identifiant de la note
+     * @param patientId  identifiant du patient
+     * @param type       type d’opération
+     * @param occurredAt date de l’opération
+     */
+    public NoteChange(Long id, Long noteId, Long patientId, ChangeType type, Instant occurredAt) {
+        this.id = id;
+        this.noteId = noteId;
+        this.patientId = patientId;
+        this.type = type;
+        this.occurredAt = occurredAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getNoteId() {
+        return noteId;
+    }
+
+    public void setNoteId(Long noteId) {
+        this.noteId = noteId;
+    }
+
+    public Long getPatientId() {
+        return patientId;
+    }
+
+    public void setPatientId(Long patientId) {
+        this.patientId = patientId;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public void setType(ChangeType type) {
+        this.type = type;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(Instant occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
@@ -0,0 +1,24 @@
+package com.medilabo.noteservice.repository;
+
+import com.medilabo.noteservice.model.NoteChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Référentiel MongoDB du journal des changements de notes ({@link NoteChange}).
+ */
+public interface NoteChangeRepository extends MongoRepository<NoteChange, Long> {
+
+    /**
+     * Lit les entrées postérieures à un offset et antérieures à une date, par offset croissant.
+     *
+     * @param after    dernier offset consommé (exclu)
+     * @param before   date limite d’écriture (exclue)
+     * @param pageable taille maximale du lot
+     * @return les entrées suivantes du journal
+     */
+    List<NoteChange> findByIdGreaterThanAndOccurredAtBeforeOrderByIdAsc(Long after, Instant before, Pageable pageable);
+}
@@ -9,10 +9,11 @@ import java.util.List;
  * Référentiel MongoDB pour l’entité {@link Note}.
  * <p>
  * Fournit les opérations CRUD standard ainsi que des méthodes de requête
- * personnalisées pour interagir avec la collection {@code notes}.
+ * personnalisées pour interagir avec la collection {@code notes}
+ * (voir {@link NoteRepositoryCustom}).
  * </p>
  */
-public interface NoteRepository extends MongoRepository<Note, Long> {
+public interface NoteRepository extends MongoRepository<Note, Long>, NoteRepositoryCustom {
 
     /**
      * Recherche toutes les notes associées à un patient spécifique.
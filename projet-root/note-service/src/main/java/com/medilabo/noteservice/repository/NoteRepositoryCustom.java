@@ -0,0 +1,67 @@
+package com.medilabo.noteservice.repository;
+
+import com.medilabo.noteservice.dto.NoteCursor;
+import com.medilabo.noteservice.dto.NoteSummary;
+import com.medilabo.noteservice.model.Note;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Requêtes personnalisées sur la collection {@code notes}, implémentées par
+ * {@link NoteRepositoryImpl} et exposées via {@link NoteRepository}.
+ */
+public interface NoteRepositoryCustom {
+
+    /**
+     * Lit une tranche des notes d’un patient, triée par {@code (createdAt, id)}, en reprenant
+     * après un curseur (pagination par clé, servie par l’index {@code (patientId, createdAt, _id)}).
+     *
+     * @param patientId  l’identifiant du patient
+     * @param since      borne inférieure incluse sur {@code createdAt} ({@code null} = aucune)
+     * @param until      borne supérieure exclue sur {@code createdAt} ({@code null} = aucune)
+     * @param after      position de reprise ({@code null} = début)
+     * @param descending vrai pour lire de la plus récente à la plus ancienne
+     * @param limit      nombre maximal de notes
+     * @return les notes de la tranche
+     */
+    List<Note> findPageByPatientId(Long patientId, Instant since, Instant until,
+                                   NoteCursor after, boolean descending, int limit);
+
+    /**
+     * Lit en flux les notes de plusieurs patients en une seule requête {@code $in}.
+     * <p>
+     * Les notes sont triées par patient puis de la plus récente à la plus ancienne,
+     * soit l’ordre de l’index {@code (patientId, createdAt, _id)} : aucun tri en mémoire
+     * n’est nécessaire et les notes d’un même patient arrivent consécutivement.
+     * Le flux doit être fermé par l’appelant.
+     * </p>
+     *
+     * @param patientIds les identifiants des patients
+     * @return le flux des notes, groupées par patient
+     */
+    Stream<Note> streamByPatientIds(Collection<Long> patientIds);
+
+    /**
+     * Lit en flux l’identifiant et le contenu des notes d’un patient (aucune autre donnée
+     * n’est transférée), contenu décompressé si besoin. Le flux doit être fermé par l’appelant.
+     *
+     * @param patientId l’identifiant du patient
+     * @return le flux des notes, réduites à {@code id} et {@code content}
+     */
+    Stream<Note> streamContentByPatientId(Long patientId);
+
+    /**
+     * Calcule par agrégation groupée le nombre de notes et les dernières dates de
+     * création et de mise à jour de plusieurs patients, sans lire le contenu des notes.
+     * Sur l’archive, les notes aussi présentes dans le tier chaud sont écartées : additionner
+     * les synthèses des deux tiers compte chaque note une fois.
+     *
+     * @param patientIds les identifiants des patients
+     * @param collection la collection interrogée ({@code notes} ou l’archive)
+     * @return une synthèse par patient ayant au moins une note dans la collection
+     */
+    List<NoteSummary> summarizeByPatientIds(Collection<Long> patientIds, String collection);
+}
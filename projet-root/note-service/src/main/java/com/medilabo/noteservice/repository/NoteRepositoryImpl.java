@@ -0,0 +1,103 @@
+package com.medilabo.noteservice.repository;
+
+import com.medilabo.noteservice.dto.NoteCursor;
+import com.medilabo.noteservice.dto.NoteSummary;
+import com.medilabo.noteservice.model.Note;
+import com.medilabo.noteservice.storage.NoteBodyCodec;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.lookup;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.project;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Implémentation des requêtes personnalisées de {@link NoteRepositoryCustom}.
+ */
+public class NoteRepositoryImpl implements NoteRepositoryCustom {
+
+    /**
+     * Nombre de notes rapatriées par aller-retour lors d’une lecture en flux.
+     */
+    static final int STREAM_BATCH_SIZE = 500;
+
+    private final MongoOperations mongo;
+
+    public NoteRepositoryImpl(MongoOperations mongo) {
+        this.mongo = mongo;
+    }
+
+    @Override
+    public List<Note> findPageByPatientId(Long patientId, Instant since, Instant until,
+                                          NoteCursor after, boolean descending, int limit) {
+        List<Criteria> and = new ArrayList<>();
+        and.add(where("patientId").is(patientId));
+
+        if (since != null || until != null) {
+            Criteria window = where("createdAt");
+            if (since != null) window = window.gte(since);
+            if (until != null) window = window.lt(until);
+            and.add(window);
+        }
+
+        if (after != null) {
+            Criteria beyondDate = descending
+                    ? where("createdAt").lt(after.createdAt())
+                    : where("createdAt").gt(after.createdAt());
+            Criteria sameDateBeyondId = descending
+                    ? new Criteria().andOperator(where("createdAt").is(after.createdAt()), where("id").lt(after.id()))
+                    : new Criteria().andOperator(where("createdAt").is(after.createdAt()), where("id").gt(after.id()));
+            and.add(new Criteria().orOperator(beyondDate, sameDateBeyondId));
+        }
+
+        Sort.Direction dir = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Query query = new Query(new Criteria().andOperator(and))
+                .with(Sort.by(dir, "createdAt", "id"))
+                .limit(limit);
+        return mongo.find(query, Note.class);
+    }
+
+    @Override
+    public Stream<Note> streamByPatientIds(Collection<Long> patientIds) {
+        Query query = new Query(where("patientId").in(patientIds))
+                .with(Sort.by(Sort.Order.asc("patientId"), Sort.Order.desc("createdAt"), Sort.Order.desc("id")))
+                .cursorBatchSize(STREAM_BATCH_SIZE);
+        return mongo.stream(query, Note.class);
+    }
+
+    @Override
+    public Stream<Note> streamContentByPatientId(Long patientId) {
+        Query query = new Query(where("patientId").is(patientId)).cursorBatchSize(STREAM_BATCH_SIZE);
+        query.fields().include("content").include(NoteBodyCodec.COMPRESSED_FIELD);
+        return mongo.stream(query, Note.class);
+    }
+
+    @Override
+    public List<NoteSummary> summarizeByPatientIds(Collection<Long> patientIds, String collection) {
+        List<AggregationOperation> stages = new ArrayList<>();
+        stages.add(match(where("patientId").in(patientIds)));
+        if (!Note.COLLECTION.equals(collection)) {
+            // une note aussi présente dans le tier chaud y est déjà comptée (recherche par _id indexé)
+            stages.add(lookup(Note.COLLECTION, "_id", "_id", "hot"));
+            stages.add(match(where("hot").size(0)));
+        }
+        stages.add(group("patientId")
+                .count().as("count")
+                .max("createdAt").as("lastCreatedAt")
+                .max("updatedAt").as("lastUpdatedAt"));
+        stages.add(project("count", "lastCreatedAt", "lastUpdatedAt").and("patientId").previousOperation());
+        return mongo.aggregate(newAggregation(stages), collection, NoteSummary.class).getMappedResults();
+    }
+}
@@ -0,0 +1,190 @@
+package com.medilabo.noteservice.search;
+
+import com.medilabo.noteservice.dto.NoteSearchResult;
+import com.medilabo.noteservice.dto.NoteSearchResult.Highlight;
+import com.medilabo.noteservice.dto.NoteSearchResult.NoteHit;
+import com.medilabo.noteservice.dto.NoteSearchResult.PatientHit;
+import com.medilabo.noteservice.model.Note;
+import com.mongodb.MongoExecutionTimeoutException;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Recherche plein texte dans les notes, servie par l’index texte français de la
+ * collection {@code notes} (voir {@link Note}).
+ * <p>
+ * Une recherche émet deux requêtes bornées par {@code notes.search.max-time-ms} :
+ * la page de notes triée par score, et l’agrégation des patients concernés.
+ * La profondeur de pagination est limitée par {@code notes.search.max-depth}.
+ * </p>
+ * <p>
+ * MongoDB ne renvoie pas la position des termes trouvés : les surlignages sont
+ * calculés sur la page renvoyée, en comparant sans accents ni casse les mots de
+ * la note à la racine approchée des termes recherchés.
+ * </p>
+ */
+@Service
+public class NoteSearchService {
+
+    /**
+     * Langue de l’index texte.
+     */
+    static final String LANGUAGE = "french";
+
+    /**
+     * Longueur maximale d’une requête.
+     */
+    static final int MAX_QUERY_LENGTH = 200;
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "au", "aux", "avec", "de", "des", "du", "en", "et", "la", "le", "les",
+            "ou", "par", "pour", "sans", "sur", "un", "une");
+
+    private static final Document TEXT_SCORE = new Document("$meta", "textScore");
+
+    private final MongoTemplate mongo;
+    private final int maxSize;
+    private final int maxDepth;
+    private final int maxPatients;
+    private final long maxTimeMs;
+
+    public NoteSearchService(MongoTemplate mongo,
+                             @Value("${notes.search.max-size:100}") int maxSize,
+                             @Value("${notes.search.max-depth:1000}") int maxDepth,
+                             @Value("${notes.search.max-patients:100}") int maxPatients,
+                             @Value("${notes.search.max-time-ms:2000}") long maxTimeMs) {
+        this.mongo = mongo;
+        this.maxSize = maxSize;
+        this.maxDepth = maxDepth;
+        this.maxPatients = maxPatients;
+        this.maxTimeMs = maxTimeMs;
+    }
+
+    /**
+     * Recherche les notes et les patients correspondant à une requête.
+     * <p>
+     * La syntaxe est celle de {@code $text} : mots séparés par des espaces (OU),
+     * {@code "phrase exacte"}, {@code -exclusion}.
+     * </p>
+     *
+     * @param q    la requête
+     * @param page numéro de page (à partir de 0)
+     * @param size taille de page (bornée par {@code notes.search.max-size})
+     * @return les notes de la page, avec surlignages, et les patients concernés
+     * @throws IllegalArgumentException       si la requête ou la pagination sont invalides
+     * @throws MongoExecutionTimeoutException si la recherche dépasse {@code notes.search.max-time-ms}
+     */
+    public NoteSearchResult search(String q, int page, int size) {
+        if (q == null || q.isBlank()) {
+            throw new IllegalArgumentException("Requête de recherche vide");
+        }
+        if (q.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Requête de recherche trop longue (max " + MAX_QUERY_LENGTH + ")");
+        }
+        if (page < 0 || size <= 0) {
+            throw new IllegalArgumentException("Pagination invalide: page=" + page + ", size=" + size);
+        }
+        int limit = Math.min(size, maxSize);
+        long skip = (long) page * limit;
+        if (skip + limit > maxDepth) {
+            throw new IllegalArgumentException("Pagination trop profonde (max " + maxDepth + " résultats)");
+        }
+
+        String query = q.strip();
+        Document filter = new Document("$text", new Document("$search", query).append("$language", LANGUAGE));
+        List<String> roots = roots(query);
+        MongoCollection<Document> notes = mongo.getCollection(mongo.getCollectionName(Note.class));
+        List<NoteHit> hits = new ArrayList<>(limit);
+        for (Document doc : notes.find(filter)
+                .projection(new Document("score", TEXT_SCORE))
+                .sort(new Document("score", TEXT_SCORE).append("_id", 1))
+                .skip((int) skip)
+                .limit(limit)
+                .maxTime(maxTimeMs, TimeUnit.MILLISECONDS)) {
+            Note n = mongo.getConverter().read(Note.class, doc);
+            hits.add(new NoteHit(n.getId(), n.getPatientId(), n.getCreatedAt(),
+                    doc.get("score", Number.class).doubleValue(), n.getContent(),
+                    highlight(n.getContent(), roots)));
+        }
+
+        List<PatientHit> patients = new ArrayList<>();
+        for (Document doc : notes.aggregate(List.of(
+                        new Document("$match", filter),
+                        new Document("$group", new Document("_id", "$patientId")
+                                .append("hits", new Document("$sum", 1))
+                                .append("score", new Document("$max", TEXT_SCORE))),
+                        new Document("$sort", new Document("score", -1).append("_id", 1)),
+                        new Document("$limit", maxPatients)))
+                .maxTime(maxTimeMs, TimeUnit.MILLISECONDS)) {
+            patients.add(new PatientHit(doc.get("_id", Number.class).longValue(),
+                    doc.get("hits", Number.class).longValue(),
+                    doc.get("score", Number.class).doubleValue()));
+            }
+        return new NoteSearchResult(query, page, limit, hits, patients);
+    }
+
+    /**
+     * Extrait les racines approchées des termes positifs d’une requête
+     * (termes exclus et mots vides ignorés).
+     *
+     * @param query la requête {@code $text}
+     * @return les racines normalisées, sans doublon
+     */
+    static List<String> roots(String query) {
+        List<String> roots = new ArrayList<>();
+        for (String token : query.split("\\s+")) {
+            if (token.startsWith("-")) continue;
+            Matcher m = WORD.matcher(token);
+            while (m.find()) {
+                String word = normalize(m.group());
+                if (STOP_WORDS.contains(word)) continue;
+                String root = word.length() > 4 ? word.replaceFirst("(es|s|x|e)$", "") : word;
+                if (!roots.contains(root)) roots.add(root);
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * Repère dans un contenu les mots commençant par l’une des racines.
+     *
+     * @param content le contenu de la note
+     * @param roots   les racines normalisées
+     * @return les positions des mots trouvés, dans l’ordre du texte
+     */
+    static List<Highlight> highlight(String content, List<String> roots) {
+        if (content == null || roots.isEmpty()) return List.of();
+        List<Highlight> highlights = new ArrayList<>();
+        Matcher m = WORD.matcher(content);
+        while (m.find()) {
+            String word = normalize(m.group());
+            for (String root : roots) {
+                if (word.startsWith(root)) {
+                    highlights.add(new Highlight(m.start(), m.end()));
+                    break;
+                }
+            }
+        }
+        return highlights;
+    }
+
+    private static String normalize(String word) {
+        return DIACRITICS.matcher(Normalizer.normalize(word, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.FRENCH);
+    }
+}
@@ -0,0 +1,175 @@
+package com.medilabo.noteservice.service;
+
+import com.medilabo.noteservice.dto.BulkItemResult;
+import com.medilabo.noteservice.feed.NoteChangeLog;
+import com.medilabo.noteservice.id.IdBlockAllocator;
+import com.medilabo.noteservice.model.ChangeType;
+import com.medilabo.noteservice.model.Note;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Service d’ingestion en masse des notes (reprise d’historique).
+ * <p>
+ * Les notes sont lues au fil de l’eau, validées puis insérées par lots de
+ * {@code notes.bulk.batch-size} via des {@code BulkOperations} non ordonnées : une note
+ * en erreur n’interrompt pas le reste du lot. Les identifiants sont pris dans le bloc
+ * local de l’{@link IdBlockAllocator} et le journal des changements est alimenté en une
+ * écriture par lot. Les dates {@code createdAt}/{@code updatedAt} fournies sont conservées,
+ * les dates absentes sont positionnées par le serveur.
+ * </p>
+ * <p>
+ * Métriques exposées : {@code notes.bulk.items} (par statut) et {@code notes.bulk.batch}
+ * (durée d’écriture d’un lot).
+ * </p>
+ */
+@Service
+public class NoteBulkService {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteBulkService.class);
+
+    private final MongoOperations mongo;
+    private final IdBlockAllocator ids;
+    private final NoteChangeLog changes;
+    private final int batchSize;
+
+    private final Counter created;
+    private final Counter failed;
+    private final Timer batchTimer;
+
+    public NoteBulkService(MongoOperations mongo,
+                           @Qualifier("noteIdAllocator") IdBlockAllocator ids,
+                           NoteChangeLog changes,
+                           MeterRegistry registry,
+                           @Value("${notes.bulk.batch-size:1000}") int batchSize) {
+        this.mongo = mongo;
+        this.ids = ids;
+        this.changes = changes;
+        this.batchSize = batchSize;
+        this.created = Counter.builder("notes.bulk.items").tag("status", "created").register(registry);
+        this.failed = Counter.builder("notes.bulk.items").tag("status", "failed").register(registry);
+        this.batchTimer = Timer.builder("notes.bulk.batch").register(registry);
+    }
+
+    /**
+     * Ingère un flux de notes et publie un résultat par note, dans l’ordre de réception
+     * au sein de chaque lot.
+     *
+     * @param source les notes à ingérer (lues au fur et à mesure)
+     * @param sink   destinataire des résultats individuels
+     * @return le nombre de notes créées
+     * @throws RuntimeException l’erreur de lecture de {@code source}, après écriture des notes déjà lues
+     */
+    public int ingest(Iterator<Note> source, Consumer<BulkItemResult> sink) {
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        List<Note> batch = new ArrayList<>(batchSize);
+        List<Integer> positions = new ArrayList<>(batchSize);
+        int index = 0;
+        int inserted = 0;
+
+        while (true) {
+            Note n;
+            try {
+                if (!source.hasNext()) break;
+                n = source.next();
+            } catch (RuntimeException e) {
+                // flux illisible : les notes déjà lues sont écrites avant de propager l’erreur
+                flush(batch, positions, sink);
+                throw e;
+            }
+            int position = index++;
+            String invalid = validate(n);
+            if (invalid != null) {
+                failed.increment();
+                sink.accept(BulkItemResult.failed(position, n == null ? null : n.getPatientId(), invalid));
+                continue;
+            }
+            prepare(n, now);
+            batch.add(n);
+            positions.add(position);
+            if (batch.size() == batchSize) {
+                inserted += flush(batch, positions, sink);
+            }
+        }
+        inserted += flush(batch, positions, sink);
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("[NoteBulk] {} note(s) créée(s) sur {} en {} ms ({} notes/s)",
+                inserted, index, elapsedMs, inserted * 1000L / elapsedMs);
+        return inserted;
+    }
+
+    private static String validate(Note n) {
+        if (n == null) return "note vide";
+        if (n.getPatientId() == null) return "patientId obligatoire";
+        if (n.getContent() == null || n.getContent().isBlank()) return "content obligatoire";
+        return null;
+    }
+
+    private void prepare(Note n, Instant now) {
+        n.setId(ids.nextId());
+        if (n.getCreatedAt() == null) n.setCreatedAt(now);
+        if (n.getUpdatedAt() == null) n.setUpdatedAt(n.getCreatedAt());
+    }
+
+    /**
+     * Écrit un lot en une seule opération groupée non ordonnée puis publie les résultats.
+     *
+     * @return le nombre de notes effectivement insérées
+     */
+    private int flush(List<Note> batch, List<Integer> positions, Consumer<BulkItemResult> sink) {
+        if (batch.isEmpty()) return 0;
+
+        Map<Integer, String> errors = new HashMap<>();
+        Timer.Sample sample = Timer.start();
+        try {
+            mongo.bulkOps(BulkMode.UNORDERED, Note.class).insert(batch).execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError err : e.getErrors()) {
+                errors.put(err.getIndex(), err.getMessage());
+            }
+        } finally {
+            sample.stop(batchTimer);
+        }
+
+        List<Note> ok = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (!errors.containsKey(i)) ok.add(batch.get(i));
+        }
+        changes.recordAll(ok, ChangeType.CREATED);
+
+        for (int i = 0; i < batch.size(); i++) {
+            Note n = batch.get(i);
+            String error = errors.get(i);
+            if (error == null) {
+                created.increment();
+                sink.accept(BulkItemResult.created(positions.get(i), n.getId(), n.getPatientId()));
+            } else {
+                failed.increment();
+                sink.accept(BulkItemResult.failed(positions.get(i), n.getPatientId(), error));
+            }
+        }
+        batch.clear();
+        positions.clear();
+        return ok.size();
+    }
+}
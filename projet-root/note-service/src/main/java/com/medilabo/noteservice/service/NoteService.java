@@ -1,11 +1,27 @@
 package com.medilabo.noteservice.service;
 
+import com.medilabo.noteservice.archive.NoteArchive;
+import com.medilabo.noteservice.dto.NoteCursor;
+import com.medilabo.noteservice.dto.NotePage;
+import com.medilabo.noteservice.dto.NoteSummary;
+import com.medilabo.noteservice.feed.NoteChangeLog;
+import com.medilabo.noteservice.model.ChangeType;
 import com.medilabo.noteservice.model.Note;
 import com.medilabo.noteservice.repository.NoteRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service gérant la logique métier liée aux notes médicales.
@@ -14,6 +30,15 @@ import java.util.List;
  * opérations CRUD sur les notes des patients, notamment la création,
  * la mise à jour, la suppression et la recherche par patient.
  * </p>
+ * <p>
+ * Chaque écriture est consignée dans le {@link NoteChangeLog}, afin que les
+ * consommateurs en aval ne retraitent que les patients concernés.
+ * </p>
+ * <p>
+ * Les notes anciennes peuvent être déplacées dans le tier froid {@link NoteArchive} :
+ * les lectures courantes ne portent que sur le tier chaud, l’historique complet
+ * fusionne les deux sur demande.
+ * </p>
  */
 @Service
 public class NoteService {
@@ -23,13 +48,43 @@ public class NoteService {
      */
     private final NoteRepository repo;
 
+    /**
+     * Journal des changements de notes.
+     */
+    private final NoteChangeLog changes;
+
+    /**
+     * Tier froid des notes archivées.
+     */
+    private final NoteArchive archive;
+
+    /**
+     * Taille maximale d’une page de notes.
+     */
+    private final int maxPageSize;
+
+    /**
+     * Nombre maximal de patients par lecture groupée.
+     */
+    private final int maxPatients;
+
     /**
      * Crée une instance du service de gestion des notes.
      *
-     * @param repo le repository permettant l’accès aux données des notes
+     * @param repo        le repository permettant l’accès aux données des notes
+     * @param changes     le journal des changements alimenté à chaque écriture
+     * @param archive     le tier froid des notes archivées
+     * @param maxPageSize taille maximale d’une page de notes
+     * @param maxPatients nombre maximal de patients par lecture groupée
      */
-    public NoteService(NoteRepository repo) {
+    public NoteService(NoteRepository repo, NoteChangeLog changes, NoteArchive archive,
+                       @Value("${notes.page.max-size:500}") int maxPageSize,
+                       @Value("${notes.patients.max-ids:1000}") int maxPatients) {
         this.repo = repo;
+        this.changes = changes;
+        this.archive = archive;
+        this.maxPageSize = maxPageSize;
+        this.maxPatients = maxPatients;
     }
 
     /**
@@ -43,17 +98,131 @@ public class NoteService {
     }
 
     /**
-     * Récupère une note à partir de son identifiant.
+     * Récupère les notes d’un patient, en incluant sur demande les notes archivées.
+     * <p>
+     * En historique complet, les notes archivées (les plus anciennes) précèdent celles du
+     * tier chaud ; une note présente dans les deux tiers (archivage interrompu ou note
+     * modifiée depuis) n’est renvoyée qu’une fois, dans sa version du tier chaud.
+     * </p>
+     *
+     * @param patientId   l’identifiant du patient
+     * @param fullHistory vrai pour inclure les notes archivées
+     * @return la liste des notes du patient
+     */
+    public List<Note> findByPatientId(Long patientId, boolean fullHistory) {
+        List<Note> hot = repo.findByPatientId(patientId);
+        if (!fullHistory) {
+            return hot;
+        }
+        Set<Long> hotIds = hot.stream().map(Note::getId).collect(Collectors.toSet());
+        List<Note> merged = new ArrayList<>();
+        for (Note n : archive.findByPatientId(patientId)) {
+            if (!hotIds.contains(n.getId())) merged.add(n);
+        }
+        merged.addAll(hot);
+        return merged;
+    }
+
+    /**
+     * Récupère une page des notes d’un patient, ordonnée par date de création,
+     * éventuellement restreinte à une fenêtre temporelle.
+     * <p>
+     * Une note de plus que demandé est lue pour savoir s’il existe une page suivante,
+     * sans requête de comptage.
+     * </p>
+     *
+     * @param patientId  l’identifiant du patient
+     * @param since      borne inférieure incluse sur {@code createdAt} ({@code null} = aucune)
+     * @param until      borne supérieure exclue sur {@code createdAt} ({@code null} = aucune)
+     * @param cursor     curseur opaque renvoyé par la page précédente ({@code null} = première page)
+     * @param descending vrai pour lister de la plus récente à la plus ancienne
+     * @param limit      taille de page souhaitée (bornée par {@code notes.page.max-size})
+     * @return la page de notes et le curseur de la suivante
+     * @throws IllegalArgumentException si la limite ou le curseur sont invalides
+     */
+    public NotePage findPageByPatientId(Long patientId, Instant since, Instant until,
+                                        String cursor, boolean descending, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Taille de page invalide: " + limit);
+        }
+        int size = Math.min(limit, maxPageSize);
+        NoteCursor after = (cursor == null || cursor.isBlank()) ? null : NoteCursor.decode(cursor);
+
+        List<Note> slice = repo.findPageByPatientId(patientId, since, until, after, descending, size + 1);
+        if (slice.size() <= size) {
+            return new NotePage(slice, null);
+        }
+        List<Note> page = slice.subList(0, size);
+        return new NotePage(page, NoteCursor.after(page.get(size - 1)).encode());
+    }
+
+    /**
+     * Lit en flux les notes de plusieurs patients, groupées par patient.
+     * <p>
+     * Une seule requête {@code $in} est émise, quel que soit le nombre de patients ;
+     * les doublons et identifiants vides sont ignorés. Le flux doit être fermé par l’appelant.
+     * </p>
+     *
+     * @param patientIds les identifiants des patients
+     * @return le flux des notes, triées par patient puis de la plus récente à la plus ancienne
+     * @throws IllegalArgumentException si aucun patient n’est fourni ou s’il y en a trop
+     */
+    public Stream<Note> streamByPatientIds(Collection<Long> patientIds) {
+        return repo.streamByPatientIds(normalizePatientIds(patientIds));
+    }
+
+    /**
+     * Calcule, pour plusieurs patients, le nombre de notes et les dates de la dernière
+     * note créée et modifiée, tiers chaud et archive confondus.
+     * <p>
+     * Une agrégation groupée par tier, servie par l’index sur {@code patientId} : aucun
+     * contenu de note n’est lu ni décompressé.
+     * </p>
+     *
+     * @param patientIds les identifiants des patients
+     * @return une synthèse par patient demandé, dans l’ordre de la demande (vide s’il n’a aucune note)
+     * @throws IllegalArgumentException si aucun patient n’est fourni ou s’il y en a trop
+     */
+    public List<NoteSummary> summarizeByPatientIds(Collection<Long> patientIds) {
+        List<Long> ids = normalizePatientIds(patientIds);
+        Map<Long, NoteSummary> summaries = new LinkedHashMap<>();
+        ids.forEach(id -> summaries.put(id, NoteSummary.empty(id)));
+        for (String collection : List.of(Note.COLLECTION, NoteArchive.COLLECTION)) {
+            for (NoteSummary s : repo.summarizeByPatientIds(ids, collection)) {
+                summaries.merge(s.patientId(), s, NoteSummary::merge);
+            }
+        }
+        return List.copyOf(summaries.values());
+    }
+
+    private List<Long> normalizePatientIds(Collection<Long> patientIds) {
+        List<Long> ids = patientIds == null ? List.of()
+                : patientIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("Aucun patient demandé");
+        }
+        if (ids.size() > maxPatients) {
+            throw new IllegalArgumentException("Trop de patients demandés: " + ids.size() + " (max " + maxPatients + ")");
+        }
+        return ids;
+    }
+
+    /**
+     * Récupère une note à partir de son identifiant, dans le tier chaud puis dans l’archive.
      *
      * @param id l’identifiant de la note
      * @return la note correspondante
      * @throws IllegalArgumentException si la note n’existe pas
      */
     public Note getById(Long id) {
-        return repo.findById(id)
+        return findInAnyTier(id)
                 .orElseThrow(() -> new IllegalArgumentException("Note introuvable: " + id));
     }
 
+    private Optional<Note> findInAnyTier(Long id) {
+        return repo.findById(id).or(() -> archive.findById(id));
+    }
+
     /**
      * Crée et enregistre une nouvelle note.
      * <p>
@@ -68,13 +237,17 @@ public class NoteService {
         var now = Instant.now();
         n.setCreatedAt(now);
         n.setUpdatedAt(now);
-        return repo.save(n);
+        Note saved = repo.save(n);
+        changes.record(saved, ChangeType.CREATED);
+        return saved;
     }
 
     /**
      * Met à jour une note existante.
      * <p>
-     * Seules les informations de contenu et la date de mise à jour sont modifiées.
+     * Seules les informations de contenu et la date de mise à jour sont modifiées. La note
+     * modifiée revient dans le tier chaud et sa copie archivée éventuelle est supprimée :
+     * une note n’existe jamais durablement dans les deux tiers.
      * </p>
      *
      * @param n la note contenant les modifications
@@ -85,15 +258,26 @@ public class NoteService {
         var existing = getById(n.getId());
         existing.setContent(n.getContent());
         existing.setUpdatedAt(Instant.now());
-        return repo.save(existing);
+        Note saved = repo.save(existing);
+        archive.deleteById(saved.getId());
+        changes.record(saved, ChangeType.UPDATED);
+        return saved;
     }
 
     /**
      * Supprime une note à partir de son identifiant.
+     * <p>
+     * La note est relue avant suppression pour connaître le patient concerné ;
+     * aucune entrée de journal n’est écrite si elle n’existait pas. La note est
+     * supprimée des deux tiers.
+     * </p>
      *
      * @param id l’identifiant de la note à supprimer
      */
     public void delete(Long id) {
+        var existing = findInAnyTier(id);
         repo.deleteById(id);
+        archive.deleteById(id);
+        existing.ifPresent(n -> changes.record(n, ChangeType.DELETED));
     }
 }
@@ -0,0 +1,69 @@
+package com.medilabo.noteservice.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compression GZIP du contenu des notes volumineuses.
+ * <p>
+ * La décompression est appelée paresseusement par {@code Note#getContent()} : le
+ * nombre de décompressions est compté ici pour être exposé en métrique par
+ * {@link NoteCompressionCallback}.
+ * </p>
+ */
+public final class NoteBodyCodec {
+
+    /**
+     * Nom du champ MongoDB portant le contenu compressé (à la place de {@code content}).
+     */
+    public static final String COMPRESSED_FIELD = "contentZ";
+
+    private static final LongAdder DECOMPRESSIONS = new LongAdder();
+
+    private NoteBodyCodec() {
+    }
+
+    /**
+     * Compresse un contenu encodé en UTF-8.
+     *
+     * @param utf8 le contenu encodé
+     * @return le contenu compressé
+     */
+    public static byte[] compress(byte[] utf8) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, utf8.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(utf8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Décompresse un contenu produit par {@link #compress(byte[])}.
+     *
+     * @param compressed le contenu compressé
+     * @return le contenu texte
+     */
+    public static String decompress(byte[] compressed) {
+        DECOMPRESSIONS.increment();
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return le nombre de décompressions effectuées depuis le démarrage
+     */
+    public static long decompressions() {
+        return DECOMPRESSIONS.sum();
+    }
+}
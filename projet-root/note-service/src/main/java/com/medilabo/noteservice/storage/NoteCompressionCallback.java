@@ -0,0 +1,79 @@
+package com.medilabo.noteservice.storage;
+
+import com.medilabo.noteservice.model.Note;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveCallback;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compresse le contenu des notes volumineuses juste avant leur écriture.
+ * <p>
+ * Seul le document MongoDB est modifié : l’entité renvoyée à l’appelant garde son
+ * contenu en clair. Un contenu est compressé s’il dépasse
+ * {@code notes.storage.compression.threshold-bytes} (en UTF-8) et si la compression
+ * réduit effectivement sa taille ; il est alors écrit dans {@code contentZ} à la place
+ * de {@code content}. Le mode est désactivé par défaut
+ * ({@code notes.storage.compression.enabled}).
+ * </p>
+ * <p>
+ * Métriques : {@code notes.compression.raw.bytes} et {@code notes.compression.stored.bytes}
+ * (volumes avant et après compression), {@code notes.compression.ratio} (taux par note
+ * compressée) et {@code notes.compression.decompressions}.
+ * </p>
+ */
+@Component
+public class NoteCompressionCallback implements BeforeSaveCallback<Note> {
+
+    private final boolean enabled;
+    private final int thresholdBytes;
+
+    private final Counter rawBytes;
+    private final Counter storedBytes;
+    private final DistributionSummary ratio;
+
+    public NoteCompressionCallback(@Value("${notes.storage.compression.enabled:false}") boolean enabled,
+                                   @Value("${notes.storage.compression.threshold-bytes:4096}") int thresholdBytes,
+                                   MeterRegistry registry) {
+        this.enabled = enabled;
+        this.thresholdBytes = thresholdBytes;
+        this.rawBytes = Counter.builder("notes.compression.raw.bytes").baseUnit("bytes").register(registry);
+        this.storedBytes = Counter.builder("notes.compression.stored.bytes").baseUnit("bytes").register(registry);
+        this.ratio = DistributionSummary.builder("notes.compression.ratio").register(registry);
+        FunctionCounter.builder("notes.compression.decompressions", NoteBodyCodec.class, c -> NoteBodyCodec.decompressions())
+                .register(registry);
+    }
+
+    @Override
+    public Note onBeforeSave(Note note, Document document, String collection) {
+        if (!(document.get("content") instanceof String content)) {
+            return note;
+        }
+        // contenu en clair : une éventuelle version compressée précédente est obsolète
+        document.remove(NoteBodyCodec.COMPRESSED_FIELD);
+        if (!enabled) {
+            return note;
+        }
+        byte[] utf8 = content.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length < thresholdBytes) {
+            return note;
+        }
+        byte[] compressed = NoteBodyCodec.compress(utf8);
+        if (compressed.length >= utf8.length) {
+            return note;
+        }
+        document.remove("content");
+        document.put(NoteBodyCodec.COMPRESSED_FIELD, new Binary(compressed));
+        rawBytes.increment(utf8.length);
+        storedBytes.increment(compressed.length);
+        ratio.record((double) utf8.length / compressed.length);
+        return note;
+    }
+}
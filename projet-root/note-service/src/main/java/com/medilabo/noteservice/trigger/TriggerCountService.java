@@ -0,0 +1,86 @@
+package com.medilabo.noteservice.trigger;
+
+import com.medilabo.noteservice.archive.NoteArchive;
+import com.medilabo.noteservice.dto.TriggerCounts;
+import com.medilabo.noteservice.model.Note;
+import com.medilabo.noteservice.repository.NoteRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Calcule côté note-service le nombre de termes déclencheurs d’un patient.
+ * <p>
+ * Seul le champ {@code content} des notes est lu, en flux, sur les deux tiers (chaud et
+ * archive) afin que l’archivage ne modifie pas l’évaluation ; une note présente dans les deux
+ * tiers (archivage interrompu ou concurrent d’une modification) n’est comptée qu’une fois, dans
+ * sa version du tier chaud, comme en historique complet. Seuls les décomptes
+ * quittent le service : l’évaluation du risque ne transfère plus le texte des notes.
+ * La recherche est insensible à la casse, comme l’était celle de risk-assessment-service.
+ * </p>
+ */
+@Service
+public class TriggerCountService {
+
+    private final NoteRepository repo;
+    private final NoteArchive archive;
+    private final TriggerDictionary dictionary;
+
+    public TriggerCountService(NoteRepository repo, NoteArchive archive, TriggerDictionary dictionary) {
+        this.repo = repo;
+        this.archive = archive;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Compte les déclencheurs présents dans les notes d’un patient.
+     *
+     * @param patientId l’identifiant du patient
+     * @param version   la version du dictionnaire de déclencheurs
+     * @return les décomptes par terme et le total
+     * @throws IllegalArgumentException si la version est inconnue
+     */
+    public TriggerCounts count(Long patientId, String version) {
+        List<String> terms = dictionary.terms(version);
+        int[] perTerm = new int[terms.size()];
+        int notes = 0;
+        Set<Long> hotIds = new HashSet<>();
+        try (Stream<Note> hot = repo.streamContentByPatientId(patientId)) {
+            for (Note n : (Iterable<Note>) hot::iterator) {
+                hotIds.add(n.getId());
+                notes++;
+                tally(n.getContent(), terms, perTerm);
+            }
+        }
+        try (Stream<Note> archived = archive.streamContentByPatientId(patientId)) {
+            for (Note n : (Iterable<Note>) archived::iterator) {
+                if (hotIds.contains(n.getId())) continue;
+                notes++;
+                tally(n.getContent(), terms, perTerm);
+            }
+        }
+
+        Map<String, Integer> found = new LinkedHashMap<>();
+        int total = 0;
+        for (int i = 0; i < perTerm.length; i++) {
+            if (perTerm[i] > 0) {
+                found.put(terms.get(i), perTerm[i]);
+                total += perTerm[i];
+            }
+        }
+        return new TriggerCounts(patientId, version, notes, total, found);
+    }
+
+    private static void tally(String content, List<String> terms, int[] perTerm) {
+        if (content == null || content.isBlank()) return;
+        String lower = content.toLowerCase();
+        for (int i = 0; i < perTerm.length; i++) {
+            if (lower.contains(terms.get(i))) perTerm[i]++;
+        }
+    }
+}
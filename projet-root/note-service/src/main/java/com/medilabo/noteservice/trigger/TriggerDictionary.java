@@ -0,0 +1,44 @@
+package com.medilabo.noteservice.trigger;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionnaires versionnés des termes déclencheurs du risque de diabète.
+ * <p>
+ * Le service d’évaluation du risque indique la version qu’il applique : une
+ * nouvelle version de dictionnaire s’ajoute ici sans modifier les précédentes,
+ * afin qu’une évaluation reste reproductible.
+ * </p>
+ */
+@Component
+public class TriggerDictionary {
+
+    /**
+     * Version historique, identique à la liste utilisée jusqu’ici par risk-assessment-service.
+     */
+    public static final String V1 = "v1";
+
+    private static final Map<String, List<String>> VERSIONS = Map.of(
+            V1, List.of(
+                    "hémoglobine a1c", "microalbumine", "taille", "poids",
+                    "fumeur", "fumeuse", "anormal", "cholestérol",
+                    "vertiges", "rechute", "réaction", "anticorps"));
+
+    /**
+     * Renvoie les termes (en minuscules) d’une version du dictionnaire.
+     *
+     * @param version la version demandée
+     * @return les termes déclencheurs
+     * @throws IllegalArgumentException si la version est inconnue
+     */
+    public List<String> terms(String version) {
+        List<String> terms = version == null ? null : VERSIONS.get(version);
+        if (terms == null) {
+            throw new IllegalArgumentException("Dictionnaire de déclencheurs inconnu: " + version);
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,99 @@
+package com.medilabo.noteservice.archive;
+
+import com.medilabo.noteservice.model.Note;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.MongoDBContainer;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Écritures de l’archive : forme des requêtes, puis sur une vraie collection
+ * (Mongo éphémère, tests ignorés sans Docker).
+ */
+class NoteArchiveTest {
+
+    private static MongoDBContainer mongo;
+    private static MongoClient client;
+
+    @BeforeAll
+    static void startMongo() {
+        if (!DockerClientFactory.instance().isDockerAvailable()) return;
+        mongo = new MongoDBContainer("mongo:7");
+        mongo.start();
+        client = MongoClients.create(mongo.getConnectionString());
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (client != null) client.close();
+        if (mongo != null) mongo.stop();
+    }
+
+    private static MongoTemplate collection() {
+        assumeTrue(mongo != null, "Docker indisponible");
+        MongoTemplate template = new MongoTemplate(client, "notes_test");
+        template.dropCollection(NoteArchive.COLLECTION);
+        return template;
+    }
+
+    private static Note note(long id) {
+        Note n = new Note();
+        n.setId(id);
+        n.setPatientId(7L);
+        n.setContent("Note " + id);
+        n.setCreatedAt(Instant.parse("2020-01-01T00:00:00Z"));
+        return n;
+    }
+
+    @Test
+    void deleteById_filtersOnTheMongoId() {
+        MongoOperations ops = mock(MongoOperations.class);
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+
+        new NoteArchive(ops).deleteById(42L);
+
+        // sans classe d'entité, Spring Data ne traduit pas « id » en « _id »
+        verify(ops).remove(query.capture(), eq(NoteArchive.COLLECTION));
+        assertEquals(new Document("_id", 42L), query.getValue().getQueryObject());
+    }
+
+    @Test
+    void deleteById_removesTheArchivedNote_only() {
+        MongoTemplate template = collection();
+        NoteArchive archive = new NoteArchive(template);
+        template.insert(note(1L), NoteArchive.COLLECTION);
+        template.insert(note(2L), NoteArchive.COLLECTION);
+
+        archive.deleteById(1L);
+
+        assertTrue(archive.findById(1L).isEmpty());
+        assertTrue(archive.findById(2L).isPresent());
+        assertEquals(1, template.getCollection(NoteArchive.COLLECTION).countDocuments());
+    }
+
+    @Test
+    void deleteById_isANoOp_forANoteThatIsNotArchived() {
+        MongoTemplate template = collection();
+        NoteArchive archive = new NoteArchive(template);
+        template.insert(note(2L), NoteArchive.COLLECTION);
+
+        assertDoesNotThrow(() -> archive.deleteById(1L));
+
+        assertTrue(archive.findById(2L).isPresent());
+    }
+}
@@ -1,6 +1,11 @@
 package com.medilabo.noteservice.controller;
 
+import com.medilabo.noteservice.dto.NotePage;
+import com.medilabo.noteservice.dto.NoteSummary;
+import com.medilabo.noteservice.feed.NoteChangeLog;
+import com.medilabo.noteservice.model.ChangeType;
 import com.medilabo.noteservice.model.Note;
+import com.medilabo.noteservice.model.NoteChange;
 import com.medilabo.noteservice.service.NoteService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,9 +19,13 @@ import org.springframework.security.test.context.support.WithMockUser;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -31,6 +40,9 @@ class NoteControllerTest {
     @MockBean
     private NoteService noteService;
 
+    @MockBean
+    private NoteChangeLog changeLog;
+
     private Note sample;
 
     @BeforeEach
@@ -46,13 +58,88 @@ class NoteControllerTest {
     @Test
     @WithMockUser
     void findByPatient_shouldReturnList() throws Exception {
-        when(noteService.findByPatientId(99L)).thenReturn(List.of(sample));
+        when(noteService.findByPatientId(99L, false)).thenReturn(List.of(sample));
 
         mockMvc.perform(get("/api/notes/patient/99"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].content").value("Vertiges"));
 
-        verify(noteService, times(1)).findByPatientId(99L);
+        verify(noteService, times(1)).findByPatientId(99L, false);
+    }
+
+    @Test
+    @WithMockUser
+    void findByPatient_withHistory_shouldIncludeArchivedNotes() throws Exception {
+        when(noteService.findByPatientId(99L, true)).thenReturn(List.of(sample));
+
+        mockMvc.perform(get("/api/notes/patient/99?history=true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].content").value("Vertiges"));
+
+        verify(noteService).findByPatientId(99L, true);
+    }
+
+    @Test
+    @WithMockUser
+    void findByPatient_withWindow_shouldReturnPageAndNextCursor() throws Exception {
+        Instant since = Instant.parse("2024-01-01T00:00:00Z");
+        when(noteService.findPageByPatientId(eq(99L), eq(since), isNull(), isNull(), eq(true), eq(20)))
+                .thenReturn(new NotePage(List.of(sample), "abc"));
+
+        mockMvc.perform(get("/api/notes/patient/99?since=2024-01-01T00:00:00Z&limit=20&order=desc"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "abc"))
+                .andExpect(jsonPath("$[0].content").value("Vertiges"));
+
+        verify(noteService, never()).findByPatientId(any(), anyBoolean());
+    }
+
+    @Test
+    @WithMockUser
+    void findByPatients_shouldStreamNotesGroupedByPatient() throws Exception {
+        Note other = new Note();
+        other.setId(2L);
+        other.setPatientId(100L);
+        other.setContent("Fatigue");
+        when(noteService.streamByPatientIds(List.of(99L, 100L, 101L))).thenReturn(Stream.of(sample, other));
+
+        mockMvc.perform(post("/api/notes/patients").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[99, 100, 101]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['99'][0].content").value("Vertiges"))
+                .andExpect(jsonPath("$['100'][0].content").value("Fatigue"))
+                .andExpect(jsonPath("$['101']").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser
+    void summary_shouldReturnCountsPerPatient() throws Exception {
+        Instant last = Instant.parse("2024-05-01T10:00:00Z");
+        when(noteService.summarizeByPatientIds(List.of(99L, 100L)))
+                .thenReturn(List.of(new NoteSummary(99L, 3, last, last), NoteSummary.empty(100L)));
+
+        mockMvc.perform(get("/api/notes/summary?patientIds=99,100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].patientId").value(99))
+                .andExpect(jsonPath("$[0].count").value(3))
+                .andExpect(jsonPath("$[1].count").value(0));
+    }
+
+    @Test
+    @WithMockUser
+    void changes_shouldReturnEntriesAfterOffset() throws Exception {
+        when(changeLog.readAfter(41L, 100))
+                .thenReturn(List.of(new NoteChange(42L, 1L, 99L, ChangeType.UPDATED, Instant.now())));
+
+        mockMvc.perform(get("/api/notes/changes?after=41"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(42))
+                .andExpect(jsonPath("$[0].noteId").value(1))
+                .andExpect(jsonPath("$[0].patientId").value(99))
+                .andExpect(jsonPath("$[0].type").value("UPDATED"));
+
+        verify(changeLog).readAfter(41L, 100);
     }
 
     @Test
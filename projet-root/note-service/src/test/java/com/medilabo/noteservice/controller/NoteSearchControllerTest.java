@@ -0,0 +1,60 @@
+package com.medilabo.noteservice.controller;
+
+import com.medilabo.noteservice.dto.NoteSearchResult;
+import com.medilabo.noteservice.search.NoteSearchService;
+import com.mongodb.MongoExecutionTimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(NoteSearchController.class)
+class NoteSearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private NoteSearchService search;
+
+    @Test
+    @WithMockUser(roles = "PRATICIEN")
+    void search_shouldReturnResults() throws Exception {
+        when(search.search("vertiges", 0, 20))
+                .thenReturn(new NoteSearchResult("vertiges", 0, 20, List.of(), List.of()));
+
+        mockMvc.perform(get("/api/notes/search").param("q", "vertiges"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.query").value("vertiges"));
+    }
+
+    @Test
+    @WithMockUser(roles = "PRATICIEN")
+    void search_withInvalidQueryOrPagination_shouldReturn400() throws Exception {
+        when(search.search(" ", 0, 20)).thenThrow(new IllegalArgumentException("Requête de recherche vide"));
+        when(search.search("vertiges", 50, 20))
+                .thenThrow(new IllegalArgumentException("Pagination trop profonde (max 1000 résultats)"));
+
+        mockMvc.perform(get("/api/notes/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/notes/search").param("q", "vertiges").param("page", "50"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "PRATICIEN")
+    void search_exceedingMaxTime_shouldReturn503() throws Exception {
+        when(search.search("a", 0, 20)).thenThrow(new MongoExecutionTimeoutException(50, "operation exceeded time limit"));
+
+        mockMvc.perform(get("/api/notes/search").param("q", "a"))
+                .andExpect(status().isServiceUnavailable());
+    }
+}
@@ -0,0 +1,89 @@
+package com.medilabo.noteservice.id;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IdBlockAllocatorTest {
+
+    private MongoOperations mongo;
+    private AtomicLong counter;
+
+    @BeforeEach
+    void setUp() {
+        mongo = mock(MongoOperations.class);
+        counter = new AtomicLong();
+        when(mongo.findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class),
+                eq(Document.class), eq(IdBlockAllocator.COUNTERS)))
+                .thenAnswer(inv -> new Document("_id", "notes").append("seq", counter.addAndGet(10)));
+    }
+
+    @Test
+    void nextId_shouldServeWholeBlock_withSingleReservation() {
+        IdBlockAllocator allocator = new IdBlockAllocator(mongo, "notes", "notes", 10);
+
+        for (long expected = 1; expected <= 10; expected++) {
+            assertEquals(expected, allocator.nextId());
+        }
+
+        verify(mongo, times(1)).findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(Document.class), eq(IdBlockAllocator.COUNTERS));
+        assertEquals(11, allocator.nextId());
+        verify(mongo, times(2)).findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(Document.class), eq(IdBlockAllocator.COUNTERS));
+    }
+
+    @Test
+    void nextId_shouldSeedCounter_fromHighestExistingId() {
+        when(mongo.findOne(any(Query.class), eq(Document.class), eq("notes")))
+                .thenReturn(new Document("_id", 41L));
+
+        IdBlockAllocator allocator = new IdBlockAllocator(mongo, "notes", "notes", 10);
+        allocator.nextId();
+
+        verify(mongo).upsert(any(Query.class), any(UpdateDefinition.class), eq(IdBlockAllocator.COUNTERS));
+    }
+
+    @Test
+    void nextId_shouldNeverHandOutDuplicates_acrossInstancesAndThreads() throws Exception {
+        IdBlockAllocator a = new IdBlockAllocator(mongo, "notes", "notes", 10);
+        IdBlockAllocator b = new IdBlockAllocator(mongo, "notes", "notes", 10);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            Set<Future<Long>> futures = new HashSet<>();
+            for (int i = 0; i < 1000; i++) {
+                IdBlockAllocator target = i % 2 == 0 ? a : b;
+                futures.add(pool.submit(target::nextId));
+            }
+            Set<Long> ids = new HashSet<>();
+            for (Future<Long> f : futures) {
+                ids.add(f.get());
+            }
+            assertEquals(1000, ids.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void constructor_shouldRejectNonPositiveBlockSize() {
+        assertThrows(IllegalArgumentException.class, () -> new IdBlockAllocator(mongo, "notes", "notes", 0));
+    }
+}
@@ -0,0 +1,80 @@
+package com.medilabo.noteservice.index;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class NoteIndexManagerTest {
+
+    private static Document explainWith(Document winningPlan, Document... rejected) {
+        return new Document("queryPlanner", new Document("winningPlan", winningPlan)
+                .append("rejectedPlans", List.of(rejected)));
+    }
+
+    private static IndexInfo index(String name) {
+        IndexInfo info = mock(IndexInfo.class);
+        when(info.getName()).thenReturn(name);
+        return info;
+    }
+
+    @Test
+    void dropRetiredIndexes_shouldDropOnlyTheOldPatientCreatedIndex() {
+        List<IndexInfo> indexes = List.of(index("_id_"), index("patient_created_idx"), index("patient_created_id_idx"));
+        IndexOperations ops = mock(IndexOperations.class);
+        when(ops.getIndexInfo()).thenReturn(indexes);
+
+        assertEquals(List.of("patient_created_idx"), NoteIndexManager.dropRetiredIndexes(ops));
+
+        verify(ops).dropIndex("patient_created_idx");
+        verify(ops, times(1)).dropIndex(anyString());
+    }
+
+    @Test
+    void dropRetiredIndexes_shouldDoNothing_whenAlreadyMigrated() {
+        List<IndexInfo> indexes = List.of(index("_id_"), index("patient_created_id_idx"));
+        IndexOperations ops = mock(IndexOperations.class);
+        when(ops.getIndexInfo()).thenReturn(indexes);
+
+        assertTrue(NoteIndexManager.dropRetiredIndexes(ops).isEmpty());
+
+        verify(ops, never()).dropIndex(anyString());
+    }
+
+    @Test
+    void usesCollscan_shouldBeFalse_forIndexScan() {
+        Document plan = new Document("stage", "FETCH")
+                .append("inputStage", new Document("stage", "IXSCAN").append("indexName", "patient_created_idx"));
+
+        assertFalse(NoteIndexManager.usesCollscan(NoteIndexManager.winningPlan(explainWith(plan))));
+    }
+
+    @Test
+    void usesCollscan_shouldBeTrue_forNestedCollscan() {
+        Document plan = new Document("stage", "SORT")
+                .append("inputStage", new Document("stage", "COLLSCAN"));
+
+        assertTrue(NoteIndexManager.usesCollscan(NoteIndexManager.winningPlan(explainWith(plan))));
+    }
+
+    @Test
+    void usesCollscan_shouldBeTrue_forSbeQueryPlan() {
+        Document plan = new Document("queryPlan", new Document("stage", "COLLSCAN"));
+
+        assertTrue(NoteIndexManager.usesCollscan(NoteIndexManager.winningPlan(explainWith(plan))));
+    }
+
+    @Test
+    void winningPlan_shouldIgnoreRejectedCollscan() {
+        Document plan = new Document("stage", "IXSCAN");
+        Document rejected = new Document("stage", "COLLSCAN");
+
+        assertFalse(NoteIndexManager.usesCollscan(NoteIndexManager.winningPlan(explainWith(plan, rejected))));
+    }
+}
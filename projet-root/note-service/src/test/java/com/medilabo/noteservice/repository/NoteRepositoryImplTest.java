@@ -0,0 +1,61 @@
+package com.medilabo.noteservice.repository;
+
+import com.medilabo.noteservice.archive.NoteArchive;
+import com.medilabo.noteservice.dto.NoteSummary;
+import com.medilabo.noteservice.model.Note;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class NoteRepositoryImplTest {
+
+    private MongoOperations mongo;
+    private NoteRepositoryImpl repo;
+
+    @BeforeEach
+    void setUp() {
+        mongo = mock(MongoOperations.class);
+        when(mongo.aggregate(any(Aggregation.class), anyString(), eq(NoteSummary.class)))
+                .thenReturn(new AggregationResults<>(List.of(), new Document()));
+        repo = new NoteRepositoryImpl(mongo);
+    }
+
+    private List<Document> pipelineFor(String collection) {
+        repo.summarizeByPatientIds(List.of(1L, 2L), collection);
+        ArgumentCaptor<Aggregation> captor = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongo).aggregate(captor.capture(), eq(collection), eq(NoteSummary.class));
+        return captor.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+    }
+
+    @Test
+    void summarize_onArchive_skipsNotesAlsoInHotTier() {
+        List<Document> pipeline = pipelineFor(NoteArchive.COLLECTION);
+
+        Document lookup = pipeline.get(1).get("$lookup", Document.class);
+        assertEquals(Note.COLLECTION, lookup.getString("from"));
+        assertEquals("_id", lookup.getString("localField"));
+        assertEquals("_id", lookup.getString("foreignField"));
+        assertEquals(new Document("hot", new Document("$size", 0)), pipeline.get(2).get("$match"));
+        assertTrue(pipeline.get(3).containsKey("$group"));
+    }
+
+    @Test
+    void summarize_onHotTier_groupsDirectly() {
+        List<Document> pipeline = pipelineFor(Note.COLLECTION);
+
+        assertEquals(3, pipeline.size());
+        assertTrue(pipeline.stream().noneMatch(stage -> stage.containsKey("$lookup")));
+    }
+}
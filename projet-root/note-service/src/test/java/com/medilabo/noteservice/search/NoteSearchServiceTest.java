@@ -0,0 +1,42 @@
+package com.medilabo.noteservice.search;
+
+import com.medilabo.noteservice.dto.NoteSearchResult.Highlight;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class NoteSearchServiceTest {
+
+    @Test
+    void roots_shouldIgnoreExclusionsAndStopWords_andStripPlurals() {
+        assertEquals(List.of("vertig", "hemoglobin"), NoteSearchService.roots("Vertiges de -fumeur \"hémoglobine\""));
+    }
+
+    @Test
+    void highlight_shouldLocateInflectedAndAccentedForms() {
+        String content = "Le patient signale des vertiges. Hemoglobine A1C élevée ; vertige persistant.";
+
+        List<Highlight> highlights = NoteSearchService.highlight(content, List.of("vertig", "hemoglobin"));
+
+        assertEquals(3, highlights.size());
+        assertEquals("vertiges", content.substring(highlights.get(0).start(), highlights.get(0).end()));
+        assertEquals("Hemoglobine", content.substring(highlights.get(1).start(), highlights.get(1).end()));
+        assertEquals("vertige", content.substring(highlights.get(2).start(), highlights.get(2).end()));
+    }
+
+    @Test
+    void search_shouldRejectInvalidRequests_withoutQueryingMongo() {
+        MongoTemplate mongo = mock(MongoTemplate.class);
+        NoteSearchService service = new NoteSearchService(mongo, 100, 1000, 100, 2000);
+
+        assertThrows(IllegalArgumentException.class, () -> service.search(" ", 0, 20));
+        assertThrows(IllegalArgumentException.class, () -> service.search("x".repeat(201), 0, 20));
+        assertThrows(IllegalArgumentException.class, () -> service.search("vertiges", -1, 20));
+        assertThrows(IllegalArgumentException.class, () -> service.search("vertiges", 50, 20));
+        verifyNoInteractions(mongo);
+    }
+}
@@ -0,0 +1,146 @@
+package com.medilabo.noteservice.service;
+
+import com.medilabo.noteservice.dto.BulkItemResult;
+import com.medilabo.noteservice.feed.NoteChangeLog;
+import com.medilabo.noteservice.id.IdBlockAllocator;
+import com.medilabo.noteservice.model.ChangeType;
+import com.medilabo.noteservice.model.Note;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoOperations;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class NoteBulkServiceTest {
+
+    private MongoOperations mongo;
+    private BulkOperations ops;
+    private NoteChangeLog changeLog;
+    private SimpleMeterRegistry registry;
+    private NoteBulkService service;
+
+    @BeforeEach
+    void setUp() {
+        mongo = mock(MongoOperations.class);
+        ops = mock(BulkOperations.class);
+        when(mongo.bulkOps(BulkMode.UNORDERED, Note.class)).thenReturn(ops);
+        when(ops.insert(anyList())).thenReturn(ops);
+
+        IdBlockAllocator ids = mock(IdBlockAllocator.class);
+        AtomicLong seq = new AtomicLong(100);
+        when(ids.nextId()).thenAnswer(inv -> seq.incrementAndGet());
+
+        changeLog = mock(NoteChangeLog.class);
+        registry = new SimpleMeterRegistry();
+        service = new NoteBulkService(mongo, ids, changeLog, registry, 2);
+    }
+
+    private static Note note(Long patientId, String content) {
+        Note n = new Note();
+        n.setPatientId(patientId);
+        n.setContent(content);
+        return n;
+    }
+
+    private static Iterator<Note> source(Note... notes) {
+        return new ArrayList<>(List.of(notes)).iterator();
+    }
+
+    @Test
+    void ingest_shouldInsertInBoundedBatches_andReportEachItem() {
+        List<BulkItemResult> results = new ArrayList<>();
+
+        int created = service.ingest(source(note(1L, "a"), note(1L, "b"), note(2L, "c")), results::add);
+
+        assertEquals(3, created);
+        verify(ops, times(2)).execute();
+        verify(changeLog, times(2)).recordAll(anyList(), eq(ChangeType.CREATED));
+        assertEquals(List.of(0, 1, 2), results.stream().map(BulkItemResult::index).toList());
+        assertTrue(results.stream().allMatch(r -> "CREATED".equals(r.status()) && r.id() != null));
+        assertEquals(3.0, registry.get("notes.bulk.items").tag("status", "created").counter().count());
+    }
+
+    @Test
+    void ingest_shouldPreserveSuppliedDates_andStampMissingOnes() {
+        Instant legacy = Instant.parse("2015-03-01T10:00:00Z");
+        Note historic = note(1L, "ancienne");
+        historic.setCreatedAt(legacy);
+        Note fresh = note(1L, "nouvelle");
+
+        service.ingest(source(historic, fresh), r -> {});
+
+        assertEquals(legacy, historic.getCreatedAt());
+        assertEquals(legacy, historic.getUpdatedAt());
+        assertNotNull(fresh.getCreatedAt());
+        assertEquals(fresh.getCreatedAt(), fresh.getUpdatedAt());
+    }
+
+    @Test
+    void ingest_shouldRejectInvalidNotes_withoutWritingThem() {
+        List<BulkItemResult> results = new ArrayList<>();
+
+        int created = service.ingest(source(note(null, "sans patient"), note(1L, " ")), results::add);
+
+        assertEquals(0, created);
+        verify(ops, never()).execute();
+        assertEquals(List.of("FAILED", "FAILED"), results.stream().map(BulkItemResult::status).toList());
+    }
+
+    @Test
+    void ingest_shouldReportPartialFailures_fromUnorderedBulk() {
+        BulkOperationException failure = mock(BulkOperationException.class);
+        when(failure.getErrors()).thenReturn(List.of(new BulkWriteError(11000, "duplicate key", new BsonDocument(), 1)));
+        when(ops.execute()).thenThrow(failure);
+        List<BulkItemResult> results = new ArrayList<>();
+
+        int created = service.ingest(source(note(1L, "a"), note(1L, "b")), results::add);
+
+        assertEquals(1, created);
+        assertEquals("CREATED", results.get(0).status());
+        assertEquals("FAILED", results.get(1).status());
+        assertEquals("duplicate key", results.get(1).error());
+        verify(changeLog).recordAll(argThat(l -> l.size() == 1), eq(ChangeType.CREATED));
+    }
+
+    @Test
+    void ingest_shouldFlushNotesAlreadyRead_whenSourceBreaks() {
+        Iterator<Note> broken = new Iterator<>() {
+            private boolean served;
+
+            @Override
+            public boolean hasNext() {
+                if (served) throw new IllegalStateException("flux interrompu");
+                return true;
+            }
+
+            @Override
+            public Note next() {
+                served = true;
+                return note(1L, "a");
+            }
+        };
+        List<BulkItemResult> results = new ArrayList<>();
+
+        assertThrows(IllegalStateException.class, () -> service.ingest(broken, results::add));
+
+        verify(ops).execute();
+        assertEquals(1, results.size());
+        verify(mongo, never()).insert(any(Note.class));
+    }
+}
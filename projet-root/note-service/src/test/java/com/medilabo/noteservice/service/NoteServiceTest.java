@@ -1,5 +1,11 @@
 package com.medilabo.noteservice.service;
 
+import com.medilabo.noteservice.archive.NoteArchive;
+import com.medilabo.noteservice.dto.NoteCursor;
+import com.medilabo.noteservice.dto.NotePage;
+import com.medilabo.noteservice.dto.NoteSummary;
+import com.medilabo.noteservice.feed.NoteChangeLog;
+import com.medilabo.noteservice.model.ChangeType;
 import com.medilabo.noteservice.model.Note;
 import com.medilabo.noteservice.repository.NoteRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,21 +13,29 @@ import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Arrays;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 
 class NoteServiceTest {
 
     private NoteService noteService;
     private NoteRepository noteRepository;
+    private NoteChangeLog changeLog;
+    private NoteArchive archive;
 
     @BeforeEach
     void setUp() {
         noteRepository = mock(NoteRepository.class);
-        noteService = new NoteService(noteRepository);
+        changeLog = mock(NoteChangeLog.class);
+        archive = mock(NoteArchive.class);
+        noteService = new NoteService(noteRepository, changeLog, archive, 500, 3);
     }
 
     @Test
@@ -40,6 +54,7 @@ class NoteServiceTest {
         assertNotNull(result.getCreatedAt());
         assertNotNull(result.getUpdatedAt());
         verify(noteRepository, times(1)).save(any(Note.class));
+        verify(changeLog).record(result, ChangeType.CREATED);
     }
 
     @Test
@@ -58,6 +73,101 @@ class NoteServiceTest {
         verify(noteRepository, times(1)).findByPatientId(patientId);
     }
 
+    private static Note noteAt(long id, Instant createdAt) {
+        Note n = new Note();
+        n.setId(id);
+        n.setPatientId(1L);
+        n.setCreatedAt(createdAt);
+        return n;
+    }
+
+    @Test
+    void findByPatientId_withFullHistory_shouldMergeTiers_preferringHotCopy() {
+        Note archivedOnly = new Note();
+        archivedOnly.setId(1L);
+        Note staleCopy = new Note();
+        staleCopy.setId(2L);
+        staleCopy.setContent("ancienne version");
+        Note hot = new Note();
+        hot.setId(2L);
+        hot.setContent("version courante");
+        when(noteRepository.findByPatientId(7L)).thenReturn(List.of(hot));
+        when(archive.findByPatientId(7L)).thenReturn(List.of(archivedOnly, staleCopy));
+
+        assertEquals(List.of(hot), noteService.findByPatientId(7L, false));
+        assertEquals(List.of(archivedOnly, hot), noteService.findByPatientId(7L, true));
+        verify(archive, times(1)).findByPatientId(7L);
+    }
+
+    @Test
+    void findPageByPatientId_shouldReturnCursor_whenMoreNotesExist() {
+        Instant t0 = Instant.parse("2024-01-01T00:00:00Z");
+        List<Note> slice = List.of(noteAt(1, t0), noteAt(2, t0.plusSeconds(1)), noteAt(3, t0.plusSeconds(2)));
+        when(noteRepository.findPageByPatientId(eq(1L), isNull(), isNull(), isNull(), eq(false), eq(3)))
+                .thenReturn(slice);
+
+        NotePage page = noteService.findPageByPatientId(1L, null, null, null, false, 2);
+
+        assertEquals(2, page.notes().size());
+        assertNotNull(page.nextCursor());
+        NoteCursor cursor = NoteCursor.decode(page.nextCursor());
+        assertEquals(2L, cursor.id());
+        assertEquals(t0.plusSeconds(1), cursor.createdAt());
+    }
+
+    @Test
+    void findPageByPatientId_shouldResumeAfterCursor_andEndWithoutCursor() {
+        Instant t0 = Instant.parse("2024-01-01T00:00:00Z");
+        String token = new NoteCursor(t0, 2L).encode();
+        when(noteRepository.findPageByPatientId(eq(1L), eq(t0), isNull(), eq(new NoteCursor(t0, 2L)), eq(true), eq(11)))
+                .thenReturn(List.of(noteAt(1, t0)));
+
+        NotePage page = noteService.findPageByPatientId(1L, t0, null, token, true, 10);
+
+        assertEquals(1, page.notes().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void findPageByPatientId_shouldRejectInvalidCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> noteService.findPageByPatientId(1L, null, null, "pas-un-curseur", false, 10));
+    }
+
+    @Test
+    void streamByPatientIds_shouldIssueSingleQuery_withDistinctIds() {
+        Note n = new Note();
+        n.setPatientId(2L);
+        when(noteRepository.streamByPatientIds(List.of(2L, 5L))).thenReturn(Stream.of(n));
+
+        List<Note> result = noteService.streamByPatientIds(Arrays.asList(2L, null, 5L, 2L)).toList();
+
+        assertEquals(List.of(n), result);
+        verify(noteRepository, times(1)).streamByPatientIds(List.of(2L, 5L));
+    }
+
+    @Test
+    void summarizeByPatientIds_shouldMergeTiers_andKeepPatientsWithoutNotes() {
+        Instant old = Instant.parse("2020-01-01T00:00:00Z");
+        Instant recent = Instant.parse("2024-01-01T00:00:00Z");
+        when(noteRepository.summarizeByPatientIds(List.of(1L, 2L), Note.COLLECTION))
+                .thenReturn(List.of(new NoteSummary(1L, 2, recent, recent)));
+        when(noteRepository.summarizeByPatientIds(List.of(1L, 2L), NoteArchive.COLLECTION))
+                .thenReturn(List.of(new NoteSummary(1L, 5, old, old)));
+
+        List<NoteSummary> result = noteService.summarizeByPatientIds(List.of(1L, 2L));
+
+        assertEquals(List.of(new NoteSummary(1L, 7, recent, recent), NoteSummary.empty(2L)), result);
+        verify(noteRepository, never()).findByPatientId(any());
+    }
+
+    @Test
+    void streamByPatientIds_shouldRejectEmptyOrOversizedRequests() {
+        assertThrows(IllegalArgumentException.class, () -> noteService.streamByPatientIds(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> noteService.streamByPatientIds(List.of(1L, 2L, 3L, 4L)));
+        verify(noteRepository, never()).streamByPatientIds(any());
+    }
+
     @Test
     void getById_shouldReturnNote_whenExists() {
         Long id = 10L;
@@ -105,6 +215,31 @@ class NoteServiceTest {
         assertTrue(updated.getUpdatedAt().isAfter(updated.getCreatedAt()));
         verify(noteRepository, times(1)).findById(id);
         verify(noteRepository, times(1)).save(any(Note.class));
+        verify(changeLog).record(updated, ChangeType.UPDATED);
+    }
+
+    @Test
+    void update_ofArchivedNote_movesItBackToHotTier_withoutLeavingArchivedCopy() {
+        Long id = 6L;
+        Note archived = new Note();
+        archived.setId(id);
+        archived.setPatientId(9L);
+        archived.setContent("Old");
+        archived.setCreatedAt(Instant.now().minusSeconds(3600));
+        archived.setUpdatedAt(archived.getCreatedAt());
+
+        when(noteRepository.findById(id)).thenReturn(Optional.empty());
+        when(archive.findById(id)).thenReturn(Optional.of(archived));
+        when(noteRepository.save(any(Note.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Note toUpdate = new Note();
+        toUpdate.setId(id);
+        toUpdate.setContent("New content");
+        noteService.update(toUpdate);
+
+        var order = inOrder(noteRepository, archive);
+        order.verify(noteRepository).save(archived);
+        order.verify(archive).deleteById(id);
     }
 
     @Test
@@ -114,5 +249,21 @@ class NoteServiceTest {
         noteService.delete(id);
 
         verify(noteRepository, times(1)).deleteById(id);
+        verify(archive, times(1)).deleteById(id);
+        verifyNoInteractions(changeLog);
+    }
+
+    @Test
+    void delete_shouldRecordChange_withPatientOfDeletedNote() {
+        Long id = 7L;
+        Note existing = new Note();
+        existing.setId(id);
+        existing.setPatientId(3L);
+        when(noteRepository.findById(id)).thenReturn(Optional.of(existing));
+
+        noteService.delete(id);
+
+        verify(noteRepository).deleteById(id);
+        verify(changeLog).record(existing, ChangeType.DELETED);
     }
 }
@@ -0,0 +1,68 @@
+package com.medilabo.noteservice.storage;
+
+import com.medilabo.noteservice.model.Note;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NoteCompressionCallbackTest {
+
+    private static final String LONG_CONTENT = "Consultation de suivi, patient stable. ".repeat(200);
+
+    private static Note note(String content) {
+        Note n = new Note();
+        n.setPatientId(1L);
+        n.setContent(content);
+        return n;
+    }
+
+    @Test
+    void onBeforeSave_shouldCompressLargeContent_inDocumentOnly() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        NoteCompressionCallback callback = new NoteCompressionCallback(true, 1024, registry);
+        Note n = note(LONG_CONTENT);
+        Document doc = new Document("content", LONG_CONTENT);
+
+        callback.onBeforeSave(n, doc, "notes");
+
+        assertNull(doc.get("content"));
+        byte[] stored = doc.get(NoteBodyCodec.COMPRESSED_FIELD, Binary.class).getData();
+        assertTrue(stored.length < LONG_CONTENT.length());
+        assertEquals(LONG_CONTENT, NoteBodyCodec.decompress(stored));
+        assertEquals(LONG_CONTENT, n.getContent());
+        assertTrue(registry.get("notes.compression.ratio").summary().mean() > 1.0);
+    }
+
+    @Test
+    void onBeforeSave_shouldKeepSmallContent_orWhenDisabled() {
+        Document small = new Document("content", "Vertiges");
+        new NoteCompressionCallback(true, 1024, new SimpleMeterRegistry()).onBeforeSave(note("Vertiges"), small, "notes");
+        assertEquals("Vertiges", small.get("content"));
+
+        Document disabled = new Document("content", LONG_CONTENT);
+        new NoteCompressionCallback(false, 1024, new SimpleMeterRegistry()).onBeforeSave(note(LONG_CONTENT), disabled, "notes");
+        assertEquals(LONG_CONTENT, disabled.get("content"));
+        assertFalse(disabled.containsKey(NoteBodyCodec.COMPRESSED_FIELD));
+    }
+
+    @Test
+    void getContent_shouldDecompressLazily_onlyWhenRead() throws Exception {
+        Note n = new Note();
+        Field compressed = Note.class.getDeclaredField("compressedContent");
+        compressed.setAccessible(true);
+        compressed.set(n, NoteBodyCodec.compress(LONG_CONTENT.getBytes(java.nio.charset.StandardCharsets.UTF_8)));
+        long before = NoteBodyCodec.decompressions();
+
+        n.getPatientId();
+        assertEquals(before, NoteBodyCodec.decompressions());
+
+        assertEquals(LONG_CONTENT, n.getContent());
+        assertEquals(LONG_CONTENT, n.getContent());
+        assertEquals(before + 1, NoteBodyCodec.decompressions());
+    }
+}
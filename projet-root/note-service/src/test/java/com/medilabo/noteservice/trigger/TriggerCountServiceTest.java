@@ -0,0 +1,94 @@
+package com.medilabo.noteservice.trigger;
+
+import com.medilabo.noteservice.archive.NoteArchive;
+import com.medilabo.noteservice.dto.TriggerCounts;
+import com.medilabo.noteservice.model.Note;
+import com.medilabo.noteservice.repository.NoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TriggerCountServiceTest {
+
+    private NoteRepository repo;
+    private NoteArchive archive;
+    private TriggerCountService service;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(NoteRepository.class);
+        archive = mock(NoteArchive.class);
+        when(archive.streamContentByPatientId(any())).thenReturn(Stream.empty());
+        service = new TriggerCountService(repo, archive, new TriggerDictionary());
+    }
+
+    private static Note note(long id, String content) {
+        Note n = new Note();
+        n.setId(id);
+        n.setContent(content);
+        return n;
+    }
+
+    @Test
+    void count_shouldCountEachTermOncePerNote_caseInsensitive() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(repo.streamContentByPatientId(1L)).thenReturn(Stream.of(
+                note(1, "Hémoglobine A1C, Cholestérol, cholestérol"),
+                note(2, null),
+                note(3, "Vertiges et cholestérol")
+        ).onClose(() -> closed.set(true)));
+
+        TriggerCounts counts = service.count(1L, TriggerDictionary.V1);
+
+        assertEquals(3, counts.notes());
+        assertEquals(4, counts.total());
+        assertEquals(Map.of("hémoglobine a1c", 1, "cholestérol", 2, "vertiges", 1), counts.terms());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void count_shouldIncludeArchivedNotes() {
+        when(repo.streamContentByPatientId(3L)).thenReturn(Stream.of(note(1, "Poids stable")));
+        when(archive.streamContentByPatientId(3L)).thenReturn(Stream.of(note(2, "Fumeur depuis 20 ans")));
+
+        TriggerCounts counts = service.count(3L, TriggerDictionary.V1);
+
+        assertEquals(2, counts.notes());
+        assertEquals(2, counts.total());
+    }
+
+    @Test
+    void count_shouldCountNotePresentInBothTiersOnce_inItsHotVersion() {
+        when(repo.streamContentByPatientId(4L)).thenReturn(Stream.of(note(1, "RAS")));
+        when(archive.streamContentByPatientId(4L))
+                .thenReturn(Stream.of(note(1, "Fumeur, Vertiges"), note(2, "Anticorps")));
+
+        TriggerCounts counts = service.count(4L, TriggerDictionary.V1);
+
+        assertEquals(2, counts.notes());
+        assertEquals(Map.of("anticorps", 1), counts.terms());
+    }
+
+    @Test
+    void count_shouldReturnZero_whenPatientHasNoNotes() {
+        when(repo.streamContentByPatientId(2L)).thenReturn(Stream.empty());
+
+        TriggerCounts counts = service.count(2L, TriggerDictionary.V1);
+
+        assertEquals(0, counts.total());
+        assertTrue(counts.terms().isEmpty());
+    }
+
+    @Test
+    void count_shouldRejectUnknownDictionaryVersion() {
+        assertThrows(IllegalArgumentException.class, () -> service.count(1L, "v99"));
+        verify(repo, never()).streamContentByPatientId(any());
+    }
+}
@@ -3,6 +3,7 @@ package com.medilabo.patientservice;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -15,8 +16,12 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
  * des types de date et d’heure Java 8 (comme {@code LocalDate} ou {@code LocalDateTime})
  * via le module {@link JavaTimeModule}.
  * </p>
+ * <p>
+ * La planification est activée pour le relais de l’outbox des changements patients.
+ * </p>
  */
 @SpringBootApplication
+@EnableScheduling
 public class PatientServiceApplication {
 
     /**
@@ -0,0 +1,126 @@
+package com.medilabo.patientservice.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clés HS256 de vérification des JWT émis par le Gateway, indexées par {@code kid}.
+ * <p>
+ * Sans {@code security.jwt.keyset-file}, une seule clé : {@code security.jwt.secret},
+ * identifiée par {@code security.jwt.kid}. Avec un fichier (le même que celui du Gateway),
+ * les clés y sont lues et relues à chaud toutes les {@code security.jwt.keyset-reload-ms}
+ * si le fichier a changé ; une clé n’est acceptée que dans sa fenêtre
+ * {@code notBefore}/{@code notAfter}. Les clés sont construites au chargement, jamais par requête.
+ * </p>
+ */
+@Component
+public class JwtKeySet {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeySet.class);
+
+    private record Key(SecretKey key, Instant notBefore, Instant notAfter) {
+
+        boolean isValidAt(Instant now) {
+            return !now.isBefore(notBefore) && now.isBefore(notAfter);
+        }
+    }
+
+    private final Path file;
+    private final Clock clock;
+    private volatile Map<String, Key> keys;
+    private volatile FileTime loadedAt;
+
+    @Autowired
+    public JwtKeySet(@Value("${security.jwt.secret}") String secret,
+                     @Value("${security.jwt.kid:default}") String kid,
+                     @Value("${security.jwt.keyset-file:}") String keysetFile) {
+        this(secret, kid, keysetFile, Clock.systemUTC());
+    }
+
+    JwtKeySet(String secret, String kid, String keysetFile, Clock clock) {
+        this.clock = clock;
+        this.file = keysetFile == null || keysetFile.isBlank() ? null : Path.of(keysetFile);
+        if (file == null) {
+            this.keys = Map.of(kid, new Key(hmac(secret), Instant.MIN, Instant.MAX));
+        } else {
+            try {
+                load();
+            } catch (IOException | RuntimeException e) {
+                throw new IllegalStateException("Jeu de clés JWT illisible : " + file, e);
+            }
+        }
+    }
+
+    /**
+     * @param kid header {@code kid} d’un JWT ({@code null} pour un jeton antérieur aux kid)
+     * @return la clé de ce kid si elle est dans sa fenêtre de validité ; sans kid, toutes les clés valides
+     */
+    public List<SecretKey> verificationKeys(String kid) {
+        Instant now = clock.instant();
+        if (kid == null) {
+            return keys.values().stream().filter(k -> k.isValidAt(now)).map(Key::key).toList();
+        }
+        Key key = keys.get(kid);
+        return key != null && key.isValidAt(now) ? List.of(key.key()) : List.of();
+    }
+
+    /**
+     * Relit le fichier de clés s’il a changé ; en cas d’erreur, les clés en place sont gardées.
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.keyset-reload-ms:30000}")
+    public void reload() {
+        if (file == null) return;
+        try {
+            if (!Files.getLastModifiedTime(file).equals(loadedAt)) {
+                load();
+                log.info("[JwtKeySet] clés rechargées : {}", keys.keySet());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("[JwtKeySet] rechargement de {} impossible, clés conservées : {}", file, e.getMessage());
+        }
+    }
+
+    private void load() throws IOException {
+        FileTime modified = Files.getLastModifiedTime(file);
+        JsonNode root = new ObjectMapper().readTree(Files.readString(file));
+        Map<String, Key> loaded = new LinkedHashMap<>();
+        for (JsonNode node : root.path("keys")) {
+            String kid = node.path("kid").asText(null);
+            String secret = node.path("secret").asText(null);
+            if (kid == null || secret == null) {
+                throw new IllegalArgumentException("Clé sans kid ou secret");
+            }
+            Instant notBefore = node.hasNonNull("notBefore") ? Instant.parse(node.get("notBefore").asText()) : Instant.MIN;
+            Instant notAfter = node.hasNonNull("notAfter") ? Instant.parse(node.get("notAfter").asText()) : Instant.MAX;
+            loaded.put(kid, new Key(hmac(secret), notBefore, notAfter));
+        }
+        if (loaded.isEmpty()) {
+            throw new IllegalArgumentException("Aucune clé dans " + file);
+        }
+        this.keys = Map.copyOf(loaded);
+        this.loadedAt = modified;
+    }
+
+    private static SecretKey hmac(String secret) {
+        return new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    }
+}
@@ -0,0 +1,46 @@
+package com.medilabo.patientservice.controller;
+
+import com.medilabo.patientservice.feed.PatientChangeEvent;
+import com.medilabo.patientservice.service.ChangeFeedService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Contrôleur REST exposant le flux de changements patients.
+ * <p>
+ * Un consommateur appelle {@code GET /api/patients/changes?after={offset}} puis
+ * relance la lecture avec l’offset du dernier événement reçu.
+ * </p>
+ */
+@RestController
+@RequestMapping("/api/patients/changes")
+public class ChangeFeedController {
+
+    /**
+     * Service de lecture du flux de changements.
+     */
+    private final ChangeFeedService service;
+
+    /**
+     * Constructeur injectant le service de flux de changements.
+     *
+     * @param service instance du {@link ChangeFeedService}
+     */
+    public ChangeFeedController(ChangeFeedService service) {
+        this.service = service;
+    }
+
+    /**
+     * Lit les changements postérieurs à un offset.
+     *
+     * @param after dernier offset consommé (par défaut {@code 0})
+     * @param limit nombre maximal d’événements (par défaut {@code 100})
+     * @return les événements suivants, triés par offset croissant
+     */
+    @GetMapping
+    public List<PatientChangeEvent> changes(@RequestParam(value = "after", defaultValue = "0") long after,
+                                            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return service.readAfter(after, limit);
+    }
+}
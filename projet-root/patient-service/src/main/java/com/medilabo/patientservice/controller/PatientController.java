@@ -3,7 +3,9 @@ package com.medilabo.patientservice.controller;
 import com.medilabo.patientservice.model.Patient;
 import com.medilabo.patientservice.service.PatientService;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,6 +23,11 @@ import java.util.List;
 @RequestMapping("/api/patients")
 public class PatientController {
 
+    /**
+     * En-tête portant le nombre total de patients d’une réponse paginée.
+     */
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
     /**
      * Service gérant la logique métier liée aux patients.
      */
@@ -50,6 +57,25 @@ public class PatientController {
         return service.findAll();
     }
 
+    /**
+     * Récupère une page de patients, triés par identifiant croissant.
+     * <p>
+     * Le nombre total de patients est renvoyé dans l’en-tête {@code X-Total-Count}.
+     * </p>
+     *
+     * @param page numéro de page (à partir de 0)
+     * @param size taille de page (par défaut {@code 20})
+     * @return les patients de la page
+     */
+    @GetMapping(params = "page")
+    public ResponseEntity<List<Patient>> findPage(@RequestParam int page,
+                                                  @RequestParam(defaultValue = "20") int size) {
+        Page<Patient> result = service.findPage(page, size);
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(result.getTotalElements()))
+                .body(result.getContent());
+    }
+
     /**
      * Récupère un patient à partir de son identifiant unique.
      *
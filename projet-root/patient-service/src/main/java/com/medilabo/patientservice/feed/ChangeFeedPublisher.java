@@ -0,0 +1,22 @@
+package com.medilabo.patientservice.feed;
+
+import java.util.List;
+
+/**
+ * Point d’extension de diffusion des changements patients relayés depuis l’outbox.
+ * <p>
+ * L’implémentation active est choisie par la propriété {@code outbox.publisher}
+ * ({@code in-process} ou {@code http}). Une exception levée par {@link #publish(List)}
+ * laisse le lot non publié : il sera retenté au prochain passage du relais
+ * (diffusion « au moins une fois »).
+ * </p>
+ */
+public interface ChangeFeedPublisher {
+
+    /**
+     * Diffuse un lot d’événements, dans l’ordre croissant des offsets.
+     *
+     * @param events les événements à diffuser (jamais vide)
+     */
+    void publish(List<PatientChangeEvent> events);
+}
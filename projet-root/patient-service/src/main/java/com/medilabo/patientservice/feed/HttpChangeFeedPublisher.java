@@ -0,0 +1,54 @@
+package com.medilabo.patientservice.feed;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+/**
+ * Diffusion HTTP : chaque lot est envoyé en {@code POST} (tableau JSON) à l’URL
+ * configurée par {@code outbox.http.url}. Une réponse en erreur fait échouer le lot,
+ * qui sera renvoyé au prochain passage du relais ; le consommateur doit donc
+ * dédupliquer sur l’{@code offset}.
+ * <p>
+ * Les délais de connexion ({@code outbox.http.connect-timeout-ms}) et de réponse
+ * ({@code outbox.http.read-timeout-ms}) bornent l’attente d’un consommateur lent ou
+ * injoignable : le lot échoue alors et le relais reprend au passage suivant.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.publisher", havingValue = "http")
+public class HttpChangeFeedPublisher implements ChangeFeedPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpChangeFeedPublisher.class);
+
+    private final RestTemplate restTemplate;
+
+    private final String url;
+
+    /**
+     * @param url              URL du consommateur
+     * @param connectTimeoutMs délai maximal d’établissement de la connexion
+     * @param readTimeoutMs    délai maximal d’attente de la réponse
+     */
+    public HttpChangeFeedPublisher(@Value("${outbox.http.url}") String url,
+                                   @Value("${outbox.http.connect-timeout-ms:2000}") int connectTimeoutMs,
+                                   @Value("${outbox.http.read-timeout-ms:5000}") int readTimeoutMs) {
+        this.url = url;
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(connectTimeoutMs);
+        factory.setReadTimeout(readTimeoutMs);
+        this.restTemplate = new RestTemplate(factory);
+    }
+
+    @Override
+    public void publish(List<PatientChangeEvent> batch) {
+        log.debug("[ChangeFeed] POST {} événement(s) -> {}", batch.size(), url);
+        restTemplate.postForEntity(url, batch, Void.class);
+    }
+}
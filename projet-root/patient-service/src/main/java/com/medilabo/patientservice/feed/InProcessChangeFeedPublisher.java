@@ -0,0 +1,27 @@
+package com.medilabo.patientservice.feed;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Diffusion en mémoire : chaque changement est publié comme événement Spring,
+ * consommable par un {@code @EventListener(PatientChangeEvent.class)} du même contexte.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.publisher", havingValue = "in-process", matchIfMissing = true)
+public class InProcessChangeFeedPublisher implements ChangeFeedPublisher {
+
+    private final ApplicationEventPublisher events;
+
+    public InProcessChangeFeedPublisher(ApplicationEventPublisher events) {
+        this.events = events;
+    }
+
+    @Override
+    public void publish(List<PatientChangeEvent> batch) {
+        batch.forEach(events::publishEvent);
+    }
+}
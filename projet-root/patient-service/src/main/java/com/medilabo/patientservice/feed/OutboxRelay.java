@@ -0,0 +1,79 @@
+package com.medilabo.patientservice.feed;
+
+import com.medilabo.patientservice.model.OutboxEvent;
+import com.medilabo.patientservice.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Relais de l’outbox : lit périodiquement les événements non publiés, les transmet
+ * au {@link ChangeFeedPublisher} actif puis les marque comme publiés.
+ * <p>
+ * La diffusion a lieu hors transaction : un consommateur lent n’immobilise ni connexion
+ * à la base ni verrou. Le lot n’est marqué publié (transaction courte) qu’après une
+ * diffusion réussie ; si elle échoue, il reste en attente et sera retenté au passage suivant.
+ * Les événements publiés sont conservés {@code outbox.retention-hours} heures pour
+ * permettre aux consommateurs HTTP de reprendre la lecture depuis leur offset.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outbox;
+    private final ChangeFeedPublisher publisher;
+    private final int batchSize;
+    private final Duration retention;
+
+    public OutboxRelay(OutboxEventRepository outbox,
+                       ChangeFeedPublisher publisher,
+                       @Value("${outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${outbox.retention-hours:168}") long retentionHours) {
+        this.outbox = outbox;
+        this.publisher = publisher;
+        this.batchSize = batchSize;
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    /**
+     * Relaye un lot d’événements en attente.
+     *
+     * @return le nombre d’événements publiés
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:1000}")
+    public int relay() {
+        List<OutboxEvent> pending = outbox.findByPublishedAtIsNullOrderByIdAsc(PageRequest.of(0, batchSize));
+        if (pending.isEmpty()) return 0;
+
+        publisher.publish(pending.stream().map(PatientChangeEvent::from).toList());
+        outbox.markPublished(pending.stream().map(OutboxEvent::getId).toList(), Instant.now());
+
+        log.debug("[OutboxRelay] {} événement(s) publié(s), dernier offset={}",
+                pending.size(), pending.get(pending.size() - 1).getId());
+        return pending.size();
+    }
+
+    /**
+     * Supprime les événements publiés au-delà de la durée de rétention.
+     */
+    @Scheduled(cron = "${outbox.purge-cron:0 0 3 * * *}")
+    @Transactional
+    public void purge() {
+        int removed = outbox.purgePublishedBefore(Instant.now().minus(retention));
+        if (removed > 0) {
+            log.info("[OutboxRelay] {} événement(s) purgé(s)", removed);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.medilabo.patientservice.feed;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.medilabo.patientservice.model.ChangeType;
+import com.medilabo.patientservice.model.OutboxEvent;
+
+import java.time.Instant;
+
+/**
+ * Événement de changement patient tel que diffusé dans le flux de changements.
+ *
+ * @param offset     offset de l’événement (identifiant de l’outbox), utilisable pour reprendre la lecture
+ * @param patientId  identifiant du patient concerné
+ * @param type       type d’opération
+ * @param payload    état JSON du patient après l’opération ({@code null} pour une suppression)
+ * @param occurredAt date d’écriture de l’événement
+ */
+public record PatientChangeEvent(
+        long offset,
+        Long patientId,
+        ChangeType type,
+        @JsonRawValue String payload,
+        Instant occurredAt) {
+
+    /**
+     * Construit l’événement diffusé à partir d’une ligne de l’outbox.
+     *
+     * @param e ligne de l’outbox
+     * @return l’événement correspondant
+     */
+    public static PatientChangeEvent from(OutboxEvent e) {
+        return new PatientChangeEvent(e.getId(), e.getPatientId(), e.getType(), e.getPayload(), e.getCreatedAt());
+    }
+}
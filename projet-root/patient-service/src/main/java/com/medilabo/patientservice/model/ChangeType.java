@@ -0,0 +1,10 @@
+package com.medilabo.patientservice.model;
+
+/**
+ * Type d’opération enregistrée dans l’outbox des changements patients.
+ */
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,123 @@
+package com.medilabo.patientservice.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Événement de changement d’un patient, écrit dans l’outbox transactionnelle.
+ * <p>
+ * Chaque ligne de la table {@code patient_outbox} est insérée dans la même
+ * transaction que la modification du {@link Patient}. L’identifiant, strictement
+ * croissant, sert d’offset de reprise pour les consommateurs du flux de changements.
+ * </p>
+ */
+@Entity
+@Table(name = "patient_outbox", indexes = {
+        @Index(name = "idx_outbox_published", columnList = "publishedAt, id")
+})
+public class OutboxEvent {
+
+    /**
+     * Identifiant (offset) de l’événement, généré par la base (AUTO_INCREMENT MySQL).
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Identifiant du patient concerné.
+     */
+    @Column(nullable = false)
+    private Long patientId;
+
+    /**
+     * Type d’opération (création, mise à jour, suppression).
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ChangeType type;
+
+    /**
+     * Représentation JSON du patient après modification ({@code null} pour une suppression).
+     */
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    /**
+     * Date d’écriture de l’événement dans l’outbox.
+     */
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    /**
+     * Date de publication par le relais ({@code null} tant que l’événement n’a pas été relayé).
+     */
+    private Instant publishedAt;
+
+    /**
+     * Constructeur vide requis par JPA.
+     */
+    public OutboxEvent() {}
+
+    /**
+     * Crée un nouvel événement non publié.
+     *
+     * @param patientId identifiant du patient concerné
+     * @param type      type d’opération
+     * @param payload   représentation JSON du patient (peut être {@code null})
+     */
+    public OutboxEvent(Long patientId, ChangeType type, String payload) {
+        this.patientId = patientId;
+        this.type = type;
+        this.payload = payload;
+        this.createdAt = Instant.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getPatientId() {
+        return patientId;
+    }
+
+    public void setPatientId(Long patientId) {
+        this.patientId = patientId;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public void setType(ChangeType type) {
+        this.type = type;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getPublishedAt() {
+        return publishedAt;
+    }
+
+    public void setPublishedAt(Instant publishedAt) {
+        this.publishedAt = publishedAt;
+    }
+}
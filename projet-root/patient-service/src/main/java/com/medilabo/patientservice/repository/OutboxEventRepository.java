@@ -0,0 +1,58 @@
+package com.medilabo.patientservice.repository;
+
+import com.medilabo.patientservice.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Référentiel JPA pour l’outbox des changements patients ({@link OutboxEvent}).
+ */
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Lit les événements situés après un offset et écrits avant une date, dans l’ordre des offsets.
+     *
+     * @param after    dernier offset déjà consommé (exclu)
+     * @param before   date d’écriture limite (exclue)
+     * @param pageable taille maximale du lot
+     * @return les événements suivants, triés par identifiant croissant
+     */
+    List<OutboxEvent> findByIdGreaterThanAndCreatedAtBeforeOrderByIdAsc(Long after, Instant before, Pageable pageable);
+
+    /**
+     * Lit les événements pas encore publiés par le relais, du plus ancien au plus récent.
+     *
+     * @param pageable taille maximale du lot
+     * @return les événements en attente de publication
+     */
+    List<OutboxEvent> findByPublishedAtIsNullOrderByIdAsc(Pageable pageable);
+
+    /**
+     * Marque un lot d’événements comme publiés, dans sa propre transaction.
+     *
+     * @param ids identifiants des événements publiés
+     * @param at  date de publication
+     * @return le nombre de lignes mises à jour
+     */
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.publishedAt = :at where e.id in :ids")
+    int markPublished(@Param("ids") List<Long> ids, @Param("at") Instant at);
+
+    /**
+     * Purge les événements publiés avant une date donnée.
+     *
+     * @param before date limite de rétention
+     * @return le nombre de lignes supprimées
+     */
+    @Modifying
+    @Query("delete from OutboxEvent e where e.publishedAt is not null and e.publishedAt < :before")
+    int purgePublishedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,90 @@
+package com.medilabo.patientservice.service;
+
+import com.medilabo.patientservice.feed.PatientChangeEvent;
+import com.medilabo.patientservice.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Service de lecture du flux de changements patients.
+ * <p>
+ * Les consommateurs lisent l’outbox par offset croissant : il leur suffit de
+ * mémoriser le dernier offset traité pour reprendre la lecture sans relire
+ * la table des patients.
+ * </p>
+ * <p>
+ * Les offsets viennent d’une colonne auto-incrémentée : deux transactions concurrentes
+ * peuvent réserver leurs offsets dans un ordre et valider dans l’autre. La lecture ignore
+ * donc les événements écrits depuis moins de {@code outbox.feed.settle-ms}, pour qu’un
+ * consommateur ne dépasse pas un offset dont la transaction n’est pas encore validée
+ * (comme le flux des notes).
+ * </p>
+ */
+@Service
+@Transactional(readOnly = true)
+public class ChangeFeedService {
+
+    /**
+     * Référentiel de l’outbox des changements patients.
+     */
+    private final OutboxEventRepository outbox;
+
+    /**
+     * Nombre maximal d’événements renvoyés par lecture.
+     */
+    private final int maxLimit;
+
+    /**
+     * Âge minimal d’un événement pour être servi.
+     */
+    private final Duration settle;
+
+    private final Clock clock;
+
+    /**
+     * Constructeur injectant l’outbox, la taille de lot maximale et le délai de stabilisation.
+     *
+     * @param outbox   le repository de l’outbox
+     * @param maxLimit nombre maximal d’événements par lecture
+     * @param settleMs âge minimal, en millisecondes, d’un événement servi
+     */
+    @Autowired
+    public ChangeFeedService(OutboxEventRepository outbox,
+                             @Value("${outbox.feed.max-limit:1000}") int maxLimit,
+                             @Value("${outbox.feed.settle-ms:1000}") long settleMs) {
+        this(outbox, maxLimit, settleMs, Clock.systemUTC());
+    }
+
+    ChangeFeedService(OutboxEventRepository outbox, int maxLimit, long settleMs, Clock clock) {
+        this.outbox = outbox;
+        this.maxLimit = maxLimit;
+        this.settle = Duration.ofMillis(settleMs);
+        this.clock = clock;
+    }
+
+    /**
+     * Lit les événements postérieurs à un offset.
+     *
+     * @param after dernier offset déjà consommé ({@code 0} pour lire depuis le début)
+     * @param limit nombre maximal d’événements souhaité (borné par {@code outbox.feed.max-limit})
+     * @return les événements suivants écrits depuis au moins {@code outbox.feed.settle-ms}, triés par offset croissant
+     * @throws IllegalArgumentException si l’offset ou la limite sont négatifs
+     */
+    public List<PatientChangeEvent> readAfter(long after, int limit) {
+        if (after < 0 || limit <= 0) {
+            throw new IllegalArgumentException("Offset ou limite invalide: after=" + after + ", limit=" + limit);
+        }
+        return outbox.findByIdGreaterThanAndCreatedAtBeforeOrderByIdAsc(
+                        after, clock.instant().minus(settle), PageRequest.of(0, Math.min(limit, maxLimit)))
+                .stream()
+                .map(PatientChangeEvent::from)
+                .toList();
+    }
+}
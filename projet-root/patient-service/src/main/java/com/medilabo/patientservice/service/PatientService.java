@@ -1,7 +1,15 @@
 package com.medilabo.patientservice.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medilabo.patientservice.model.ChangeType;
+import com.medilabo.patientservice.model.OutboxEvent;
 import com.medilabo.patientservice.model.Patient;
+import com.medilabo.patientservice.repository.OutboxEventRepository;
 import com.medilabo.patientservice.repository.PatientRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,23 +21,46 @@ import java.util.List;
  * Cette classe assure la création, la consultation, la mise à jour et la suppression
  * des entités {@link Patient} en s’appuyant sur le {@link PatientRepository}.
  * </p>
+ * <p>
+ * Chaque écriture ajoute un {@link OutboxEvent} dans la même transaction, ce qui
+ * garantit qu’un changement validé sera toujours publié dans le flux de changements.
+ * </p>
  */
 @Service
 @Transactional(readOnly = true)
 public class PatientService {
 
+    /**
+     * Taille maximale d’une page de patients.
+     */
+    static final int MAX_PAGE_SIZE = 100;
+
     /**
      * Référentiel d’accès aux données des patients.
      */
     private final PatientRepository repo;
 
     /**
-     * Constructeur injectant le repository de gestion des patients.
+     * Référentiel de l’outbox des changements patients.
+     */
+    private final OutboxEventRepository outbox;
+
+    /**
+     * Sérialiseur JSON utilisé pour la charge utile des événements.
+     */
+    private final ObjectMapper mapper;
+
+    /**
+     * Constructeur injectant les repositories et le sérialiseur JSON.
      *
-     * @param repo le repository {@link PatientRepository} à utiliser
+     * @param repo   le repository {@link PatientRepository} à utiliser
+     * @param outbox le repository de l’outbox des changements
+     * @param mapper l’{@link ObjectMapper} utilisé pour sérialiser les patients
      */
-    public PatientService(PatientRepository repo) {
+    public PatientService(PatientRepository repo, OutboxEventRepository outbox, ObjectMapper mapper) {
         this.repo = repo;
+        this.outbox = outbox;
+        this.mapper = mapper;
     }
 
     /**
@@ -41,6 +72,25 @@ public class PatientService {
         return repo.findAll();
     }
 
+    /**
+     * Récupère une page de patients, triés par identifiant croissant.
+     * <p>
+     * L’ordre par identifiant place les patients créés en fin de liste, ce qui
+     * permet aux clients de mettre à jour localement une page déjà chargée.
+     * </p>
+     *
+     * @param page numéro de page (à partir de 0)
+     * @param size taille de page (bornée à {@value #MAX_PAGE_SIZE})
+     * @return la page demandée et le nombre total de patients
+     * @throws IllegalArgumentException si la pagination est invalide
+     */
+    public Page<Patient> findPage(int page, int size) {
+        if (page < 0 || size <= 0) {
+            throw new IllegalArgumentException("Pagination invalide: page=" + page + ", size=" + size);
+        }
+        return repo.findAll(PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE), Sort.by("id")));
+    }
+
     /**
      * Recherche un patient à partir de son identifiant.
      *
@@ -77,7 +127,9 @@ public class PatientService {
     @Transactional
     public Patient create(Patient p) {
         p.setId(null);
-        return repo.save(p);
+        Patient saved = repo.save(p);
+        record(saved.getId(), ChangeType.CREATED, saved);
+        return saved;
     }
 
     /**
@@ -97,7 +149,9 @@ public class PatientService {
         existing.setGender(payload.getGender());
         existing.setAddress(payload.getAddress());
         existing.setPhone(payload.getPhone());
-        return repo.save(existing);
+        Patient saved = repo.save(existing);
+        record(saved.getId(), ChangeType.UPDATED, saved);
+        return saved;
     }
 
     /**
@@ -108,5 +162,25 @@ public class PatientService {
     @Transactional
     public void delete(Long id) {
         repo.deleteById(id);
+        record(id, ChangeType.DELETED, null);
+    }
+
+    /**
+     * Écrit un événement de changement dans l’outbox (transaction courante).
+     *
+     * @param patientId identifiant du patient concerné
+     * @param type      type d’opération
+     * @param patient   état du patient après l’opération ({@code null} pour une suppression)
+     */
+    private void record(Long patientId, ChangeType type, Patient patient) {
+        String payload = null;
+        if (patient != null) {
+            try {
+                payload = mapper.writeValueAsString(patient);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Sérialisation du patient impossible: " + patientId, e);
+            }
+        }
+        outbox.save(new OutboxEvent(patientId, type, payload));
     }
 }
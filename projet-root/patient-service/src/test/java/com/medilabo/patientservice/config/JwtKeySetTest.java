@@ -0,0 +1,74 @@
+package com.medilabo.patientservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeySetTest {
+
+    private static final String OLD = "old-secret-0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final String NEW = "new-secret-0123456789abcdefghijklmnopqrstuvwxyz";
+
+    @TempDir
+    Path dir;
+
+    private static Map<String, Object> claims() {
+        return Map.of("sub", "alice", "roles", "ROLE_PRATICIEN",
+                "exp", Instant.now().plusSeconds(600).getEpochSecond());
+    }
+
+    @Test
+    void decoder_selectsKeyByKid_withinItsValidityWindow() throws IOException {
+        Path file = dir.resolve("jwt-keys.json");
+        Files.writeString(file, """
+                {"keys": [
+                  {"kid": "k1", "secret": "%s", "notAfter": "%s"},
+                  {"kid": "k2", "secret": "%s"}
+                ]}
+                """.formatted(OLD, Instant.now().minusSeconds(1), NEW));
+        JwtDecoder decoder = new SecurityConfig()
+                .jwtDecoder(new JwtKeySet(null, "default", file.toString(), Clock.systemUTC()));
+
+        assertEquals("alice", decoder.decode(TestJwtUtil.createHs256(NEW, "k2", claims())).getSubject());
+        // k1 hors de sa fenêtre, k2 ne correspond pas à la signature
+        assertThrows(JwtException.class, () -> decoder.decode(TestJwtUtil.createHs256(OLD, "k1", claims())));
+        assertThrows(JwtException.class, () -> decoder.decode(TestJwtUtil.createHs256(OLD, "k2", claims())));
+        assertThrows(JwtException.class, () -> decoder.decode(TestJwtUtil.createHs256(NEW, "k3", claims())));
+    }
+
+    @Test
+    void tokenWithoutKid_isCheckedAgainstEveryValidKey() throws IOException {
+        Path file = dir.resolve("jwt-keys.json");
+        Files.writeString(file, """
+                {"keys": [
+                  {"kid": "default", "secret": "%s"},
+                  {"kid": "k2", "secret": "%s", "notBefore": "%s"}
+                ]}
+                """.formatted(OLD, NEW, Instant.now().minusSeconds(60)));
+        JwtDecoder decoder = new SecurityConfig()
+                .jwtDecoder(new JwtKeySet(null, "default", file.toString(), Clock.systemUTC()));
+
+        // jeton d'avant la rotation, alors que deux clés se chevauchent
+        assertEquals("alice", decoder.decode(TestJwtUtil.createHs256(OLD, claims())).getSubject());
+        assertEquals("alice", decoder.decode(TestJwtUtil.createHs256(NEW, claims())).getSubject());
+    }
+
+    @Test
+    void singleSecret_acceptsDefaultKid_andTokensWithoutKid() {
+        JwtDecoder decoder = new SecurityConfig()
+                .jwtDecoder(new JwtKeySet(NEW, "default", "", Clock.systemUTC()));
+
+        assertEquals("alice", decoder.decode(TestJwtUtil.createHs256(NEW, "default", claims())).getSubject());
+        assertEquals("alice", decoder.decode(TestJwtUtil.createHs256(NEW, claims())).getSubject());
+    }
+}
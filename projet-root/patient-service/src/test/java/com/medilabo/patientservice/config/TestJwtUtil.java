@@ -11,8 +11,15 @@ public final class TestJwtUtil {
     private TestJwtUtil() {}
 
     public static String createHs256(String secret, Map<String, Object> claims) {
+        return createHs256(secret, null, claims);
+    }
+
+    /** Jeton signé avec un header kid (null : pas de kid) */
+    public static String createHs256(String secret, String kid, Map<String, Object> claims) {
         try {
-            String headerJson = "{\"alg\":\"HS256\",\"typ\":\"JWT\"}";
+            String headerJson = kid == null
+                    ? "{\"alg\":\"HS256\",\"typ\":\"JWT\"}"
+                    : "{\"alg\":\"HS256\",\"typ\":\"JWT\",\"kid\":\"" + kid + "\"}";
             String payloadJson = toJson(claims);
 
             String header = b64(headerJson.getBytes(StandardCharsets.UTF_8));
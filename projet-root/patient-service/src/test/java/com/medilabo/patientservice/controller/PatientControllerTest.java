@@ -9,6 +9,8 @@ import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -82,6 +84,19 @@ class PatientControllerTest {
         verify(patientService, never()).findAll();
     }
 
+    @Test
+    @WithMockUser(roles = "ORGANISATEUR")
+    void findPage_shouldReturnPageContent_withTotalCountHeader() throws Exception {
+        when(patientService.findPage(2, 1)).thenReturn(new PageImpl<>(List.of(sample), PageRequest.of(2, 1), 42));
+
+        mockMvc.perform(get("/api/patients?page=2&size=1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "42"))
+                .andExpect(jsonPath("$[0].id").value(1));
+
+        verify(patientService, never()).findAll();
+    }
+
     // ---------- GET /api/patients/{id} ----------
 
     @Test
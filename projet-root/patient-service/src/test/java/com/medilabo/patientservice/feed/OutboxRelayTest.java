@@ -0,0 +1,74 @@
+package com.medilabo.patientservice.feed;
+
+import com.medilabo.patientservice.model.ChangeType;
+import com.medilabo.patientservice.model.OutboxEvent;
+import com.medilabo.patientservice.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    private OutboxEventRepository outbox;
+    private ChangeFeedPublisher publisher;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setup() {
+        outbox = mock(OutboxEventRepository.class);
+        publisher = mock(ChangeFeedPublisher.class);
+        relay = new OutboxRelay(outbox, publisher, 100, 168);
+    }
+
+    private static OutboxEvent event(long id, ChangeType type) {
+        OutboxEvent e = new OutboxEvent(10L + id, type, type == ChangeType.DELETED ? null : "{\"id\":" + (10 + id) + "}");
+        e.setId(id);
+        return e;
+    }
+
+    @Test
+    void relay_publishesPendingEventsInOrder_andMarksThemPublished() {
+        when(outbox.findByPublishedAtIsNullOrderByIdAsc(any()))
+                .thenReturn(List.of(event(1, ChangeType.CREATED), event(2, ChangeType.DELETED)));
+
+        int published = relay.relay();
+
+        assertThat(published).isEqualTo(2);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<PatientChangeEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(publisher).publish(captor.capture());
+        assertThat(captor.getValue()).extracting(PatientChangeEvent::offset).containsExactly(1L, 2L);
+        assertThat(captor.getValue().get(1).type()).isEqualTo(ChangeType.DELETED);
+
+        verify(outbox).markPublished(eq(List.of(1L, 2L)), any());
+    }
+
+    @Test
+    void relay_doesNothing_whenOutboxIsEmpty() {
+        when(outbox.findByPublishedAtIsNullOrderByIdAsc(any())).thenReturn(List.of());
+
+        assertThat(relay.relay()).isZero();
+
+        verifyNoInteractions(publisher);
+        verify(outbox, never()).markPublished(anyList(), any());
+    }
+
+    @Test
+    void relay_leavesEventsPending_whenPublisherFails() {
+        when(outbox.findByPublishedAtIsNullOrderByIdAsc(any())).thenReturn(List.of(event(1, ChangeType.UPDATED)));
+        doThrow(new IllegalStateException("feed indisponible")).when(publisher).publish(anyList());
+
+        assertThatThrownBy(() -> relay.relay()).isInstanceOf(IllegalStateException.class);
+
+        verify(outbox, never()).markPublished(anyList(), any());
+    }
+}
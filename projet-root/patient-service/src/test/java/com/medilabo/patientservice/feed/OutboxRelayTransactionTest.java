@@ -0,0 +1,99 @@
+package com.medilabo.patientservice.feed;
+
+import com.medilabo.patientservice.model.ChangeType;
+import com.medilabo.patientservice.model.OutboxEvent;
+import com.medilabo.patientservice.repository.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.TransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Relais sur une vraie base : sans transaction autour du test, chaque lecture du
+ * référentiel ne voit que ce qui a été validé.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRelayTransactionTest {
+
+    @Autowired
+    private OutboxEventRepository outbox;
+
+    @Autowired
+    private TransactionManager transactionManager;
+
+    /** diffusion pilotée par chaque test */
+    private ChangeFeedPublisher next = events -> { };
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setup() {
+        // proxy transactionnel comme celui du contexte (les @Transactional du relais comptent),
+        // sans l'ordonnanceur, désactivé par le profil de test
+        ProxyFactory factory = new ProxyFactory(new OutboxRelay(outbox, events -> next.publish(events), 100, 168));
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(new TransactionInterceptor(transactionManager, new AnnotationTransactionAttributeSource()));
+        relay = (OutboxRelay) factory.getProxy();
+    }
+
+    @AfterEach
+    void cleanup() {
+        outbox.deleteAll();
+    }
+
+    private Long pending() {
+        return outbox.save(new OutboxEvent(42L, ChangeType.UPDATED, "{\"id\":42}")).getId();
+    }
+
+    @Test
+    void relay_leavesTheEventUnpublished_whenThePublisherFails() {
+        Long id = pending();
+        next = events -> {
+            throw new IllegalStateException("feed indisponible");
+        };
+
+        assertThatThrownBy(relay::relay).isInstanceOf(IllegalStateException.class);
+
+        assertThat(outbox.findById(id).orElseThrow().getPublishedAt()).isNull();
+
+        // toujours en attente : le passage suivant le diffuse
+        List<Long> retried = new ArrayList<>();
+        next = events -> events.forEach(e -> retried.add(e.offset()));
+        assertThat(relay.relay()).isEqualTo(1);
+        assertThat(retried).containsExactly(id);
+    }
+
+    @Test
+    void relay_publishesOutsideAnyTransaction_thenCommitsTheMarkOnItsOwn() {
+        Long id = pending();
+        List<Boolean> transactionDuringPublish = new ArrayList<>();
+        List<Boolean> markedDuringPublish = new ArrayList<>();
+        next = events -> {
+            transactionDuringPublish.add(TransactionSynchronizationManager.isActualTransactionActive());
+            markedDuringPublish.add(outbox.findById(id).orElseThrow().getPublishedAt() != null);
+        };
+
+        assertThat(relay.relay()).isEqualTo(1);
+
+        assertThat(transactionDuringPublish).containsExactly(false);
+        assertThat(markedDuringPublish).containsExactly(false);
+        assertThat(outbox.findById(id).orElseThrow().getPublishedAt()).isNotNull();
+        assertThat(relay.relay()).isZero();
+    }
+}
@@ -0,0 +1,52 @@
+package com.medilabo.patientservice.service;
+
+import com.medilabo.patientservice.feed.PatientChangeEvent;
+import com.medilabo.patientservice.model.ChangeType;
+import com.medilabo.patientservice.model.OutboxEvent;
+import com.medilabo.patientservice.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class ChangeFeedServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T10:00:00Z");
+
+    private OutboxEventRepository outbox;
+    private ChangeFeedService service;
+
+    @BeforeEach
+    void setup() {
+        outbox = mock(OutboxEventRepository.class);
+        service = new ChangeFeedService(outbox, 50, 1000, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void readAfter_servesOnlySettledEvents_withinTheMaxLimit() {
+        OutboxEvent settled = new OutboxEvent(7L, ChangeType.UPDATED, "{\"id\":7}");
+        settled.setId(4L);
+        when(outbox.findByIdGreaterThanAndCreatedAtBeforeOrderByIdAsc(3L, NOW.minusMillis(1000), PageRequest.of(0, 50)))
+                .thenReturn(List.of(settled));
+
+        // un offset plus grand dont la transaction serait encore en cours n'est pas dépassé
+        List<PatientChangeEvent> events = service.readAfter(3L, 500);
+
+        assertThat(events).extracting(PatientChangeEvent::offset).containsExactly(4L);
+    }
+
+    @Test
+    void readAfter_rejectsNegativeOffsetOrLimit() {
+        assertThatThrownBy(() -> service.readAfter(-1, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.readAfter(0, 0)).isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(outbox);
+    }
+}
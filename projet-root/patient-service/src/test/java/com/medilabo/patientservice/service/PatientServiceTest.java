@@ -1,9 +1,18 @@
 package com.medilabo.patientservice.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.medilabo.patientservice.model.ChangeType;
+import com.medilabo.patientservice.model.OutboxEvent;
 import com.medilabo.patientservice.model.Patient;
+import com.medilabo.patientservice.repository.OutboxEventRepository;
 import com.medilabo.patientservice.repository.PatientRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -18,13 +27,15 @@ class PatientServiceTest {
 
     private PatientService service;
     private PatientRepository repo;
+    private OutboxEventRepository outbox;
 
     private Patient existing;
 
     @BeforeEach
     void setup() {
         repo = mock(PatientRepository.class);
-        service = new PatientService(repo);
+        outbox = mock(OutboxEventRepository.class);
+        service = new PatientService(repo, outbox, new ObjectMapper().registerModule(new JavaTimeModule()));
 
         existing = new Patient();
         existing.setId(1L);
@@ -46,6 +57,27 @@ class PatientServiceTest {
         verify(repo).findAll();
     }
 
+    @Test
+    void findPage_sortsById_andCapsPageSize() {
+        when(repo.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(existing)));
+
+        Page<Patient> page = service.findPage(3, 1000);
+
+        assertThat(page.getContent()).containsExactly(existing);
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(repo).findAll(captor.capture());
+        assertThat(captor.getValue().getPageNumber()).isEqualTo(3);
+        assertThat(captor.getValue().getPageSize()).isEqualTo(PatientService.MAX_PAGE_SIZE);
+        assertThat(captor.getValue().getSort().getOrderFor("id")).isNotNull();
+    }
+
+    @Test
+    void findPage_throws_whenPaginationInvalid() {
+        assertThatThrownBy(() -> service.findPage(-1, 20)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.findPage(0, 0)).isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(repo);
+    }
+
     @Test
     void getById_returnsPatient_whenExists() {
         when(repo.findById(1L)).thenReturn(Optional.of(existing));
@@ -83,6 +115,12 @@ class PatientServiceTest {
 
         assertThat(saved.getLastName()).isEqualTo("Curie");
         verify(repo).save(payload);
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outbox).save(captor.capture());
+        assertThat(captor.getValue().getType()).isEqualTo(ChangeType.CREATED);
+        assertThat(captor.getValue().getPayload()).contains("\"lastName\":\"Curie\"");
+        assertThat(captor.getValue().getPublishedAt()).isNull();
     }
 
     @Test
@@ -106,6 +144,11 @@ class PatientServiceTest {
 
         verify(repo).findById(1L);
         verify(repo).save(any(Patient.class));
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outbox).save(captor.capture());
+        assertThat(captor.getValue().getPatientId()).isEqualTo(1L);
+        assertThat(captor.getValue().getType()).isEqualTo(ChangeType.UPDATED);
     }
 
     @Test
@@ -118,11 +161,17 @@ class PatientServiceTest {
 
         verify(repo).findById(42L);
         verify(repo, never()).save(any());
+        verify(outbox, never()).save(any());
     }
 
     @Test
     void delete_callsRepositoryDelete() {
         service.delete(1L);
         verify(repo).deleteById(1L);
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outbox).save(captor.capture());
+        assertThat(captor.getValue().getType()).isEqualTo(ChangeType.DELETED);
+        assertThat(captor.getValue().getPayload()).isNull();
     }
 }
@@ -2,6 +2,7 @@ package com.medilabo.patientui;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Point d’entrée principal du microservice <strong>patient-ui-service</strong>.
@@ -15,10 +16,12 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * <ul>
  *   <li>Démarre un serveur Tomcat intégré via Spring Boot.</li>
  *   <li>Charge et rend les vues Thymeleaf situées dans le répertoire {@code templates/}.</li>
+ *   <li>Relaie en direct aux pages ouvertes les changements de notes et de patients (tâches planifiées).</li>
  * </ul>
  * </p>
  */
 @SpringBootApplication
+@EnableScheduling
 public class PatientUiServiceApplication {
 
     /**
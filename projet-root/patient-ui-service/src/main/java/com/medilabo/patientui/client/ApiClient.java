@@ -0,0 +1,119 @@
+package com.medilabo.patientui.client;
+
+import com.medilabo.patientui.web.AuthHeaders;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+/**
+ * Client d’une API exposée par la Gateway (patients, notes, risk).
+ * <p>
+ * Toutes les APIs partagent le même pool de connexions HTTP (voir {@code AppConfig}) ;
+ * chaque client a son URL de base et son délai de réponse. Les appels :
+ * <ul>
+ *   <li>propagent le JWT de la requête entrante ({@link AuthHeaders}, construit une fois par requête) ;</li>
+ *   <li>sont chronométrés dans l’histogramme {@code ui.api.client.requests}
+ *       (tags {@code api}, {@code operation}, {@code outcome}) ;</li>
+ *   <li>transforment les réponses d’erreur en {@link IllegalStateException}.</li>
+ * </ul>
+ * </p>
+ */
+public class ApiClient {
+
+    /** Nom du timer des appels */
+    public static final String METRIC = "ui.api.client.requests";
+
+    private final String name;
+    private final RestTemplate rest;
+    private final MeterRegistry registry;
+
+    /**
+     * @param name     nom de l’API (tag {@code api}, et préfixe des messages d’erreur)
+     * @param rest     RestTemplate configuré avec l’URL de base de l’API
+     * @param registry registre des métriques
+     */
+    public ApiClient(String name, RestTemplate rest, MeterRegistry registry) {
+        this.name = name;
+        this.rest = rest;
+        this.registry = registry;
+    }
+
+    /**
+     * Appelle l’API et renvoie le corps de la réponse.
+     *
+     * @param operation nom logique de l’appel (tag {@code operation}, ex. "findAll")
+     * @param method    méthode HTTP
+     * @param path      chemin relatif à l’URL de base
+     * @param body      corps de la requête ({@code null} si aucun)
+     * @param request   requête entrante (pour le JWT)
+     * @param type      type de la réponse
+     * @return le corps de la réponse (peut être {@code null})
+     * @throws IllegalStateException si l’API répond par une erreur
+     */
+    public <T> T call(String operation, HttpMethod method, String path, Object body,
+                      HttpServletRequest request, Class<T> type) {
+        return exchange(operation, method, path, body, request, type).getBody();
+    }
+
+    /**
+     * Lecture (GET) avec {@code Cache-Control: no-cache} : la Gateway interroge le backend au lieu
+     * de servir sa copie en cache. Pour recharger une donnée qu’un flux de changements vient de signaler.
+     *
+     * @see #call
+     */
+    public <T> T callFresh(String operation, String path, HttpServletRequest request, Class<T> type) {
+        return exchange(operation, HttpMethod.GET, path, null, request, type, true).getBody();
+    }
+
+    /**
+     * Comme {@link #call}, mais renvoie aussi le statut et les en-têtes de la réponse.
+     */
+    public <T> ResponseEntity<T> exchange(String operation, HttpMethod method, String path, Object body,
+                                          HttpServletRequest request, Class<T> type) {
+        return exchange(operation, method, path, body, request, type, false);
+    }
+
+    private <T> ResponseEntity<T> exchange(String operation, HttpMethod method, String path, Object body,
+                                           HttpServletRequest request, Class<T> type, boolean noCache) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(AuthHeaders.of(request));
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        if (noCache) {
+            headers.setCacheControl(CacheControl.noCache());
+        }
+        HttpEntity<?> entity = (body != null) ? new HttpEntity<>(body, headers) : new HttpEntity<>(headers);
+
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "IO_ERROR";
+        try {
+            ResponseEntity<T> response = rest.exchange(path, method, entity, type);
+            outcome = "SUCCESS";
+            return response;
+        } catch (HttpStatusCodeException e) {
+            outcome = e.getStatusCode().is4xxClientError() ? "CLIENT_ERROR" : "SERVER_ERROR";
+            throw new IllegalStateException(
+                    name + " API error " + e.getStatusCode() + " : " + e.getResponseBodyAsString(), e);
+        } catch (RestClientException e) {
+            throw new IllegalStateException(name + " API unreachable : " + e.getMessage(), e);
+        } finally {
+            sample.stop(Timer.builder(METRIC)
+                    .description("Durée des appels de l'UI aux APIs via la Gateway")
+                    .tag("api", name)
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+    }
+}
@@ -1,35 +1,91 @@
 package com.medilabo.patientui.config;
 
+import com.medilabo.patientui.client.ApiClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
+import java.time.Duration;
+
+/**
+ * Clients des APIs appelées via la Gateway.
+ *
+ * Les trois APIs passent par la même Gateway : elles partagent un seul pool de
+ * connexions HTTP persistantes (ui.http.*), chacune avec son URL de base et son
+ * délai de réponse (*.api.read-timeout-ms).
+ */
 @Configuration
 public class AppConfig {
 
-    private RestTemplate buildClient(String baseUrl) {
-        RestTemplate rt = new RestTemplate();
+    /** Pool de connexions partagé par tous les clients d'API. */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient apiHttpClient(
+            @Value("${ui.http.max-total:100}") int maxTotal,
+            @Value("${ui.http.max-per-route:50}") int maxPerRoute,
+            @Value("${ui.http.connect-timeout-ms:1000}") long connectTimeoutMs,
+            @Value("${ui.http.idle-evict-seconds:30}") long idleEvictSeconds) {
+        return HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(maxTotal)
+                        .setMaxConnPerRoute(maxPerRoute)
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                                .build())
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictSeconds))
+                .build();
+    }
+
+    private ApiClient buildClient(String name, String baseUrl, long readTimeoutMs, long poolTimeoutMs,
+                                  CloseableHttpClient httpClient, MeterRegistry registry) {
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        factory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        factory.setConnectionRequestTimeout(Duration.ofMillis(poolTimeoutMs));
+
+        RestTemplate rt = new RestTemplate(factory);
         rt.setUriTemplateHandler(new DefaultUriBuilderFactory(baseUrl));
-        return rt;
+        return new ApiClient(name, rt, registry);
     }
 
     @Bean
-    public RestTemplate patientApiClient(
-            @Value("${patients.api.url}") String patientsApiUrl) {
-        return buildClient(patientsApiUrl);
+    public ApiClient patientApiClient(
+            @Value("${patients.api.url}") String patientsApiUrl,
+            @Value("${patients.api.read-timeout-ms:3000}") long readTimeoutMs,
+            @Value("${ui.http.pool-timeout-ms:1000}") long poolTimeoutMs,
+            CloseableHttpClient apiHttpClient,
+            MeterRegistry registry) {
+        return buildClient("patients", patientsApiUrl, readTimeoutMs, poolTimeoutMs, apiHttpClient, registry);
     }
 
     @Bean
-    public RestTemplate noteApiClient(
-            @Value("${notes.api.url}") String notesApiUrl) {
-        return buildClient(notesApiUrl);
+    public ApiClient noteApiClient(
+            @Value("${notes.api.url}") String notesApiUrl,
+            @Value("${notes.api.read-timeout-ms:3000}") long readTimeoutMs,
+            @Value("${ui.http.pool-timeout-ms:1000}") long poolTimeoutMs,
+            CloseableHttpClient apiHttpClient,
+            MeterRegistry registry) {
+        return buildClient("notes", notesApiUrl, readTimeoutMs, poolTimeoutMs, apiHttpClient, registry);
     }
 
     @Bean
-    public RestTemplate riskApiClient(
-            @Value("${risk.api.url}") String riskApiUrl) {
-        return buildClient(riskApiUrl);
+    public ApiClient riskApiClient(
+            @Value("${risk.api.url}") String riskApiUrl,
+            @Value("${risk.api.read-timeout-ms:5000}") long readTimeoutMs,
+            @Value("${ui.http.pool-timeout-ms:1000}") long poolTimeoutMs,
+            CloseableHttpClient apiHttpClient,
+            MeterRegistry registry) {
+        return buildClient("risk", riskApiUrl, readTimeoutMs, poolTimeoutMs, apiHttpClient, registry);
     }
 }
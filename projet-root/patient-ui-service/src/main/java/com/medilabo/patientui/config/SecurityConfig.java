@@ -1,15 +1,13 @@
 package com.medilabo.patientui.config;
 
-import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
-import javax.crypto.SecretKey;
-import javax.crypto.spec.SecretKeySpec;
-
-import org.springframework.beans.factory.annotation.Value;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -51,13 +49,19 @@ public class SecurityConfig {
     }
 
     /**
-     * Décodage du JWT (HS256) basé sur security.jwt.secret
-     * (même secret que dans le gateway).
+     * Décodage des JWT HS256 du Gateway : la clé est choisie par le header kid
+     * dans le {@link JwtKeySet} (rotation sans redémarrage).
      */
     @Bean
-    public JwtDecoder jwtDecoder(@Value("${security.jwt.secret}") String secret) {
-        SecretKey key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-        return NimbusJwtDecoder.withSecretKey(key).build();
+    public JwtDecoder jwtDecoder(JwtKeySet keySet) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector((header, context) ->
+                JWSAlgorithm.Family.HMAC_SHA.contains(header.getAlgorithm())
+                        ? keySet.verificationKeys(header.getKeyID())
+                        : List.of());
+        // expiration vérifiée par les validateurs Spring du décodeur
+        processor.setJWTClaimsSetVerifier((claims, context) -> { });
+        return new NimbusJwtDecoder(processor);
     }
 
     /**
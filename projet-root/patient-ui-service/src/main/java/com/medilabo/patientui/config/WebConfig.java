@@ -0,0 +1,52 @@
+package com.medilabo.patientui.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.time.Duration;
+
+/**
+ * Ressources statiques de l’UI (classpath:/static/css, classpath:/static/js).
+ *
+ * Les templates les référencent via la Gateway (@{/ui/css/app.css}) ; le
+ * {@link ResourceUrlEncodingFilter} réécrit ces liens avec le hash du contenu
+ * (/ui/css/app-&lt;md5&gt;.css). Une URL versionnée ne change jamais de contenu :
+ * elle est servie avec Cache-Control "max-age=ui.static.max-age-days, immutable",
+ * et une nouvelle version du fichier change son URL.
+ *
+ * La Gateway retire /ui avant de proxyfier : chaque dossier est donc déclaré sous
+ * /ui/** (pour calculer les liens) et sous /** (pour servir les requêtes).
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final long maxAgeDays;
+
+    public WebConfig(@Value("${ui.static.max-age-days:365}") long maxAgeDays) {
+        this.maxAgeDays = maxAgeDays;
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        for (String folder : new String[] { "css", "js" }) {
+            registry.addResourceHandler("/" + folder + "/**", "/ui/" + folder + "/**")
+                    .addResourceLocations("classpath:/static/" + folder + "/")
+                    .setCacheControl(CacheControl.maxAge(Duration.ofDays(maxAgeDays)).cachePublic().immutable())
+                    .resourceChain(true)
+                    .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+        }
+    }
+
+    /** Réécrit les liens @{...} des templates vers les URLs versionnées. */
+    @Bean
+    public FilterRegistrationBean<ResourceUrlEncodingFilter> resourceUrlEncodingFilter() {
+        return new FilterRegistrationBean<>(new ResourceUrlEncodingFilter());
+    }
+}
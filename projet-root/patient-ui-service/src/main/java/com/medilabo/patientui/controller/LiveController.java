@@ -0,0 +1,55 @@
+package com.medilabo.patientui.controller;
+
+import com.medilabo.patientui.live.LiveUpdateHub;
+import com.medilabo.patientui.live.LiveUpdateHub.Topic;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Flux Server-Sent Events des pages patient (mapping interne : /live/**).
+ *
+ * Le Gateway expose /ui/live/** sans bufferiser la réponse : les événements
+ * arrivent au navigateur dès leur envoi (voir {@link LiveUpdateHub}).
+ */
+@RestController
+public class LiveController {
+
+    private final LiveUpdateHub hub;
+
+    public LiveController(LiveUpdateHub hub) {
+        this.hub = hub;
+    }
+
+    /**
+     * Ouvre le flux d’un patient (mapping interne : /live/patients/{id}?topics=notes,risk).
+     * Répond 400 si un sujet est inconnu, 503 si trop de flux sont ouverts.
+     */
+    @GetMapping(path = "/live/patients/{id}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> patientEvents(@PathVariable Long id,
+                                                    @RequestParam(defaultValue = "notes") List<String> topics,
+                                                    HttpServletRequest request) {
+        Set<Topic> wanted = EnumSet.noneOf(Topic.class);
+        try {
+            for (String t : topics) {
+                wanted.add(Topic.valueOf(t.trim().toUpperCase(Locale.ROOT)));
+            }
+            return ResponseEntity.ok(hub.subscribe(id, wanted, request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+}
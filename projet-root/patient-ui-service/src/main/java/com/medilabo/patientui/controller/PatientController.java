@@ -1,17 +1,30 @@
 package com.medilabo.patientui.controller;
 
+import com.medilabo.patientui.dto.PatientPage;
+import com.medilabo.patientui.dto.RiskBadge;
 import com.medilabo.patientui.model.Note;
 import com.medilabo.patientui.model.Patient;
 import com.medilabo.patientui.model.RiskAssessmentResponse;
 import com.medilabo.patientui.service.NoteService;
+import com.medilabo.patientui.service.PatientListCache;
 import com.medilabo.patientui.service.PatientService;
 import com.medilabo.patientui.service.RiskService;
+import com.medilabo.patientui.web.JwtCookieUtil;
+import com.medilabo.patientui.web.RequestSnapshot;
+import com.medilabo.patientui.web.ViewFanout;
+import com.medilabo.patientui.web.ViewFanout.Deadline;
+import com.medilabo.patientui.web.ViewFanout.Outcome;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.view.RedirectView;
 
 import java.util.List;
+import java.util.concurrent.Future;
 
 /**
  * Contrôleur UI (patient-ui-service).
@@ -20,6 +33,15 @@ import java.util.List;
  * - Le Gateway expose /ui/** au navigateur.
  * - Il supprime /ui avant de proxyfier vers patient-ui.
  *   Donc ici, les mappings commencent par /patients (sans /ui).
+ *
+ * Les écritures (création, mise à jour, suppression) suivent le schéma
+ * Post/Redirect/Get : un seul appel à l'API, application de l'écriture aux pages
+ * de liste en cache ({@link PatientListCache}), puis redirection 303 vers la page
+ * de liste concernée.
+ *
+ * Les vues qui agrègent plusieurs APIs (notes, rapport de risque) lancent leurs
+ * appels en parallèle via {@link ViewFanout} : un appel en échec ou hors délai
+ * est signalé dans la page (attributs "*Error") au lieu de la faire échouer.
  */
 @Controller
 public class PatientController {
@@ -27,11 +49,19 @@ public class PatientController {
     private final PatientService patients;
     private final NoteService notes;
     private final RiskService risk;
+    private final ViewFanout fanout;
+    private final PatientListCache listCache;
+    private final int pageSize;
 
-    public PatientController(PatientService patients, NoteService notes, RiskService risk) {
+    public PatientController(PatientService patients, NoteService notes, RiskService risk, ViewFanout fanout,
+                             PatientListCache listCache,
+                             @Value("${ui.patients.page-size:20}") int pageSize) {
         this.patients = patients;
         this.notes = notes;
         this.risk = risk;
+        this.fanout = fanout;
+        this.listCache = listCache;
+        this.pageSize = pageSize;
     }
 
     /**
@@ -41,17 +71,48 @@ public class PatientController {
      */
     @GetMapping({ "", "/" })
     public String home(Model model, HttpServletRequest request) {
-        return listPatients(model, request);
+        return listPatients(0, model, request);
     }
 
-    /** Liste des patients (mapping interne : /patients). */
+    /**
+     * Liste paginée des patients (mapping interne : /patients?page=N).
+     * La page est servie depuis le cache si elle y est encore.
+     */
     @GetMapping("/patients")
-    public String listPatients(Model model, HttpServletRequest request) {
-        List<Patient> all = patients.findAll(request);
-        model.addAttribute("patients", all);
+    public String listPatients(@RequestParam(defaultValue = "0") int page,
+                               Model model,
+                               HttpServletRequest request) {
+        int p = Math.max(0, page);
+        String owner = JwtCookieUtil.extractJwt(request);
+        PatientPage current = listCache.get(owner, p, pageSize).orElseGet(() -> {
+            PatientPage fetched = patients.findPage(p, pageSize, request);
+            listCache.put(owner, fetched);
+            return fetched;
+        });
+        model.addAttribute("patients", current.content());
+        model.addAttribute("page", current);
         return "patients";
     }
 
+    /**
+     * Badges de risque des patients d'une page de liste, en un seul appel groupé
+     * au risk-assessment-service.
+     *
+     * Appelé en asynchrone par patients.html une fois la liste affichée : la page
+     * n'attend donc pas l'évaluation du risque. Les patients non évalués à temps
+     * reviennent PENDING et sont redemandés par la page ; si l'API est indisponible,
+     * tous les badges passent en ERROR.
+     */
+    @GetMapping("/patients/risk-badges")
+    @ResponseBody
+    public List<RiskBadge> riskBadges(@RequestParam List<Long> ids, HttpServletRequest request) {
+        try {
+            return risk.getRiskBatch(ids, request);
+        } catch (IllegalStateException | RestClientException e) {
+            return ids.stream().map(RiskBadge::error).toList();
+        }
+    }
+
     /** Formulaire d'ajout (template : add-patient.html). */
     @GetMapping("/patients/new")
     public String showAddForm(Model model) {
@@ -60,32 +121,26 @@ public class PatientController {
     }
 
     /**
-     * Création d'un nouveau patient.
-     *
-     * IMPORTANT : on ne fait plus de "redirect:/ui/patients" pour éviter
-     * que le navigateur essaie d'appeler directement "patient-ui-service:8084".
-     * On crée, puis on recharge la liste et on renvoie la vue "patients".
+     * Création d'un nouveau patient, puis redirection vers la dernière page
+     * de la liste (les patients sont triés par id, le nouveau est en fin de liste).
      */
     @PostMapping("/patients")
-    public String createPatient(@ModelAttribute("patient") Patient payload,
-                                HttpServletRequest request,
-                                Model model) {
-
-        patients.create(payload, request);
+    public View createPatient(@ModelAttribute("patient") Patient payload,
+                              HttpServletRequest request) {
 
-        // Recharge la liste et renvoie la même vue que listPatients()
-        List<Patient> all = patients.findAll(request);
-        model.addAttribute("patients", all);
-        return "patients";
+        listCache.onCreated(patients.create(payload, request));
+        return redirectToList(listCache.lastPage(JwtCookieUtil.extractJwt(request), pageSize).orElse(0));
     }
 
     /** Formulaire d'édition (template : edit-patient.html). */
     @GetMapping("/patients/edit/{id}")
     public String showEditForm(@PathVariable Long id,
+                               @RequestParam(defaultValue = "0") int page,
                                Model model,
                                HttpServletRequest request) {
         Patient patient = patients.getOne(id, request);
         model.addAttribute("patient", patient);
+        model.addAttribute("page", page);
         return "edit-patient";
     }
 
@@ -94,38 +149,47 @@ public class PatientController {
      *
      * Le template edit-patient.html envoie son formulaire vers /patients/update
      * avec un champ hidden "id". On utilise donc cette route, pas /patients/{id}.
-     * Après mise à jour, on renvoie directement la liste.
+     * Après mise à jour, on redirige vers la page de liste d'origine (champ "page").
      */
     @PostMapping("/patients/update")
-    public String updatePatient(@ModelAttribute("patient") Patient payload,
-                                HttpServletRequest request,
-                                Model model) {
+    public View updatePatient(@ModelAttribute("patient") Patient payload,
+                              @RequestParam(defaultValue = "0") int page,
+                              HttpServletRequest request) {
 
         if (payload.getId() != null) {
-            patients.update(payload.getId(), payload, request);
+            listCache.onUpdated(patients.update(payload.getId(), payload, request));
         }
-
-        List<Patient> all = patients.findAll(request);
-        model.addAttribute("patients", all);
-        return "patients";
+        return redirectToList(page);
     }
 
     /**
      * Suppression d'un patient.
      *
      * Le formulaire dans patients.html poste sur /patients/delete/{id}.
-     * Après suppression, on renvoie directement la liste.
+     * Après suppression, on redirige vers la page de liste d'origine (champ "page").
      */
     @PostMapping("/patients/delete/{id}")
-    public String deletePatient(@PathVariable Long id,
-                                HttpServletRequest request,
-                                Model model) {
+    public View deletePatient(@PathVariable Long id,
+                              @RequestParam(defaultValue = "0") int page,
+                              HttpServletRequest request) {
 
         patients.delete(id, request);
+        listCache.onDeleted(id);
+        return redirectToList(page);
+    }
 
-        List<Patient> all = patients.findAll(request);
-        model.addAttribute("patients", all);
-        return "patients";
+    /**
+     * Redirection 303 vers une page de la liste, via la Gateway (/ui).
+     *
+     * On pose nous-mêmes un Location relatif (pas de sendRedirect) : il ne peut
+     * donc pas être réécrit en URL absolue "patient-ui-service:8080", inaccessible
+     * au navigateur. Le Gateway ne suit pas les redirections d'un POST et la renvoie
+     * telle quelle.
+     */
+    private static View redirectToList(int page) {
+        RedirectView view = new RedirectView("/ui/patients?page=" + Math.max(0, page), false, false);
+        view.setExposeModelAttributes(false);
+        return view;
     }
 
     /**
@@ -139,11 +203,15 @@ public class PatientController {
     public String showPatientNotes(@PathVariable Long id,
                                    Model model,
                                    HttpServletRequest request) {
-        Patient patient = patients.getOne(id, request);
-        List<Note> patientNotes = notes.findByPatient(id, request);
-
-        model.addAttribute("patient", patient);
-        model.addAttribute("notes", patientNotes);
+        HttpServletRequest snapshot = RequestSnapshot.of(request);
+        Deadline deadline = fanout.deadline();
+        Future<Patient> patientCall = fanout.fork(() -> patients.getOne(id, snapshot));
+        Future<List<Note>> notesCall = fanout.fork(() -> notes.findByPatient(id, snapshot));
+
+        addPatient(model, id, fanout.join(patientCall, deadline, "Dossier patient"));
+        Outcome<List<Note>> patientNotes = fanout.join(notesCall, deadline, "Historique des notes");
+        model.addAttribute("notes", patientNotes.value() == null ? List.of() : patientNotes.value());
+        model.addAttribute("notesError", patientNotes.error());
         return "patient-notes";
     }
 
@@ -158,11 +226,29 @@ public class PatientController {
     public String showRiskReport(@PathVariable Long id,
                                  Model model,
                                  HttpServletRequest request) {
-        Patient patient = patients.getOne(id, request);
-        RiskAssessmentResponse riskResponse = risk.getRisk(id, request);
+        HttpServletRequest snapshot = RequestSnapshot.of(request);
+        Deadline deadline = fanout.deadline();
+        Future<Patient> patientCall = fanout.fork(() -> patients.getOne(id, snapshot));
+        Future<RiskAssessmentResponse> riskCall = fanout.fork(() -> risk.getRisk(id, snapshot));
+
+        addPatient(model, id, fanout.join(patientCall, deadline, "Dossier patient"));
+        Outcome<RiskAssessmentResponse> riskResponse = fanout.join(riskCall, deadline, "Évaluation du risque");
+        model.addAttribute("risk", riskResponse.value()); // doit s'appeler "risk" pour risk-report.html
+        model.addAttribute("riskError", riskResponse.error());
+        return "risk-report";
+    }
 
+    /**
+     * Ajoute le patient au modèle. S'il n'a pas pu être chargé, on expose un patient
+     * réduit à son id (les formulaires de la page restent utilisables) et l'erreur.
+     */
+    private static void addPatient(Model model, Long id, Outcome<Patient> outcome) {
+        Patient patient = outcome.value();
+        if (patient == null) {
+            patient = new Patient();
+            patient.setId(id);
+        }
         model.addAttribute("patient", patient);
-        model.addAttribute("risk", riskResponse); // doit s'appeler "risk" pour risk-report.html
-        return "risk-report";
+        model.addAttribute("patientError", outcome.error());
     }
 }
@@ -0,0 +1,16 @@
+package com.medilabo.patientui.dto;
+
+import java.time.Instant;
+
+/**
+ * Entrée du flux de changements de notes du <em>note-service</em>
+ * ({@code GET /api/notes/changes}).
+ *
+ * @param id         offset de l’entrée, à repasser en {@code after} pour lire la suite
+ * @param noteId     identifiant de la note
+ * @param patientId  identifiant du patient
+ * @param type       {@code CREATED}, {@code UPDATED} ou {@code DELETED}
+ * @param occurredAt date du changement
+ */
+public record NoteChange(long id, Long noteId, Long patientId, String type, Instant occurredAt) {
+}
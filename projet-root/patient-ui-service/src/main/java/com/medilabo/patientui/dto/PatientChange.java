@@ -0,0 +1,18 @@
+package com.medilabo.patientui.dto;
+
+import com.medilabo.patientui.model.Patient;
+
+import java.time.Instant;
+
+/**
+ * Événement du flux de changements du <em>patient-service</em>
+ * ({@code GET /api/patients/changes}).
+ *
+ * @param offset     offset de l’événement, à repasser en {@code after} pour lire la suite
+ * @param patientId  identifiant du patient
+ * @param type       {@code CREATED}, {@code UPDATED} ou {@code DELETED}
+ * @param payload    état du patient après l’opération ({@code null} pour une suppression)
+ * @param occurredAt date du changement
+ */
+public record PatientChange(long offset, Long patientId, String type, Patient payload, Instant occurredAt) {
+}
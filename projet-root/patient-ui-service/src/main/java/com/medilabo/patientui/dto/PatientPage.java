@@ -0,0 +1,42 @@
+package com.medilabo.patientui.dto;
+
+import com.medilabo.patientui.model.Patient;
+
+import java.util.List;
+
+/**
+ * Page de la liste des patients, triée par identifiant croissant.
+ *
+ * @param content les patients de la page
+ * @param page    numéro de la page (à partir de 0)
+ * @param size    taille de page demandée
+ * @param total   nombre total de patients
+ */
+public record PatientPage(List<Patient> content, int page, int size, long total) {
+
+    public PatientPage {
+        content = List.copyOf(content);
+    }
+
+    /**
+     * @return le nombre de pages (au moins une, même vide)
+     */
+    public int totalPages() {
+        return total == 0 ? 1 : (int) ((total + size - 1) / size);
+    }
+
+    /**
+     * @return le numéro de la dernière page
+     */
+    public int lastPage() {
+        return totalPages() - 1;
+    }
+
+    public boolean hasPrevious() {
+        return page > 0;
+    }
+
+    public boolean hasNext() {
+        return page < lastPage();
+    }
+}
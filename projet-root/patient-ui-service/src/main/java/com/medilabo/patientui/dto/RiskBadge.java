@@ -0,0 +1,18 @@
+package com.medilabo.patientui.dto;
+
+/**
+ * Badge de risque d’un patient, renvoyé par l’évaluation groupée du
+ * <em>risk-assessment-service</em> ({@code GET /api/risk/batch}).
+ *
+ * @param patientId identifiant du patient
+ * @param riskLevel niveau de risque ({@code null} si l’évaluation n’a pas abouti)
+ * @param status    {@code OK}, {@code PENDING} (pas encore évalué, à redemander) ou {@code ERROR}
+ */
+public record RiskBadge(Long patientId, String riskLevel, String status) {
+
+    public static final String ERROR = "ERROR";
+
+    public static RiskBadge error(Long patientId) {
+        return new RiskBadge(patientId, null, ERROR);
+    }
+}
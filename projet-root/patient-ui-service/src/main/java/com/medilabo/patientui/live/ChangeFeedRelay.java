@@ -0,0 +1,249 @@
+package com.medilabo.patientui.live;
+
+import com.medilabo.patientui.dto.NoteChange;
+import com.medilabo.patientui.dto.PatientChange;
+import com.medilabo.patientui.live.LiveUpdateHub.Topic;
+import com.medilabo.patientui.model.Note;
+import com.medilabo.patientui.model.Patient;
+import com.medilabo.patientui.service.NoteService;
+import com.medilabo.patientui.service.PatientService;
+import com.medilabo.patientui.service.RiskService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Relaie vers les pages ouvertes ({@link LiveUpdateHub}) les flux de changements
+ * des notes ({@code /api/notes/changes}) et des patients ({@code /api/patients/changes}).
+ * <p>
+ * Les deux flux ne sont lus que lorsqu’au moins une page est abonnée, avec le JWT
+ * d’une de ces pages : celui de la dernière lecture réussie, sinon le suivant tant que
+ * le jeton est refusé (expiré, révoqué). Les données poussées sont rechargées avec le JWT
+ * de chaque destinataire ({@link LiveUpdateHub#publishEach}) et sans le cache de la Gateway
+ * ({@code Cache-Control: no-cache}). Pour chaque patient suivi :
+ * <ul>
+ *   <li>une note créée ou modifiée est rechargée puis poussée (événement {@code note}) ;</li>
+ *   <li>un patient modifié est rechargé, un patient supprimé signalé (événement {@code patient}) ;</li>
+ *   <li>le risque n’est recalculé qu’une fois par lecture et par utilisateur, et seulement si
+ *       une page de rapport suit ce patient (événement {@code risk}).</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Au retour du premier abonné, les changements survenus pendant l’inactivité sont
+ * sautés (les pages viennent d’être rendues avec l’état courant).
+ * </p>
+ */
+@Component
+public class ChangeFeedRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeedRelay.class);
+
+    /**
+     * Note poussée aux pages.
+     *
+     * @param type   {@code CREATED}, {@code UPDATED} ou {@code DELETED}
+     * @param noteId identifiant de la note
+     * @param note   la note ({@code null} pour une suppression)
+     */
+    public record NoteEvent(String type, Long noteId, Note note) {
+    }
+
+    /**
+     * Patient poussé aux pages.
+     *
+     * @param type    {@code UPDATED} ou {@code DELETED}
+     * @param patient état du patient ({@code null} pour une suppression)
+     */
+    public record PatientEvent(String type, Patient patient) {
+    }
+
+    /**
+     * Position de lecture d’un flux.
+     */
+    static final class Cursor {
+        long offset;
+        /** faux tant que les changements antérieurs aux abonnements n’ont pas été sautés */
+        boolean synced;
+    }
+
+    private final LiveUpdateHub hub;
+    private final NoteService notes;
+    private final PatientService patients;
+    private final RiskService risk;
+    private final int batchSize;
+    private final int maxPages;
+
+    final Cursor noteCursor = new Cursor();
+    final Cursor patientCursor = new Cursor();
+
+    /** en-têtes de la dernière lecture des flux acceptée, essayés en premier */
+    HttpServletRequest feedCredentials;
+
+    public ChangeFeedRelay(LiveUpdateHub hub, NoteService notes, PatientService patients, RiskService risk,
+                           @Value("${ui.live.batch-size:500}") int batchSize,
+                           @Value("${ui.live.max-pages:20}") int maxPages) {
+        this.hub = hub;
+        this.notes = notes;
+        this.patients = patients;
+        this.risk = risk;
+        this.batchSize = batchSize;
+        this.maxPages = maxPages;
+    }
+
+    /**
+     * Lit les nouveaux changements et les pousse aux pages concernées.
+     */
+    @Scheduled(fixedDelayString = "${ui.live.poll-interval-ms:1000}")
+    public void poll() {
+        List<HttpServletRequest> candidates = hub.distinctCredentials();
+        if (candidates.isEmpty()) {
+            noteCursor.synced = false;
+            patientCursor.synced = false;
+            feedCredentials = null;
+            return;
+        }
+        List<NoteChange> noteChanges;
+        List<PatientChange> patientChanges;
+        try {
+            noteChanges = tail(noteCursor,
+                    after -> readFeed(candidates, c -> notes.changesAfter(after, batchSize, c)), NoteChange::id);
+            patientChanges = tail(patientCursor,
+                    after -> readFeed(candidates, c -> patients.changesAfter(after, batchSize, c)),
+                    PatientChange::offset);
+        } catch (IllegalStateException | RestClientException e) {
+            log.warn("[Live] lecture des flux de changements impossible: {}", e.getMessage());
+            return;
+        }
+
+        Set<Long> riskToRefresh = new LinkedHashSet<>();
+        for (NoteChange c : noteChanges) {
+            if (c.patientId() == null) continue;
+            if (hub.hasSubscribers(c.patientId(), Topic.NOTES)) {
+                pushNote(c);
+            }
+            riskToRefresh.add(c.patientId());
+        }
+        for (PatientChange c : patientChanges) {
+            if (c.patientId() == null || "CREATED".equals(c.type())) continue;
+            if ("DELETED".equals(c.type())) {
+                PatientEvent event = new PatientEvent(c.type(), null);
+                hub.publish(c.patientId(), Topic.NOTES, "patient", event);
+                hub.publish(c.patientId(), Topic.RISK, "patient", event);
+                riskToRefresh.remove(c.patientId());
+            } else {
+                pushPatient(c);
+                riskToRefresh.add(c.patientId());
+            }
+        }
+        for (Long patientId : riskToRefresh) {
+            if (hub.hasSubscribers(patientId, Topic.RISK)) {
+                pushRisk(patientId);
+            }
+        }
+    }
+
+    /**
+     * Lit un flux depuis sa position, page par page (au plus {@code ui.live.max-pages}).
+     *
+     * @return les changements à relayer (aucun tant que le flux n’est pas rattrapé)
+     */
+    private <T> List<T> tail(Cursor cursor, LongFunction<List<T>> read, ToLongFunction<T> offsetOf) {
+        List<T> fresh = new ArrayList<>();
+        for (int i = 0; i < maxPages; i++) {
+            List<T> page = read.apply(cursor.offset);
+            for (T change : page) {
+                cursor.offset = Math.max(cursor.offset, offsetOf.applyAsLong(change));
+                if (cursor.synced) fresh.add(change);
+            }
+            if (page.size() < batchSize) {
+                cursor.synced = true;
+                break;
+            }
+        }
+        return fresh;
+    }
+
+    /**
+     * Lit une page d’un flux : avec les en-têtes de la dernière lecture réussie d’abord, puis
+     * avec ceux des autres pages tant que la Gateway refuse le jeton (401, 403).
+     *
+     * @throws IllegalStateException si tous les jetons sont refusés ou si l’API est indisponible
+     */
+    private <T> List<T> readFeed(List<HttpServletRequest> candidates, Function<HttpServletRequest, List<T>> read) {
+        List<HttpServletRequest> ordered = new ArrayList<>(candidates);
+        if (ordered.remove(feedCredentials)) {
+            ordered.add(0, feedCredentials);
+        }
+        IllegalStateException refused = null;
+        for (HttpServletRequest credentials : ordered) {
+            try {
+                List<T> page = read.apply(credentials);
+                feedCredentials = credentials;
+                return page;
+            } catch (IllegalStateException e) {
+                // API indisponible : inutile d’essayer les autres jetons
+                if (!isRefused(e)) throw e;
+                refused = e;
+            }
+        }
+        throw refused;
+    }
+
+    private static boolean isRefused(IllegalStateException e) {
+        return e.getCause() instanceof HttpStatusCodeException http
+                && (http.getStatusCode() == HttpStatus.UNAUTHORIZED || http.getStatusCode() == HttpStatus.FORBIDDEN);
+    }
+
+    private void pushNote(NoteChange c) {
+        if ("DELETED".equals(c.type())) {
+            hub.publish(c.patientId(), Topic.NOTES, "note", new NoteEvent(c.type(), c.noteId(), null));
+            return;
+        }
+        hub.publishEach(c.patientId(), Set.of(Topic.NOTES), "note", credentials -> {
+            try {
+                return new NoteEvent(c.type(), c.noteId(), notes.getOneFresh(c.noteId(), credentials));
+            } catch (IllegalStateException | RestClientException e) {
+                // note supprimée depuis (le flux le signalera), accès refusé ou API indisponible
+                log.debug("[Live] note {} non relayée: {}", c.noteId(), e.getMessage());
+                return null;
+            }
+        });
+    }
+
+    private void pushPatient(PatientChange c) {
+        hub.publishEach(c.patientId(), EnumSet.allOf(Topic.class), "patient", credentials -> {
+            try {
+                return new PatientEvent(c.type(), patients.getOneFresh(c.patientId(), credentials));
+            } catch (IllegalStateException | RestClientException e) {
+                log.debug("[Live] patient {} non relayé: {}", c.patientId(), e.getMessage());
+                return null;
+            }
+        });
+    }
+
+    private void pushRisk(Long patientId) {
+        hub.publishEach(patientId, Set.of(Topic.RISK), "risk", credentials -> {
+            try {
+                return risk.getRiskFresh(patientId, credentials);
+            } catch (IllegalStateException | RestClientException e) {
+                log.debug("[Live] risque du patient {} non relayé: {}", patientId, e.getMessage());
+                return null;
+            }
+        });
+    }
+}
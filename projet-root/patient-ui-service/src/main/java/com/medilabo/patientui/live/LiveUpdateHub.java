@@ -0,0 +1,236 @@
+package com.medilabo.patientui.live;
+
+import com.medilabo.patientui.web.AuthHeaders;
+import com.medilabo.patientui.web.RequestSnapshot;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Abonnements Server-Sent Events des pages patient ouvertes (notes, rapport de risque).
+ * <p>
+ * Chaque page ouvre un flux {@link SseEmitter} sur un patient et des sujets
+ * ({@link Topic}). Un flux inactif ne mobilise aucun thread : la requête est
+ * asynchrone et n’est réveillée que par {@link #publish} ou par le heartbeat
+ * ({@code ui.live.heartbeat-ms}), qui détecte aussi les navigateurs partis.
+ * </p>
+ * <p>
+ * Chaque abonné garde une copie de ses en-têtes d’authentification
+ * ({@link RequestSnapshot}) : {@link ChangeFeedRelay} lit les flux de changements avec le
+ * JWT d’un abonné, et recharge les données poussées avec celui de chaque destinataire
+ * ({@link #publishEach}), jamais avec celui d’un autre utilisateur.
+ * </p>
+ */
+@Component
+public class LiveUpdateHub {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveUpdateHub.class);
+
+    /**
+     * Sujets d’un abonnement, un par page.
+     */
+    public enum Topic {
+        /** Page des notes : événements {@code note} et {@code patient} */
+        NOTES,
+        /** Rapport de risque : événements {@code risk} et {@code patient} */
+        RISK
+    }
+
+    /**
+     * Flux ouvert par une page.
+     *
+     * @param patientId   patient affiché
+     * @param topics      sujets suivis
+     * @param credentials copie des en-têtes d’authentification de la page
+     * @param emitter     flux SSE vers le navigateur
+     */
+    record Subscriber(Long patientId, Set<Topic> topics, HttpServletRequest credentials, SseEmitter emitter) {
+    }
+
+    private final Map<Long, Set<Subscriber>> byPatient = new ConcurrentHashMap<>();
+    private final AtomicInteger count = new AtomicInteger();
+    private final long timeoutMs;
+    private final int maxSubscribers;
+
+    public LiveUpdateHub(@Value("${ui.live.emitter-timeout-ms:900000}") long timeoutMs,
+                         @Value("${ui.live.max-subscribers:10000}") int maxSubscribers) {
+        this.timeoutMs = timeoutMs;
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    /**
+     * Ouvre un flux pour une page.
+     * <p>
+     * Le flux se ferme au bout de {@code ui.live.emitter-timeout-ms} ; l’{@code EventSource}
+     * du navigateur se reconnecte alors avec le cookie JWT à jour.
+     * </p>
+     *
+     * @param patientId patient affiché
+     * @param topics    sujets suivis (au moins un)
+     * @param request   requête entrante (pour le JWT)
+     * @return le flux SSE
+     * @throws IllegalArgumentException si aucun sujet n’est demandé
+     * @throws IllegalStateException    si le nombre maximal de flux ouverts est atteint
+     */
+    public SseEmitter subscribe(Long patientId, Set<Topic> topics, HttpServletRequest request) {
+        if (topics.isEmpty()) {
+            throw new IllegalArgumentException("Aucun sujet demandé");
+        }
+        if (count.incrementAndGet() > maxSubscribers) {
+            count.decrementAndGet();
+            throw new IllegalStateException("Trop de flux ouverts (max " + maxSubscribers + ")");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber s = new Subscriber(patientId, Set.copyOf(topics), RequestSnapshot.of(request), emitter);
+        byPatient.computeIfAbsent(patientId, k -> ConcurrentHashMap.newKeySet()).add(s);
+        emitter.onCompletion(() -> remove(s));
+        emitter.onError(e -> remove(s));
+        // premier événement : les proxies transmettent les en-têtes sans attendre une mise à jour
+        send(s, SseEmitter.event().name("ready").data(patientId));
+        return emitter;
+    }
+
+    /**
+     * @return {@code true} si aucune page n’est abonnée
+     */
+    public boolean isEmpty() {
+        return byPatient.isEmpty();
+    }
+
+    /**
+     * @param patientId un patient
+     * @param topic     un sujet
+     * @return {@code true} si au moins une page suit ce sujet pour ce patient
+     */
+    public boolean hasSubscribers(Long patientId, Topic topic) {
+        Set<Subscriber> subs = byPatient.get(patientId);
+        return subs != null && subs.stream().anyMatch(s -> s.topics().contains(topic));
+    }
+
+    /**
+     * @return les en-têtes d’authentification des pages abonnées, un par JWT distinct
+     * (vide si aucune page n’est abonnée)
+     */
+    public List<HttpServletRequest> distinctCredentials() {
+        Map<String, HttpServletRequest> byJwt = new LinkedHashMap<>();
+        for (Set<Subscriber> subs : byPatient.values()) {
+            for (Subscriber s : subs) {
+                byJwt.putIfAbsent(jwtOf(s), s.credentials());
+            }
+        }
+        return List.copyOf(byJwt.values());
+    }
+
+    /**
+     * Pousse un événement aux pages d’un patient qui suivent un sujet.
+     *
+     * @param patientId patient concerné
+     * @param topic     sujet de l’événement
+     * @param name      nom de l’événement SSE ({@code note}, {@code risk}, {@code patient})
+     * @param data      contenu, sérialisé en JSON
+     */
+    public void publish(Long patientId, Topic topic, String name, Object data) {
+        Set<Subscriber> subs = byPatient.get(patientId);
+        if (subs == null) return;
+        for (Subscriber s : subs) {
+            if (s.topics().contains(topic)) {
+                send(s, SseEmitter.event().name(name).data(data));
+            }
+        }
+    }
+
+    /**
+     * Pousse un événement propre à chaque destinataire : le contenu est chargé avec le JWT
+     * des pages qui le recevront, une fois par JWT distinct (plusieurs onglets d’un même
+     * utilisateur partagent le chargement). Une page qui suit plusieurs des sujets le reçoit une fois.
+     *
+     * @param patientId patient concerné
+     * @param topics    sujets de l’événement
+     * @param name      nom de l’événement SSE
+     * @param load      charge le contenu avec les en-têtes d’authentification donnés ;
+     *                  {@code null} si rien n’est à envoyer à ces pages (accès refusé, API indisponible)
+     */
+    public void publishEach(Long patientId, Set<Topic> topics, String name, Function<HttpServletRequest, ?> load) {
+        Set<Subscriber> subs = byPatient.get(patientId);
+        if (subs == null) return;
+        Map<String, List<Subscriber>> byJwt = new LinkedHashMap<>();
+        for (Subscriber s : subs) {
+            if (s.topics().stream().anyMatch(topics::contains)) {
+                byJwt.computeIfAbsent(jwtOf(s), k -> new ArrayList<>()).add(s);
+            }
+        }
+        for (List<Subscriber> pages : byJwt.values()) {
+            Object data = load.apply(pages.get(0).credentials());
+            if (data == null) continue;
+            for (Subscriber s : pages) {
+                send(s, SseEmitter.event().name(name).data(data));
+            }
+        }
+    }
+
+    /**
+     * Envoie un commentaire SSE à tous les flux : garde les connexions ouvertes à
+     * travers les proxies et retire celles dont le navigateur est parti.
+     */
+    @Scheduled(fixedDelayString = "${ui.live.heartbeat-ms:20000}")
+    public void heartbeat() {
+        for (Set<Subscriber> subs : byPatient.values()) {
+            for (Subscriber s : subs) {
+                send(s, SseEmitter.event().comment("ping"));
+            }
+        }
+    }
+
+    /**
+     * @return le nombre de flux ouverts
+     */
+    int size() {
+        return count.get();
+    }
+
+    private static String jwtOf(Subscriber s) {
+        String authorization = AuthHeaders.of(s.credentials()).getFirst(HttpHeaders.AUTHORIZATION);
+        return authorization == null ? "" : authorization;
+    }
+
+    private void send(Subscriber s, SseEmitter.SseEventBuilder event) {
+        try {
+            s.emitter().send(event);
+        } catch (IOException | IllegalStateException e) {
+            // navigateur parti ou flux déjà terminé
+            log.debug("[Live] flux patient {} fermé: {}", s.patientId(), e.getMessage());
+            remove(s);
+        }
+    }
+
+    private void remove(Subscriber s) {
+        byPatient.computeIfPresent(s.patientId(), (id, subs) -> {
+            if (subs.remove(s)) count.decrementAndGet();
+            return subs.isEmpty() ? null : subs;
+        });
+    }
+
+    /**
+     * @param patientId un patient
+     * @return les flux ouverts sur ce patient (pour les tests)
+     */
+    List<Subscriber> subscribers(Long patientId) {
+        Set<Subscriber> subs = byPatient.get(patientId);
+        return subs == null ? List.of() : List.copyOf(subs);
+    }
+}
@@ -1,14 +1,12 @@
 package com.medilabo.patientui.service;
 
+import com.medilabo.patientui.client.ApiClient;
+import com.medilabo.patientui.dto.NoteChange;
 import com.medilabo.patientui.model.Note;
-import com.medilabo.patientui.web.JwtCookieUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.http.*;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.HttpServerErrorException;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.Arrays;
 import java.util.List;
@@ -16,7 +14,7 @@ import java.util.List;
 /**
  * Service responsable des appels à l’API des notes via la Gateway.
  * <p>
- * Il utilise un {@link RestTemplate} dédié (bean {@code noteApiClient})
+ * Il utilise un {@link ApiClient} dédié (bean {@code noteApiClient})
  * dont l’URL de base est configurée dans {@code application.yml} :
  * <pre>
  * notes.api.url: http://gateway-service:8080/api/notes
@@ -30,83 +28,80 @@ import java.util.List;
 @Service
 public class NoteService {
 
-    private final RestTemplate apiClient;
+    private final ApiClient apiClient;
 
-    public NoteService(@Qualifier("noteApiClient") RestTemplate apiClient) {
+    public NoteService(@Qualifier("noteApiClient") ApiClient apiClient) {
         this.apiClient = apiClient;
     }
 
+    // ============================================================
+    //                    MÉTHODES PUBLIQUES
+    // ============================================================
+
     /**
-     * Construit les en-têtes HTTP avec le JWT (Authorization + Cookie).
+     * Récupère la liste des notes pour un patient.
      *
-     * @param request requête HTTP source
-     * @return en-têtes configurés
+     * @param patientId identifiant du patient
+     * @param request   requête HTTP source
+     * @return liste de notes (potentiellement vide)
      */
-    private HttpHeaders buildAuthHeaders(HttpServletRequest request) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
-
-        String jwt = JwtCookieUtil.extractJwt(request);
-        if (jwt != null && !jwt.isBlank()) {
-            headers.setBearerAuth(jwt);
-            headers.add(HttpHeaders.COOKIE, JwtCookieUtil.DEFAULT_COOKIE_NAME + "=" + jwt);
-        }
-
-        return headers;
+    public List<Note> findByPatient(Long patientId, HttpServletRequest request) {
+        Note[] arr = apiClient.call(
+                "findByPatient",
+                HttpMethod.GET,
+                "/patient/" + patientId,
+                null,
+                request,
+                Note[].class
+        );
+        return (arr == null) ? List.of() : Arrays.asList(arr);
     }
 
     /**
-     * Méthode générique pour appeler l'API des notes.
+     * Récupère une note par son identifiant.
      *
-     * @param path         chemin relatif (ex: "/patient/{id}")
-     * @param method       méthode HTTP
-     * @param body         éventuel corps de requête
-     * @param request      requête HTTP source (pour extraire le JWT)
-     * @param responseType type de la réponse attendue
-     * @param <T>          type générique de retour
-     * @return corps de la réponse désérialisé
+     * @param id      identifiant de la note
+     * @param request requête HTTP source
+     * @return la note
      */
-    private <T> T callApi(String path,
-                          HttpMethod method,
-                          Object body,
-                          HttpServletRequest request,
-                          Class<T> responseType) {
-
-        HttpHeaders headers = buildAuthHeaders(request);
-
-        HttpEntity<?> entity = (body != null)
-                ? new HttpEntity<>(body, headers)
-                : new HttpEntity<>(headers);
-
-        try {
-            ResponseEntity<T> response =
-                    apiClient.exchange(path, method, entity, responseType);
-            return response.getBody();
-
-        } catch (HttpClientErrorException | HttpServerErrorException e) {
-            throw new IllegalStateException(
-                    "Notes API error " + e.getStatusCode() + " : " + e.getResponseBodyAsString(), e);
-        }
+    public Note getOne(Long id, HttpServletRequest request) {
+        return apiClient.call(
+                "getOne",
+                HttpMethod.GET,
+                "/" + id,
+                null,
+                request,
+                Note.class
+        );
     }
 
-    // ============================================================
-    //                    MÉTHODES PUBLIQUES
-    // ============================================================
+    /**
+     * Recharge une note signalée par le flux de changements, sans passer par le cache de la Gateway.
+     *
+     * @param id      identifiant de la note
+     * @param request requête HTTP source
+     * @return la note
+     */
+    public Note getOneFresh(Long id, HttpServletRequest request) {
+        return apiClient.callFresh("getOneFresh", "/" + id, request, Note.class);
+    }
 
     /**
-     * Récupère la liste des notes pour un patient.
+     * Lit le flux de changements de notes à partir d’un offset.
      *
-     * @param patientId identifiant du patient
-     * @param request   requête HTTP source
-     * @return liste de notes (potentiellement vide)
+     * @param after   dernier offset consommé
+     * @param limit   nombre maximal d’entrées
+     * @param request requête HTTP source
+     * @return les changements suivants, par offset croissant
      */
-    public List<Note> findByPatient(Long patientId, HttpServletRequest request) {
-        Note[] arr = callApi(
-                "/patient/" + patientId,
+    public List<NoteChange> changesAfter(long after, int limit, HttpServletRequest request) {
+        NoteChange[] arr = apiClient.call(
+                "changesAfter",
                 HttpMethod.GET,
+                "/changes?after=" + after + "&limit=" + limit,
                 null,
                 request,
-                Note[].class
+                NoteChange[].class
         );
         return (arr == null) ? List.of() : Arrays.asList(arr);
     }
@@ -120,9 +115,10 @@ public class NoteService {
      * @return la note créée
      */
     public Note createForPatient(Long patientId, Note payload, HttpServletRequest request) {
-        return callApi(
-                "/patient/" + patientId,
+        return apiClient.call(
+                "createForPatient",
                 HttpMethod.POST,
+                "/patient/" + patientId,
                 payload,
                 request,
                 Note.class
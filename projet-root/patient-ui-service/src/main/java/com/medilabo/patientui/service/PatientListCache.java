@@ -0,0 +1,162 @@
+package com.medilabo.patientui.service;
+
+import com.medilabo.patientui.dto.PatientPage;
+import com.medilabo.patientui.model.Patient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache court des pages de la liste des patients déjà affichées.
+ * <p>
+ * Après une écriture, l’UI redirige vers la liste (Post/Redirect/Get) : plutôt que de
+ * recharger la page depuis l’API, on applique l’écriture aux pages en cache
+ * (mise à jour optimiste). Une écriture coûte ainsi un seul appel à l’API.
+ * </p>
+ * <p>
+ * Les pages sont triées par identifiant croissant (voir {@code GET /api/patients?page=}) :
+ * un patient créé va en fin de liste, une suppression décale les pages suivantes,
+ * qui sont alors invalidées. Les pages sont rangées par jeton d’accès, et expirent après
+ * {@code ui.patients.cache.ttl-seconds}, ce qui borne l’écart avec les écritures faites
+ * depuis une autre instance.
+ * </p>
+ */
+@Component
+public class PatientListCache {
+
+    private record Key(String owner, int page, int size) {
+    }
+
+    private record Entry(PatientPage page, long expiresAt) {
+
+        Entry with(PatientPage changed) {
+            return new Entry(changed, expiresAt);
+        }
+    }
+
+    private final Map<Key, Entry> pages = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    public PatientListCache(@Value("${ui.patients.cache.ttl-seconds:30}") long ttlSeconds,
+                            @Value("${ui.patients.cache.max-entries:1000}") int maxEntries) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @param owner jeton d’accès de l’utilisateur
+     * @param page  numéro de page
+     * @param size  taille de page
+     * @return la page en cache, si elle n’a pas expiré
+     */
+    public Optional<PatientPage> get(String owner, int page, int size) {
+        Key key = new Key(Objects.toString(owner, ""), page, size);
+        Entry entry = pages.get(key);
+        if (entry == null) return Optional.empty();
+        if (entry.expiresAt() - System.nanoTime() <= 0) {
+            pages.remove(key, entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.page());
+    }
+
+    /**
+     * Met en cache une page lue depuis l’API.
+     */
+    public void put(String owner, PatientPage page) {
+        if (ttlNanos <= 0) return;
+        if (pages.size() >= maxEntries) {
+            long now = System.nanoTime();
+            pages.values().removeIf(e -> e.expiresAt() - now <= 0);
+            if (pages.size() >= maxEntries) pages.clear();
+        }
+        pages.put(new Key(Objects.toString(owner, ""), page.page(), page.size()),
+                new Entry(page, System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     * Dernière page connue pour une taille de page donnée, d’après le total en cache.
+     */
+    public Optional<Integer> lastPage(String owner, int size) {
+        String o = Objects.toString(owner, "");
+        return pages.entrySet().stream()
+                .filter(e -> e.getKey().owner().equals(o) && e.getKey().size() == size)
+                .map(e -> e.getValue().page().lastPage())
+                .findAny();
+    }
+
+    /**
+     * Ajoute un patient créé à la fin de la liste.
+     *
+     * @param created le patient renvoyé par l’API (sans identifiant : cache vidé)
+     */
+    public void onCreated(Patient created) {
+        if (created == null || created.getId() == null) {
+            pages.clear();
+            return;
+        }
+        pages.replaceAll((key, entry) -> {
+            PatientPage p = entry.page();
+            long total = p.total() + 1;
+            List<Patient> content = p.content();
+            if (total > (long) p.page() * p.size() && total <= (long) (p.page() + 1) * p.size()) {
+                content = new ArrayList<>(content);
+                content.add(created);
+            }
+            return entry.with(new PatientPage(content, p.page(), p.size(), total));
+        });
+    }
+
+    /**
+     * Remplace un patient modifié dans les pages qui le contiennent.
+     *
+     * @param updated le patient renvoyé par l’API (sans identifiant : cache vidé)
+     */
+    public void onUpdated(Patient updated) {
+        if (updated == null || updated.getId() == null) {
+            pages.clear();
+            return;
+        }
+        pages.replaceAll((key, entry) -> {
+            PatientPage p = entry.page();
+            if (p.content().stream().noneMatch(x -> updated.getId().equals(x.getId()))) return entry;
+            List<Patient> content = p.content().stream()
+                    .map(x -> updated.getId().equals(x.getId()) ? updated : x)
+                    .toList();
+            return entry.with(new PatientPage(content, p.page(), p.size(), p.total()));
+        });
+    }
+
+    /**
+     * Retire un patient supprimé. Les pages situées après lui se décalent d’un rang :
+     * elles sont invalidées, comme toutes les pages d’une taille où il n’a pas été trouvé.
+     *
+     * @param id identifiant du patient supprimé
+     */
+    public void onDeleted(Long id) {
+        Map<String, Integer> found = new HashMap<>();
+        pages.forEach((key, entry) -> {
+            if (entry.page().content().stream().anyMatch(x -> id.equals(x.getId()))) {
+                found.put(key.owner() + '/' + key.size(), key.page());
+            }
+        });
+        pages.entrySet().removeIf(e -> {
+            Integer at = found.get(e.getKey().owner() + '/' + e.getKey().size());
+            return at == null || e.getKey().page() > at;
+        });
+        pages.replaceAll((key, entry) -> {
+            PatientPage p = entry.page();
+            List<Patient> content = p.content().stream().filter(x -> !id.equals(x.getId())).toList();
+            return entry.with(new PatientPage(content, p.page(), p.size(), Math.max(0, p.total() - 1)));
+        });
+    }
+}
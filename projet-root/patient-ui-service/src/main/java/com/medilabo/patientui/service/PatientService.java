@@ -1,14 +1,14 @@
 package com.medilabo.patientui.service;
 
+import com.medilabo.patientui.client.ApiClient;
+import com.medilabo.patientui.dto.PatientChange;
+import com.medilabo.patientui.dto.PatientPage;
 import com.medilabo.patientui.model.Patient;
-import com.medilabo.patientui.web.JwtCookieUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.http.*;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.HttpServerErrorException;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.Arrays;
 import java.util.List;
@@ -16,46 +16,13 @@ import java.util.List;
 @Service
 public class PatientService {
 
-    private final RestTemplate apiClient;
+    /** En-tête portant le nombre total de patients d’une réponse paginée */
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
 
-    public PatientService(@Qualifier("patientApiClient") RestTemplate apiClient) {
-        this.apiClient = apiClient;
-    }
-
-    /** Construit les headers d’authentification */
-    private HttpHeaders buildAuthHeaders(HttpServletRequest request) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
-
-        String jwt = JwtCookieUtil.extractJwt(request);
-        if (jwt != null && !jwt.isBlank()) {
-            headers.setBearerAuth(jwt);
-            headers.add(HttpHeaders.COOKIE, JwtCookieUtil.DEFAULT_COOKIE_NAME + "=" + jwt);
-        }
-        return headers;
-    }
-
-    /** Enveloppe générique pour appeler l’API Patients (path relatif au rootUri du RestTemplate) */
-    private <T> T callApi(String path,
-                          HttpMethod method,
-                          Object body,
-                          HttpServletRequest request,
-                          Class<T> type) {
-
-        HttpHeaders headers = buildAuthHeaders(request);
-        HttpEntity<?> entity = (body != null)
-                ? new HttpEntity<>(body, headers)
-                : new HttpEntity<>(headers);
-
-        try {
-            ResponseEntity<T> response =
-                    apiClient.exchange(path, method, entity, type);
-            return response.getBody();
+    private final ApiClient apiClient;
 
-        } catch (HttpClientErrorException | HttpServerErrorException e) {
-            throw new IllegalStateException(
-                    "Patients API error " + e.getStatusCode() + " : " + e.getResponseBodyAsString(), e);
-        }
+    public PatientService(@Qualifier("patientApiClient") ApiClient apiClient) {
+        this.apiClient = apiClient;
     }
 
     // ============================================================
@@ -64,27 +31,49 @@ public class PatientService {
 
     /** GET http://gateway-service:8080/api/patients */
     public List<Patient> findAll(HttpServletRequest request) {
-        Patient[] arr = callApi("", HttpMethod.GET, null, request, Patient[].class);
+        Patient[] arr = apiClient.call("findAll", HttpMethod.GET, "", null, request, Patient[].class);
         return (arr == null) ? List.of() : Arrays.asList(arr);
     }
 
+    /** GET http://gateway-service:8080/api/patients?page={page}&size={size} (tri par id) */
+    public PatientPage findPage(int page, int size, HttpServletRequest request) {
+        ResponseEntity<Patient[]> response = apiClient.exchange("findPage", HttpMethod.GET,
+                "?page=" + page + "&size=" + size, null, request, Patient[].class);
+        List<Patient> content = (response.getBody() == null) ? List.of() : Arrays.asList(response.getBody());
+        String total = response.getHeaders().getFirst(TOTAL_COUNT_HEADER);
+        return new PatientPage(content, page, size,
+                (total == null) ? (long) page * size + content.size() : Long.parseLong(total));
+    }
+
     /** GET http://gateway-service:8080/api/patients/{id} */
     public Patient getOne(Long id, HttpServletRequest request) {
-        return callApi("/" + id, HttpMethod.GET, null, request, Patient.class);
+        return apiClient.call("getOne", HttpMethod.GET, "/" + id, null, request, Patient.class);
+    }
+
+    /** GET http://gateway-service:8080/api/patients/{id} avec Cache-Control: no-cache (après un changement) */
+    public Patient getOneFresh(Long id, HttpServletRequest request) {
+        return apiClient.callFresh("getOneFresh", "/" + id, request, Patient.class);
     }
 
     /** POST http://gateway-service:8080/api/patients */
     public Patient create(Patient payload, HttpServletRequest request) {
-        return callApi("", HttpMethod.POST, payload, request, Patient.class);
+        return apiClient.call("create", HttpMethod.POST, "", payload, request, Patient.class);
     }
 
     /** PUT http://gateway-service:8080/api/patients/{id} */
     public Patient update(Long id, Patient payload, HttpServletRequest request) {
-        return callApi("/" + id, HttpMethod.PUT, payload, request, Patient.class);
+        return apiClient.call("update", HttpMethod.PUT, "/" + id, payload, request, Patient.class);
     }
 
     /** DELETE http://gateway-service:8080/api/patients/{id} */
     public void delete(Long id, HttpServletRequest request) {
-        callApi("/" + id, HttpMethod.DELETE, null, request, Void.class);
+        apiClient.call("delete", HttpMethod.DELETE, "/" + id, null, request, Void.class);
+    }
+
+    /** GET http://gateway-service:8080/api/patients/changes?after={after}&limit={limit} */
+    public List<PatientChange> changesAfter(long after, int limit, HttpServletRequest request) {
+        PatientChange[] arr = apiClient.call("changesAfter", HttpMethod.GET,
+                "/changes?after=" + after + "&limit=" + limit, null, request, PatientChange[].class);
+        return (arr == null) ? List.of() : Arrays.asList(arr);
     }
 }
@@ -1,95 +1,76 @@
 package com.medilabo.patientui.service;
 
+import com.medilabo.patientui.client.ApiClient;
+import com.medilabo.patientui.dto.RiskBadge;
 import com.medilabo.patientui.model.RiskAssessmentResponse;
-import com.medilabo.patientui.web.JwtCookieUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.http.*;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.HttpServerErrorException;
-import org.springframework.web.client.RestTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
- * Service UI consommant l’API RiskAssessment via RestTemplate.
- *
- * Le RestTemplate injecté est celui nommé "riskApiClient", défini dans AppConfig :
+ * Service UI consommant l’API RiskAssessment.
  *
- *     @Bean("riskApiClient")
- *     public RestTemplate riskApiClient(@Value("${risk.api.url}") String url) {
- *         return restTemplateBase(url);
- *     }
+ * L’{@link ApiClient} injecté est celui nommé "riskApiClient", défini dans AppConfig
+ * (URL de base "risk.api.url", délai "risk.api.read-timeout-ms").
  *
  * L’URL de base est donc déjà configurée et les appels ici utilisent
- * uniquement des chemins relatifs : "/{patientId}".
+ * uniquement des chemins relatifs : "/{patientId}", "/batch?patientIds=...".
  */
 @Service
 public class RiskService {
 
-    private final RestTemplate apiClient;
+    private final ApiClient apiClient;
 
-    public RiskService(@Qualifier("riskApiClient") RestTemplate apiClient) {
+    public RiskService(@Qualifier("riskApiClient") ApiClient apiClient) {
         this.apiClient = apiClient;
     }
 
+    // ============================================================
+    //                    MÉTHODES PUBLIQUES
+    // ============================================================
+
     /**
-     * Construit les en-têtes HTTP avec JWT (Authorization + Cookie).
+     * Récupère le niveau de risque de diabète pour un patient.
      */
-    private HttpHeaders buildAuthHeaders(HttpServletRequest request) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setAccept(java.util.List.of(MediaType.APPLICATION_JSON));
-
-        String jwt = JwtCookieUtil.extractJwt(request);
-        if (jwt != null && !jwt.isBlank()) {
-            headers.setBearerAuth(jwt);
-            headers.add(HttpHeaders.COOKIE, JwtCookieUtil.DEFAULT_COOKIE_NAME + "=" + jwt);
-        }
-
-        return headers;
+    public RiskAssessmentResponse getRisk(Long patientId, HttpServletRequest request) {
+        return apiClient.call(
+                "getRisk",
+                HttpMethod.GET,
+                "/" + patientId,
+                null,
+                request,
+                RiskAssessmentResponse.class
+        );
     }
 
     /**
-     * Appel générique vers l'API risk-assessment.
+     * Comme {@link #getRisk}, sans passer par le cache de la Gateway : après un changement
+     * des notes ou du patient, l’évaluation en cache est périmée.
      */
-    private <T> T callApi(String path,
-                          HttpMethod method,
-                          Object body,
-                          HttpServletRequest request,
-                          Class<T> responseType) {
-
-        HttpHeaders headers = buildAuthHeaders(request);
-
-        HttpEntity<?> entity = (body != null)
-                ? new HttpEntity<>(body, headers)
-                : new HttpEntity<>(headers);
-
-        try {
-            ResponseEntity<T> response =
-                    apiClient.exchange(path, method, entity, responseType);
-            return response.getBody();
-
-        } catch (HttpClientErrorException | HttpServerErrorException e) {
-            throw new IllegalStateException(
-                    "Risk API error " + e.getStatusCode() + " : " + e.getResponseBodyAsString(),
-                    e
-            );
-        }
+    public RiskAssessmentResponse getRiskFresh(Long patientId, HttpServletRequest request) {
+        return apiClient.callFresh("getRiskFresh", "/" + patientId, request, RiskAssessmentResponse.class);
     }
 
-    // ============================================================
-    //                    MÉTHODES PUBLIQUES
-    // ============================================================
-
     /**
-     * Récupère le niveau de risque de diabète pour un patient.
+     * Récupère en un seul appel les badges de risque d'une liste de patients
+     * (la page de patients affichée). Un patient non évalué à temps revient
+     * avec le statut PENDING.
      */
-    public RiskAssessmentResponse getRisk(Long patientId, HttpServletRequest request) {
-        return callApi(
-                "/" + patientId,
+    public List<RiskBadge> getRiskBatch(List<Long> patientIds, HttpServletRequest request) {
+        String ids = patientIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        RiskBadge[] badges = apiClient.call(
+                "getRiskBatch",
                 HttpMethod.GET,
+                "/batch?patientIds=" + ids,
                 null,
                 request,
-                RiskAssessmentResponse.class
+                RiskBadge[].class
         );
+        return (badges == null) ? List.of() : Arrays.asList(badges);
     }
 }
@@ -0,0 +1,45 @@
+package com.medilabo.patientui.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * En-têtes d’authentification propagés vers les APIs (Authorization + cookie JWT).
+ * <p>
+ * Ils sont construits une seule fois par requête entrante puis mis en cache dans ses
+ * attributs : une page qui appelle plusieurs APIs n’extrait le JWT qu’une fois.
+ * Un {@link RequestSnapshot} porte sa propre copie, lisible depuis d’autres threads.
+ * </p>
+ */
+public final class AuthHeaders {
+
+    private static final String ATTRIBUTE = AuthHeaders.class.getName();
+
+    private AuthHeaders() {}
+
+    /**
+     * @param request la requête entrante (ou un {@link RequestSnapshot})
+     * @return les en-têtes d’authentification, en lecture seule (vides sans JWT)
+     */
+    public static HttpHeaders of(HttpServletRequest request) {
+        if (request instanceof RequestSnapshot snapshot) {
+            return snapshot.authHeaders();
+        }
+        if (request.getAttribute(ATTRIBUTE) instanceof HttpHeaders cached) {
+            return cached;
+        }
+        HttpHeaders headers = build(request);
+        request.setAttribute(ATTRIBUTE, headers);
+        return headers;
+    }
+
+    private static HttpHeaders build(HttpServletRequest request) {
+        HttpHeaders headers = new HttpHeaders();
+        String jwt = JwtCookieUtil.extractJwt(request);
+        if (jwt != null && !jwt.isBlank()) {
+            headers.setBearerAuth(jwt);
+            headers.add(HttpHeaders.COOKIE, JwtCookieUtil.DEFAULT_COOKIE_NAME + "=" + jwt);
+        }
+        return HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+}
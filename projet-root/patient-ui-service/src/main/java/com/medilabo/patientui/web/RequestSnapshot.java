@@ -0,0 +1,67 @@
+package com.medilabo.patientui.web;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Copie figée des informations d’authentification d’une requête entrante.
+ * <p>
+ * La requête servlet n’est pas thread-safe et peut être recyclée par le conteneur dès la
+ * réponse envoyée : les appels aux APIs lancés en parallèle (voir {@link ViewFanout})
+ * reçoivent cette copie, qui ne lit plus la requête d’origine pour le header
+ * {@code Authorization}, les cookies (seules données utilisées par
+ * {@link JwtCookieUtil}) ni les en-têtes d’authentification ({@link AuthHeaders}).
+ * </p>
+ */
+public final class RequestSnapshot extends HttpServletRequestWrapper {
+
+    private static final String AUTH_HEADER = "Authorization";
+
+    private final String authorization;
+    private final Cookie[] cookies;
+    private final HttpHeaders authHeaders;
+
+    private RequestSnapshot(HttpServletRequest request) {
+        super(request);
+        this.authorization = request.getHeader(AUTH_HEADER);
+        Cookie[] source = request.getCookies();
+        this.cookies = source == null ? null : source.clone();
+        this.authHeaders = AuthHeaders.of(request);
+    }
+
+    /**
+     * Capture les informations d’authentification d’une requête.
+     *
+     * @param request la requête entrante
+     * @return une copie utilisable depuis d’autres threads
+     */
+    public static HttpServletRequest of(HttpServletRequest request) {
+        return request instanceof RequestSnapshot ? request : new RequestSnapshot(request);
+    }
+
+    HttpHeaders authHeaders() {
+        return authHeaders;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return AUTH_HEADER.equalsIgnoreCase(name) ? authorization : null;
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        String value = getHeader(name);
+        return value == null ? Collections.emptyEnumeration() : Collections.enumeration(List.of(value));
+    }
+
+    @Override
+    public Cookie[] getCookies() {
+        return cookies == null ? null : cookies.clone();
+    }
+}
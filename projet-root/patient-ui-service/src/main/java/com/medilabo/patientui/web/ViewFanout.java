@@ -0,0 +1,113 @@
+package com.medilabo.patientui.web;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Lance en parallèle, sur des threads virtuels, les appels indépendants nécessaires à
+ * une vue, puis les attend jusqu’à une échéance commune ({@code ui.fanout.deadline-ms}).
+ * <p>
+ * La latence d’une page suit ainsi l’appel le plus lent plutôt que la somme des appels.
+ * Un appel en échec ou hors délai ne fait pas échouer la page : son {@link Outcome}
+ * porte un message d’erreur que la vue affiche à la place de la donnée manquante.
+ * </p>
+ */
+@Component
+public class ViewFanout {
+
+    private static final Logger log = LoggerFactory.getLogger(ViewFanout.class);
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final long deadlineMs;
+
+    public ViewFanout(@Value("${ui.fanout.deadline-ms:3000}") long deadlineMs) {
+        this.deadlineMs = deadlineMs;
+    }
+
+    /**
+     * Résultat d’un appel : la valeur, ou un message d’erreur à afficher.
+     *
+     * @param value valeur obtenue ({@code null} en cas d’échec)
+     * @param error message d’erreur ({@code null} en cas de succès)
+     * @param <T>   type de la valeur
+     */
+    public record Outcome<T>(T value, String error) {
+
+        public boolean failed() {
+            return error != null;
+        }
+    }
+
+    /**
+     * Échéance commune à un groupe d’appels.
+     *
+     * @param atNanos instant limite, en {@link System#nanoTime()}
+     */
+    public record Deadline(long atNanos) {
+
+        long remainingNanos() {
+            return Math.max(0, atNanos - System.nanoTime());
+        }
+    }
+
+    /**
+     * @return une échéance à {@code ui.fanout.deadline-ms} à partir de maintenant
+     */
+    public Deadline deadline() {
+        return new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs));
+    }
+
+    /**
+     * Lance un appel sur un thread virtuel.
+     *
+     * @param call l’appel (ne doit lire la requête entrante qu’au travers d’un {@link RequestSnapshot})
+     * @param <T>  type du résultat
+     * @return le résultat à venir ; l’annuler interrompt le thread de l’appel
+     */
+    public <T> Future<T> fork(Callable<T> call) {
+        return executor.submit(call);
+    }
+
+    /**
+     * Attend un appel jusqu’à l’échéance.
+     *
+     * @param future   l’appel lancé par {@link #fork(Callable)}
+     * @param deadline l’échéance commune
+     * @param what     libellé de la donnée, pour le message d’erreur
+     * @param <T>      type du résultat
+     * @return la valeur, ou un message d’erreur si l’appel a échoué ou dépassé l’échéance
+     */
+    public <T> Outcome<T> join(Future<T> future, Deadline deadline, String what) {
+        try {
+            return new Outcome<>(future.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS), null);
+        } catch (TimeoutException e) {
+            // interrompt l’appel en cours : le thread et la connexion HTTP sont libérés
+            future.cancel(true);
+            log.warn("[ViewFanout] {} : délai de {} ms dépassé", what, deadlineMs);
+            return new Outcome<>(null, what + " indisponible (délai dépassé)");
+        } catch (ExecutionException e) {
+            log.warn("[ViewFanout] {} : {}", what, e.getCause().getMessage());
+            return new Outcome<>(null, what + " indisponible");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return new Outcome<>(null, what + " indisponible");
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
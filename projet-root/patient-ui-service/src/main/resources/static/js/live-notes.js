@@ -0,0 +1,45 @@
+// Mises à jour en direct de la page des notes (SSE) : notes ajoutées / modifiées / supprimées,
+// fiche patient. L'identifiant du patient est porté par la balise <script> (data-patient-id).
+(function () {
+  var patientId = document.currentScript.getAttribute('data-patient-id');
+  if (!window.EventSource || !patientId) return;
+
+  var list = document.getElementById('notes');
+  var source = new EventSource('/ui/live/patients/' + patientId + '?topics=notes');
+
+  function item(noteId) {
+    return list.querySelector('li[data-note-id="' + noteId + '"]');
+  }
+
+  source.addEventListener('note', function (e) {
+    var event = JSON.parse(e.data);
+    var li = item(event.noteId);
+    if (event.type === 'DELETED') {
+      if (li) li.remove();
+      return;
+    }
+    if (!li) {
+      li = document.createElement('li');
+      li.setAttribute('data-note-id', event.noteId);
+      list.appendChild(li);
+      var empty = document.getElementById('notes-empty');
+      if (empty) empty.remove();
+    }
+    li.textContent = event.note.content;
+  });
+
+  source.addEventListener('patient', function (e) {
+    var event = JSON.parse(e.data);
+    if (event.type === 'DELETED') {
+      document.getElementById('patient-deleted').hidden = false;
+      source.close();
+      return;
+    }
+    var p = event.patient;
+    document.getElementById('patient-first-name').textContent = p.firstName || '';
+    document.getElementById('patient-last-name').textContent = p.lastName || '';
+    document.getElementById('patient-birth-date').textContent = p.birthDate || '--';
+    document.getElementById('patient-gender').textContent = p.gender || '--';
+  });
+})();
+
@@ -0,0 +1,37 @@
+// Mises à jour en direct du rapport de risque (SSE) : risque recalculé après une note ou une
+// modification du patient. L'identifiant du patient est porté par la balise <script> (data-patient-id).
+(function () {
+  var patientId = document.currentScript.getAttribute('data-patient-id');
+  if (!window.EventSource || !patientId) return;
+
+  var LABELS = {
+    NONE: ['risk-none', 'Aucun risque'],
+    BORDERLINE: ['risk-borderline', 'Risque limité'],
+    IN_DANGER: ['risk-danger', 'En danger'],
+    EARLY_ONSET: ['risk-early', 'Apparition précoce']
+  };
+  var source = new EventSource('/ui/live/patients/' + patientId + '?topics=risk');
+
+  source.addEventListener('risk', function (e) {
+    var risk = JSON.parse(e.data);
+    var level = document.getElementById('risk-level');
+    if (!level || !risk.riskLevel) return;
+    var label = LABELS[risk.riskLevel.toUpperCase().replace(/ /g, '_')];
+    var span = document.createElement('span');
+    span.className = label ? label[0] : '';
+    span.textContent = label ? label[1] : 'Inconnu';
+    level.replaceChildren(span);
+  });
+
+  source.addEventListener('patient', function (e) {
+    var event = JSON.parse(e.data);
+    if (event.type === 'DELETED') {
+      document.getElementById('patient-deleted').hidden = false;
+      source.close();
+      return;
+    }
+    document.getElementById('patient-birth-date').textContent = event.patient.birthDate || '';
+    document.getElementById('patient-gender').textContent = event.patient.gender || '';
+  });
+})();
+
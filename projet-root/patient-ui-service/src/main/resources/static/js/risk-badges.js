@@ -0,0 +1,60 @@
+// Badges de risque de la liste des patients : un seul appel groupé pour la page affichée,
+// une fois la liste rendue. Les patients pas encore évalués (PENDING) gardent leur placeholder
+// et sont redemandés quelques fois ; en cas d'échec le badge indique "indisponible".
+(function () {
+  var LABELS = {
+    NONE: 'Aucun risque',
+    BORDERLINE: 'Risque limité',
+    IN_DANGER: 'En danger',
+    EARLY_ONSET: 'Apparition précoce'
+  };
+  var RETRIES = 2, RETRY_DELAY_MS = 1500;
+
+  function badgesById() {
+    var map = {};
+    document.querySelectorAll('.risk-badge[data-patient-id]').forEach(function (el) {
+      map[el.getAttribute('data-patient-id')] = el;
+    });
+    return map;
+  }
+
+  function render(el, badge) {
+    if (badge.status === 'OK' && badge.riskLevel) {
+      var key = badge.riskLevel.toUpperCase().replace(/ /g, '_');
+      el.className = 'risk-badge risk-' + key.toLowerCase();
+      el.textContent = LABELS[key] || badge.riskLevel;
+      return true;
+    }
+    if (badge.status === 'PENDING') return false;
+    el.className = 'risk-badge risk-unavailable';
+    el.textContent = 'indisponible';
+    return true;
+  }
+
+  function load(ids, retriesLeft) {
+    if (ids.length === 0) return;
+    var els = badgesById();
+    fetch('/ui/patients/risk-badges?ids=' + ids.join(','), { credentials: 'same-origin' })
+      .then(function (r) { if (!r.ok) throw new Error(r.status); return r.json(); })
+      .then(function (badges) {
+        var pending = [];
+        badges.forEach(function (b) {
+          var el = els[String(b.patientId)];
+          if (el && !render(el, b)) pending.push(b.patientId);
+        });
+        if (pending.length > 0) {
+          if (retriesLeft > 0) {
+            setTimeout(function () { load(pending, retriesLeft - 1); }, RETRY_DELAY_MS);
+          } else {
+            pending.forEach(function (id) { render(els[String(id)], { status: 'ERROR' }); });
+          }
+        }
+      })
+      .catch(function () {
+        ids.forEach(function (id) { render(els[String(id)], { status: 'ERROR' }); });
+      });
+  }
+
+  load(Object.keys(badgesById()), RETRIES);
+})();
+
@@ -0,0 +1,87 @@
+package com.medilabo.patientui.client;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+
+class ApiClientTest {
+
+    private MockRestServiceServer server;
+    private SimpleMeterRegistry registry;
+    private ApiClient client;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.setUriTemplateHandler(new DefaultUriBuilderFactory("http://example.test/api/patients"));
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+        registry = new SimpleMeterRegistry();
+        client = new ApiClient("patients", restTemplate, registry);
+    }
+
+    @Test
+    void call_reusesAuthHeadersOfTheRequest_andRecordsLatency() {
+        server.expect(once(), requestTo("http://example.test/api/patients/1"))
+              .andExpect(header(HttpHeaders.AUTHORIZATION, "Bearer jwt-1"))
+              .andRespond(withStatus(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON).body("\"a\""));
+        server.expect(once(), requestTo("http://example.test/api/patients/2"))
+              .andExpect(header(HttpHeaders.AUTHORIZATION, "Bearer jwt-1"))
+              .andRespond(withStatus(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON).body("\"b\""));
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie("JWT_TOKEN", "jwt-1"));
+
+        client.call("getOne", HttpMethod.GET, "/1", null, request, String.class);
+        // le cookie disparaît : les en-têtes déjà construits pour cette requête sont réutilisés
+        request.setCookies();
+        client.call("getOne", HttpMethod.GET, "/2", null, request, String.class);
+
+        server.verify();
+        Timer timer = registry.get(ApiClient.METRIC)
+                .tags("api", "patients", "operation", "getOne", "outcome", "SUCCESS").timer();
+        assertThat(timer.count()).isEqualTo(2);
+    }
+
+    @Test
+    void callFresh_asksTheGatewayToBypassItsCache() {
+        server.expect(once(), requestTo("http://example.test/api/patients/1"))
+              .andExpect(header(HttpHeaders.CACHE_CONTROL, "no-cache"))
+              .andExpect(header(HttpHeaders.AUTHORIZATION, "Bearer jwt-1"))
+              .andRespond(withStatus(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON).body("\"a\""));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie("JWT_TOKEN", "jwt-1"));
+
+        client.callFresh("getOneFresh", "/1", request, String.class);
+        server.verify();
+    }
+
+    @Test
+    void call_wrapsErrorResponses_andTagsOutcome() {
+        server.expect(once(), requestTo("http://example.test/api/patients/9"))
+              .andRespond(withStatus(HttpStatus.NOT_FOUND).body("absent"));
+
+        assertThatThrownBy(() -> client.call("getOne", HttpMethod.GET, "/9", null,
+                new MockHttpServletRequest(), String.class))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("patients API error 404");
+
+        assertThat(registry.get(ApiClient.METRIC).tag("outcome", "CLIENT_ERROR").timer().count()).isEqualTo(1);
+    }
+}
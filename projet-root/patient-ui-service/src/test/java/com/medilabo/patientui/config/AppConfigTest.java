@@ -1,29 +1,39 @@
 package com.medilabo.patientui.config;
 
+import com.medilabo.patientui.client.ApiClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.web.client.RestTemplate;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 class AppConfigTest {
 
     private final AppConfig config = new AppConfig();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CloseableHttpClient httpClient = config.apiHttpClient(10, 5, 500, 30);
+
+    @AfterEach
+    void tearDown() throws Exception {
+        httpClient.close();
+    }
 
     @Test
-    void patientApiClient_shouldCreateRestTemplate() {
-        RestTemplate client = config.patientApiClient("http://gateway:8080/api/patients");
+    void patientApiClient_shouldCreateApiClient() {
+        ApiClient client = config.patientApiClient("http://gateway:8080/api/patients", 3000, 1000, httpClient, registry);
         assertThat(client).isNotNull();
     }
 
     @Test
-    void noteApiClient_shouldCreateRestTemplate() {
-        RestTemplate client = config.noteApiClient("http://gateway:8080/api/notes");
+    void noteApiClient_shouldCreateApiClient() {
+        ApiClient client = config.noteApiClient("http://gateway:8080/api/notes", 3000, 1000, httpClient, registry);
         assertThat(client).isNotNull();
     }
 
     @Test
-    void riskApiClient_shouldCreateRestTemplate() {
-        RestTemplate client = config.riskApiClient("http://gateway:8080/api/risk");
+    void riskApiClient_shouldCreateApiClient() {
+        ApiClient client = config.riskApiClient("http://gateway:8080/api/risk", 5000, 1000, httpClient, registry);
         assertThat(client).isNotNull();
     }
 }
@@ -0,0 +1,43 @@
+package com.medilabo.patientui.config;
+
+import com.medilabo.patientui.controller.AuthController;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = AuthController.class)
+@AutoConfigureMockMvc(addFilters = false) // on ne teste pas la sécu ici
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.thymeleaf.check-template-location=false")
+class WebConfigTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired ResourceUrlProvider resourceUrls;
+
+    @Test
+    void gatewayLinks_areVersionedByContent_andServedWithoutPrefix() throws Exception {
+        String versioned = resourceUrls.getForLookupPath("/ui/css/app.css");
+        assertThat(versioned).matches("/ui/css/app-[0-9a-f]{32}\\.css");
+
+        // la Gateway retire /ui avant de proxyfier
+        mvc.perform(get(versioned.substring("/ui".length())))
+           .andExpect(status().isOk())
+           .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"));
+    }
+
+    @Test
+    void unknownVersion_isNotServed() throws Exception {
+        mvc.perform(get("/js/live-notes-0123456789abcdef0123456789abcdef.js"))
+           .andExpect(status().isNotFound());
+    }
+}
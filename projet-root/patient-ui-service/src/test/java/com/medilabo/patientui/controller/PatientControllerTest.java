@@ -1,10 +1,15 @@
 package com.medilabo.patientui.controller;
 
+import com.medilabo.patientui.dto.PatientPage;
+import com.medilabo.patientui.dto.RiskBadge;
 import com.medilabo.patientui.model.Patient;
 import com.medilabo.patientui.model.RiskAssessmentResponse;
 import com.medilabo.patientui.service.NoteService;
+import com.medilabo.patientui.service.PatientListCache;
 import com.medilabo.patientui.service.PatientService;
 import com.medilabo.patientui.service.RiskService;
+import com.medilabo.patientui.web.ViewFanout;
+import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
@@ -27,6 +32,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Primary;
 import org.springframework.core.Ordered;
 import org.springframework.test.web.servlet.MockMvc;
@@ -39,9 +45,14 @@ import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(
@@ -63,6 +74,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
         FreeMarkerAutoConfiguration.class,
         MustacheAutoConfiguration.class
 })
+@Import({ViewFanout.class, PatientListCache.class})
 class PatientControllerTest {
 
     @Autowired
@@ -127,13 +139,13 @@ class PatientControllerTest {
 
     @BeforeEach
     void setUp() {
-        // findAll(HttpServletRequest)
-        given(patientService.findAll(any(HttpServletRequest.class)))
-                .willReturn(List.of(new Patient()));
-
         // getOne(Long, HttpServletRequest)
         Patient p = new Patient();
         p.setId(1L);
+
+        // findPage(int, int, HttpServletRequest)
+        given(patientService.findPage(anyInt(), anyInt(), any(HttpServletRequest.class)))
+                .willAnswer(inv -> new PatientPage(List.of(p), inv.getArgument(0), inv.getArgument(1), 1));
         given(patientService.getOne(eq(1L), any(HttpServletRequest.class))).willReturn(p);
 
         // notes.findByPatient(Long, HttpServletRequest)
@@ -153,7 +165,19 @@ class PatientControllerTest {
     @Test
     void list_returns_200() throws Exception {
         mvc.perform(get("/patients"))
+                .andExpect(status().isOk())
+                .andExpect(model().attributeExists("patients", "page"));
+    }
+
+    @Test
+    void list_serves_cached_page_on_second_request() throws Exception {
+        mvc.perform(get("/patients").param("page", "0").cookie(new Cookie("JWT_TOKEN", "t1")))
+                .andExpect(status().isOk());
+        mvc.perform(get("/patients").param("page", "0").cookie(new Cookie("JWT_TOKEN", "t1")))
                 .andExpect(status().isOk());
+
+        verify(patientService, times(1)).findPage(eq(0), anyInt(), any(HttpServletRequest.class));
+        verify(patientService, never()).findAll(any(HttpServletRequest.class));
     }
 
     @Test
@@ -188,32 +212,88 @@ class PatientControllerTest {
     }
 
     @Test
-    void create_returns_200_and_calls_service() throws Exception {
+    void riskReport_renders_patient_when_risk_fails() throws Exception {
+        given(riskService.getRisk(eq(1L), any(HttpServletRequest.class)))
+                .willThrow(new IllegalStateException("Erreur API risk : 503"));
+
+        mvc.perform(get("/patients/1/risk"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("patientError", (Object) null))
+                .andExpect(model().attribute("risk", (Object) null))
+                .andExpect(model().attributeExists("riskError"));
+    }
+
+    @Test
+    void patientNotes_renders_notes_when_patient_fails() throws Exception {
+        given(patientService.getOne(eq(1L), any(HttpServletRequest.class)))
+                .willThrow(new IllegalStateException("Erreur API patient : 503"));
+
+        mvc.perform(get("/patients/1/notes"))
+                .andExpect(status().isOk())
+                .andExpect(model().attributeExists("patient", "patientError"))
+                .andExpect(model().attribute("notes", List.of()))
+                .andExpect(model().attribute("notesError", (Object) null));
+    }
+
+    @Test
+    void riskBadges_fetches_visible_page_in_one_call() throws Exception {
+        given(riskService.getRiskBatch(eq(List.of(1L, 2L)), any(HttpServletRequest.class)))
+                .willReturn(List.of(new RiskBadge(1L, "None", "OK"), new RiskBadge(2L, null, "PENDING")));
+
+        mvc.perform(get("/patients/risk-badges").param("ids", "1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].riskLevel").value("None"))
+                .andExpect(jsonPath("$[1].status").value("PENDING"));
+
+        verify(riskService, never()).getRisk(anyLong(), any(HttpServletRequest.class));
+    }
+
+    @Test
+    void riskBadges_marks_all_as_error_when_risk_api_fails() throws Exception {
+        given(riskService.getRiskBatch(anyList(), any(HttpServletRequest.class)))
+                .willThrow(new IllegalStateException("Risk API error 503"));
+
+        mvc.perform(get("/patients/risk-badges").param("ids", "1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("ERROR"))
+                .andExpect(jsonPath("$[1].patientId").value(2));
+    }
+
+    @Test
+    void create_redirects_to_list_and_calls_service_once() throws Exception {
         mvc.perform(post("/patients").with(csrf())
                         .param("firstName", "Bob")
                         .param("lastName", "Martin"))
-                .andExpect(status().isOk());
+                .andExpect(status().isSeeOther())
+                .andExpect(header().string("Location", "/ui/patients?page=0"));
 
-        // on vérifie que le service de création est bien appelé
+        // on vérifie que le service de création est bien appelé, sans relire la liste
         verify(patientService).create(any(Patient.class), any(HttpServletRequest.class));
+        verify(patientService, never()).findAll(any(HttpServletRequest.class));
+        verify(patientService, never()).findPage(anyInt(), anyInt(), any(HttpServletRequest.class));
     }
 
     @Test
-    void update_returns_200_and_calls_service() throws Exception {
+    void update_redirects_to_origin_page_and_calls_service_once() throws Exception {
         mvc.perform(post("/patients/update").with(csrf())
                         .param("id", "1")
+                        .param("page", "3")
                         .param("firstName", "Alice")
                         .param("lastName", "Doe"))
-                .andExpect(status().isOk());
+                .andExpect(status().isSeeOther())
+                .andExpect(header().string("Location", "/ui/patients?page=3"));
 
         verify(patientService).update(eq(1L), any(Patient.class), any(HttpServletRequest.class));
+        verify(patientService, never()).findPage(anyInt(), anyInt(), any(HttpServletRequest.class));
     }
 
     @Test
-    void delete_returns_200_and_calls_service() throws Exception {
+    void delete_redirects_to_list_and_calls_service_once() throws Exception {
         mvc.perform(post("/patients/delete/1").with(csrf()))
-                .andExpect(status().isOk());
+                .andExpect(status().isSeeOther())
+                .andExpect(header().string("Location", "/ui/patients?page=0"));
 
         verify(patientService).delete(eq(1L), any(HttpServletRequest.class));
+        verify(patientService, never()).findPage(anyInt(), anyInt(), any(HttpServletRequest.class));
     }
 }
@@ -0,0 +1,194 @@
+package com.medilabo.patientui.live;
+
+import com.medilabo.patientui.dto.NoteChange;
+import com.medilabo.patientui.dto.PatientChange;
+import com.medilabo.patientui.live.ChangeFeedRelay.NoteEvent;
+import com.medilabo.patientui.live.ChangeFeedRelay.PatientEvent;
+import com.medilabo.patientui.live.LiveUpdateHub.Topic;
+import com.medilabo.patientui.model.Note;
+import com.medilabo.patientui.model.Patient;
+import com.medilabo.patientui.model.RiskAssessmentResponse;
+import com.medilabo.patientui.service.NoteService;
+import com.medilabo.patientui.service.PatientService;
+import com.medilabo.patientui.service.RiskService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ChangeFeedRelayTest {
+
+    private LiveUpdateHub hub;
+    private NoteService notes;
+    private PatientService patients;
+    private RiskService risk;
+    private ChangeFeedRelay relay;
+    private final MockHttpServletRequest credentials = new MockHttpServletRequest();
+
+    @BeforeEach
+    void setUp() {
+        hub = mock(LiveUpdateHub.class);
+        notes = mock(NoteService.class);
+        patients = mock(PatientService.class);
+        risk = mock(RiskService.class);
+        relay = new ChangeFeedRelay(hub, notes, patients, risk, 2, 5);
+        when(patients.changesAfter(anyLong(), anyInt(), any())).thenReturn(List.of());
+        when(notes.changesAfter(anyLong(), anyInt(), any())).thenReturn(List.of());
+    }
+
+    private static NoteChange noteChange(long offset, long noteId, String type) {
+        return new NoteChange(offset, noteId, 7L, type, Instant.now());
+    }
+
+    private static IllegalStateException refused() {
+        return new IllegalStateException("notes API error 401",
+                HttpClientErrorException.create(HttpStatus.UNAUTHORIZED, "Unauthorized", null, null, null));
+    }
+
+    private void subscribed() {
+        when(hub.distinctCredentials()).thenReturn(List.of(credentials));
+        when(hub.hasSubscribers(eq(7L), any())).thenReturn(true);
+    }
+
+    /**
+     * Exécute, avec les en-têtes d'une page, le chargement confié au hub pour un événement.
+     */
+    @SuppressWarnings("unchecked")
+    private Object loadedFor(Set<Topic> topics, String name, HttpServletRequest page) {
+        ArgumentCaptor<Function<HttpServletRequest, ?>> load = ArgumentCaptor.forClass(Function.class);
+        verify(hub).publishEach(eq(7L), eq(topics), eq(name), load.capture());
+        return load.getValue().apply(page);
+    }
+
+    @Test
+    void poll_shouldNotReadFeeds_withoutOpenPages() {
+        relay.poll();
+
+        verifyNoInteractions(notes, patients, risk);
+        assertFalse(relay.noteCursor.synced);
+    }
+
+    @Test
+    void poll_shouldSkipBacklog_thenRelayNewNotes_andRefreshRiskOnce() {
+        subscribed();
+        // rattrapage : deux pages pleines puis une page courte, rien n'est relayé
+        when(notes.changesAfter(0L, 2, credentials)).thenReturn(List.of(noteChange(1, 10, "CREATED"), noteChange(2, 11, "CREATED")));
+        when(notes.changesAfter(2L, 2, credentials)).thenReturn(List.of(noteChange(3, 12, "CREATED")));
+
+        relay.poll();
+
+        assertEquals(3, relay.noteCursor.offset);
+        assertTrue(relay.noteCursor.synced);
+        verify(hub, never()).publish(any(), any(), any(), any());
+        verify(hub, never()).publishEach(any(), any(), any(), any());
+
+        Note created = new Note();
+        created.setId(13L);
+        created.setContent("Vertiges");
+        RiskAssessmentResponse assessed = new RiskAssessmentResponse();
+        when(notes.changesAfter(3L, 2, credentials)).thenReturn(List.of(noteChange(4, 13, "CREATED"), noteChange(5, 12, "DELETED")));
+        when(notes.changesAfter(5L, 2, credentials)).thenReturn(List.of());
+        when(notes.getOneFresh(13L, credentials)).thenReturn(created);
+        when(risk.getRiskFresh(7L, credentials)).thenReturn(assessed);
+
+        relay.poll();
+
+        assertEquals(new NoteEvent("CREATED", 13L, created), loadedFor(Set.of(Topic.NOTES), "note", credentials));
+        verify(hub).publish(7L, Topic.NOTES, "note", new NoteEvent("DELETED", 12L, null));
+        verify(notes, never()).getOneFresh(eq(12L), any());
+        assertEquals(assessed, loadedFor(Set.of(Topic.RISK), "risk", credentials));
+        verify(risk, times(1)).getRiskFresh(7L, credentials);
+    }
+
+    @Test
+    void poll_shouldLoadPushedNotes_withEachRecipientsOwnJwt() {
+        subscribed();
+        relay.poll();
+        MockHttpServletRequest otherUser = new MockHttpServletRequest();
+        when(notes.changesAfter(0L, 2, credentials)).thenReturn(List.of(noteChange(1, 13, "UPDATED")));
+        when(notes.getOneFresh(13L, otherUser)).thenThrow(new IllegalStateException("notes API error 403"));
+
+        relay.poll();
+
+        // le hub charge la note avec le JWT de chaque destinataire : un refus ne touche que lui
+        assertNull(loadedFor(Set.of(Topic.NOTES), "note", otherUser));
+        verify(notes, never()).getOneFresh(13L, credentials);
+    }
+
+    @Test
+    void poll_shouldRelayPatientChanges_andNotRecomputeRiskOfDeletedPatient() {
+        subscribed();
+        relay.poll();
+        Patient updated = new Patient();
+        updated.setId(7L);
+        when(patients.changesAfter(0L, 2, credentials)).thenReturn(List.of(
+                new PatientChange(1, 7L, "UPDATED", updated, Instant.now()),
+                new PatientChange(2, 7L, "DELETED", null, Instant.now())));
+        when(patients.getOneFresh(7L, credentials)).thenReturn(updated);
+
+        relay.poll();
+
+        assertEquals(new PatientEvent("UPDATED", updated),
+                loadedFor(EnumSet.allOf(Topic.class), "patient", credentials));
+        verify(hub).publish(7L, Topic.RISK, "patient", new PatientEvent("DELETED", null));
+        verifyNoInteractions(risk);
+    }
+
+    @Test
+    void poll_shouldFallBackToAnotherPage_whenTheJwtIsRefused() {
+        MockHttpServletRequest expired = new MockHttpServletRequest();
+        when(hub.distinctCredentials()).thenReturn(List.of(expired, credentials));
+        when(notes.changesAfter(0L, 2, expired)).thenThrow(refused());
+        when(patients.changesAfter(0L, 2, expired)).thenThrow(refused());
+
+        relay.poll();
+        relay.poll();
+
+        assertTrue(relay.noteCursor.synced);
+        assertTrue(relay.patientCursor.synced);
+        assertSame(credentials, relay.feedCredentials);
+        // la lecture acceptée est reprise en premier : le jeton expiré n'est essayé qu'une fois
+        verify(notes, times(1)).changesAfter(0L, 2, expired);
+        verify(notes, times(2)).changesAfter(0L, 2, credentials);
+    }
+
+    @Test
+    void poll_shouldNotTryOtherPages_whenTheFeedIsUnavailable() {
+        MockHttpServletRequest other = new MockHttpServletRequest();
+        when(hub.distinctCredentials()).thenReturn(List.of(credentials, other));
+        when(notes.changesAfter(0L, 2, credentials)).thenThrow(new IllegalStateException("notes API unreachable"));
+
+        assertDoesNotThrow(relay::poll);
+
+        verify(notes, never()).changesAfter(anyLong(), anyInt(), eq(other));
+        assertFalse(relay.noteCursor.synced);
+    }
+
+    @Test
+    void poll_shouldKeepPosition_whenFeedIsUnavailable() {
+        subscribed();
+        relay.poll();
+        when(notes.changesAfter(0L, 2, credentials)).thenThrow(new IllegalStateException("notes API unreachable"));
+
+        assertDoesNotThrow(relay::poll);
+
+        assertEquals(0, relay.noteCursor.offset);
+        verify(hub, never()).publish(any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,80 @@
+package com.medilabo.patientui.live;
+
+import com.medilabo.patientui.live.LiveUpdateHub.Topic;
+import com.medilabo.patientui.web.AuthHeaders;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveUpdateHubTest {
+
+    private static MockHttpServletRequest page(String jwt) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie("JWT_TOKEN", jwt));
+        return request;
+    }
+
+    @Test
+    void subscribe_indexesPagesByPatientAndTopic_andKeepsTheirJwt() {
+        LiveUpdateHub hub = new LiveUpdateHub(60_000, 10);
+        assertTrue(hub.isEmpty());
+        assertTrue(hub.distinctCredentials().isEmpty());
+
+        hub.subscribe(7L, Set.of(Topic.NOTES), page("jwt-a"));
+
+        assertFalse(hub.isEmpty());
+        assertTrue(hub.hasSubscribers(7L, Topic.NOTES));
+        assertFalse(hub.hasSubscribers(7L, Topic.RISK));
+        assertFalse(hub.hasSubscribers(8L, Topic.NOTES));
+        assertEquals("Bearer jwt-a",
+                AuthHeaders.of(hub.subscribers(7L).get(0).credentials()).getFirst(HttpHeaders.AUTHORIZATION));
+        assertEquals(1, hub.distinctCredentials().size());
+    }
+
+    @Test
+    void publishEach_loadsOncePerJwt_withThatPagesCredentials() {
+        LiveUpdateHub hub = new LiveUpdateHub(60_000, 10);
+        hub.subscribe(7L, Set.of(Topic.NOTES), page("jwt-a"));
+        hub.subscribe(7L, Set.of(Topic.NOTES, Topic.RISK), page("jwt-a"));
+        hub.subscribe(7L, Set.of(Topic.RISK), page("jwt-b"));
+        hub.subscribe(7L, Set.of(Topic.NOTES), page("jwt-c"));
+        hub.subscribe(8L, Set.of(Topic.NOTES), page("jwt-d"));
+        List<String> loadedWith = new ArrayList<>();
+
+        hub.publishEach(7L, Set.of(Topic.RISK), "risk", credentials -> {
+            loadedWith.add(AuthHeaders.of(credentials).getFirst(HttpHeaders.AUTHORIZATION));
+            return "risk";
+        });
+
+        assertEquals(List.of("Bearer jwt-a", "Bearer jwt-b"), loadedWith.stream().sorted().toList());
+        assertEquals(4, hub.distinctCredentials().size());
+    }
+
+    @Test
+    void subscribe_rejectsMissingTopics_andTooManyStreams() {
+        LiveUpdateHub hub = new LiveUpdateHub(60_000, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> hub.subscribe(7L, Set.of(), page("jwt")));
+        hub.subscribe(7L, Set.of(Topic.RISK), page("jwt"));
+        assertThrows(IllegalStateException.class, () -> hub.subscribe(8L, Set.of(Topic.RISK), page("jwt")));
+        assertEquals(1, hub.size());
+    }
+
+    @Test
+    void publish_andHeartbeat_toleratePatientsWithoutPages() {
+        LiveUpdateHub hub = new LiveUpdateHub(60_000, 10);
+        hub.subscribe(7L, Set.of(Topic.NOTES, Topic.RISK), page("jwt"));
+
+        assertDoesNotThrow(() -> hub.publish(8L, Topic.NOTES, "note", "x"));
+        assertDoesNotThrow(() -> hub.publish(7L, Topic.RISK, "risk", "x"));
+        assertDoesNotThrow(hub::heartbeat);
+        assertEquals(1, hub.subscribers(7L).size());
+    }
+}
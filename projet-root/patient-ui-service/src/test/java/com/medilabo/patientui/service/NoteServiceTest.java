@@ -1,7 +1,9 @@
 package com.medilabo.patientui.service;
 
+import com.medilabo.patientui.client.ApiClient;
 import com.medilabo.patientui.model.Note;
 import com.medilabo.patientui.web.JwtCookieUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -40,7 +42,7 @@ class NoteServiceTest {
 
         // Le NoteService injecte normalement le bean "noteApiClient",
         // mais en test on lui passe directement ce RestTemplate.
-        noteService = new NoteService(restTemplate);
+        noteService = new NoteService(new ApiClient("notes", restTemplate, new SimpleMeterRegistry()));
     }
 
     @Test
@@ -0,0 +1,68 @@
+package com.medilabo.patientui.service;
+
+import com.medilabo.patientui.dto.PatientPage;
+import com.medilabo.patientui.model.Patient;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PatientListCacheTest {
+
+    private final PatientListCache cache = new PatientListCache(60, 100);
+
+    private static Patient patient(long id, String lastName) {
+        Patient p = new Patient();
+        p.setId(id);
+        p.setLastName(lastName);
+        return p;
+    }
+
+    @Test
+    void onCreated_appendsToLastPage_andBumpsTotals() {
+        cache.put("t", new PatientPage(List.of(patient(1, "A"), patient(2, "B")), 0, 2, 3));
+        cache.put("t", new PatientPage(List.of(patient(3, "C")), 1, 2, 3));
+
+        cache.onCreated(patient(4, "D"));
+
+        assertThat(cache.get("t", 0, 2).orElseThrow().content()).extracting(Patient::getId).containsExactly(1L, 2L);
+        PatientPage last = cache.get("t", 1, 2).orElseThrow();
+        assertThat(last.content()).extracting(Patient::getId).containsExactly(3L, 4L);
+        assertThat(last.total()).isEqualTo(4);
+        assertThat(cache.lastPage("t", 2)).contains(1);
+    }
+
+    @Test
+    void onUpdated_replacesPatientInPlace() {
+        cache.put("t", new PatientPage(List.of(patient(1, "A"), patient(2, "B")), 0, 2, 2));
+
+        cache.onUpdated(patient(2, "Bis"));
+
+        assertThat(cache.get("t", 0, 2).orElseThrow().content())
+                .extracting(Patient::getLastName).containsExactly("A", "Bis");
+    }
+
+    @Test
+    void onDeleted_removesPatient_andInvalidatesShiftedPages() {
+        cache.put("t", new PatientPage(List.of(patient(1, "A"), patient(2, "B")), 0, 2, 3));
+        cache.put("t", new PatientPage(List.of(patient(3, "C")), 1, 2, 3));
+        cache.put("u", new PatientPage(List.of(patient(5, "E")), 0, 1, 3));
+
+        cache.onDeleted(1L);
+
+        PatientPage first = cache.get("t", 0, 2).orElseThrow();
+        assertThat(first.content()).extracting(Patient::getId).containsExactly(2L);
+        assertThat(first.total()).isEqualTo(2);
+        assertThat(cache.get("t", 1, 2)).isEmpty();
+        assertThat(cache.get("u", 0, 1)).isEmpty();
+    }
+
+    @Test
+    void get_ignoresExpiredPages() {
+        PatientListCache disabled = new PatientListCache(0, 100);
+        disabled.put("t", new PatientPage(List.of(), 0, 2, 0));
+
+        assertThat(disabled.get("t", 0, 2)).isEmpty();
+    }
+}
@@ -1,7 +1,10 @@
 package com.medilabo.patientui.service;
 
+import com.medilabo.patientui.client.ApiClient;
+import com.medilabo.patientui.dto.PatientPage;
 import com.medilabo.patientui.model.Patient;
 import com.medilabo.patientui.web.JwtCookieUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -39,7 +42,7 @@ class PatientServiceTest {
 
         server = MockRestServiceServer.bindTo(restTemplate).build();
         // En prod Spring injecte @Qualifier("patientApiClient"), ici on lui passe ce RestTemplate de test
-        patientService = new PatientService(restTemplate);
+        patientService = new PatientService(new ApiClient("patients", restTemplate, new SimpleMeterRegistry()));
     }
 
     @Test
@@ -79,6 +82,26 @@ class PatientServiceTest {
         assertThat(res.get(0).getFirstName()).isEqualTo("Marie");
     }
 
+    @Test
+    void findPage_readsTotalCountHeader() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("X-Total-Count", "41");
+        server.expect(once(), requestTo("http://example.test/api/patients?page=2&size=20"))
+              .andExpect(method(GET))
+              .andRespond(withStatus(HttpStatus.OK)
+                      .contentType(MediaType.APPLICATION_JSON)
+                      .headers(headers)
+                      .body("[{\"id\": 41, \"lastName\": \"Curie\"}]"));
+
+        PatientPage page = patientService.findPage(2, 20, new MockHttpServletRequest());
+
+        server.verify();
+        assertThat(page.content()).extracting(Patient::getId).containsExactly(41L);
+        assertThat(page.total()).isEqualTo(41);
+        assertThat(page.lastPage()).isEqualTo(2);
+        assertThat(page.hasNext()).isFalse();
+    }
+
     @Test
     void getOne_returnsPatient() {
         String json = """
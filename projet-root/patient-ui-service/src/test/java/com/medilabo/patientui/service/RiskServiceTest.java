@@ -1,7 +1,10 @@
 package com.medilabo.patientui.service;
 
+import com.medilabo.patientui.client.ApiClient;
+import com.medilabo.patientui.dto.RiskBadge;
 import com.medilabo.patientui.model.RiskAssessmentResponse;
 import com.medilabo.patientui.web.JwtCookieUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,6 +16,8 @@ import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.http.HttpMethod.GET;
 import static org.springframework.test.web.client.ExpectedCount.once;
@@ -36,7 +41,7 @@ class RiskServiceTest {
         server = MockRestServiceServer.bindTo(restTemplate).build();
 
         // En prod Spring injecte le bean "riskApiClient", ici on passe ce RestTemplate de test
-        riskService = new RiskService(restTemplate);
+        riskService = new RiskService(new ApiClient("risk", restTemplate, new SimpleMeterRegistry()));
     }
 
     @Test
@@ -94,4 +99,26 @@ class RiskServiceTest {
         assertThat(out).isNotNull();
         assertThat(out.getRiskLevel()).isEqualTo("LOW");
     }
+
+    @Test
+    void getRiskBatch_sendsOneCallForAllPatients() {
+        String json = """
+            [
+              { "patientId": 3, "riskLevel": "None", "status": "OK" },
+              { "patientId": 5, "riskLevel": null, "status": "PENDING" }
+            ]
+            """;
+
+        server.expect(once(),
+                      requestTo("http://example.test/api/risk/batch?patientIds=3,5"))
+              .andExpect(method(GET))
+              .andRespond(withStatus(HttpStatus.OK)
+                      .contentType(MediaType.APPLICATION_JSON)
+                      .body(json));
+
+        List<RiskBadge> out = riskService.getRiskBatch(List.of(3L, 5L), new MockHttpServletRequest());
+
+        server.verify();
+        assertThat(out).containsExactly(new RiskBadge(3L, "None", "OK"), new RiskBadge(5L, null, "PENDING"));
+    }
 }
@@ -0,0 +1,89 @@
+package com.medilabo.patientui.web;
+
+import com.medilabo.patientui.web.ViewFanout.Deadline;
+import com.medilabo.patientui.web.ViewFanout.Outcome;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ViewFanoutTest {
+
+    private final ViewFanout fanout = new ViewFanout(200);
+
+    @AfterEach
+    void tearDown() {
+        fanout.shutdown();
+    }
+
+    @Test
+    void join_runsCallsConcurrently_withinOneDeadline() {
+        CountDownLatch both = new CountDownLatch(2);
+        Deadline deadline = fanout.deadline();
+        Future<String> a = fanout.fork(() -> { both.countDown(); both.await(); return "a"; });
+        Future<String> b = fanout.fork(() -> { both.countDown(); both.await(); return "b"; });
+
+        assertEquals(new Outcome<>("a", null), fanout.join(a, deadline, "A"));
+        assertEquals(new Outcome<>("b", null), fanout.join(b, deadline, "B"));
+    }
+
+    @Test
+    void join_reportsFailureAndTimeout_withoutThrowing() {
+        Deadline deadline = fanout.deadline();
+        Future<String> failing = fanout.fork(() -> { throw new IllegalStateException("503"); });
+        Future<String> slow = fanout.fork(() -> { Thread.sleep(5_000); return "trop tard"; });
+
+        Outcome<String> failed = fanout.join(failing, deadline, "Dossier patient");
+        Outcome<String> late = fanout.join(slow, deadline, "Évaluation du risque");
+
+        assertTrue(failed.failed());
+        assertEquals("Dossier patient indisponible", failed.error());
+        assertNull(late.value());
+        assertTrue(late.error().contains("délai dépassé"));
+        assertTrue(slow.isCancelled());
+    }
+
+    @Test
+    void join_interruptsTheCallThread_whenTheDeadlineIsMissed() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Future<String> slow = fanout.fork(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return "trop tard";
+        });
+        started.await();
+
+        fanout.join(slow, fanout.deadline(), "Évaluation du risque");
+
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS), "l'appel hors délai doit être interrompu");
+    }
+
+    @Test
+    void requestSnapshot_keepsAuthenticationData_only() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer abc");
+        request.addHeader("X-Other", "x");
+        request.setCookies(new Cookie("JWT_TOKEN", "abc"));
+
+        var snapshot = RequestSnapshot.of(request);
+        request.removeHeader("Authorization");
+        request.setCookies();
+
+        assertEquals("Bearer abc", snapshot.getHeader("authorization"));
+        assertNull(snapshot.getHeader("X-Other"));
+        assertEquals("abc", snapshot.getCookies()[0].getValue());
+        assertSame(snapshot, RequestSnapshot.of(snapshot));
+    }
+}
@@ -3,6 +3,7 @@ package com.medilabo.riskassessment;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -18,10 +19,12 @@ import org.springframework.web.client.RestTemplate;
  * </ul>
  * <p>
  * Les appels inter-services sont effectués via HTTP à l’aide d’un
- * {@link RestTemplate}.
+ * {@link RestTemplate}. Les clés JWT sont rechargées à chaud
+ * ({@code JwtKeySet}).
  * </p>
  */
 @SpringBootApplication
+@EnableScheduling
 public class RiskAssessmentServiceApplication {
 
     /**
@@ -1,11 +1,15 @@
 package com.medilabo.riskassessment.controller;
 
 import com.medilabo.riskassessment.dto.RiskAssessmentResponse;
+import com.medilabo.riskassessment.dto.RiskBadge;
 import com.medilabo.riskassessment.service.RiskAssessmentService;
+import com.medilabo.riskassessment.service.RiskBatchService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * Contrôleur REST du microservice <strong>risk-assessment-service</strong>.
  * <p>
@@ -28,13 +32,36 @@ public class RiskAssessmentController {
      */
     private final RiskAssessmentService riskService;
 
+    /**
+     * Service d’évaluation groupée.
+     */
+    private final RiskBatchService batchService;
+
     /**
      * Constructeur du contrôleur.
      *
-     * @param riskService le service responsable du calcul du risque
+     * @param riskService  le service responsable du calcul du risque
+     * @param batchService le service d’évaluation groupée
      */
-    public RiskAssessmentController(RiskAssessmentService riskService) {
+    public RiskAssessmentController(RiskAssessmentService riskService, RiskBatchService batchService) {
         this.riskService = riskService;
+        this.batchService = batchService;
+    }
+
+    /**
+     * Évalue en un seul appel le niveau de risque d’une liste de patients
+     * (par exemple la page de patients affichée par l’UI).
+     * <p>
+     * Les évaluations non terminées à l’échéance du lot sont renvoyées avec le
+     * statut {@code PENDING} plutôt que de retarder la réponse.
+     * </p>
+     *
+     * @param patientIds identifiants des patients
+     * @return un badge de risque par patient, dans l’ordre de la demande
+     */
+    @GetMapping(path = "/batch")
+    public List<RiskBadge> getRiskBatch(@RequestParam List<Long> patientIds) {
+        return batchService.assessAll(patientIds);
     }
 
     /**
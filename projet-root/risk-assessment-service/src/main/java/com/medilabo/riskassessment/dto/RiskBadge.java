@@ -0,0 +1,39 @@
+package com.medilabo.riskassessment.dto;
+
+/**
+ * Niveau de risque d’un patient dans une évaluation groupée
+ * ({@code GET /api/risk/batch}).
+ *
+ * @param patientId identifiant du patient
+ * @param riskLevel niveau de risque évalué ({@code null} si {@code status} n’est pas {@link #OK})
+ * @param status    {@link #OK}, {@link #PENDING} (échéance du lot dépassée) ou {@link #ERROR}
+ */
+public record RiskBadge(Long patientId, String riskLevel, String status) {
+
+    /**
+     * Évaluation réussie.
+     */
+    public static final String OK = "OK";
+
+    /**
+     * Évaluation non terminée à l’échéance du lot : le client peut la redemander seule.
+     */
+    public static final String PENDING = "PENDING";
+
+    /**
+     * Évaluation en échec (patient ou notes indisponibles).
+     */
+    public static final String ERROR = "ERROR";
+
+    public static RiskBadge ok(Long patientId, String riskLevel) {
+        return new RiskBadge(patientId, riskLevel, OK);
+    }
+
+    public static RiskBadge pending(Long patientId) {
+        return new RiskBadge(patientId, null, PENDING);
+    }
+
+    public static RiskBadge error(Long patientId) {
+        return new RiskBadge(patientId, null, ERROR);
+    }
+}
@@ -0,0 +1,124 @@
+package com.medilabo.riskassessment.dto;
+
+import java.util.Map;
+
+/**
+ * Décompte des termes déclencheurs d’un patient, calculé par le microservice
+ * <strong>note-service</strong> ({@code GET /api/notes/patient/{id}/triggers}).
+ * <p>
+ * Seuls ces entiers transitent entre les services, et non le contenu des notes.
+ * </p>
+ */
+public class TriggerCountsDTO {
+
+    /**
+     * Identifiant du patient.
+     */
+    private Long patientId;
+
+    /**
+     * Version du dictionnaire de déclencheurs appliqué.
+     */
+    private String version;
+
+    /**
+     * Nombre de notes analysées.
+     */
+    private int notes;
+
+    /**
+     * Nombre total de déclencheurs trouvés.
+     */
+    private int total;
+
+    /**
+     * Nombre de notes contenant chaque terme trouvé.
+     */
+    private Map<String, Integer> terms;
+
+    /**
+     * Constructeur par défaut (nécessaire pour la désérialisation JSON).
+     */
+    public TriggerCountsDTO() {}
+
+    /**
+     * Constructeur simplifié (total uniquement).
+     *
+     * @param patientId identifiant du patient
+     * @param total     nombre total de déclencheurs
+     */
+    public TriggerCountsDTO(Long patientId, int total) {
+        this.patientId = patientId;
+        this.total = total;
+    }
+
+    /**
+     * @return l’identifiant du patient
+     */
+    public Long getPatientId() {
+        return patientId;
+    }
+
+    /**
+     * @param patientId l’identifiant du patient
+     */
+    public void setPatientId(Long patientId) {
+        this.patientId = patientId;
+    }
+
+    /**
+     * @return la version du dictionnaire appliqué
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * @param version la version du dictionnaire appliqué
+     */
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    /**
+     * @return le nombre de notes analysées
+     */
+    public int getNotes() {
+        return notes;
+    }
+
+    /**
+     * @param notes le nombre de notes analysées
+     */
+    public void setNotes(int notes) {
+        this.notes = notes;
+    }
+
+    /**
+     * @return le nombre total de déclencheurs trouvés
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * @param total le nombre total de déclencheurs trouvés
+     */
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    /**
+     * @return le nombre de notes contenant chaque terme trouvé
+     */
+    public Map<String, Integer> getTerms() {
+        return terms;
+    }
+
+    /**
+     * @param terms le nombre de notes contenant chaque terme trouvé
+     */
+    public void setTerms(Map<String, Integer> terms) {
+        this.terms = terms;
+    }
+}
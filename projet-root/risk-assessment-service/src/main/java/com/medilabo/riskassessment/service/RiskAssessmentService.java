@@ -1,22 +1,22 @@
 package com.medilabo.riskassessment.service;
 
-import com.medilabo.riskassessment.dto.NoteDTO;
 import com.medilabo.riskassessment.dto.PatientDTO;
 import com.medilabo.riskassessment.dto.RiskAssessmentResponse;
+import com.medilabo.riskassessment.dto.TriggerCountsDTO;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDate;
 import java.time.Period;
-import java.util.List;
 
 /**
  * Service applicatif chargé d’évaluer le risque de diabète d’un patient.
  * <p>
  * Ce service interroge les microservices externes (patients et notes) via la Gateway,
- * calcule le nombre de déclencheurs présents dans les notes, détermine l’âge du patient
- * puis applique les règles métier pour produire un niveau de risque.
+ * obtient de note-service le nombre de déclencheurs présents dans les notes (le texte
+ * des notes n’est pas transféré), détermine l’âge du patient puis applique les règles
+ * métier pour produire un niveau de risque.
  * </p>
  */
 @Service
@@ -40,13 +40,9 @@ public class RiskAssessmentService {
     private final String noteApiBase;
 
     /**
-     * Ensemble des termes déclencheurs recherchés dans le contenu des notes.
+     * Version du dictionnaire de termes déclencheurs appliqué par note-service.
      */
-    private static final List<String> TRIGGERS = List.of(
-        "hémoglobine a1c", "microalbumine", "taille", "poids",
-        "fumeur", "fumeuse", "anormal", "cholestérol",
-        "vertiges", "rechute", "réaction", "anticorps"
-    );
+    private final String triggerVersion;
 
     /**
      * Construit le service d’évaluation du risque.
@@ -54,14 +50,17 @@ public class RiskAssessmentService {
      * @param restTemplate    client HTTP pour les appels sortants
      * @param patientApiBase  base URL de l’API des patients (peut ne pas se terminer par {@code /})
      * @param noteApiBase     base URL de l’API des notes (peut ne pas se terminer par {@code /})
+     * @param triggerVersion  version du dictionnaire de termes déclencheurs
      */
     public RiskAssessmentService(
             RestTemplate restTemplate,
             @Value("${PATIENT_API_BASE_URL:http://gateway-service:8080/api/patients}") String patientApiBase,
-            @Value("${NOTE_API_BASE_URL:http://gateway-service:8080/api/notes/patient}") String noteApiBase) {
+            @Value("${NOTE_API_BASE_URL:http://gateway-service:8080/api/notes/patient}") String noteApiBase,
+            @Value("${risk.triggers.version:v1}") String triggerVersion) {
         this.restTemplate = restTemplate;
         this.patientApiBase = ensureEndsWithSlash(trimEnd(patientApiBase));
         this.noteApiBase = ensureEndsWithSlash(trimEnd(noteApiBase));
+        this.triggerVersion = triggerVersion;
     }
 
     /**
@@ -98,13 +97,12 @@ public class RiskAssessmentService {
      */
     public String assessRisk(Long patientId) {
         PatientDTO patient = restTemplate.getForObject(patientApiBase + patientId, PatientDTO.class);
-        NoteDTO[] notes = restTemplate.getForObject(noteApiBase + patientId, NoteDTO[].class);
+        int triggerCount = fetchTriggerCount(patientId);
 
         if (patient == null) return "None";
 
         int age = calculateAge(patient.getBirthDate());
         String gender = patient.getGender();
-        int triggerCount = countTriggerTerms(notes);
 
         return determineRiskLevel(age, gender, triggerCount);
     }
@@ -121,7 +119,7 @@ public class RiskAssessmentService {
      */
     public RiskAssessmentResponse assessRiskDetailed(Long patientId) {
         PatientDTO patient = restTemplate.getForObject(patientApiBase + patientId, PatientDTO.class);
-        NoteDTO[] notes = restTemplate.getForObject(noteApiBase + patientId, NoteDTO[].class);
+        int triggerCount = fetchTriggerCount(patientId);
 
         if (patient == null) {
             return new RiskAssessmentResponse(null, null, null, 0, "None");
@@ -129,7 +127,6 @@ public class RiskAssessmentService {
 
         int age = calculateAge(patient.getBirthDate());
         String gender = patient.getGender();
-        int triggerCount = countTriggerTerms(notes);
         String risk = determineRiskLevel(age, gender, triggerCount);
 
         return new RiskAssessmentResponse(
@@ -153,27 +150,19 @@ public class RiskAssessmentService {
     }
 
     /**
-     * Compte le nombre de termes déclencheurs présents dans les notes.
+     * Récupère auprès de note-service le nombre de termes déclencheurs présents dans les notes.
      * <p>
-     * La recherche est effectuée en insensible à la casse sur la liste {@link #TRIGGERS}.
+     * Le décompte est calculé côté note-service avec le dictionnaire {@link #triggerVersion} :
+     * seuls quelques entiers transitent, quelle que soit la taille de l’historique.
      * </p>
      *
-     * @param notes tableau de notes (peut être {@code null})
-     * @return le nombre total de déclencheurs trouvés
+     * @param patientId identifiant du patient
+     * @return le nombre total de déclencheurs trouvés ({@code 0} si aucune réponse)
      */
-    private int countTriggerTerms(NoteDTO[] notes) {
-        if (notes == null) return 0;
-        int count = 0;
-        for (NoteDTO n : notes) {
-            if (n == null) continue;
-            String c = n.getContent();
-            if (c == null || c.isBlank()) continue;
-            String lower = c.toLowerCase();
-            for (String t : TRIGGERS) {
-                if (lower.contains(t)) count++;
-            }
-        }
-        return count;
+    private int fetchTriggerCount(Long patientId) {
+        TriggerCountsDTO counts = restTemplate.getForObject(
+                noteApiBase + patientId + "/triggers?version=" + triggerVersion, TriggerCountsDTO.class);
+        return counts == null ? 0 : counts.getTotal();
     }
 
     /**
@@ -0,0 +1,144 @@
+package com.medilabo.riskassessment.service;
+
+import com.medilabo.riskassessment.dto.RiskAssessmentResponse;
+import com.medilabo.riskassessment.dto.RiskBadge;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Évaluation groupée du risque de plusieurs patients, pour les listes affichées par l’UI.
+ * <p>
+ * Les évaluations sont lancées en parallèle sur des threads virtuels, au plus
+ * {@code risk.batch.concurrency} à la fois pour ne pas saturer la Gateway, et attendues
+ * jusqu’à une échéance commune ({@code risk.batch.deadline-ms}). Une évaluation plus lente
+ * est annulée et renvoyée {@link RiskBadge#PENDING} : elle ne retarde pas les autres.
+ * </p>
+ */
+@Service
+public class RiskBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(RiskBatchService.class);
+
+    /**
+     * Service d’évaluation unitaire.
+     */
+    private final RiskAssessmentService risk;
+
+    /**
+     * Exécuteur des évaluations (un thread virtuel par évaluation).
+     */
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Nombre maximal d’évaluations simultanées, tous lots confondus.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Nombre maximal de patients par lot.
+     */
+    private final int maxIds;
+
+    /**
+     * Échéance d’un lot, en millisecondes.
+     */
+    private final long deadlineMs;
+
+    /**
+     * Construit le service d’évaluation groupée.
+     *
+     * @param risk        service d’évaluation unitaire
+     * @param maxIds      nombre maximal de patients par lot
+     * @param concurrency nombre maximal d’évaluations simultanées
+     * @param deadlineMs  échéance d’un lot, en millisecondes
+     */
+    public RiskBatchService(RiskAssessmentService risk,
+                            @Value("${risk.batch.max-ids:100}") int maxIds,
+                            @Value("${risk.batch.concurrency:16}") int concurrency,
+                            @Value("${risk.batch.deadline-ms:2000}") long deadlineMs) {
+        this.risk = risk;
+        this.maxIds = maxIds;
+        this.permits = new Semaphore(concurrency);
+        this.deadlineMs = deadlineMs;
+    }
+
+    /**
+     * Évalue le risque d’un lot de patients.
+     *
+     * @param patientIds identifiants des patients (doublons et {@code null} ignorés)
+     * @return un badge par patient, dans l’ordre de la demande
+     * @throws IllegalArgumentException si le lot est vide ou dépasse {@code risk.batch.max-ids}
+     */
+    public List<RiskBadge> assessAll(Collection<Long> patientIds) {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (patientIds != null) {
+            patientIds.stream().filter(Objects::nonNull).forEach(ids::add);
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("Aucun patient demandé");
+        }
+        if (ids.size() > maxIds) {
+            throw new IllegalArgumentException("Trop de patients demandés (max " + maxIds + ")");
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        List<Long> order = new ArrayList<>(ids);
+        List<Future<RiskAssessmentResponse>> futures = new ArrayList<>(order.size());
+        for (Long id : order) {
+            futures.add(executor.submit(() -> {
+                permits.acquire();
+                try {
+                    return risk.assessRiskDetailed(id);
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+
+        List<RiskBadge> badges = new ArrayList<>(order.size());
+        for (int i = 0; i < order.size(); i++) {
+            Long id = order.get(i);
+            Future<RiskAssessmentResponse> future = futures.get(i);
+            try {
+                RiskAssessmentResponse r = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                badges.add(r == null ? RiskBadge.error(id) : RiskBadge.ok(id, r.getRiskLevel()));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                badges.add(RiskBadge.pending(id));
+            } catch (ExecutionException e) {
+                log.warn("Évaluation du risque en échec pour le patient {} : {}", id, e.getCause().toString());
+                badges.add(RiskBadge.error(id));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new IllegalStateException("Évaluation groupée interrompue", e);
+            }
+        }
+        return badges;
+    }
+
+    /**
+     * Arrête les évaluations en cours à l’arrêt de l’application.
+     */
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,7 +1,9 @@
 package com.medilabo.riskassessment.controller;
 
 import com.medilabo.riskassessment.dto.RiskAssessmentResponse;
+import com.medilabo.riskassessment.dto.RiskBadge;
 import com.medilabo.riskassessment.service.RiskAssessmentService;
+import com.medilabo.riskassessment.service.RiskBatchService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +13,8 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -26,6 +30,9 @@ class RiskAssessmentControllerTest {
     @MockBean
     private RiskAssessmentService riskAssessmentService;
 
+    @MockBean
+    private RiskBatchService riskBatchService;
+
     @Test
     @DisplayName("GET /api/risk/{id} -> 200 OK et corps attendu (sécurité gérée par le gateway)")
     void shouldReturnRiskWithoutLocalSecurity() throws Exception {
@@ -41,4 +48,17 @@ class RiskAssessmentControllerTest {
                 .andExpect(jsonPath("$.age").value(45))
                 .andExpect(jsonPath("$.riskLevel").value("Borderline"));
     }
+
+    @Test
+    @DisplayName("GET /api/risk/batch?patientIds= -> un badge par patient, dans l'ordre demandé")
+    void shouldReturnBatchOfBadges() throws Exception {
+        when(riskBatchService.assessAll(List.of(2L, 1L)))
+                .thenReturn(List.of(RiskBadge.ok(2L, "None"), RiskBadge.pending(1L)));
+
+        mockMvc.perform(get("/api/risk/batch").param("patientIds", "2,1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].patientId").value(2))
+                .andExpect(jsonPath("$[0].riskLevel").value("None"))
+                .andExpect(jsonPath("$[1].status").value("PENDING"));
+    }
 }
@@ -0,0 +1,48 @@
+package com.medilabo.riskassessment.service;
+
+import com.medilabo.riskassessment.dto.RiskAssessmentResponse;
+import com.medilabo.riskassessment.dto.RiskBadge;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RiskBatchServiceTest {
+
+    private final RiskAssessmentService risk = mock(RiskAssessmentService.class);
+    private final RiskBatchService service = new RiskBatchService(risk, 3, 4, 300);
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void assessAll_keepsRequestOrder_andIsolatesSlowAndFailingPatients() {
+        when(risk.assessRiskDetailed(1L)).thenReturn(new RiskAssessmentResponse(1L, "A", "B", 40, "Borderline"));
+        when(risk.assessRiskDetailed(2L)).thenAnswer(inv -> {
+            Thread.sleep(5_000);
+            return new RiskAssessmentResponse(2L, "C", "D", 40, "None");
+        });
+        when(risk.assessRiskDetailed(3L)).thenThrow(new IllegalStateException("503"));
+
+        long start = System.nanoTime();
+        List<RiskBadge> badges = service.assessAll(Arrays.asList(1L, 2L, null, 1L, 3L));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(List.of(RiskBadge.ok(1L, "Borderline"), RiskBadge.pending(2L), RiskBadge.error(3L)), badges);
+        assertTrue(elapsedMs < 2_000, "le lot ne doit pas attendre le patient lent : " + elapsedMs + " ms");
+        verify(risk, times(1)).assessRiskDetailed(1L);
+    }
+
+    @Test
+    void assessAll_rejectsEmptyOrOversizedBatches() {
+        assertThrows(IllegalArgumentException.class, () -> service.assessAll(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> service.assessAll(List.of(1L, 2L, 3L, 4L)));
+        verifyNoInteractions(risk);
+    }
+}